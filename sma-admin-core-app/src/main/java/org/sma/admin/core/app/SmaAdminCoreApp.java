@@ -5,10 +5,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SmaApplication
 @EnableJpaRepositories(basePackages = "org.sma.jpa.repository")
 @EntityScan(basePackages = "org.sma.jpa.model")
+@EnableScheduling
 @ComponentScan(basePackages = {"org.sma.admin", "org.sma.platform.core", "org.sma.security.auth"})
 public class SmaAdminCoreApp {
 
@@ -0,0 +1,31 @@
+package org.sma.admin.core.app.amqp;
+
+import org.sma.admin.core.app.model.event.FeeReminderBatch;
+import org.sma.platform.common.datamodel.amqp.SmaMessage;
+import org.sma.platform.core.annotation.AMQPSender;
+import org.sma.platform.app.amqp.sender.RabbitMqMessageSender;
+import org.sma.platform.core.service.ServiceRequestContext;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * AMQP Sender for Overdue Fee Reminder Events
+ * Publishes one message per batch of reminders to keep broker round trips low
+ */
+@AMQPSender
+@ConfigurationProperties(prefix = "sma.app.amqp.fee.reminder")
+public class AMQPFeeReminderSender extends RabbitMqMessageSender<FeeReminderBatch> {
+
+    @Override
+    public void sendSmaMessage(ServiceRequestContext context, SmaMessage message) {
+        sendMessage(context, message);
+    }
+
+    public void sendReminderBatch(FeeReminderBatch batch, String correlationId) {
+        sendSmaMessage(null, new SmaMessage<>(batch, correlationId));
+    }
+
+    @Override
+    protected String getInterfaceName() {
+        return "Fee_Reminder_Sender";
+    }
+}
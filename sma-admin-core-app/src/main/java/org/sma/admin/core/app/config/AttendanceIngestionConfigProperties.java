@@ -0,0 +1,59 @@
+package org.sma.admin.core.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Attendance Device Ingestion Configuration Properties
+ * Loaded from application.yml with prefix: sma.app.admin.attendance.ingestion
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sma.app.admin.attendance.ingestion")
+public class AttendanceIngestionConfigProperties {
+
+    private int workers = 4;
+    private int queueCapacity = 10000;
+    private int maxBatchSize = 500;
+    private long flushIntervalMs = 200;
+    private long offerTimeoutMs = 50;
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public long getOfferTimeoutMs() {
+        return offerTimeoutMs;
+    }
+
+    public void setOfferTimeoutMs(long offerTimeoutMs) {
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+}
@@ -0,0 +1,32 @@
+package org.sma.admin.core.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bulk Fee Allocation Configuration Properties
+ * Loaded from application.yml with prefix: sma.app.admin.fee.allocation
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sma.app.admin.fee.allocation")
+public class FeeAllocationConfigProperties {
+
+    private int maxAdjustments = 20000;
+    private int maxRetainedJobs = 50; // Finished jobs kept in memory for status polling
+
+    public int getMaxAdjustments() {
+        return maxAdjustments;
+    }
+
+    public void setMaxAdjustments(int maxAdjustments) {
+        this.maxAdjustments = maxAdjustments;
+    }
+
+    public int getMaxRetainedJobs() {
+        return maxRetainedJobs;
+    }
+
+    public void setMaxRetainedJobs(int maxRetainedJobs) {
+        this.maxRetainedJobs = maxRetainedJobs;
+    }
+}
@@ -0,0 +1,41 @@
+package org.sma.admin.core.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Student Fee Ledger Configuration Properties
+ * Loaded from application.yml with prefix: sma.app.admin.fee.ledger
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sma.app.admin.fee.ledger")
+public class FeeLedgerConfigProperties {
+
+    private boolean reconcileEnabled = true;
+    private String reconcileCron = "0 0 2 * * *";
+    private boolean autoRepair = false; // Rebuild a school's ledger when reconciliation finds drift
+
+    public boolean isReconcileEnabled() {
+        return reconcileEnabled;
+    }
+
+    public void setReconcileEnabled(boolean reconcileEnabled) {
+        this.reconcileEnabled = reconcileEnabled;
+    }
+
+    public String getReconcileCron() {
+        return reconcileCron;
+    }
+
+    public void setReconcileCron(String reconcileCron) {
+        this.reconcileCron = reconcileCron;
+    }
+
+    public boolean isAutoRepair() {
+        return autoRepair;
+    }
+
+    public void setAutoRepair(boolean autoRepair) {
+        this.autoRepair = autoRepair;
+    }
+}
@@ -0,0 +1,59 @@
+package org.sma.admin.core.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Fee Receipt Rendering Configuration Properties
+ * Loaded from application.yml with prefix: sma.app.admin.fee.receipt
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sma.app.admin.fee.receipt")
+public class FeeReceiptConfigProperties {
+
+    private boolean enabled = true; // Render on payment; receipts are still rendered on first download when off
+    private int workers = 2;
+    private int queueCapacity = 1000;
+    private String storeDir = System.getProperty("java.io.tmpdir") + "/sma-receipts";
+    private int cacheEntries = 10000; // Payment to stored receipt entries kept in the LRU index
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public String getStoreDir() {
+        return storeDir;
+    }
+
+    public void setStoreDir(String storeDir) {
+        this.storeDir = storeDir;
+    }
+
+    public int getCacheEntries() {
+        return cacheEntries;
+    }
+
+    public void setCacheEntries(int cacheEntries) {
+        this.cacheEntries = cacheEntries;
+    }
+}
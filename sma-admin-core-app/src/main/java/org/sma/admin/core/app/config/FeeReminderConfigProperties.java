@@ -0,0 +1,68 @@
+package org.sma.admin.core.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Overdue Fee Reminder Configuration Properties
+ * Loaded from application.yml with prefix: sma.app.admin.fee.reminder
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sma.app.admin.fee.reminder")
+public class FeeReminderConfigProperties {
+
+    private boolean enabled = true;
+    private String cron = "0 0 8 * * *"; // Morning, after the nightly ledger jobs
+    private int workers = 4; // Schools scanned in parallel
+    private int chunkSize = 1000; // Overdue pairs read per keyset chunk
+    private int publishBatchSize = 200; // Reminders per AMQP message
+    private int runTimeoutMinutes = 60;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getPublishBatchSize() {
+        return publishBatchSize;
+    }
+
+    public void setPublishBatchSize(int publishBatchSize) {
+        this.publishBatchSize = publishBatchSize;
+    }
+
+    public int getRunTimeoutMinutes() {
+        return runTimeoutMinutes;
+    }
+
+    public void setRunTimeoutMinutes(int runTimeoutMinutes) {
+        this.runTimeoutMinutes = runTimeoutMinutes;
+    }
+}
@@ -0,0 +1,32 @@
+package org.sma.admin.core.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bulk Payment Import Configuration Properties
+ * Loaded from application.yml with prefix: sma.app.admin.fee.payment-import
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sma.app.admin.fee.payment-import")
+public class PaymentImportConfigProperties {
+
+    private int batchSize = 500; // Rows resolved and inserted per transaction
+    private int maxRows = 100000;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+}
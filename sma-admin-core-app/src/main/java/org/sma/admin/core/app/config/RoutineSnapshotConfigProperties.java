@@ -0,0 +1,23 @@
+package org.sma.admin.core.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Routine Snapshot Cache Configuration Properties
+ * Loaded from application.yml with prefix: sma.app.admin.routine.snapshot
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sma.app.admin.routine.snapshot")
+public class RoutineSnapshotConfigProperties {
+
+    private long maxAgeSeconds = 300;
+
+    public long getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    public void setMaxAgeSeconds(long maxAgeSeconds) {
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+}
@@ -0,0 +1,62 @@
+package org.sma.admin.core.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Daily Class Session Materialization Configuration Properties
+ * Loaded from application.yml with prefix: sma.app.admin.routine.materialization
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sma.app.admin.routine.materialization")
+public class SessionMaterializationConfigProperties {
+
+    private boolean enabled = true;
+    private String cron = "0 30 1 * * *"; // Nightly, ahead of the school day
+    private int daysAhead = 14;
+    private int maxRangeDays = 366;
+    private List<String> skipDays = Collections.singletonList("SUNDAY");
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public int getDaysAhead() {
+        return daysAhead;
+    }
+
+    public void setDaysAhead(int daysAhead) {
+        this.daysAhead = daysAhead;
+    }
+
+    public int getMaxRangeDays() {
+        return maxRangeDays;
+    }
+
+    public void setMaxRangeDays(int maxRangeDays) {
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    public List<String> getSkipDays() {
+        return skipDays;
+    }
+
+    public void setSkipDays(List<String> skipDays) {
+        this.skipDays = skipDays;
+    }
+}
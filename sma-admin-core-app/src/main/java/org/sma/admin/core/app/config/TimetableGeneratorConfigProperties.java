@@ -0,0 +1,72 @@
+package org.sma.admin.core.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Timetable Generator Configuration Properties
+ * Loaded from application.yml with prefix: sma.app.admin.routine.generator
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sma.app.admin.routine.generator")
+public class TimetableGeneratorConfigProperties {
+
+    private int parallelism = 0; // 0 uses all available processors
+    private long defaultTimeBudgetMs = 10000;
+    private long maxTimeBudgetMs = 120000;
+    private int defaultMaxPeriodsPerWeek = 30;
+    private int maxRetainedJobs = 50;
+    private List<String> defaultDays = Arrays.asList(
+            "MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY");
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public long getDefaultTimeBudgetMs() {
+        return defaultTimeBudgetMs;
+    }
+
+    public void setDefaultTimeBudgetMs(long defaultTimeBudgetMs) {
+        this.defaultTimeBudgetMs = defaultTimeBudgetMs;
+    }
+
+    public long getMaxTimeBudgetMs() {
+        return maxTimeBudgetMs;
+    }
+
+    public void setMaxTimeBudgetMs(long maxTimeBudgetMs) {
+        this.maxTimeBudgetMs = maxTimeBudgetMs;
+    }
+
+    public int getDefaultMaxPeriodsPerWeek() {
+        return defaultMaxPeriodsPerWeek;
+    }
+
+    public void setDefaultMaxPeriodsPerWeek(int defaultMaxPeriodsPerWeek) {
+        this.defaultMaxPeriodsPerWeek = defaultMaxPeriodsPerWeek;
+    }
+
+    public int getMaxRetainedJobs() {
+        return maxRetainedJobs;
+    }
+
+    public void setMaxRetainedJobs(int maxRetainedJobs) {
+        this.maxRetainedJobs = maxRetainedJobs;
+    }
+
+    public List<String> getDefaultDays() {
+        return defaultDays;
+    }
+
+    public void setDefaultDays(List<String> defaultDays) {
+        this.defaultDays = defaultDays;
+    }
+}
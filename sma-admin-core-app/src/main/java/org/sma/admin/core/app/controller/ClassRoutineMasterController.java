@@ -2,7 +2,10 @@ package org.sma.admin.core.app.controller;
 
 import io.swagger.annotations.Api;
 import org.sma.admin.core.app.model.request.ClassRoutineMasterRequest;
+import org.sma.admin.core.app.model.response.DayTeacherAvailabilityResponse;
+import org.sma.admin.core.app.model.response.RoutineSnapshotResponse;
 import org.sma.admin.core.app.service.ClassRoutineMasterBusinessService;
+import org.sma.admin.core.app.service.RoutineSnapshotService;
 import org.sma.jpa.model.routine.ClassRoutineMaster;
 import org.sma.platform.core.annotation.APIController;
 import org.sma.platform.core.exception.SmaException;
@@ -10,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -23,6 +27,9 @@ public class ClassRoutineMasterController {
     @Autowired
     private ClassRoutineMasterBusinessService classRoutineMasterService;
 
+    @Autowired
+    private RoutineSnapshotService routineSnapshotService;
+
     @PostMapping
     public ResponseEntity<?> createOrUpdateRoutine(@PathVariable Long schoolId,
                                                    @RequestBody ClassRoutineMasterRequest request) {
@@ -72,6 +79,54 @@ public class ClassRoutineMasterController {
         return ResponseEntity.ok(routine);
     }
 
+    @GetMapping("/snapshot/weekly")
+    public ResponseEntity<RoutineSnapshotResponse> getWeeklyRoutineSnapshot(
+            @PathVariable Long schoolId,
+            @RequestParam Long academicYearId,
+            @RequestParam Long classId,
+            @RequestParam Long sectionId,
+            WebRequest webRequest) {
+        RoutineSnapshotResponse routine = routineSnapshotService.getWeeklyRoutine(
+                schoolId, academicYearId, classId, sectionId);
+        return withVersion(routine, webRequest);
+    }
+
+    @GetMapping("/snapshot/daily")
+    public ResponseEntity<RoutineSnapshotResponse> getDailyRoutineSnapshot(
+            @PathVariable Long schoolId,
+            @RequestParam Long academicYearId,
+            @RequestParam Long classId,
+            @RequestParam Long sectionId,
+            @RequestParam String dayOfWeek,
+            WebRequest webRequest) {
+        RoutineSnapshotResponse routine = routineSnapshotService.getDailyRoutine(
+                schoolId, academicYearId, classId, sectionId, dayOfWeek);
+        return withVersion(routine, webRequest);
+    }
+
+    @GetMapping("/snapshot/teacher")
+    public ResponseEntity<RoutineSnapshotResponse> getTeacherRoutineSnapshot(
+            @PathVariable Long schoolId,
+            @RequestParam Long academicYearId,
+            @RequestParam Long teacherId,
+            @RequestParam String dayOfWeek,
+            WebRequest webRequest) {
+        RoutineSnapshotResponse routine = routineSnapshotService.getTeacherRoutine(
+                schoolId, academicYearId, teacherId, dayOfWeek);
+        return withVersion(routine, webRequest);
+    }
+
+    @GetMapping("/snapshot/version")
+    public ResponseEntity<Map<String, Object>> getRoutineSnapshotVersion(
+            @PathVariable Long schoolId,
+            @RequestParam Long academicYearId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("schoolId", schoolId);
+        response.put("academicYearId", academicYearId);
+        response.put("version", routineSnapshotService.getVersion(schoolId, academicYearId));
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{routineId}")
     public ResponseEntity<?> deleteRoutineEntry(@PathVariable Long schoolId, 
                                                 @PathVariable Long routineId) {
@@ -127,4 +182,27 @@ public class ClassRoutineMasterController {
                 schoolId, timeSlotId, academicYearId, dayOfWeek, staffType);
         return ResponseEntity.ok(availableTeachers);
     }
+
+    @GetMapping("/available-teachers/day")
+    public ResponseEntity<DayTeacherAvailabilityResponse> getAvailableTeachersForDay(
+            @PathVariable Long schoolId,
+            @RequestParam Long academicYearId,
+            @RequestParam String dayOfWeek,
+            @RequestParam(required = false) String staffType) {
+        DayTeacherAvailabilityResponse availability = classRoutineMasterService.getAvailableTeachersForDay(
+                schoolId, academicYearId, dayOfWeek, staffType);
+        return ResponseEntity.ok(availability);
+    }
+
+    /**
+     * Tag a snapshot response with its version and answer 304 when the client already has it
+     */
+    private ResponseEntity<RoutineSnapshotResponse> withVersion(RoutineSnapshotResponse routine,
+                                                                WebRequest webRequest) {
+        String etag = Long.toHexString(routine.getVersion());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(routine);
+    }
 }
@@ -2,8 +2,14 @@ package org.sma.admin.core.app.controller;
 
 import io.swagger.annotations.Api;
 import org.sma.admin.core.app.model.request.DailyClassSessionRequest;
+import org.sma.admin.core.app.model.request.SessionMaterializationRequest;
+import org.sma.admin.core.app.model.request.SubstitutionRequest;
 import org.sma.admin.core.app.model.response.CompleteScheduleResponse;
+import org.sma.admin.core.app.model.response.DayScheduleEntryResponse;
+import org.sma.admin.core.app.model.response.SubstitutionPlanResponse;
 import org.sma.admin.core.app.service.DailyClassSessionBusinessService;
+import org.sma.admin.core.app.service.SessionMaterializationService;
+import org.sma.admin.core.app.service.TeacherSubstitutionService;
 import org.sma.jpa.model.routine.DailyClassSession;
 import org.sma.platform.core.annotation.APIController;
 import org.sma.platform.core.exception.SmaException;
@@ -26,6 +32,12 @@ public class DailyClassSessionController {
     @Autowired
     private DailyClassSessionBusinessService dailyClassSessionService;
 
+    @Autowired
+    private TeacherSubstitutionService teacherSubstitutionService;
+
+    @Autowired
+    private SessionMaterializationService sessionMaterializationService;
+
     @PostMapping
     public ResponseEntity<?> createOrUpdateSession(@PathVariable Long schoolId,
                                                    @RequestBody DailyClassSessionRequest request) {
@@ -53,6 +65,54 @@ public class DailyClassSessionController {
         return ResponseEntity.ok(schedule);
     }
 
+    /**
+     * Whole-school schedule for a date (all classes and sections in one call)
+     */
+    @GetMapping("/school-day")
+    public ResponseEntity<List<DayScheduleEntryResponse>> getSchoolDaySchedule(
+            @PathVariable Long schoolId,
+            @RequestParam Long academicYearId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        List<DayScheduleEntryResponse> schedule = dailyClassSessionService.getSchoolDaySchedule(
+                schoolId, academicYearId, date);
+        return ResponseEntity.ok(schedule);
+    }
+
+    /**
+     * Allocate substitutes for every session of the absent teachers on a date
+     */
+    @PostMapping("/substitutions")
+    public ResponseEntity<?> allocateSubstitutes(@PathVariable Long schoolId,
+                                                 @RequestBody SubstitutionRequest request) {
+        try {
+            SubstitutionPlanResponse plan = teacherSubstitutionService.allocateSubstitutes(schoolId, request);
+            return ResponseEntity.ok(plan);
+        } catch (SmaException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            error.put("error", "Business Rule Violation");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    /**
+     * Pre-create the sessions of the weekly routine for every teaching day in a date range
+     */
+    @PostMapping("/materialize")
+    public ResponseEntity<?> materializeSessions(@PathVariable Long schoolId,
+                                                 @RequestBody SessionMaterializationRequest request) {
+        try {
+            Map<String, Object> result = sessionMaterializationService.materialize(schoolId,
+                    request.getAcademicYearId(), request.getStartDate(), request.getEndDate(), request.getHolidays());
+            return ResponseEntity.ok(result);
+        } catch (SmaException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            error.put("error", "Business Rule Violation");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
     @GetMapping("/teacher-schedule")
     public ResponseEntity<List<DailyClassSession>> getTeacherSchedule(
             @PathVariable Long schoolId,
@@ -0,0 +1,81 @@
+package org.sma.admin.core.app.controller;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.sma.admin.core.app.model.request.BulkFeeAllocationRequest;
+import org.sma.admin.core.app.model.response.FeeAllocationJobResponse;
+import org.sma.admin.core.app.model.response.StudentFeeAllocationResponse;
+import org.sma.admin.core.app.service.FeeAllocationService;
+import org.sma.platform.core.annotation.APIController;
+import org.sma.platform.core.exception.SmaException;
+import org.sma.platform.core.restcontroller.ApiRestServiceBinding;
+import org.sma.platform.core.service.ServiceRequestContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Fee Allocation Controller
+ * Queues bulk allocations of a fee plan to enrolled students and reports their progress
+ */
+@APIController
+@RequestMapping("/fee-allocation")
+@Api(tags = "Fee Allocation Management API")
+public class FeeAllocationController extends ApiRestServiceBinding {
+
+    @Autowired
+    private FeeAllocationService feeAllocationService;
+
+    @PostMapping("/jobs")
+    @ApiOperation(value = "Allocate a fee plan to every enrolled student of a class, section or school",
+                  notes = "Runs asynchronously; poll the returned job for progress. Re-running is idempotent.")
+    ResponseEntity<FeeAllocationJobResponse> startAllocation(
+            @RequestParam("schoolId") Long schoolId,
+            @RequestBody BulkFeeAllocationRequest request) throws IOException {
+
+        ServiceRequestContext context = createServiceRequestContext("StartFeeAllocation",
+            schoolId.toString(), schoolId.toString());
+
+        try {
+            FeeAllocationJobResponse response = feeAllocationService.startAllocation(schoolId, request);
+            return processResponse(context, response);
+        } catch (SmaException e) {
+            throw new RuntimeException("Unable to start fee allocation: " + e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @ApiOperation(value = "Get the progress of a fee allocation job")
+    ResponseEntity<FeeAllocationJobResponse> getJob(
+            @RequestParam("schoolId") Long schoolId,
+            @PathVariable("jobId") String jobId) throws IOException {
+
+        ServiceRequestContext context = createServiceRequestContext("GetFeeAllocationJob",
+            schoolId.toString(), schoolId.toString());
+
+        try {
+            FeeAllocationJobResponse response = feeAllocationService.getJob(schoolId, jobId);
+            return processResponse(context, response);
+        } catch (SmaException e) {
+            throw new RuntimeException("Unable to fetch fee allocation job: " + e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/student")
+    @ApiOperation(value = "Get the allocated installments of a student for an academic year")
+    ResponseEntity<List<StudentFeeAllocationResponse>> getStudentAllocations(
+            @RequestParam("schoolId") Long schoolId,
+            @RequestParam("studentId") Long studentId,
+            @RequestParam("academicYearId") Long academicYearId) throws IOException {
+
+        ServiceRequestContext context = createServiceRequestContext("GetStudentFeeAllocations",
+            schoolId.toString(), studentId.toString());
+
+        List<StudentFeeAllocationResponse> response = feeAllocationService.getStudentAllocations(
+            schoolId, studentId, academicYearId);
+        return processResponse(context, response);
+    }
+}
@@ -0,0 +1,90 @@
+package org.sma.admin.core.app.controller;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.sma.admin.core.app.model.response.FeeCollectionBucketResponse;
+import org.sma.admin.core.app.service.FeeCollectionRollupService;
+import org.sma.platform.core.annotation.APIController;
+import org.sma.platform.core.exception.SmaException;
+import org.sma.platform.core.restcontroller.ApiRestServiceBinding;
+import org.sma.platform.core.service.ServiceRequestContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fee Collection Controller
+ * Answers collection dashboard queries from the pre-aggregated collection rollups
+ */
+@APIController
+@RequestMapping("/fee-collection")
+@Api(tags = "Fee Collection Analytics API")
+public class FeeCollectionController extends ApiRestServiceBinding {
+
+    @Autowired
+    private FeeCollectionRollupService feeCollectionRollupService;
+
+    @GetMapping("/summary")
+    @ApiOperation(value = "Collection totals over a date range",
+                  notes = "Grouped by dimension: SCHOOL (default), CLASS, SECTION, CATEGORY or MODE")
+    ResponseEntity<List<FeeCollectionBucketResponse>> getCollectionSummary(
+            @RequestParam("schoolId") Long schoolId,
+            @RequestParam(value = "dimension", required = false) String dimension,
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) throws IOException {
+
+        ServiceRequestContext context = createServiceRequestContext("GetCollectionSummary",
+            schoolId.toString(), schoolId.toString());
+
+        try {
+            List<FeeCollectionBucketResponse> response = feeCollectionRollupService.getCollectionSummary(
+                schoolId, dimension, startDate, endDate);
+            return processResponse(context, response);
+        } catch (SmaException e) {
+            throw new RuntimeException("Unable to fetch collection summary: " + e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/series")
+    @ApiOperation(value = "Daily or monthly collection buckets over a date range",
+                  notes = "granularity is DAY (default) or MONTH; scopeKey narrows to one class, section, category or mode")
+    ResponseEntity<List<FeeCollectionBucketResponse>> getCollectionSeries(
+            @RequestParam("schoolId") Long schoolId,
+            @RequestParam(value = "dimension", required = false) String dimension,
+            @RequestParam(value = "granularity", required = false) String granularity,
+            @RequestParam(value = "scopeKey", required = false) String scopeKey,
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) throws IOException {
+
+        ServiceRequestContext context = createServiceRequestContext("GetCollectionSeries",
+            schoolId.toString(), schoolId.toString());
+
+        try {
+            List<FeeCollectionBucketResponse> response = feeCollectionRollupService.getCollectionSeries(
+                schoolId, dimension, granularity, scopeKey, startDate, endDate);
+            return processResponse(context, response);
+        } catch (SmaException e) {
+            throw new RuntimeException("Unable to fetch collection series: " + e.getMessage(), e);
+        }
+    }
+
+    @PostMapping("/rebuild")
+    @ApiOperation(value = "Rebuild the collection rollups of a school from payment history")
+    ResponseEntity<Map<String, Object>> rebuildRollups(@RequestParam("schoolId") Long schoolId) throws IOException {
+        ServiceRequestContext context = createServiceRequestContext("RebuildCollectionRollups",
+            schoolId.toString(), schoolId.toString());
+
+        try {
+            Map<String, Object> response = feeCollectionRollupService.rebuildForSchool(schoolId);
+            return processResponse(context, response);
+        } catch (SmaException e) {
+            throw new RuntimeException("Unable to rebuild collection rollups: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.sma.admin.core.app.controller;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.sma.admin.core.app.model.response.StudentFeeBalanceResponse;
+import org.sma.admin.core.app.service.FeeLedgerService;
+import org.sma.platform.core.annotation.APIController;
+import org.sma.platform.core.exception.SmaException;
+import org.sma.platform.core.restcontroller.ApiRestServiceBinding;
+import org.sma.platform.core.service.ServiceRequestContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fee Ledger Controller
+ * Serves outstanding fee balances from the incrementally maintained ledger
+ */
+@APIController
+@RequestMapping("/fee-ledger")
+@Api(tags = "Fee Ledger API")
+public class FeeLedgerController extends ApiRestServiceBinding {
+
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+
+    @GetMapping("/balance")
+    @ApiOperation(value = "Get a student's outstanding fee balance for an academic year",
+                  notes = "Read from the fee ledger, broken down by fee category")
+    ResponseEntity<?> getStudentBalance(
+            @RequestParam("schoolId") Long schoolId,
+            @RequestParam("studentId") Long studentId,
+            @RequestParam("academicYearId") Long academicYearId) throws IOException {
+
+        ServiceRequestContext context = createServiceRequestContext("GetStudentFeeBalance",
+            schoolId.toString(), studentId.toString());
+
+        try {
+            StudentFeeBalanceResponse response = feeLedgerService.getStudentBalance(schoolId, studentId, academicYearId);
+            return processResponse(context, response);
+        } catch (SmaException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            error.put("error", "Not Found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
+    @PostMapping("/reconcile")
+    @ApiOperation(value = "Verify the fee ledger of a school against raw payment rows",
+                  notes = "With repair=true the school's ledger is rebuilt when drift is found")
+    ResponseEntity<Map<String, Object>> reconcile(
+            @RequestParam("schoolId") Long schoolId,
+            @RequestParam(value = "repair", defaultValue = "false") boolean repair) throws IOException {
+
+        ServiceRequestContext context = createServiceRequestContext("ReconcileFeeLedger",
+            schoolId.toString(), schoolId.toString());
+
+        try {
+            Map<String, Object> response = feeLedgerService.reconcile(schoolId, repair);
+            return processResponse(context, response);
+        } catch (SmaException e) {
+            throw new RuntimeException("Unable to reconcile fee ledger: " + e.getMessage(), e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.sma.admin.core.app.controller;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.sma.admin.core.app.model.request.FeePlanRequest;
+import org.sma.admin.core.app.model.response.FeePlanPageResponse;
 import org.sma.admin.core.app.model.response.FeePlanResponse;
 import org.sma.admin.core.app.service.FeePlanBusinessService;
 import org.sma.platform.core.annotation.APIController;
@@ -103,6 +104,31 @@ public class FeePlanController extends ApiRestServiceBinding {
         }
     }
 
+    @GetMapping("/page")
+    @ApiOperation(value = "List fee plans one page at a time",
+                  notes = "Keyset pagination in plan id order: pass nextCursor of the previous page as cursor. " +
+                          "Filters as for /list; limit defaults to 50, at most 500.")
+    ResponseEntity<FeePlanPageResponse> listFeePlanPage(
+            @RequestParam("schoolId") Long schoolId,
+            @RequestParam(value = "academicYearId", required = false) Long academicYearId,
+            @RequestParam(value = "categoryId", required = false) Long categoryId,
+            @RequestParam(value = "status", required = false, defaultValue = "ALL") String status,
+            @RequestParam(value = "includeInstallments", defaultValue = "false") boolean includeInstallments,
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) throws IOException {
+
+        ServiceRequestContext context = createServiceRequestContext("ListFeePlanPage",
+            schoolId.toString(), schoolId.toString());
+
+        try {
+            FeePlanPageResponse response = feePlanBusinessService.listFeePlanPage(
+                schoolId, academicYearId, categoryId, status, includeInstallments, cursor, limit);
+            return processResponse(context, response);
+        } catch (SmaException e) {
+            throw new RuntimeException("Unable to fetch fee plans: " + e.getMessage(), e);
+        }
+    }
+
     @DeleteMapping("/delete/{planId}")
     @ApiOperation(value = "Delete fee plan")
     ResponseEntity<Void> deleteFeePlan(@PathVariable("planId") Long planId) throws IOException {
@@ -3,6 +3,8 @@ package org.sma.admin.core.app.controller;
 import org.sma.admin.core.app.model.request.BulkAttendanceRequest;
 import org.sma.admin.core.app.model.request.DeviceWebhookRequest;
 import org.sma.admin.core.app.model.request.StaffBulkAttendanceRequest;
+import org.sma.admin.core.app.model.response.AttendanceBitmapResponse;
+import org.sma.admin.core.app.service.AttendanceIngestionService;
 import org.sma.admin.core.app.service.StudentAttendanceBusinessService;
 import org.sma.admin.core.app.service.StaffAttendanceBusinessService;
 import org.sma.jpa.model.routine.StudentAttendance;
@@ -29,6 +31,9 @@ public class StudentAttendanceController {
     @Autowired
     private StaffAttendanceBusinessService staffAttendanceService;
 
+    @Autowired
+    private AttendanceIngestionService attendanceIngestionService;
+
     @PostMapping("/bulk")
     public ResponseEntity<?> markBulkAttendance(@PathVariable Long schoolId,
                                                @RequestBody BulkAttendanceRequest request) {
@@ -111,6 +116,32 @@ public class StudentAttendanceController {
         }
     }
 
+    /**
+     * Buffered variant of the device webhook for gate-open bursts
+     * Returns 202 once items are queued; 429 when the buffer is full so devices retry.
+     */
+    @PostMapping("/device-webhook/ingest")
+    public ResponseEntity<?> ingestDeviceWebhook(@PathVariable Long schoolId,
+                                                 @RequestBody DeviceWebhookRequest request,
+                                                 @RequestHeader(value = "X-Device-Signature", required = false) String signature) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("message", "No items to process");
+            return ResponseEntity.badRequest().body(result);
+        }
+
+        Map<String, Object> result = attendanceIngestionService.ingest(schoolId, request);
+        if (((Integer) result.get("droppedCount")) > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(result);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+    }
+
+    @GetMapping("/device-webhook/ingest/status")
+    public ResponseEntity<Map<String, Object>> getIngestionStatus(@PathVariable Long schoolId) {
+        return ResponseEntity.ok(attendanceIngestionService.getStatus(schoolId));
+    }
+
     @GetMapping("/session/{sessionId}")
     public ResponseEntity<List<StudentAttendance>> getSessionAttendance(
             @PathVariable Long schoolId,
@@ -130,6 +161,26 @@ public class StudentAttendanceController {
         return ResponseEntity.ok(attendance);
     }
 
+    /**
+     * Compact full-year history: one bitmap per status, indexed by session ordinal
+     */
+    @GetMapping("/student/{studentId}/history/compact")
+    public ResponseEntity<?> getStudentAttendanceBitmap(
+            @PathVariable Long schoolId,
+            @PathVariable Long studentId,
+            @RequestParam Long academicYearId) {
+        try {
+            AttendanceBitmapResponse bitmap = studentAttendanceService.getStudentAttendanceBitmap(
+                    schoolId, studentId, academicYearId);
+            return ResponseEntity.ok(bitmap);
+        } catch (SmaException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            error.put("error", "Not Found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
     @GetMapping("/class/date")
     public ResponseEntity<List<StudentAttendance>> getClassAttendanceForDate(
             @PathVariable Long schoolId,
@@ -168,6 +219,29 @@ public class StudentAttendanceController {
         return ResponseEntity.ok(summary);
     }
 
+    /**
+     * Backfill attendance rollups from recorded attendance history
+     */
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAttendanceRollups(@PathVariable Long schoolId) {
+        Map<String, Object> result = studentAttendanceService.rebuildAttendanceRollups(schoolId);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/bitmap/rebuild")
+    public ResponseEntity<?> rebuildAttendanceBitmaps(@PathVariable Long schoolId,
+                                                      @RequestParam Long academicYearId) {
+        try {
+            Map<String, Object> result = studentAttendanceService.rebuildAttendanceBitmaps(schoolId, academicYearId);
+            return ResponseEntity.ok(result);
+        } catch (SmaException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            error.put("error", "Business Rule Violation");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
     @PatchMapping("/{attendanceId}")
     public ResponseEntity<?> updateAttendance(@PathVariable Long schoolId,
                                              @PathVariable Long attendanceId,
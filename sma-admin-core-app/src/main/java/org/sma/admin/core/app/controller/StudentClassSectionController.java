@@ -1,6 +1,7 @@
 package org.sma.admin.core.app.controller;
 
 import io.swagger.annotations.Api;
+import org.sma.admin.core.app.model.request.BulkSectionAssignmentRequest;
 import org.sma.admin.core.app.model.request.StudentClassSectionRequest;
 import org.sma.admin.core.app.model.response.StudentClassSectionResponse;
 import org.sma.admin.core.app.service.StudentClassSectionBusinessService;
@@ -48,6 +49,45 @@ public class StudentClassSectionController extends ApiRestServiceBinding {
         }
     }
 
+    @PostMapping("/assign/bulk")
+    ResponseEntity<?> assignStudentsToClassSection(
+            @RequestBody BulkSectionAssignmentRequest request) throws IOException {
+        ServiceRequestContext context = createServiceRequestContext("AssignStudentsToClassSection",
+                String.valueOf(request.getSectionId()), String.valueOf(request.getSectionId()));
+
+        try {
+            Map<String, Object> response = studentClassSectionBusinessService
+                    .assignStudentsToClassSection(context, request);
+            return processResponse(context, response);
+        } catch (SmaException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "Business Rule Violation");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
+    @PostMapping("/occupancy/recount")
+    ResponseEntity<?> recountSectionOccupancy(
+            @RequestParam("schoolId") Long schoolId,
+            @RequestParam("academicYearId") Long academicYearId) throws IOException {
+        ServiceRequestContext context = createServiceRequestContext("RecountSectionOccupancy",
+                schoolId.toString(), schoolId.toString());
+
+        try {
+            int sections = studentClassSectionBusinessService
+                    .recountSectionOccupancy(context, schoolId, academicYearId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("sectionsRecounted", sections);
+            return processResponse(context, response);
+        } catch (SmaException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "Business Rule Violation");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
     @PostMapping("/assign/ensure")
     ResponseEntity<?> ensureStudentAssigned(
             @RequestBody StudentClassSectionRequest request) throws IOException {
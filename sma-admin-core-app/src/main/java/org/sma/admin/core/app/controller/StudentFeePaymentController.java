@@ -3,20 +3,36 @@ package org.sma.admin.core.app.controller;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.sma.admin.core.app.model.request.StudentFeePaymentRequest;
+import org.sma.admin.core.app.model.response.StudentFeePaymentPageResponse;
 import org.sma.admin.core.app.model.response.StudentFeePaymentResponse;
+import org.sma.admin.core.app.model.response.PaymentImportReportResponse;
 import org.sma.admin.core.app.model.response.PendingPaymentResponse;
+import org.sma.admin.core.app.service.FeeReceiptService;
+import org.sma.admin.core.app.service.FeeReceiptStore.StoredReceipt;
+import org.sma.admin.core.app.service.PaymentImportService;
 import org.sma.admin.core.app.service.StudentFeePaymentBusinessService;
 import org.sma.platform.core.annotation.APIController;
 import org.sma.platform.core.exception.SmaException;
 import org.sma.platform.core.restcontroller.ApiRestServiceBinding;
 import org.sma.platform.core.service.ServiceRequestContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -28,9 +44,21 @@ import java.util.List;
 @Api(tags = "Student Fee Payment API")
 public class StudentFeePaymentController extends ApiRestServiceBinding {
 
+    // Servlet request attributes of the Tomcat sendfile support
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private StudentFeePaymentBusinessService studentFeePaymentBusinessService;
 
+    @Autowired
+    private PaymentImportService paymentImportService;
+
+    @Autowired
+    private FeeReceiptService feeReceiptService;
+
     @PostMapping("/record")
     @ApiOperation(value = "Record student fee payment")
     ResponseEntity<StudentFeePaymentResponse> recordPayment(
@@ -48,6 +76,30 @@ public class StudentFeePaymentController extends ApiRestServiceBinding {
         }
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ApiOperation(value = "Bulk import payments from a bank statement or payment batch file",
+                  notes = "CSV with a header row or NDJSON. Columns: studentId or admissionNo, feeInstallmentId, " +
+                          "amountPaid, discountAmount, paidOn, paymentRef, paymentMode, remarks. Returns a per-row report; " +
+                          "rows whose paymentRef is already recorded are reported as duplicates.")
+    ResponseEntity<PaymentImportReportResponse> importPayments(
+            @RequestParam("schoolId") Long schoolId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun) throws IOException {
+
+        ServiceRequestContext context = createServiceRequestContext("ImportPayments",
+            schoolId.toString(), schoolId.toString());
+
+        try {
+            String resolvedFormat = paymentImportService.resolveFormat(format, file.getOriginalFilename());
+            PaymentImportReportResponse response = paymentImportService.importPayments(
+                schoolId, file.getInputStream(), resolvedFormat, dryRun);
+            return processResponse(context, response);
+        } catch (SmaException e) {
+            throw new RuntimeException("Unable to import payments: " + e.getMessage(), e);
+        }
+    }
+
     @GetMapping("/get/{paymentId}")
     @ApiOperation(value = "Get payment by ID")
     ResponseEntity<StudentFeePaymentResponse> getPaymentById(
@@ -64,6 +116,50 @@ public class StudentFeePaymentController extends ApiRestServiceBinding {
         }
     }
 
+    @GetMapping("/{paymentId}/receipt")
+    @ApiOperation(value = "Download the receipt of a payment",
+                  notes = "Streams the stored HTML receipt, rendering it first if it is not stored yet")
+    void downloadReceipt(
+            @PathVariable("paymentId") Long paymentId,
+            @RequestParam("schoolId") Long schoolId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        StoredReceipt receipt;
+        try {
+            receipt = feeReceiptService.getReceipt(schoolId, paymentId);
+        } catch (SmaException e) {
+            throw new RuntimeException("Unable to fetch receipt: " + e.getMessage(), e);
+        }
+
+        // Stored receipts never change, so the content hash is a strong ETag
+        String etag = "\"" + receipt.getHash() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        response.setContentType(MediaType.TEXT_HTML_VALUE + ";charset=UTF-8");
+        response.setContentLengthLong(receipt.getSize());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "inline; filename=\"" + feeReceiptService.getReceiptNo(schoolId, paymentId) + ".html\"");
+
+        // Let the connector send the file straight from the page cache when it can
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, receipt.getPath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, receipt.getSize());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(receipt.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < receipt.getSize()) {
+                position += channel.transferTo(position, receipt.getSize() - position, out);
+            }
+        }
+    }
+
     @GetMapping("/list")
     @ApiOperation(value = "List payments with filters", 
                   notes = "Filter by studentId and/or installmentId")
@@ -84,6 +180,31 @@ public class StudentFeePaymentController extends ApiRestServiceBinding {
         }
     }
 
+    @GetMapping("/page")
+    @ApiOperation(value = "List payments one page at a time, newest first",
+                  notes = "Keyset pagination: pass nextCursor of the previous page as cursor. Optional filters: " +
+                          "studentId, installmentId, paidFrom/paidTo (dates, inclusive). limit defaults to 50, at most 500.")
+    ResponseEntity<StudentFeePaymentPageResponse> listPaymentPage(
+            @RequestParam("schoolId") Long schoolId,
+            @RequestParam(value = "studentId", required = false) Long studentId,
+            @RequestParam(value = "installmentId", required = false) Long installmentId,
+            @RequestParam(value = "paidFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate paidFrom,
+            @RequestParam(value = "paidTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate paidTo,
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) throws IOException {
+
+        ServiceRequestContext context = createServiceRequestContext("ListPaymentPage",
+            schoolId.toString(), schoolId.toString());
+
+        try {
+            StudentFeePaymentPageResponse response = studentFeePaymentBusinessService.listPaymentPage(
+                schoolId, studentId, installmentId, paidFrom, paidTo, cursor, limit);
+            return processResponse(context, response);
+        } catch (SmaException e) {
+            throw new RuntimeException("Unable to fetch payments: " + e.getMessage(), e);
+        }
+    }
+
     @DeleteMapping("/delete/{paymentId}")
     @ApiOperation(value = "Delete payment")
     ResponseEntity<Void> deletePayment(@PathVariable("paymentId") Long paymentId) throws IOException {
@@ -99,20 +220,26 @@ public class StudentFeePaymentController extends ApiRestServiceBinding {
     }
 
     @GetMapping("/pending")
-    @ApiOperation(value = "Get pending payments for class/section", 
-                  notes = "Returns students with overdue installments. Class is required, section is optional.")
+    @ApiOperation(value = "Get pending payments for class/section or the whole school", 
+                  notes = "Returns students with overdue installments. Class and section are optional; " +
+                          "without a class the whole school is returned. Pass page and size to paginate.")
     ResponseEntity<List<PendingPaymentResponse>> getPendingPayments(
             @RequestParam("schoolId") Long schoolId,
             @RequestParam("academicYearId") Long academicYearId,
-            @RequestParam("classId") Long classId,
-            @RequestParam(value = "sectionId", required = false) Long sectionId) throws IOException {
+            @RequestParam(value = "classId", required = false) Long classId,
+            @RequestParam(value = "sectionId", required = false) Long sectionId,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size) throws IOException {
         
         ServiceRequestContext context = createServiceRequestContext("GetPendingPayments", 
             schoolId.toString(), schoolId.toString());
 
         try {
-            List<PendingPaymentResponse> response = studentFeePaymentBusinessService.getPendingPayments(
-                schoolId, academicYearId, classId, sectionId);
+            List<PendingPaymentResponse> response = size != null
+                ? studentFeePaymentBusinessService.getPendingPayments(
+                    schoolId, academicYearId, classId, sectionId, page != null ? page : 0, size)
+                : studentFeePaymentBusinessService.getPendingPayments(
+                    schoolId, academicYearId, classId, sectionId);
             return processResponse(context, response);
         } catch (SmaException e) {
             throw new RuntimeException("Unable to fetch pending payments: " + e.getMessage(), e);
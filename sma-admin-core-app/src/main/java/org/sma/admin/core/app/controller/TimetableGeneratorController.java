@@ -0,0 +1,52 @@
+package org.sma.admin.core.app.controller;
+
+import io.swagger.annotations.Api;
+import org.sma.admin.core.app.model.request.TimetableGenerationRequest;
+import org.sma.admin.core.app.model.response.TimetableGenerationJobResponse;
+import org.sma.admin.core.app.service.TimetableGeneratorService;
+import org.sma.platform.core.annotation.APIController;
+import org.sma.platform.core.exception.SmaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@APIController
+@Api(tags = "Timetable Generator Controller")
+@RequestMapping("/schools/{schoolId}/routine/generator")
+public class TimetableGeneratorController {
+
+    @Autowired
+    private TimetableGeneratorService timetableGeneratorService;
+
+    @PostMapping("/jobs")
+    public ResponseEntity<?> startGeneration(@PathVariable Long schoolId,
+                                             @RequestBody TimetableGenerationRequest request) {
+        try {
+            TimetableGenerationJobResponse job = timetableGeneratorService.startGeneration(schoolId, request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (SmaException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            error.put("error", "Business Rule Violation");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable Long schoolId,
+                                    @PathVariable String jobId) {
+        try {
+            TimetableGenerationJobResponse job = timetableGeneratorService.getJob(schoolId, jobId);
+            return ResponseEntity.ok(job);
+        } catch (SmaException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            error.put("error", "Not Found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.sma.admin.core.app.model.event;
+
+import org.sma.platform.common.datamodel.ApiBaseModel;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch of overdue fee reminders for one school, published as a single AMQP message
+ */
+public class FeeReminderBatch extends ApiBaseModel {
+    private Long schoolId;
+    private Long academicYearId;
+    private LocalDate runDate;
+    private List<FeeReminderEvent> reminders = new ArrayList<>();
+
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public LocalDate getRunDate() {
+        return runDate;
+    }
+
+    public void setRunDate(LocalDate runDate) {
+        this.runDate = runDate;
+    }
+
+    public List<FeeReminderEvent> getReminders() {
+        return reminders;
+    }
+
+    public void setReminders(List<FeeReminderEvent> reminders) {
+        this.reminders = reminders;
+    }
+}
@@ -0,0 +1,92 @@
+package org.sma.admin.core.app.model.event;
+
+import org.sma.platform.common.datamodel.ApiBaseModel;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Overdue fee reminder for one (student, installment) pair
+ */
+public class FeeReminderEvent extends ApiBaseModel {
+    private Long studentId;
+    private String studentName;
+    private String admissionNo;
+    private Long feeInstallmentId;
+    private String installmentName;
+    private String feeCategoryName;
+    private BigDecimal amountDue;
+    private LocalDate dueDate;
+    private Long daysOverdue;
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+
+    public String getAdmissionNo() {
+        return admissionNo;
+    }
+
+    public void setAdmissionNo(String admissionNo) {
+        this.admissionNo = admissionNo;
+    }
+
+    public Long getFeeInstallmentId() {
+        return feeInstallmentId;
+    }
+
+    public void setFeeInstallmentId(Long feeInstallmentId) {
+        this.feeInstallmentId = feeInstallmentId;
+    }
+
+    public String getInstallmentName() {
+        return installmentName;
+    }
+
+    public void setInstallmentName(String installmentName) {
+        this.installmentName = installmentName;
+    }
+
+    public String getFeeCategoryName() {
+        return feeCategoryName;
+    }
+
+    public void setFeeCategoryName(String feeCategoryName) {
+        this.feeCategoryName = feeCategoryName;
+    }
+
+    public BigDecimal getAmountDue() {
+        return amountDue;
+    }
+
+    public void setAmountDue(BigDecimal amountDue) {
+        this.amountDue = amountDue;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public Long getDaysOverdue() {
+        return daysOverdue;
+    }
+
+    public void setDaysOverdue(Long daysOverdue) {
+        this.daysOverdue = daysOverdue;
+    }
+}
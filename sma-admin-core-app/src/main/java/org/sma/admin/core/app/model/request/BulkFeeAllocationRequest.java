@@ -0,0 +1,88 @@
+package org.sma.admin.core.app.model.request;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Request for allocating a fee plan to every enrolled student of a class, section or whole school
+ */
+public class BulkFeeAllocationRequest {
+    private Long feePlanId;
+    private Long classId; // Optional, narrows to one class
+    private Long sectionId; // Optional, narrows to one section
+    private List<StudentAdjustment> adjustments;
+
+    public Long getFeePlanId() {
+        return feePlanId;
+    }
+
+    public void setFeePlanId(Long feePlanId) {
+        this.feePlanId = feePlanId;
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public void setClassId(Long classId) {
+        this.classId = classId;
+    }
+
+    public Long getSectionId() {
+        return sectionId;
+    }
+
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public List<StudentAdjustment> getAdjustments() {
+        return adjustments;
+    }
+
+    public void setAdjustments(List<StudentAdjustment> adjustments) {
+        this.adjustments = adjustments;
+    }
+
+    /**
+     * Discount or exemption of one student across all installments of the plan
+     */
+    public static class StudentAdjustment {
+        private Long studentId;
+        private BigDecimal discountPercent; // 0-100, ignored when exempted
+        private Boolean exempted;
+        private String reason;
+
+        public Long getStudentId() {
+            return studentId;
+        }
+
+        public void setStudentId(Long studentId) {
+            this.studentId = studentId;
+        }
+
+        public BigDecimal getDiscountPercent() {
+            return discountPercent;
+        }
+
+        public void setDiscountPercent(BigDecimal discountPercent) {
+            this.discountPercent = discountPercent;
+        }
+
+        public Boolean getExempted() {
+            return exempted;
+        }
+
+        public void setExempted(Boolean exempted) {
+            this.exempted = exempted;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+    }
+}
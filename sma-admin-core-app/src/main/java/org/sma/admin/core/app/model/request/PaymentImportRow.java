@@ -0,0 +1,100 @@
+package org.sma.admin.core.app.model.request;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One payment line of a bulk payment import (CSV or NDJSON)
+ */
+public class PaymentImportRow {
+    private Integer rowNumber; // 1-based data row in the file
+    private Long studentId;
+    private String admissionNo; // Used when studentId is not given
+    private Long feeInstallmentId;
+    private BigDecimal amountPaid;
+    private BigDecimal discountAmount;
+    private LocalDateTime paidOn;
+    private String paymentRef;
+    private String paymentMode;
+    private String remarks;
+
+    public Integer getRowNumber() {
+        return rowNumber;
+    }
+
+    public void setRowNumber(Integer rowNumber) {
+        this.rowNumber = rowNumber;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getAdmissionNo() {
+        return admissionNo;
+    }
+
+    public void setAdmissionNo(String admissionNo) {
+        this.admissionNo = admissionNo;
+    }
+
+    public Long getFeeInstallmentId() {
+        return feeInstallmentId;
+    }
+
+    public void setFeeInstallmentId(Long feeInstallmentId) {
+        this.feeInstallmentId = feeInstallmentId;
+    }
+
+    public BigDecimal getAmountPaid() {
+        return amountPaid;
+    }
+
+    public void setAmountPaid(BigDecimal amountPaid) {
+        this.amountPaid = amountPaid;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+
+    public LocalDateTime getPaidOn() {
+        return paidOn;
+    }
+
+    public void setPaidOn(LocalDateTime paidOn) {
+        this.paidOn = paidOn;
+    }
+
+    public String getPaymentRef() {
+        return paymentRef;
+    }
+
+    public void setPaymentRef(String paymentRef) {
+        this.paymentRef = paymentRef;
+    }
+
+    public String getPaymentMode() {
+        return paymentMode;
+    }
+
+    public void setPaymentMode(String paymentMode) {
+        this.paymentMode = paymentMode;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+}
@@ -0,0 +1,46 @@
+package org.sma.admin.core.app.model.request;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Request for pre-creating daily class sessions from the weekly routine over a date range
+ */
+public class SessionMaterializationRequest {
+    private Long academicYearId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<LocalDate> holidays; // Dates with no classes, skipped entirely
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public List<LocalDate> getHolidays() {
+        return holidays;
+    }
+
+    public void setHolidays(List<LocalDate> holidays) {
+        this.holidays = holidays;
+    }
+}
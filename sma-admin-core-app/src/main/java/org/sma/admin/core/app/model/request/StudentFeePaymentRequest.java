@@ -28,6 +28,9 @@ public class StudentFeePaymentRequest {
     @Size(max = 100, message = "Payment reference must not exceed 100 characters")
     private String paymentRef;
 
+    @Size(max = 30, message = "Payment mode must not exceed 30 characters")
+    private String paymentMode; // CASH, CHEQUE, BANK_TRANSFER, CARD, UPI, ONLINE
+
     @Size(max = 300, message = "Remarks must not exceed 300 characters")
     private String remarks;
 
@@ -80,6 +83,14 @@ public class StudentFeePaymentRequest {
         this.paymentRef = paymentRef;
     }
 
+    public String getPaymentMode() {
+        return paymentMode;
+    }
+
+    public void setPaymentMode(String paymentMode) {
+        this.paymentMode = paymentMode;
+    }
+
     public String getRemarks() {
         return remarks;
     }
@@ -0,0 +1,64 @@
+package org.sma.admin.core.app.model.request;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Request for allocating substitutes to every session of absent teachers on a date
+ */
+public class SubstitutionRequest {
+    private Long academicYearId;
+    private LocalDate sessionDate;
+    private List<Long> absentTeacherIds;
+    private Boolean allowUnqualified = false; // Fall back to free teachers without a subject mapping
+    private Integer maxPeriodsPerDay; // Optional cap on a substitute's sessions that day
+    private Boolean dryRun = false;
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public LocalDate getSessionDate() {
+        return sessionDate;
+    }
+
+    public void setSessionDate(LocalDate sessionDate) {
+        this.sessionDate = sessionDate;
+    }
+
+    public List<Long> getAbsentTeacherIds() {
+        return absentTeacherIds;
+    }
+
+    public void setAbsentTeacherIds(List<Long> absentTeacherIds) {
+        this.absentTeacherIds = absentTeacherIds;
+    }
+
+    public Boolean getAllowUnqualified() {
+        return allowUnqualified;
+    }
+
+    public void setAllowUnqualified(Boolean allowUnqualified) {
+        this.allowUnqualified = allowUnqualified;
+    }
+
+    public Integer getMaxPeriodsPerDay() {
+        return maxPeriodsPerDay;
+    }
+
+    public void setMaxPeriodsPerDay(Integer maxPeriodsPerDay) {
+        this.maxPeriodsPerDay = maxPeriodsPerDay;
+    }
+
+    public Boolean getDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(Boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+}
@@ -0,0 +1,170 @@
+package org.sma.admin.core.app.model.request;
+
+import java.util.List;
+
+/**
+ * Request for generating the weekly routine of a set of sections
+ * Teachers come from staff subject assignments of the section when present, otherwise
+ * from qualified staff subject mappings. Omitted limits fall back to configured defaults.
+ */
+public class TimetableGenerationRequest {
+    private Long academicYearId;
+    private List<String> days; // MONDAY, TUESDAY, ...
+    private List<SectionSubjectLoad> sectionLoads;
+    private List<TeacherLimit> teacherLimits;
+    private Integer defaultMaxPeriodsPerWeek;
+    private Long timeBudgetMs;
+    private Long seed; // Fixed seed for reproducible runs
+    private Long maxIterations; // Per worker; with a seed makes the result deterministic
+    private Integer workers;
+    private Boolean replaceExisting = false;
+    private Boolean dryRun = false;
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public List<String> getDays() {
+        return days;
+    }
+
+    public void setDays(List<String> days) {
+        this.days = days;
+    }
+
+    public List<SectionSubjectLoad> getSectionLoads() {
+        return sectionLoads;
+    }
+
+    public void setSectionLoads(List<SectionSubjectLoad> sectionLoads) {
+        this.sectionLoads = sectionLoads;
+    }
+
+    public List<TeacherLimit> getTeacherLimits() {
+        return teacherLimits;
+    }
+
+    public void setTeacherLimits(List<TeacherLimit> teacherLimits) {
+        this.teacherLimits = teacherLimits;
+    }
+
+    public Integer getDefaultMaxPeriodsPerWeek() {
+        return defaultMaxPeriodsPerWeek;
+    }
+
+    public void setDefaultMaxPeriodsPerWeek(Integer defaultMaxPeriodsPerWeek) {
+        this.defaultMaxPeriodsPerWeek = defaultMaxPeriodsPerWeek;
+    }
+
+    public Long getTimeBudgetMs() {
+        return timeBudgetMs;
+    }
+
+    public void setTimeBudgetMs(Long timeBudgetMs) {
+        this.timeBudgetMs = timeBudgetMs;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public Long getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(Long maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public Integer getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(Integer workers) {
+        this.workers = workers;
+    }
+
+    public Boolean getReplaceExisting() {
+        return replaceExisting;
+    }
+
+    public void setReplaceExisting(Boolean replaceExisting) {
+        this.replaceExisting = replaceExisting;
+    }
+
+    public Boolean getDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(Boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public static class SectionSubjectLoad {
+        private Long sectionId;
+        private Long subjectId;
+        private Integer periodsPerWeek;
+        private Long teacherId; // Optional, pins the teacher
+
+        public Long getSectionId() {
+            return sectionId;
+        }
+
+        public void setSectionId(Long sectionId) {
+            this.sectionId = sectionId;
+        }
+
+        public Long getSubjectId() {
+            return subjectId;
+        }
+
+        public void setSubjectId(Long subjectId) {
+            this.subjectId = subjectId;
+        }
+
+        public Integer getPeriodsPerWeek() {
+            return periodsPerWeek;
+        }
+
+        public void setPeriodsPerWeek(Integer periodsPerWeek) {
+            this.periodsPerWeek = periodsPerWeek;
+        }
+
+        public Long getTeacherId() {
+            return teacherId;
+        }
+
+        public void setTeacherId(Long teacherId) {
+            this.teacherId = teacherId;
+        }
+    }
+
+    public static class TeacherLimit {
+        private Long teacherId;
+        private Integer maxPeriodsPerWeek;
+
+        public Long getTeacherId() {
+            return teacherId;
+        }
+
+        public void setTeacherId(Long teacherId) {
+            this.teacherId = teacherId;
+        }
+
+        public Integer getMaxPeriodsPerWeek() {
+            return maxPeriodsPerWeek;
+        }
+
+        public void setMaxPeriodsPerWeek(Integer maxPeriodsPerWeek) {
+            this.maxPeriodsPerWeek = maxPeriodsPerWeek;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.sma.admin.core.app.model.response;
+
+import java.time.LocalDate;
+
+/**
+ * Response DTO for compact student attendance history
+ * Bitmaps are base64 encoded; bit n (byte n / 8, least significant bit first) is session
+ * ordinal n = (days since yearStartDate) * slotsPerDay + time slot display order.
+ */
+public class AttendanceBitmapResponse {
+    
+    private Long studentId;
+    private Long academicYearId;
+    private LocalDate yearStartDate;
+    private Integer slotsPerDay;
+    private byte[] presentBits;
+    private byte[] absentBits;
+    private byte[] lateBits;
+    private byte[] otherBits;
+    private Integer presentCount;
+    private Integer absentCount;
+    private Integer lateCount;
+    private Integer otherCount;
+
+    // Getters and Setters
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public LocalDate getYearStartDate() {
+        return yearStartDate;
+    }
+
+    public void setYearStartDate(LocalDate yearStartDate) {
+        this.yearStartDate = yearStartDate;
+    }
+
+    public Integer getSlotsPerDay() {
+        return slotsPerDay;
+    }
+
+    public void setSlotsPerDay(Integer slotsPerDay) {
+        this.slotsPerDay = slotsPerDay;
+    }
+
+    public byte[] getPresentBits() {
+        return presentBits;
+    }
+
+    public void setPresentBits(byte[] presentBits) {
+        this.presentBits = presentBits;
+    }
+
+    public byte[] getAbsentBits() {
+        return absentBits;
+    }
+
+    public void setAbsentBits(byte[] absentBits) {
+        this.absentBits = absentBits;
+    }
+
+    public byte[] getLateBits() {
+        return lateBits;
+    }
+
+    public void setLateBits(byte[] lateBits) {
+        this.lateBits = lateBits;
+    }
+
+    public byte[] getOtherBits() {
+        return otherBits;
+    }
+
+    public void setOtherBits(byte[] otherBits) {
+        this.otherBits = otherBits;
+    }
+
+    public Integer getPresentCount() {
+        return presentCount;
+    }
+
+    public void setPresentCount(Integer presentCount) {
+        this.presentCount = presentCount;
+    }
+
+    public Integer getAbsentCount() {
+        return absentCount;
+    }
+
+    public void setAbsentCount(Integer absentCount) {
+        this.absentCount = absentCount;
+    }
+
+    public Integer getLateCount() {
+        return lateCount;
+    }
+
+    public void setLateCount(Integer lateCount) {
+        this.lateCount = lateCount;
+    }
+
+    public Integer getOtherCount() {
+        return otherCount;
+    }
+
+    public void setOtherCount(Integer otherCount) {
+        this.otherCount = otherCount;
+    }
+}
@@ -0,0 +1,201 @@
+package org.sma.admin.core.app.model.response;
+
+import java.time.LocalTime;
+
+/**
+ * Compact response DTO for one period of the whole-school day schedule
+ * Subject and teacher are the effective values after applying daily overrides.
+ */
+public class DayScheduleEntryResponse {
+    
+    private Long routineMasterId;
+    private Long sessionId;
+    private Boolean hasSession;
+    private Long classId;
+    private String className;
+    private Long sectionId;
+    private String sectionName;
+    private Long timeSlotId;
+    private String slotName;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Integer slotOrder;
+    private Long subjectId;
+    private String subjectName;
+    private Boolean subjectOverridden;
+    private Long teacherId;
+    private String teacherName;
+    private Boolean teacherSubstituted;
+    private String sessionStatus;
+    private Boolean isAttendanceMarked;
+    private String remarks;
+
+    // Getters and Setters
+    public Long getRoutineMasterId() {
+        return routineMasterId;
+    }
+
+    public void setRoutineMasterId(Long routineMasterId) {
+        this.routineMasterId = routineMasterId;
+    }
+
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(Long sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public Boolean getHasSession() {
+        return hasSession;
+    }
+
+    public void setHasSession(Boolean hasSession) {
+        this.hasSession = hasSession;
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public void setClassId(Long classId) {
+        this.classId = classId;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
+    public Long getSectionId() {
+        return sectionId;
+    }
+
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public String getSectionName() {
+        return sectionName;
+    }
+
+    public void setSectionName(String sectionName) {
+        this.sectionName = sectionName;
+    }
+
+    public Long getTimeSlotId() {
+        return timeSlotId;
+    }
+
+    public void setTimeSlotId(Long timeSlotId) {
+        this.timeSlotId = timeSlotId;
+    }
+
+    public String getSlotName() {
+        return slotName;
+    }
+
+    public void setSlotName(String slotName) {
+        this.slotName = slotName;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public Integer getSlotOrder() {
+        return slotOrder;
+    }
+
+    public void setSlotOrder(Integer slotOrder) {
+        this.slotOrder = slotOrder;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public String getSubjectName() {
+        return subjectName;
+    }
+
+    public void setSubjectName(String subjectName) {
+        this.subjectName = subjectName;
+    }
+
+    public Boolean getSubjectOverridden() {
+        return subjectOverridden;
+    }
+
+    public void setSubjectOverridden(Boolean subjectOverridden) {
+        this.subjectOverridden = subjectOverridden;
+    }
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public void setTeacherId(Long teacherId) {
+        this.teacherId = teacherId;
+    }
+
+    public String getTeacherName() {
+        return teacherName;
+    }
+
+    public void setTeacherName(String teacherName) {
+        this.teacherName = teacherName;
+    }
+
+    public Boolean getTeacherSubstituted() {
+        return teacherSubstituted;
+    }
+
+    public void setTeacherSubstituted(Boolean teacherSubstituted) {
+        this.teacherSubstituted = teacherSubstituted;
+    }
+
+    public String getSessionStatus() {
+        return sessionStatus;
+    }
+
+    public void setSessionStatus(String sessionStatus) {
+        this.sessionStatus = sessionStatus;
+    }
+
+    public Boolean getIsAttendanceMarked() {
+        return isAttendanceMarked;
+    }
+
+    public void setIsAttendanceMarked(Boolean isAttendanceMarked) {
+        this.isAttendanceMarked = isAttendanceMarked;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+}
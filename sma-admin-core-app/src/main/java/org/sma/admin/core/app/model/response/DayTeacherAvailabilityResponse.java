@@ -0,0 +1,49 @@
+package org.sma.admin.core.app.model.response;
+
+import org.sma.jpa.model.staff.Staff;
+import java.util.List;
+
+/**
+ * Response DTO for teacher availability across every time slot of a day
+ * Teachers are listed once; each slot references the free ones by id.
+ */
+public class DayTeacherAvailabilityResponse {
+    
+    private String dayOfWeek;
+    private Long routineVersion;
+    private List<Staff> teachers;
+    private List<TeacherSlotAvailabilityResponse> slots;
+
+    // Getters and Setters
+    public String getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public void setDayOfWeek(String dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public Long getRoutineVersion() {
+        return routineVersion;
+    }
+
+    public void setRoutineVersion(Long routineVersion) {
+        this.routineVersion = routineVersion;
+    }
+
+    public List<Staff> getTeachers() {
+        return teachers;
+    }
+
+    public void setTeachers(List<Staff> teachers) {
+        this.teachers = teachers;
+    }
+
+    public List<TeacherSlotAvailabilityResponse> getSlots() {
+        return slots;
+    }
+
+    public void setSlots(List<TeacherSlotAvailabilityResponse> slots) {
+        this.slots = slots;
+    }
+}
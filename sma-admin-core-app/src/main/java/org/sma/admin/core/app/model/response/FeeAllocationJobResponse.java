@@ -0,0 +1,126 @@
+package org.sma.admin.core.app.model.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for a bulk fee allocation job and its progress
+ */
+public class FeeAllocationJobResponse {
+    private String jobId;
+    private Long schoolId;
+    private Long feePlanId;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private Integer sectionsTotal;
+    private Integer sectionsProcessed;
+    private Long allocationsWritten;
+    private Integer adjustmentsApplied;
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Long elapsedMs;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public Long getFeePlanId() {
+        return feePlanId;
+    }
+
+    public void setFeePlanId(Long feePlanId) {
+        this.feePlanId = feePlanId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getSectionsTotal() {
+        return sectionsTotal;
+    }
+
+    public void setSectionsTotal(Integer sectionsTotal) {
+        this.sectionsTotal = sectionsTotal;
+    }
+
+    public Integer getSectionsProcessed() {
+        return sectionsProcessed;
+    }
+
+    public void setSectionsProcessed(Integer sectionsProcessed) {
+        this.sectionsProcessed = sectionsProcessed;
+    }
+
+    public Long getAllocationsWritten() {
+        return allocationsWritten;
+    }
+
+    public void setAllocationsWritten(Long allocationsWritten) {
+        this.allocationsWritten = allocationsWritten;
+    }
+
+    public Integer getAdjustmentsApplied() {
+        return adjustmentsApplied;
+    }
+
+    public void setAdjustmentsApplied(Integer adjustmentsApplied) {
+        this.adjustmentsApplied = adjustmentsApplied;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public Long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(Long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+}
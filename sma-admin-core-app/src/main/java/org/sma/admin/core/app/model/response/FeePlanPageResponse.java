@@ -0,0 +1,36 @@
+package org.sma.admin.core.app.model.response;
+
+import java.util.List;
+
+/**
+ * Response DTO for one keyset page of fee plans, in id order
+ */
+public class FeePlanPageResponse {
+    private List<FeePlanResponse> items;
+    private Long nextCursor; // Pass as cursor to fetch the next page; null on the last page
+    private Boolean hasMore;
+
+    public List<FeePlanResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<FeePlanResponse> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,151 @@
+package org.sma.admin.core.app.model.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response DTO for a bulk payment import, with a per-row accept/reject report
+ */
+public class PaymentImportReportResponse {
+    private Long schoolId;
+    private String format;
+    private Boolean dryRun;
+    private Integer totalRows;
+    private Integer accepted;
+    private Integer rejected;
+    private Integer duplicates;
+    private Boolean truncated; // Stopped at the configured row limit
+    private Integer failedBatches; // Batches rolled back; their rows are reported as FAILED
+    private Long durationMs;
+    private List<RowResult> rows = new ArrayList<>();
+
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public Boolean getDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(Boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public Integer getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(Integer totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public Integer getFailedBatches() {
+        return failedBatches;
+    }
+
+    public void setFailedBatches(Integer failedBatches) {
+        this.failedBatches = failedBatches;
+    }
+
+    public Integer getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(Integer accepted) {
+        this.accepted = accepted;
+    }
+
+    public Integer getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(Integer rejected) {
+        this.rejected = rejected;
+    }
+
+    public Integer getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(Integer duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public Boolean getTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(Boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public List<RowResult> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<RowResult> rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Outcome of one imported row
+     */
+    public static class RowResult {
+        private Integer rowNumber;
+        private String paymentRef;
+        private String status; // ACCEPTED, REJECTED, DUPLICATE, FAILED
+        private String reason;
+
+        public Integer getRowNumber() {
+            return rowNumber;
+        }
+
+        public void setRowNumber(Integer rowNumber) {
+            this.rowNumber = rowNumber;
+        }
+
+        public String getPaymentRef() {
+            return paymentRef;
+        }
+
+        public void setPaymentRef(String paymentRef) {
+            this.paymentRef = paymentRef;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+    }
+}
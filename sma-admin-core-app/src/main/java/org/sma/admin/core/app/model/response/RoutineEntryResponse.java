@@ -0,0 +1,146 @@
+package org.sma.admin.core.app.model.response;
+
+import java.time.LocalTime;
+
+/**
+ * Compact response DTO for one routine period served from the in-memory routine snapshot
+ */
+public class RoutineEntryResponse {
+    
+    private Long routineMasterId;
+    private String dayOfWeek;
+    private Long classId;
+    private String className;
+    private Long sectionId;
+    private String sectionName;
+    private Long timeSlotId;
+    private String slotName;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Integer slotOrder;
+    private Long subjectId;
+    private String subjectName;
+    private Long teacherId;
+    private String teacherName;
+
+    // Getters and Setters
+    public Long getRoutineMasterId() {
+        return routineMasterId;
+    }
+
+    public void setRoutineMasterId(Long routineMasterId) {
+        this.routineMasterId = routineMasterId;
+    }
+
+    public String getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public void setDayOfWeek(String dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public void setClassId(Long classId) {
+        this.classId = classId;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
+    public Long getSectionId() {
+        return sectionId;
+    }
+
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public String getSectionName() {
+        return sectionName;
+    }
+
+    public void setSectionName(String sectionName) {
+        this.sectionName = sectionName;
+    }
+
+    public Long getTimeSlotId() {
+        return timeSlotId;
+    }
+
+    public void setTimeSlotId(Long timeSlotId) {
+        this.timeSlotId = timeSlotId;
+    }
+
+    public String getSlotName() {
+        return slotName;
+    }
+
+    public void setSlotName(String slotName) {
+        this.slotName = slotName;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public Integer getSlotOrder() {
+        return slotOrder;
+    }
+
+    public void setSlotOrder(Integer slotOrder) {
+        this.slotOrder = slotOrder;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public String getSubjectName() {
+        return subjectName;
+    }
+
+    public void setSubjectName(String subjectName) {
+        this.subjectName = subjectName;
+    }
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public void setTeacherId(Long teacherId) {
+        this.teacherId = teacherId;
+    }
+
+    public String getTeacherName() {
+        return teacherName;
+    }
+
+    public void setTeacherName(String teacherName) {
+        this.teacherName = teacherName;
+    }
+}
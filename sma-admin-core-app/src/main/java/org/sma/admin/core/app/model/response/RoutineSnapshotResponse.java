@@ -0,0 +1,58 @@
+package org.sma.admin.core.app.model.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for a slice of the routine snapshot
+ * The version changes only when the routine content of the school's academic year changes.
+ */
+public class RoutineSnapshotResponse {
+    
+    private Long schoolId;
+    private Long academicYearId;
+    private Long version;
+    private LocalDateTime builtAt;
+    private List<RoutineEntryResponse> entries;
+
+    // Getters and Setters
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public void setBuiltAt(LocalDateTime builtAt) {
+        this.builtAt = builtAt;
+    }
+
+    public List<RoutineEntryResponse> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<RoutineEntryResponse> entries) {
+        this.entries = entries;
+    }
+}
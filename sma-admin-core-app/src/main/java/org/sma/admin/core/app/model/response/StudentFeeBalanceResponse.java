@@ -0,0 +1,124 @@
+package org.sma.admin.core.app.model.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Response DTO for a student's fee ledger balance in an academic year
+ */
+public class StudentFeeBalanceResponse {
+    private Long studentId;
+    private Long academicYearId;
+    private BigDecimal totalDue;
+    private BigDecimal totalPaid;
+    private BigDecimal totalDiscount;
+    private BigDecimal totalOutstanding;
+    private List<FeeCategoryBalance> categories;
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public BigDecimal getTotalDue() {
+        return totalDue;
+    }
+
+    public void setTotalDue(BigDecimal totalDue) {
+        this.totalDue = totalDue;
+    }
+
+    public BigDecimal getTotalPaid() {
+        return totalPaid;
+    }
+
+    public void setTotalPaid(BigDecimal totalPaid) {
+        this.totalPaid = totalPaid;
+    }
+
+    public BigDecimal getTotalDiscount() {
+        return totalDiscount;
+    }
+
+    public void setTotalDiscount(BigDecimal totalDiscount) {
+        this.totalDiscount = totalDiscount;
+    }
+
+    public BigDecimal getTotalOutstanding() {
+        return totalOutstanding;
+    }
+
+    public void setTotalOutstanding(BigDecimal totalOutstanding) {
+        this.totalOutstanding = totalOutstanding;
+    }
+
+    public List<FeeCategoryBalance> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<FeeCategoryBalance> categories) {
+        this.categories = categories;
+    }
+
+    /**
+     * Ledger balance of one fee category
+     */
+    public static class FeeCategoryBalance {
+        private Long feeCategoryId;
+        private BigDecimal amountDue;
+        private BigDecimal amountPaid;
+        private BigDecimal discountAmount;
+        private BigDecimal outstandingAmount;
+
+        public Long getFeeCategoryId() {
+            return feeCategoryId;
+        }
+
+        public void setFeeCategoryId(Long feeCategoryId) {
+            this.feeCategoryId = feeCategoryId;
+        }
+
+        public BigDecimal getAmountDue() {
+            return amountDue;
+        }
+
+        public void setAmountDue(BigDecimal amountDue) {
+            this.amountDue = amountDue;
+        }
+
+        public BigDecimal getAmountPaid() {
+            return amountPaid;
+        }
+
+        public void setAmountPaid(BigDecimal amountPaid) {
+            this.amountPaid = amountPaid;
+        }
+
+        public BigDecimal getDiscountAmount() {
+            return discountAmount;
+        }
+
+        public void setDiscountAmount(BigDecimal discountAmount) {
+            this.discountAmount = discountAmount;
+        }
+
+        public BigDecimal getOutstandingAmount() {
+            return outstandingAmount;
+        }
+
+        public void setOutstandingAmount(BigDecimal outstandingAmount) {
+            this.outstandingAmount = outstandingAmount;
+        }
+    }
+}
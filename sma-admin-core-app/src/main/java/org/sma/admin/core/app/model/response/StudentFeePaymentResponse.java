@@ -18,6 +18,7 @@ public class StudentFeePaymentResponse {
     private BigDecimal discountAmount;
     private LocalDateTime paidOn;
     private String paymentRef;
+    private String paymentMode;
     private String remarks;
 
     // Getters and Setters
@@ -101,6 +102,14 @@ public class StudentFeePaymentResponse {
         this.paymentRef = paymentRef;
     }
 
+    public String getPaymentMode() {
+        return paymentMode;
+    }
+
+    public void setPaymentMode(String paymentMode) {
+        this.paymentMode = paymentMode;
+    }
+
     public String getRemarks() {
         return remarks;
     }
@@ -0,0 +1,181 @@
+package org.sma.admin.core.app.model.response;
+
+import java.time.LocalTime;
+
+/**
+ * Response DTO for one affected period and its allocated substitute
+ * Substitute fields are empty when no free teacher was found.
+ */
+public class SubstitutionAssignmentResponse {
+    private Long sessionId;
+    private Long routineMasterId;
+    private Long classId;
+    private String className;
+    private Long sectionId;
+    private String sectionName;
+    private Long timeSlotId;
+    private String slotName;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Integer slotOrder;
+    private Long subjectId;
+    private String subjectName;
+    private Long absentTeacherId;
+    private String absentTeacherName;
+    private Long substituteTeacherId;
+    private String substituteTeacherName;
+    private String proficiencyLevel; // EXPERT, QUALIFIED, SUBSTITUTE or null when unqualified
+    private Integer substituteDayLoad;
+
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(Long sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public Long getRoutineMasterId() {
+        return routineMasterId;
+    }
+
+    public void setRoutineMasterId(Long routineMasterId) {
+        this.routineMasterId = routineMasterId;
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public void setClassId(Long classId) {
+        this.classId = classId;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
+    public Long getSectionId() {
+        return sectionId;
+    }
+
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public String getSectionName() {
+        return sectionName;
+    }
+
+    public void setSectionName(String sectionName) {
+        this.sectionName = sectionName;
+    }
+
+    public Long getTimeSlotId() {
+        return timeSlotId;
+    }
+
+    public void setTimeSlotId(Long timeSlotId) {
+        this.timeSlotId = timeSlotId;
+    }
+
+    public String getSlotName() {
+        return slotName;
+    }
+
+    public void setSlotName(String slotName) {
+        this.slotName = slotName;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public Integer getSlotOrder() {
+        return slotOrder;
+    }
+
+    public void setSlotOrder(Integer slotOrder) {
+        this.slotOrder = slotOrder;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public String getSubjectName() {
+        return subjectName;
+    }
+
+    public void setSubjectName(String subjectName) {
+        this.subjectName = subjectName;
+    }
+
+    public Long getAbsentTeacherId() {
+        return absentTeacherId;
+    }
+
+    public void setAbsentTeacherId(Long absentTeacherId) {
+        this.absentTeacherId = absentTeacherId;
+    }
+
+    public String getAbsentTeacherName() {
+        return absentTeacherName;
+    }
+
+    public void setAbsentTeacherName(String absentTeacherName) {
+        this.absentTeacherName = absentTeacherName;
+    }
+
+    public Long getSubstituteTeacherId() {
+        return substituteTeacherId;
+    }
+
+    public void setSubstituteTeacherId(Long substituteTeacherId) {
+        this.substituteTeacherId = substituteTeacherId;
+    }
+
+    public String getSubstituteTeacherName() {
+        return substituteTeacherName;
+    }
+
+    public void setSubstituteTeacherName(String substituteTeacherName) {
+        this.substituteTeacherName = substituteTeacherName;
+    }
+
+    public String getProficiencyLevel() {
+        return proficiencyLevel;
+    }
+
+    public void setProficiencyLevel(String proficiencyLevel) {
+        this.proficiencyLevel = proficiencyLevel;
+    }
+
+    public Integer getSubstituteDayLoad() {
+        return substituteDayLoad;
+    }
+
+    public void setSubstituteDayLoad(Integer substituteDayLoad) {
+        this.substituteDayLoad = substituteDayLoad;
+    }
+}
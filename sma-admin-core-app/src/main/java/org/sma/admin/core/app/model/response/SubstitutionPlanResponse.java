@@ -0,0 +1,73 @@
+package org.sma.admin.core.app.model.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response DTO for a batch substitute allocation
+ */
+public class SubstitutionPlanResponse {
+    private LocalDate sessionDate;
+    private List<Long> absentTeacherIds;
+    private Boolean applied;
+    private Integer affectedCount;
+    private Integer assignedCount;
+    private Integer unassignedCount;
+    private List<SubstitutionAssignmentResponse> assignments;
+
+    public LocalDate getSessionDate() {
+        return sessionDate;
+    }
+
+    public void setSessionDate(LocalDate sessionDate) {
+        this.sessionDate = sessionDate;
+    }
+
+    public List<Long> getAbsentTeacherIds() {
+        return absentTeacherIds;
+    }
+
+    public void setAbsentTeacherIds(List<Long> absentTeacherIds) {
+        this.absentTeacherIds = absentTeacherIds;
+    }
+
+    public Boolean getApplied() {
+        return applied;
+    }
+
+    public void setApplied(Boolean applied) {
+        this.applied = applied;
+    }
+
+    public Integer getAffectedCount() {
+        return affectedCount;
+    }
+
+    public void setAffectedCount(Integer affectedCount) {
+        this.affectedCount = affectedCount;
+    }
+
+    public Integer getAssignedCount() {
+        return assignedCount;
+    }
+
+    public void setAssignedCount(Integer assignedCount) {
+        this.assignedCount = assignedCount;
+    }
+
+    public Integer getUnassignedCount() {
+        return unassignedCount;
+    }
+
+    public void setUnassignedCount(Integer unassignedCount) {
+        this.unassignedCount = unassignedCount;
+    }
+
+    public List<SubstitutionAssignmentResponse> getAssignments() {
+        return assignments;
+    }
+
+    public void setAssignments(List<SubstitutionAssignmentResponse> assignments) {
+        this.assignments = assignments;
+    }
+}
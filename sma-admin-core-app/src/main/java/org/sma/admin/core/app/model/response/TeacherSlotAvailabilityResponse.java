@@ -0,0 +1,75 @@
+package org.sma.admin.core.app.model.response;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Response DTO for the teachers free in one time slot of a day
+ */
+public class TeacherSlotAvailabilityResponse {
+    
+    private Long timeSlotId;
+    private String slotName;
+    private String slotType;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Integer displayOrder;
+    private List<Long> freeTeacherIds;
+
+    // Getters and Setters
+    public Long getTimeSlotId() {
+        return timeSlotId;
+    }
+
+    public void setTimeSlotId(Long timeSlotId) {
+        this.timeSlotId = timeSlotId;
+    }
+
+    public String getSlotName() {
+        return slotName;
+    }
+
+    public void setSlotName(String slotName) {
+        this.slotName = slotName;
+    }
+
+    public String getSlotType() {
+        return slotType;
+    }
+
+    public void setSlotType(String slotType) {
+        this.slotType = slotType;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public Integer getDisplayOrder() {
+        return displayOrder;
+    }
+
+    public void setDisplayOrder(Integer displayOrder) {
+        this.displayOrder = displayOrder;
+    }
+
+    public List<Long> getFreeTeacherIds() {
+        return freeTeacherIds;
+    }
+
+    public void setFreeTeacherIds(List<Long> freeTeacherIds) {
+        this.freeTeacherIds = freeTeacherIds;
+    }
+}
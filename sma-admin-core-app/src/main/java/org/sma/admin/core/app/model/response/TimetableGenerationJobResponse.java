@@ -0,0 +1,200 @@
+package org.sma.admin.core.app.model.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for a timetable generation job and its progress
+ * Entries are filled once the job has finished.
+ */
+public class TimetableGenerationJobResponse {
+    private String jobId;
+    private Long schoolId;
+    private Long academicYearId;
+    private String status; // QUEUED, RUNNING, COMPLETED, INFEASIBLE, FAILED
+    private Long seed;
+    private Integer workers;
+    private Long timeBudgetMs;
+    private Long maxIterations;
+    private Boolean dryRun;
+    private Integer lessonCount;
+    private Long iterations;
+    private Long bestScore;
+    private Integer hardViolations;
+    private Long softPenalty;
+    private Integer entriesWritten;
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Long elapsedMs;
+    private List<RoutineEntryResponse> entries;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public Integer getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(Integer workers) {
+        this.workers = workers;
+    }
+
+    public Long getTimeBudgetMs() {
+        return timeBudgetMs;
+    }
+
+    public void setTimeBudgetMs(Long timeBudgetMs) {
+        this.timeBudgetMs = timeBudgetMs;
+    }
+
+    public Long getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(Long maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public Boolean getDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(Boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public Integer getLessonCount() {
+        return lessonCount;
+    }
+
+    public void setLessonCount(Integer lessonCount) {
+        this.lessonCount = lessonCount;
+    }
+
+    public Long getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(Long iterations) {
+        this.iterations = iterations;
+    }
+
+    public Long getBestScore() {
+        return bestScore;
+    }
+
+    public void setBestScore(Long bestScore) {
+        this.bestScore = bestScore;
+    }
+
+    public Integer getHardViolations() {
+        return hardViolations;
+    }
+
+    public void setHardViolations(Integer hardViolations) {
+        this.hardViolations = hardViolations;
+    }
+
+    public Long getSoftPenalty() {
+        return softPenalty;
+    }
+
+    public void setSoftPenalty(Long softPenalty) {
+        this.softPenalty = softPenalty;
+    }
+
+    public Integer getEntriesWritten() {
+        return entriesWritten;
+    }
+
+    public void setEntriesWritten(Integer entriesWritten) {
+        this.entriesWritten = entriesWritten;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public Long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(Long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public List<RoutineEntryResponse> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<RoutineEntryResponse> entries) {
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,133 @@
+package org.sma.admin.core.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.model.response.AttendanceBitmapResponse;
+import org.sma.jpa.model.routine.DailyClassSession;
+import org.sma.jpa.model.routine.StudentAttendanceBitmap;
+import org.sma.jpa.model.school.AcademicYear;
+import org.sma.jpa.repository.routine.StudentAttendanceBitmapRepository;
+import org.sma.jpa.repository.routine.StudentAttendanceRollupRepository;
+import org.sma.jpa.repository.school.AcademicYearRepository;
+import org.sma.jpa.repository.studentmgmt.StudentProfileRepository;
+import org.sma.platform.core.exception.SmaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maintains and serves per-student, per-academic-year attendance bitmaps
+ */
+@Service
+public class AttendanceBitmapService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceBitmapService.class);
+
+    @Autowired
+    private StudentAttendanceBitmapRepository bitmapRepository;
+
+    @Autowired
+    private StudentAttendanceRollupRepository rollupRepository;
+
+    @Autowired
+    private AcademicYearRepository academicYearRepository;
+
+    @Autowired
+    private StudentProfileRepository studentProfileRepository;
+
+    /**
+     * Record the statuses of one session for the given students
+     * Joins the caller's transaction so bitmaps commit together with the raw rows.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSessionStatuses(DailyClassSession session, Map<Long, String> statusByStudent) {
+        AcademicYear academicYear = session.getAcademicYear();
+        int ordinal = StudentAttendanceBitmap.ordinalOf(academicYear.getStartDate(),
+                session.getSessionDate(), session.getTimeSlot().getDisplayOrder());
+        if (ordinal < 0) {
+            logger.warn("Session {} on {} is outside the attendance bitmap range, skipping bitmap update",
+                    session.getId(), session.getSessionDate());
+            return;
+        }
+        bitmapRepository.markSessionStatuses(session.getSchool().getId(), academicYear.getId(),
+                academicYear.getStartDate(), ordinal, statusByStudent);
+    }
+
+    public AttendanceBitmapResponse getStudentBitmap(Long schoolId, Long studentId, Long academicYearId)
+            throws SmaException {
+        Optional<StudentAttendanceBitmap> bitmapOpt =
+                bitmapRepository.findBySchoolIdAndStudentIdAndAcademicYearId(schoolId, studentId, academicYearId);
+
+        AttendanceBitmapResponse response = new AttendanceBitmapResponse();
+        response.setStudentId(studentId);
+        response.setAcademicYearId(academicYearId);
+        response.setSlotsPerDay(StudentAttendanceBitmap.SLOTS_PER_DAY);
+
+        if (bitmapOpt.isPresent()) {
+            StudentAttendanceBitmap bitmap = bitmapOpt.get();
+            response.setYearStartDate(bitmap.getYearStartDate());
+            response.setPresentBits(bitmap.getPresentBits());
+            response.setAbsentBits(bitmap.getAbsentBits());
+            response.setLateBits(bitmap.getLateBits());
+            response.setOtherBits(bitmap.getOtherBits());
+        } else {
+            // No attendance recorded yet for this year
+            if (!studentProfileRepository.existsByIdAndSchoolId(studentId, schoolId)) {
+                throw new SmaException("Student not found");
+            }
+            AcademicYear academicYear = academicYearRepository.findById(academicYearId)
+                    .filter(year -> year.getSchool().getId().equals(schoolId))
+                    .orElseThrow(() -> new SmaException("Academic year not found"));
+            byte[] empty = new byte[StudentAttendanceBitmap.BITMAP_BYTES];
+            response.setYearStartDate(academicYear.getStartDate());
+            response.setPresentBits(empty);
+            response.setAbsentBits(empty);
+            response.setLateBits(empty);
+            response.setOtherBits(empty);
+        }
+
+        response.setPresentCount(bitCount(response.getPresentBits()));
+        response.setAbsentCount(bitCount(response.getAbsentBits()));
+        response.setLateCount(bitCount(response.getLateBits()));
+        response.setOtherCount(bitCount(response.getOtherBits()));
+        return response;
+    }
+
+    /**
+     * Recompute all bitmaps of a school's academic year from recorded attendance
+     */
+    @Transactional
+    public Map<String, Object> rebuildForYear(Long schoolId, Long academicYearId) throws SmaException {
+        AcademicYear academicYear = academicYearRepository.findById(academicYearId)
+                .orElseThrow(() -> new SmaException("Academic year not found"));
+
+        // Same per-school lock the attendance writers take shared
+        rollupRepository.lockSchool(schoolId, true);
+
+        long start = System.currentTimeMillis();
+        int written = bitmapRepository.rebuildForYear(schoolId, academicYearId, academicYear.getStartDate());
+        long durationMs = System.currentTimeMillis() - start;
+        logger.info("Rebuilt attendance bitmaps for school {}, year {}: {} students in {} ms",
+                schoolId, academicYearId, written, durationMs);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("schoolId", schoolId);
+        result.put("academicYearId", academicYearId);
+        result.put("studentsWritten", written);
+        result.put("durationMs", durationMs);
+        return result;
+    }
+
+    private int bitCount(byte[] bits) {
+        int count = 0;
+        for (byte b : bits) {
+            count += Integer.bitCount(b & 0xFF);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,464 @@
+package org.sma.admin.core.app.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.config.AttendanceIngestionConfigProperties;
+import org.sma.admin.core.app.model.request.BulkAttendanceRequest;
+import org.sma.admin.core.app.model.request.DeviceWebhookRequest;
+import org.sma.admin.core.app.model.request.StaffBulkAttendanceRequest;
+import org.sma.jpa.model.staff.Staff;
+import org.sma.jpa.model.studentmgmt.StudentProfile;
+import org.sma.jpa.repository.staff.StaffRepository;
+import org.sma.jpa.repository.studentmgmt.StudentProfileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous ingestion pipeline for attendance device pushes
+ * Items are buffered in bounded per-worker queues (routed by session so one worker
+ * owns a session), coalesced per session and flushed in batches through the
+ * bulk attendance services. Unknown targets are dropped before a flush, and a batch
+ * that still fails is retried item by item, so one bad item never costs the others.
+ */
+@Service
+public class AttendanceIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceIngestionService.class);
+
+    private static final String METRIC_PREFIX = "sma.attendance.ingestion";
+
+    @Autowired
+    private AttendanceIngestionConfigProperties config;
+
+    @Autowired
+    private StudentAttendanceBusinessService studentAttendanceService;
+
+    @Autowired
+    private StaffAttendanceBusinessService staffAttendanceService;
+
+    @Autowired
+    private StudentProfileRepository studentProfileRepository;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<BlockingQueue<IngestItem>> queues = new ArrayList<>();
+    private ExecutorService workerPool;
+    private volatile boolean running;
+
+    private final Map<Long, SchoolCounters> schoolCounters = new ConcurrentHashMap<>();
+
+    private Counter acceptedCounter;
+    private Counter droppedCounter;
+    private Counter rejectedCounter;
+    private Counter flushedCounter;
+    private Counter failedCounter;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void start() {
+        int workers = Math.max(1, config.getWorkers());
+        int perWorkerCapacity = Math.max(1, config.getQueueCapacity() / workers);
+        for (int i = 0; i < workers; i++) {
+            queues.add(new ArrayBlockingQueue<>(perWorkerCapacity));
+        }
+
+        acceptedCounter = Counter.builder(METRIC_PREFIX + ".items").tag("outcome", "accepted").register(meterRegistry);
+        droppedCounter = Counter.builder(METRIC_PREFIX + ".items").tag("outcome", "dropped").register(meterRegistry);
+        rejectedCounter = Counter.builder(METRIC_PREFIX + ".items").tag("outcome", "rejected").register(meterRegistry);
+        flushedCounter = Counter.builder(METRIC_PREFIX + ".items").tag("outcome", "flushed").register(meterRegistry);
+        failedCounter = Counter.builder(METRIC_PREFIX + ".items").tag("outcome", "failed").register(meterRegistry);
+        flushTimer = Timer.builder(METRIC_PREFIX + ".flush").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", this, AttendanceIngestionService::getQueueDepth)
+                .register(meterRegistry);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "attendance-ingest-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        running = true;
+        for (BlockingQueue<IngestItem> queue : queues) {
+            workerPool.submit(() -> runWorker(queue));
+        }
+        logger.info("Attendance ingestion started with {} workers, queue capacity {}", workers, perWorkerCapacity * workers);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workerPool.shutdown();
+        try {
+            if (!workerPool.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Attendance ingestion shutdown timed out with {} items still queued", getQueueDepth());
+                workerPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workerPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Accept device items into the buffer without touching the database
+     * Items the buffer cannot take within the offer timeout are dropped and counted,
+     * so the caller can signal the device to retry.
+     */
+    public Map<String, Object> ingest(Long schoolId, DeviceWebhookRequest request) {
+        int accepted = 0;
+        int dropped = 0;
+        int rejected = 0;
+
+        for (DeviceWebhookRequest.DeviceAttendanceItem item : request.getItems()) {
+            boolean staff = "STAFF".equalsIgnoreCase(item.getTargetType());
+            if (item.getTargetId() == null || item.getAttendanceStatus() == null
+                    || (!staff && item.getSessionId() == null)) {
+                rejected++;
+                continue;
+            }
+
+            IngestItem ingestItem = new IngestItem(schoolId, staff, item);
+            if (offer(ingestItem)) {
+                accepted++;
+            } else {
+                dropped++;
+            }
+        }
+
+        SchoolCounters counters = countersFor(schoolId);
+        counters.accepted.addAndGet(accepted);
+        counters.dropped.addAndGet(dropped);
+        counters.rejected.addAndGet(rejected);
+        acceptedCounter.increment(accepted);
+        droppedCounter.increment(dropped);
+        rejectedCounter.increment(rejected);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("deviceId", request.getDeviceId());
+        result.put("deviceTxnId", request.getDeviceTxnId());
+        result.put("acceptedCount", accepted);
+        result.put("droppedCount", dropped);
+        result.put("rejectedCount", rejected);
+        result.put("queueDepth", getQueueDepth());
+        return result;
+    }
+
+    /**
+     * Pipeline health plus the counters of one school; other schools' figures are not exposed
+     */
+    public Map<String, Object> getStatus(Long schoolId) {
+        SchoolCounters counters = schoolCounters.getOrDefault(schoolId, new SchoolCounters());
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("schoolId", schoolId);
+        status.put("running", running);
+        status.put("workers", queues.size());
+        status.put("queueCapacity", getQueueCapacity());
+        status.put("queueDepth", getQueueDepth());
+        status.put("pendingCount", counters.pending.get());
+        status.put("acceptedCount", counters.accepted.get());
+        status.put("droppedCount", counters.dropped.get());
+        status.put("rejectedCount", counters.rejected.get());
+        status.put("flushedItemCount", counters.flushedItems.get());
+        status.put("flushedBatchCount", counters.flushedBatches.get());
+        status.put("failedItemCount", counters.failedItems.get());
+        status.put("meanFlushMs", flushTimer.mean(TimeUnit.MILLISECONDS));
+        status.put("maxFlushMs", flushTimer.max(TimeUnit.MILLISECONDS));
+        status.put("lastFlushAt", counters.lastFlushAt);
+        status.put("lastError", counters.lastError);
+        return status;
+    }
+
+    public int getQueueDepth() {
+        int depth = 0;
+        for (BlockingQueue<IngestItem> queue : queues) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    private int getQueueCapacity() {
+        int capacity = 0;
+        for (BlockingQueue<IngestItem> queue : queues) {
+            capacity += queue.size() + queue.remainingCapacity();
+        }
+        return capacity;
+    }
+
+    private boolean offer(IngestItem ingestItem) {
+        if (!running) {
+            return false;
+        }
+        // Route by session so every item of a session is flushed by the same worker, in order
+        Long routingKey = ingestItem.item.getSessionId() != null
+                ? ingestItem.item.getSessionId() : ingestItem.item.getTargetId();
+        int index = Math.floorMod(Objects.hash(ingestItem.schoolId, routingKey), queues.size());
+        try {
+            boolean queued = queues.get(index).offer(ingestItem, config.getOfferTimeoutMs(), TimeUnit.MILLISECONDS);
+            if (queued) {
+                countersFor(ingestItem.schoolId).pending.incrementAndGet();
+            }
+            return queued;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void runWorker(BlockingQueue<IngestItem> queue) {
+        int maxBatchSize = Math.max(1, config.getMaxBatchSize());
+        List<IngestItem> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                IngestItem first = queue.poll(config.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Attendance ingestion worker failed to flush batch", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<IngestItem> batch) {
+        // Coalesce per session; the latest push for a target within the batch wins
+        Map<SessionKey, Map<Long, DeviceWebhookRequest.DeviceAttendanceItem>> coalesced = new LinkedHashMap<>();
+        for (IngestItem ingestItem : batch) {
+            SessionKey key = new SessionKey(ingestItem.schoolId, ingestItem.staff, ingestItem.item.getSessionId());
+            coalesced.computeIfAbsent(key, k -> new LinkedHashMap<>())
+                    .put(ingestItem.item.getTargetId(), ingestItem.item);
+        }
+
+        for (IngestItem ingestItem : batch) {
+            countersFor(ingestItem.schoolId).pending.decrementAndGet();
+        }
+
+        for (Map.Entry<SessionKey, Map<Long, DeviceWebhookRequest.DeviceAttendanceItem>> entry : coalesced.entrySet()) {
+            SessionKey key = entry.getKey();
+            SchoolCounters counters = countersFor(key.schoolId);
+            List<DeviceWebhookRequest.DeviceAttendanceItem> items = new ArrayList<>(entry.getValue().values());
+            long start = System.nanoTime();
+            try {
+                List<DeviceWebhookRequest.DeviceAttendanceItem> known = dropUnknownTargets(key, items, counters);
+                if (known.isEmpty()) {
+                    continue;
+                }
+                try {
+                    write(key, known);
+                    recordFlushed(counters, known.size());
+                } catch (RuntimeException e) {
+                    if (known.size() == 1) {
+                        recordFailed(key, counters, 1, e);
+                    } else {
+                        // Isolate the failing items so the rest of the accepted push is still recorded
+                        logger.warn("Batch of {} attendance items for school {}, session {} failed ({}), retrying item by item",
+                                known.size(), key.schoolId, key.sessionId, e.getMessage());
+                        for (DeviceWebhookRequest.DeviceAttendanceItem item : known) {
+                            try {
+                                write(key, Collections.singletonList(item));
+                                recordFlushed(counters, 1);
+                            } catch (RuntimeException itemError) {
+                                recordFailed(key, counters, 1, itemError);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                counters.lastFlushAt = LocalDateTime.now();
+            }
+        }
+    }
+
+    private void write(SessionKey key, List<DeviceWebhookRequest.DeviceAttendanceItem> items) {
+        if (key.staff) {
+            staffAttendanceService.markBulkAttendance(toStaffRequest(key.sessionId, items));
+        } else {
+            studentAttendanceService.markBulkAttendance(key.schoolId, toStudentRequest(key.sessionId, items));
+        }
+    }
+
+    /**
+     * Drop items whose student or staff member does not exist in the pushing school, with one lookup per batch
+     */
+    private List<DeviceWebhookRequest.DeviceAttendanceItem> dropUnknownTargets(
+            SessionKey key, List<DeviceWebhookRequest.DeviceAttendanceItem> items, SchoolCounters counters) {
+        Set<Long> targetIds = new HashSet<>();
+        for (DeviceWebhookRequest.DeviceAttendanceItem item : items) {
+            targetIds.add(item.getTargetId());
+        }
+        Set<Long> knownIds = new HashSet<>();
+        if (key.staff) {
+            for (Staff staff : staffRepository.findAllById(targetIds)) {
+                if (staff.getSchool() != null && key.schoolId.equals(staff.getSchool().getId())) {
+                    knownIds.add(staff.getId());
+                }
+            }
+        } else {
+            for (StudentProfile student : studentProfileRepository.findAllById(targetIds)) {
+                if (key.schoolId.equals(student.getSchoolId())) {
+                    knownIds.add(student.getId());
+                }
+            }
+        }
+        if (knownIds.size() == targetIds.size()) {
+            return items;
+        }
+
+        List<DeviceWebhookRequest.DeviceAttendanceItem> known = new ArrayList<>(items.size());
+        int unknown = 0;
+        for (DeviceWebhookRequest.DeviceAttendanceItem item : items) {
+            if (knownIds.contains(item.getTargetId())) {
+                known.add(item);
+            } else {
+                unknown++;
+            }
+        }
+        failedCounter.increment(unknown);
+        counters.failedItems.addAndGet(unknown);
+        counters.lastError = "Session " + key.sessionId + ": " + unknown + " items for unknown "
+                + (key.staff ? "staff" : "students") + " skipped";
+        logger.warn("Skipped {} attendance items for unknown targets in school {}, session {}",
+                unknown, key.schoolId, key.sessionId);
+        return known;
+    }
+
+    private void recordFlushed(SchoolCounters counters, int count) {
+        flushedCounter.increment(count);
+        counters.flushedItems.addAndGet(count);
+        counters.flushedBatches.incrementAndGet();
+    }
+
+    private void recordFailed(SessionKey key, SchoolCounters counters, int count, RuntimeException e) {
+        failedCounter.increment(count);
+        counters.failedItems.addAndGet(count);
+        counters.lastError = "Session " + key.sessionId + ": " + e.getMessage();
+        logger.error("Failed to flush {} attendance items for school {}, session {}",
+                count, key.schoolId, key.sessionId, e);
+    }
+
+    private SchoolCounters countersFor(Long schoolId) {
+        return schoolCounters.computeIfAbsent(schoolId, id -> new SchoolCounters());
+    }
+
+    private BulkAttendanceRequest toStudentRequest(Long sessionId, List<DeviceWebhookRequest.DeviceAttendanceItem> items) {
+        List<BulkAttendanceRequest.StudentAttendanceItem> studentItems = new ArrayList<>(items.size());
+        for (DeviceWebhookRequest.DeviceAttendanceItem item : items) {
+            BulkAttendanceRequest.StudentAttendanceItem studentItem = new BulkAttendanceRequest.StudentAttendanceItem();
+            studentItem.setStudentId(item.getTargetId());
+            studentItem.setAttendanceStatus(item.getAttendanceStatus());
+            studentItem.setRemarks(item.getRemarks());
+            studentItems.add(studentItem);
+        }
+        BulkAttendanceRequest request = new BulkAttendanceRequest();
+        request.setSessionId(sessionId);
+        request.setAttendanceList(studentItems);
+        request.setMarkedBy(null); // device pushes carry no staff
+        return request;
+    }
+
+    private StaffBulkAttendanceRequest toStaffRequest(Long sessionId, List<DeviceWebhookRequest.DeviceAttendanceItem> items) {
+        List<StaffBulkAttendanceRequest.StaffAttendanceItem> staffItems = new ArrayList<>(items.size());
+        for (DeviceWebhookRequest.DeviceAttendanceItem item : items) {
+            StaffBulkAttendanceRequest.StaffAttendanceItem staffItem = new StaffBulkAttendanceRequest.StaffAttendanceItem();
+            staffItem.setStaffId(item.getTargetId());
+            staffItem.setAttendanceStatus(item.getAttendanceStatus());
+            staffItem.setRemarks(item.getRemarks());
+            staffItems.add(staffItem);
+        }
+        StaffBulkAttendanceRequest request = new StaffBulkAttendanceRequest();
+        request.setSessionId(sessionId);
+        request.setAttendanceList(staffItems);
+        request.setMarkedBy(null);
+        return request;
+    }
+
+    private static final class SchoolCounters {
+        private final AtomicLong pending = new AtomicLong();
+        private final AtomicLong accepted = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong flushedItems = new AtomicLong();
+        private final AtomicLong flushedBatches = new AtomicLong();
+        private final AtomicLong failedItems = new AtomicLong();
+        private volatile LocalDateTime lastFlushAt;
+        private volatile String lastError;
+    }
+
+    private static final class IngestItem {
+        private final Long schoolId;
+        private final boolean staff;
+        private final DeviceWebhookRequest.DeviceAttendanceItem item;
+
+        private IngestItem(Long schoolId, boolean staff, DeviceWebhookRequest.DeviceAttendanceItem item) {
+            this.schoolId = schoolId;
+            this.staff = staff;
+            this.item = item;
+        }
+    }
+
+    private static final class SessionKey {
+        private final Long schoolId;
+        private final boolean staff;
+        private final Long sessionId;
+
+        private SessionKey(Long schoolId, boolean staff, Long sessionId) {
+            this.schoolId = schoolId;
+            this.staff = staff;
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SessionKey)) return false;
+            SessionKey that = (SessionKey) o;
+            return staff == that.staff
+                    && Objects.equals(schoolId, that.schoolId)
+                    && Objects.equals(sessionId, that.sessionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(schoolId, staff, sessionId);
+        }
+    }
+}
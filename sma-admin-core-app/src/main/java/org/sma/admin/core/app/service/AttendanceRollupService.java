@@ -0,0 +1,133 @@
+package org.sma.admin.core.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.jpa.model.routine.DailyClassSession;
+import org.sma.jpa.model.routine.StudentAttendanceRollup;
+import org.sma.jpa.repository.routine.StudentAttendanceRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains and reads the student attendance rollup store
+ * Write methods join the caller's transaction so rollups commit together with the raw rows.
+ */
+@Service
+public class AttendanceRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceRollupService.class);
+
+    @Autowired
+    private StudentAttendanceRollupRepository rollupRepository;
+
+    /**
+     * Take the shared rollup lock for a school and the exclusive lock for the session
+     * before prior statuses are read, so two writers of a session never apply the same delta
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockForWrite(Long schoolId, Long sessionId) {
+        rollupRepository.lockSchool(schoolId, false);
+        rollupRepository.lockSession(sessionId);
+    }
+
+    /**
+     * Apply status transitions for students of one session
+     * A null old status means a new attendance row; equal statuses are skipped.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyTransitions(DailyClassSession session, Map<Long, String> oldStatuses,
+                                 Map<Long, String> newStatuses) {
+        Long schoolId = session.getSchool().getId();
+        Long sectionId = session.getSection().getId();
+        LocalDate sessionDate = session.getSessionDate();
+
+        Map<String, StudentAttendanceRollup> deltas = new LinkedHashMap<>();
+        for (Map.Entry<Long, String> entry : newStatuses.entrySet()) {
+            Long studentId = entry.getKey();
+            String oldStatus = oldStatuses.get(studentId);
+            String newStatus = entry.getValue();
+            if (newStatus == null || newStatus.equals(oldStatus)) {
+                continue;
+            }
+            if (oldStatus != null) {
+                addDeltas(deltas, schoolId, studentId, sectionId, sessionDate, oldStatus, -1);
+            }
+            addDeltas(deltas, schoolId, studentId, sectionId, sessionDate, newStatus, 1);
+        }
+
+        rollupRepository.mergeCounts(new ArrayList<>(deltas.values()));
+    }
+
+    public long countStudentAttendance(Long studentId, LocalDate startDate, LocalDate endDate, String status) {
+        RollupRange range = RollupRange.of(startDate, endDate);
+        return rollupRepository.sumSessionCount(StudentAttendanceRollup.SCOPE_STUDENT, studentId, status,
+                range.headStart, range.headEnd, range.monthStart, range.monthEnd, range.tailStart, range.tailEnd);
+    }
+
+    /**
+     * Returns list of Object[] with [attendanceStatus, count] for a section
+     */
+    public List<Object[]> getSectionSummary(Long schoolId, Long sectionId, LocalDate startDate, LocalDate endDate) {
+        RollupRange range = RollupRange.of(startDate, endDate);
+        return rollupRepository.summarizeByStatus(schoolId, StudentAttendanceRollup.SCOPE_SECTION, sectionId,
+                range.headStart, range.headEnd, range.monthStart, range.monthEnd, range.tailStart, range.tailEnd);
+    }
+
+    /**
+     * Recompute all rollups of a school from attendance history
+     */
+    @Transactional
+    public Map<String, Object> rebuildForSchool(Long schoolId) {
+        long start = System.currentTimeMillis();
+        rollupRepository.lockSchool(schoolId, true);
+        int written = rollupRepository.rebuildForSchool(schoolId);
+        long durationMs = System.currentTimeMillis() - start;
+        logger.info("Rebuilt attendance rollups for school {}: {} buckets in {} ms", schoolId, written, durationMs);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("schoolId", schoolId);
+        result.put("bucketsWritten", written);
+        result.put("durationMs", durationMs);
+        return result;
+    }
+
+    private void addDeltas(Map<String, StudentAttendanceRollup> deltas, Long schoolId, Long studentId,
+                           Long sectionId, LocalDate sessionDate, String status, long delta) {
+        LocalDate monthStart = sessionDate.withDayOfMonth(1);
+        addDelta(deltas, schoolId, StudentAttendanceRollup.SCOPE_STUDENT, studentId,
+                StudentAttendanceRollup.PERIOD_DAY, sessionDate, status, delta);
+        addDelta(deltas, schoolId, StudentAttendanceRollup.SCOPE_STUDENT, studentId,
+                StudentAttendanceRollup.PERIOD_MONTH, monthStart, status, delta);
+        addDelta(deltas, schoolId, StudentAttendanceRollup.SCOPE_SECTION, sectionId,
+                StudentAttendanceRollup.PERIOD_DAY, sessionDate, status, delta);
+        addDelta(deltas, schoolId, StudentAttendanceRollup.SCOPE_SECTION, sectionId,
+                StudentAttendanceRollup.PERIOD_MONTH, monthStart, status, delta);
+    }
+
+    private void addDelta(Map<String, StudentAttendanceRollup> deltas, Long schoolId, String scopeType, Long scopeId,
+                          String periodType, LocalDate periodStart, String status, long delta) {
+        String key = scopeType + ":" + scopeId + ":" + periodType + ":" + periodStart + ":" + status;
+        StudentAttendanceRollup row = deltas.get(key);
+        if (row == null) {
+            row = new StudentAttendanceRollup();
+            row.setSchoolId(schoolId);
+            row.setScopeType(scopeType);
+            row.setScopeId(scopeId);
+            row.setPeriodType(periodType);
+            row.setPeriodStart(periodStart);
+            row.setAttendanceStatus(status);
+            row.setSessionCount(0L);
+            deltas.put(key, row);
+        }
+        row.setSessionCount(row.getSessionCount() + delta);
+    }
+}
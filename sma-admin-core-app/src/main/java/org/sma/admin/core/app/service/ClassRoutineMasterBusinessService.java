@@ -1,6 +1,9 @@
 package org.sma.admin.core.app.service;
 
 import org.sma.admin.core.app.model.request.ClassRoutineMasterRequest;
+import org.sma.admin.core.app.model.response.DayTeacherAvailabilityResponse;
+import org.sma.admin.core.app.model.response.RoutineEntryResponse;
+import org.sma.admin.core.app.model.response.TeacherSlotAvailabilityResponse;
 import org.sma.jpa.model.master.ClassMaster;
 import org.sma.jpa.model.master.SectionMaster;
 import org.sma.jpa.model.master.SubjectMaster;
@@ -22,10 +25,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class ClassRoutineMasterBusinessService {
@@ -54,6 +63,9 @@ public class ClassRoutineMasterBusinessService {
     @Autowired
     private StaffRepository staffRepository;
 
+    @Autowired
+    private RoutineSnapshotService routineSnapshotService;
+
     @Transactional
     public ClassRoutineMaster createOrUpdateRoutine(ClassRoutineMasterRequest request) throws SmaException {
         // Validate all required entities
@@ -78,6 +90,14 @@ public class ClassRoutineMasterBusinessService {
         Staff teacher = staffRepository.findById(request.getTeacherId())
                 .orElseThrow(() -> new SmaException("Teacher not found"));
 
+        // Clash check and write happen under the school's routine lock so two writers cannot double-book
+        classRoutineMasterRepository.lockSchool(request.getSchoolId());
+        if (classRoutineMasterRepository.countTeacherClashes(request.getSchoolId(), request.getAcademicYearId(),
+                teacher.getId(), request.getDayOfWeek(), request.getTimeSlotId(),
+                request.getClassId(), request.getSectionId()) > 0) {
+            throw new SmaException("Teacher is already scheduled in another class for this day and time slot");
+        }
+
         // Check if routine already exists (update scenario)
         Optional<ClassRoutineMaster> existingOpt = classRoutineMasterRepository.findByUniqueConstraint(
                 request.getSchoolId(), 
@@ -89,11 +109,12 @@ public class ClassRoutineMasterBusinessService {
 
         ClassRoutineMaster routine;
         if (existingOpt.isPresent()) {
-            // Update existing
+            // Update existing, reactivating a slot left behind by a replaced routine
             routine = existingOpt.get();
             routine.setSubject(subject);
             routine.setTeacher(teacher);
             routine.setRemarks(request.getRemarks());
+            routine.setIsActive(true);
         } else {
             // Create new
             routine = new ClassRoutineMaster();
@@ -108,7 +129,57 @@ public class ClassRoutineMasterBusinessService {
             routine.setRemarks(request.getRemarks());
         }
 
-        return classRoutineMasterRepository.save(routine);
+        ClassRoutineMaster saved = classRoutineMasterRepository.save(routine);
+        routineSnapshotService.refreshAfterCommit(request.getSchoolId(), request.getAcademicYearId());
+        return saved;
+    }
+
+    /**
+     * Write a generated routine in one batch
+     * Routines of the replaced sections are deactivated first; generated cells reactivate their rows.
+     */
+    @Transactional
+    public int saveGeneratedRoutine(Long schoolId, Long academicYearId, Collection<Long> replaceSectionIds,
+                                    List<RoutineEntryResponse> entries) {
+        classRoutineMasterRepository.lockSchool(schoolId);
+        if (!replaceSectionIds.isEmpty()) {
+            classRoutineMasterRepository.deactivateForSections(schoolId, academicYearId, replaceSectionIds);
+        }
+
+        SchoolProfile school = schoolProfileRepository.getById(schoolId);
+        AcademicYear academicYear = academicYearRepository.getById(academicYearId);
+        List<ClassRoutineMaster> routines = new ArrayList<>(entries.size());
+        for (RoutineEntryResponse entry : entries) {
+            ClassRoutineMaster routine = new ClassRoutineMaster();
+            routine.setSchool(school);
+            routine.setAcademicYear(academicYear);
+            routine.setClassMaster(classMasterRepository.getById(entry.getClassId()));
+            routine.setSection(sectionMasterRepository.getById(entry.getSectionId()));
+            routine.setDayOfWeek(entry.getDayOfWeek());
+            routine.setTimeSlot(routineTimeSlotRepository.getById(entry.getTimeSlotId()));
+            routine.setSubject(subjectMasterRepository.getById(entry.getSubjectId()));
+            routine.setTeacher(staffRepository.getById(entry.getTeacherId()));
+            routines.add(routine);
+        }
+        classRoutineMasterRepository.upsertAll(routines);
+
+        // The generator may have planned against a stale snapshot; roll back rather than double-book
+        Set<Long> teacherIds = new HashSet<>();
+        for (RoutineEntryResponse entry : entries) {
+            if (entry.getTeacherId() != null) {
+                teacherIds.add(entry.getTeacherId());
+            }
+        }
+        if (!teacherIds.isEmpty()) {
+            List<Long> doubleBooked = classRoutineMasterRepository.findDoubleBookedTeachers(
+                    schoolId, academicYearId, teacherIds);
+            if (!doubleBooked.isEmpty()) {
+                throw new SmaException("Generated routine double-books teachers " + doubleBooked
+                        + " against the saved routine; regenerate and try again");
+            }
+        }
+        routineSnapshotService.refreshAfterCommit(schoolId, academicYearId);
+        return routines.size();
     }
 
     public List<ClassRoutineMaster> getWeeklyRoutine(Long schoolId, Long academicYearId, 
@@ -128,10 +199,10 @@ public class ClassRoutineMasterBusinessService {
 
     @Transactional
     public void deleteRoutineEntry(Long routineId) throws SmaException {
-        if (!classRoutineMasterRepository.existsById(routineId)) {
-            throw new SmaException("Routine entry not found");
-        }
-        classRoutineMasterRepository.deleteById(routineId);
+        ClassRoutineMaster routine = classRoutineMasterRepository.findById(routineId)
+                .orElseThrow(() -> new SmaException("Routine entry not found"));
+        classRoutineMasterRepository.delete(routine);
+        routineSnapshotService.refreshAfterCommit(routine.getSchool().getId(), routine.getAcademicYear().getId());
     }
 
     public ClassRoutineMaster getRoutineById(Long routineId) throws SmaException {
@@ -142,7 +213,9 @@ public class ClassRoutineMasterBusinessService {
     public Map<String, Object> checkTeacherAvailability(Long schoolId, Long teacherId, Long timeSlotId,
                                                          Long academicYearId, Long classId, Long sectionId, String dayOfWeek) {
         Map<String, Object> result = new HashMap<>();
-        
+
+        // Answered from the database: the snapshot can be stale on other nodes and must not
+        // report a teacher as free. Writes re-check under the routine lock in any case.
         // Find all routine entries for this teacher in the same time slot across all classes
         List<ClassRoutineMaster> conflictingRoutines = classRoutineMasterRepository
                 .findConflictingRoutines(schoolId, teacherId, timeSlotId, academicYearId);
@@ -166,32 +239,65 @@ public class ClassRoutineMasterBusinessService {
     }
 
     public List<Staff> getAvailableTeachers(Long schoolId, Long timeSlotId, Long academicYearId, String dayOfWeek, String staffType) {
-        // Get all active teachers for this school with specified staff type
-        List<Staff> allTeachers = staffType != null && !staffType.isEmpty()
+        // Answered from the database so a teacher freed on another node is offered straight away
+        Set<Long> busyTeacherIds = new HashSet<>();
+        for (Object[] row : classRoutineMasterRepository.findBusyTeachersForSlot(schoolId, academicYearId, timeSlotId)) {
+            if (dayOfWeek == null || dayOfWeek.isEmpty() || dayOfWeek.equalsIgnoreCase((String) row[1])) {
+                busyTeacherIds.add((Long) row[0]);
+            }
+        }
+        return findActiveTeachers(schoolId, staffType).stream()
+                .filter(teacher -> !busyTeacherIds.contains(teacher.getId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Free teachers for every active time slot of a day
+     * Busy teachers come from one database query for the whole day.
+     */
+    public DayTeacherAvailabilityResponse getAvailableTeachersForDay(Long schoolId, Long academicYearId,
+                                                                    String dayOfWeek, String staffType) {
+        List<Staff> teachers = findActiveTeachers(schoolId, staffType);
+        List<RoutineTimeSlot> timeSlots = routineTimeSlotRepository.findBySchoolIdAndIsActiveTrue(schoolId);
+        timeSlots.sort(Comparator.comparing(RoutineTimeSlot::getDisplayOrder,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        Set<String> busyTeacherSlots = new HashSet<>();
+        for (Object[] row : classRoutineMasterRepository.findBusyTeacherSlotsForDay(
+                schoolId, academicYearId, dayOfWeek.toUpperCase())) {
+            busyTeacherSlots.add(row[0] + ":" + row[1]);
+        }
+
+        List<TeacherSlotAvailabilityResponse> slots = new ArrayList<>(timeSlots.size());
+        for (RoutineTimeSlot timeSlot : timeSlots) {
+            List<Long> freeTeacherIds = new ArrayList<>();
+            for (Staff teacher : teachers) {
+                if (!busyTeacherSlots.contains(teacher.getId() + ":" + timeSlot.getId())) {
+                    freeTeacherIds.add(teacher.getId());
+                }
+            }
+
+            TeacherSlotAvailabilityResponse slot = new TeacherSlotAvailabilityResponse();
+            slot.setTimeSlotId(timeSlot.getId());
+            slot.setSlotName(timeSlot.getSlotName());
+            slot.setSlotType(timeSlot.getSlotType());
+            slot.setStartTime(timeSlot.getStartTime());
+            slot.setEndTime(timeSlot.getEndTime());
+            slot.setDisplayOrder(timeSlot.getDisplayOrder());
+            slot.setFreeTeacherIds(freeTeacherIds);
+            slots.add(slot);
+        }
+
+        DayTeacherAvailabilityResponse response = new DayTeacherAvailabilityResponse();
+        response.setDayOfWeek(dayOfWeek.toUpperCase());
+        response.setRoutineVersion(routineSnapshotService.getVersion(schoolId, academicYearId));
+        response.setTeachers(teachers);
+        response.setSlots(slots);
+        return response;
+    }
+
+    private List<Staff> findActiveTeachers(Long schoolId, String staffType) {
+        return staffType != null && !staffType.isEmpty()
                 ? staffRepository.findBySchoolIdAndStaffTypeAndIsActiveTrue(schoolId, staffType)
                 : staffRepository.findBySchoolIdAndIsActiveTrue(schoolId);
-        
-        // Get all routine entries for the given time slot and academic year
-        List<ClassRoutineMaster> scheduledRoutines = classRoutineMasterRepository
-                .findBySchoolIdAndTimeSlotIdAndAcademicYearId(schoolId, timeSlotId, academicYearId);
-        
-        // Filter by day of week if provided
-        if (dayOfWeek != null && !dayOfWeek.isEmpty()) {
-            final String day = dayOfWeek.toUpperCase();
-            scheduledRoutines.removeIf(routine -> !routine.getDayOfWeek().equalsIgnoreCase(day));
-        }
-        
-        // Extract teacher IDs who are already scheduled
-        List<Long> scheduledTeacherIds = scheduledRoutines.stream()
-                .map(routine -> routine.getTeacher().getId())
-                .distinct()
-                .collect(java.util.stream.Collectors.toList());
-        
-        // Filter out scheduled teachers from all teachers
-        List<Staff> availableTeachers = allTeachers.stream()
-                .filter(teacher -> !scheduledTeacherIds.contains(teacher.getId()))
-                .collect(java.util.stream.Collectors.toList());
-        
-        return availableTeachers;
     }
 }
@@ -2,6 +2,7 @@ package org.sma.admin.core.app.service;
 
 import org.sma.admin.core.app.model.request.DailyClassSessionRequest;
 import org.sma.admin.core.app.model.response.CompleteScheduleResponse;
+import org.sma.admin.core.app.model.response.DayScheduleEntryResponse;
 import org.sma.jpa.model.master.ClassMaster;
 import org.sma.jpa.model.master.SectionMaster;
 import org.sma.jpa.model.master.SubjectMaster;
@@ -29,8 +30,10 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.format.TextStyle;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -81,6 +84,14 @@ public class DailyClassSessionBusinessService {
         List<DailyClassSession> dailySessions = dailyClassSessionRepository.findDaySchedule(
                 schoolId, classId, sectionId, date);
 
+        // Index daily sessions by routine master so the merge is a single pass
+        Map<Long, DailyClassSession> sessionsByMaster = new HashMap<>();
+        for (DailyClassSession session : dailySessions) {
+            if (session.getRoutineMaster() != null) {
+                sessionsByMaster.putIfAbsent(session.getRoutineMaster().getId(), session);
+            }
+        }
+
         // Merge logic: For each master entry, create response DTO
         List<CompleteScheduleResponse> completeSchedule = new ArrayList<>();
         
@@ -88,9 +99,7 @@ public class DailyClassSessionBusinessService {
             CompleteScheduleResponse response = new CompleteScheduleResponse();
             
             // Find matching daily session
-            Optional<DailyClassSession> dailyOpt = dailySessions.stream()
-                    .filter(ds -> ds.getRoutineMaster().getId().equals(master.getId()))
-                    .findFirst();
+            Optional<DailyClassSession> dailyOpt = Optional.ofNullable(sessionsByMaster.get(master.getId()));
 
             // Always set routine master ID
             response.setRoutineMasterId(master.getId());
@@ -150,6 +159,93 @@ public class DailyClassSessionBusinessService {
         return completeSchedule;
     }
 
+    /**
+     * Whole-school schedule for a date: every section's routine merged with the day's overrides
+     * Two queries in total, joined in memory through a hash index on routine master ID.
+     */
+    public List<DayScheduleEntryResponse> getSchoolDaySchedule(Long schoolId, Long academicYearId, LocalDate date) {
+        String dayName = date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH).toUpperCase();
+
+        List<ClassRoutineMasterRepository.RoutineRow> routineRows =
+                classRoutineMasterRepository.findSchoolDayRoutineRows(schoolId, academicYearId, dayName);
+        List<DailyClassSessionRepository.DaySessionRow> sessionRows =
+                dailyClassSessionRepository.findSchoolDaySessionRows(schoolId, academicYearId, date);
+
+        Map<Long, DailyClassSessionRepository.DaySessionRow> sessionsByMaster = new HashMap<>(sessionRows.size() * 2);
+        for (DailyClassSessionRepository.DaySessionRow row : sessionRows) {
+            if (row.getRoutineMasterId() != null) {
+                sessionsByMaster.putIfAbsent(row.getRoutineMasterId(), row);
+            }
+        }
+
+        List<DayScheduleEntryResponse> schedule = new ArrayList<>(routineRows.size());
+        for (ClassRoutineMasterRepository.RoutineRow routine : routineRows) {
+            DayScheduleEntryResponse entry = new DayScheduleEntryResponse();
+            entry.setRoutineMasterId(routine.getRoutineMasterId());
+            entry.setClassId(routine.getClassId());
+            entry.setClassName(routine.getClassName());
+            entry.setSectionId(routine.getSectionId());
+            entry.setSectionName(routine.getSectionName());
+            entry.setTimeSlotId(routine.getTimeSlotId());
+            entry.setSlotName(routine.getSlotName());
+            entry.setStartTime(routine.getStartTime());
+            entry.setEndTime(routine.getEndTime());
+            entry.setSlotOrder(routine.getSlotOrder());
+
+            // Defaults from the master routine
+            entry.setSubjectId(routine.getSubjectId());
+            entry.setSubjectName(routine.getSubjectName());
+            entry.setSubjectOverridden(false);
+            entry.setTeacherId(routine.getTeacherId());
+            entry.setTeacherName(fullName(routine.getTeacherFirstName(), routine.getTeacherLastName()));
+            entry.setTeacherSubstituted(false);
+
+            DailyClassSessionRepository.DaySessionRow session = sessionsByMaster.get(routine.getRoutineMasterId());
+            if (session != null) {
+                entry.setSessionId(session.getSessionId());
+                entry.setHasSession(true);
+                entry.setSessionStatus(session.getSessionStatus());
+                entry.setIsAttendanceMarked(session.getIsAttendanceMarked());
+                entry.setRemarks(session.getRemarks());
+
+                if (session.getSubjectOverrideId() != null) {
+                    entry.setSubjectId(session.getSubjectOverrideId());
+                    entry.setSubjectName(session.getSubjectOverrideName());
+                    entry.setSubjectOverridden(true);
+                }
+
+                // Effective teacher priority: actual > override > master
+                if (session.getActualTeacherId() != null) {
+                    entry.setTeacherId(session.getActualTeacherId());
+                    entry.setTeacherName(fullName(session.getActualTeacherFirstName(),
+                            session.getActualTeacherLastName()));
+                } else if (session.getTeacherOverrideId() != null) {
+                    entry.setTeacherId(session.getTeacherOverrideId());
+                    entry.setTeacherName(fullName(session.getTeacherOverrideFirstName(),
+                            session.getTeacherOverrideLastName()));
+                }
+                entry.setTeacherSubstituted(entry.getTeacherId() != null
+                        && !entry.getTeacherId().equals(routine.getTeacherId()));
+            } else {
+                entry.setSessionId(null);
+                entry.setHasSession(false);
+                entry.setSessionStatus("SCHEDULED");
+                entry.setIsAttendanceMarked(false);
+            }
+
+            schedule.add(entry);
+        }
+
+        return schedule;
+    }
+
+    private String fullName(String firstName, String lastName) {
+        if (firstName == null) {
+            return lastName;
+        }
+        return lastName == null ? firstName : firstName + " " + lastName;
+    }
+
     @Transactional
     public DailyClassSession createOrUpdateSession(DailyClassSessionRequest request) throws SmaException {
         // Validate all entities
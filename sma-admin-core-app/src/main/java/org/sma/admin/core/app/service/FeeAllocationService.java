@@ -0,0 +1,335 @@
+package org.sma.admin.core.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.config.FeeAllocationConfigProperties;
+import org.sma.admin.core.app.model.request.BulkFeeAllocationRequest;
+import org.sma.admin.core.app.model.response.FeeAllocationJobResponse;
+import org.sma.admin.core.app.model.response.StudentFeeAllocationResponse;
+import org.sma.jpa.model.fee.FeeInstallment;
+import org.sma.jpa.model.fee.FeePlan;
+import org.sma.jpa.model.fee.StudentFeeAllocation;
+import org.sma.jpa.repository.fee.FeeInstallmentRepository;
+import org.sma.jpa.repository.fee.FeePlanRepository;
+import org.sma.jpa.repository.fee.StudentFeeAllocationRepository;
+import org.sma.jpa.repository.fee.StudentFeeAllocationRepositoryCustom.Adjustment;
+import org.sma.jpa.repository.student.StudentClassSectionMappingRepository;
+import org.sma.platform.core.exception.SmaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates a fee plan and its installments to every enrolled student of a class,
+ * section or whole school
+ * Each class section is written with one set-based statement, so a school costs one
+ * round trip per section; progress is reported per section through a polled job.
+ * Re-running an allocation is idempotent. Allocated discounts and exemptions reduce what the
+ * student owes in the ledger, pending payments and reminders.
+ */
+@Service
+public class FeeAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeeAllocationService.class);
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Autowired
+    private FeeAllocationConfigProperties config;
+
+    @Autowired
+    private FeePlanRepository feePlanRepository;
+
+    @Autowired
+    private FeeInstallmentRepository feeInstallmentRepository;
+
+    @Autowired
+    private StudentFeeAllocationRepository studentFeeAllocationRepository;
+
+    @Autowired
+    private StudentClassSectionMappingRepository studentClassSectionMappingRepository;
+
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate adjustmentTransaction;
+    private final Map<String, AllocationJob> jobs = new LinkedHashMap<>();
+    private ExecutorService jobExecutor;
+
+    @PostConstruct
+    public void start() {
+        // Adjustments and the ledger refresh they cause commit together
+        adjustmentTransaction = new TransactionTemplate(transactionManager);
+
+        // One allocation at a time; later jobs wait in QUEUED state
+        jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fee-allocation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * Validate the request, resolve the class sections in scope and queue an allocation job
+     */
+    @Transactional(readOnly = true)
+    public FeeAllocationJobResponse startAllocation(Long schoolId, BulkFeeAllocationRequest request)
+            throws SmaException {
+        if (request.getFeePlanId() == null) {
+            throw new SmaException("Fee plan is required");
+        }
+        FeePlan feePlan = feePlanRepository.findById(request.getFeePlanId())
+                .orElseThrow(() -> new SmaException("Fee plan not found"));
+        if (!feePlan.getSchool().getId().equals(schoolId)) {
+            throw new SmaException("Fee plan does not belong to school");
+        }
+        if (feeInstallmentRepository.findByFeePlanOrderByInstallmentNo(feePlan).isEmpty()) {
+            throw new SmaException("Fee plan has no installments to allocate");
+        }
+
+        List<Adjustment> adjustments = toAdjustments(request.getAdjustments());
+        List<Object[]> classSections = studentClassSectionMappingRepository.findEnrolledClassSections(
+                schoolId, feePlan.getAcademicYear().getId(), request.getClassId(), request.getSectionId());
+
+        AllocationJob job = new AllocationJob();
+        job.jobId = UUID.randomUUID().toString();
+        job.schoolId = schoolId;
+        job.feePlanId = feePlan.getId();
+        job.academicYearId = feePlan.getAcademicYear().getId();
+        job.categoryId = feePlan.getCategory().getId();
+        job.classSections = classSections;
+        job.adjustments = adjustments;
+        job.status = "QUEUED";
+        job.submittedAt = LocalDateTime.now();
+
+        synchronized (jobs) {
+            jobs.put(job.jobId, job);
+            evictFinishedJobs();
+        }
+        jobExecutor.submit(() -> runJob(job));
+        logger.info("Queued fee allocation {} for school {}, plan {}: {} sections, {} adjustments",
+                job.jobId, schoolId, job.feePlanId, classSections.size(), adjustments.size());
+        return job.toResponse();
+    }
+
+    public FeeAllocationJobResponse getJob(Long schoolId, String jobId) throws SmaException {
+        AllocationJob job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null || !job.schoolId.equals(schoolId)) {
+            throw new SmaException("Allocation job not found");
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * Allocated installments of one student for an academic year, with their net amounts
+     */
+    @Transactional(readOnly = true)
+    public List<StudentFeeAllocationResponse> getStudentAllocations(Long schoolId, Long studentId,
+                                                                    Long academicYearId) {
+        List<StudentFeeAllocation> allocations = studentFeeAllocationRepository
+                .findBySchoolIdAndStudentIdAndAcademicYearIdOrderByFeeInstallmentId(schoolId, studentId, academicYearId);
+        Map<Long, FeeInstallment> installments = new HashMap<>();
+        if (!allocations.isEmpty()) {
+            Set<Long> installmentIds = new HashSet<>();
+            for (StudentFeeAllocation allocation : allocations) {
+                installmentIds.add(allocation.getFeeInstallmentId());
+            }
+            for (FeeInstallment installment : feeInstallmentRepository.findBySchoolIdAndIdIn(schoolId, installmentIds)) {
+                installments.put(installment.getId(), installment);
+            }
+        }
+
+        List<StudentFeeAllocationResponse> responses = new ArrayList<>(allocations.size());
+        for (StudentFeeAllocation allocation : allocations) {
+            FeeInstallment installment = installments.get(allocation.getFeeInstallmentId());
+            if (installment == null) {
+                // Plan edits refresh allocations, so this is a row left behind by an earlier version
+                logger.warn("Skipping allocation {} of student {}: installment {} no longer exists",
+                        allocation.getId(), studentId, allocation.getFeeInstallmentId());
+                continue;
+            }
+            FeePlan feePlan = installment.getFeePlan();
+            StudentFeeAllocationResponse response = new StudentFeeAllocationResponse();
+            response.setId(allocation.getId());
+            response.setStudentId(allocation.getStudentId());
+            response.setFeeCategoryId(feePlan.getCategory().getId());
+            response.setFeeCategoryName(feePlan.getCategory().getCategoryName());
+            response.setFeeCategoryType(feePlan.getCategory().getCategoryType());
+            response.setFeeAmount(allocation.getAmountDue());
+            response.setDurationType(feePlan.getFrequency());
+            response.setDueDate(installment.getDueDate());
+            response.setAllocationStatus(allocation.getAllocationStatus());
+            response.setDiscountAmount(allocation.getDiscountAmount());
+            response.setDiscountReason(allocation.getRemarks());
+            response.setPendingAmount(allocation.getNetAmount());
+            response.setAutoGenerated(true);
+            response.setRemarks(installment.getInstallmentName());
+            response.setAcademicYear(feePlan.getAcademicYear().getYearName());
+            if (allocation.getCreatedAt() != null) {
+                response.setCreatedDate(allocation.getCreatedAt().toLocalDate());
+            }
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    private List<Adjustment> toAdjustments(List<BulkFeeAllocationRequest.StudentAdjustment> requested)
+            throws SmaException {
+        List<Adjustment> adjustments = new ArrayList<>();
+        if (requested == null) {
+            return adjustments;
+        }
+        if (requested.size() > config.getMaxAdjustments()) {
+            throw new SmaException("At most " + config.getMaxAdjustments() + " adjustments are allowed per request");
+        }
+
+        Set<Long> seen = new HashSet<>();
+        for (BulkFeeAllocationRequest.StudentAdjustment adjustment : requested) {
+            if (adjustment.getStudentId() == null) {
+                throw new SmaException("Each adjustment needs a student");
+            }
+            if (!seen.add(adjustment.getStudentId())) {
+                throw new SmaException("Duplicate adjustment for student " + adjustment.getStudentId());
+            }
+            boolean exempted = Boolean.TRUE.equals(adjustment.getExempted());
+            BigDecimal percent = adjustment.getDiscountPercent();
+            if (!exempted && percent != null
+                    && (percent.signum() < 0 || percent.compareTo(HUNDRED) > 0)) {
+                throw new SmaException("Discount percent must be between 0 and 100 for student "
+                        + adjustment.getStudentId());
+            }
+            adjustments.add(new Adjustment(adjustment.getStudentId(), percent, exempted, adjustment.getReason()));
+        }
+        return adjustments;
+    }
+
+    private void runJob(AllocationJob job) {
+        job.status = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        try {
+            for (Object[] classSection : job.classSections) {
+                if (Thread.currentThread().isInterrupted()) {
+                    job.finish("FAILED", "Allocation interrupted");
+                    return;
+                }
+                job.allocationsWritten.addAndGet(studentFeeAllocationRepository.allocateSection(
+                        job.feePlanId, (Long) classSection[0], (Long) classSection[1]));
+                job.sectionsProcessed.incrementAndGet();
+            }
+
+            int[] counts = adjustmentTransaction.execute(status -> {
+                int[] adjusted = studentFeeAllocationRepository.applyAdjustments(job.feePlanId, job.adjustments);
+                feeLedgerService.refreshPlan(job.schoolId, job.academicYearId, job.categoryId);
+                return adjusted;
+            });
+            int applied = 0;
+            for (int count : counts) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    applied++;
+                }
+            }
+            job.adjustmentsApplied = applied;
+
+            int unmatched = job.adjustments.size() - applied;
+            job.finish("COMPLETED", unmatched > 0
+                    ? unmatched + " adjustments matched no allocated student" : "Fee plan allocated");
+            logger.info("Fee allocation {} completed: {} sections, {} allocation rows written, {} adjustments in {} ms",
+                    job.jobId, job.sectionsProcessed.get(), job.allocationsWritten.get(), applied, job.elapsedMs());
+        } catch (Exception e) {
+            logger.error("Fee allocation {} failed", job.jobId, e);
+            job.finish("FAILED", e.getMessage());
+        }
+    }
+
+    private void evictFinishedJobs() {
+        Iterator<AllocationJob> iterator = jobs.values().iterator();
+        while (jobs.size() > config.getMaxRetainedJobs() && iterator.hasNext()) {
+            if (iterator.next().completedAt != null) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class AllocationJob {
+        private String jobId;
+        private Long schoolId;
+        private Long feePlanId;
+        private Long academicYearId;
+        private Long categoryId;
+        private List<Object[]> classSections;
+        private List<Adjustment> adjustments;
+        private final AtomicInteger sectionsProcessed = new AtomicInteger();
+        private final AtomicLong allocationsWritten = new AtomicLong();
+        private volatile Integer adjustmentsApplied;
+        private volatile String status;
+        private volatile String message;
+        private LocalDateTime submittedAt;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+
+        private void finish(String finalStatus, String finalMessage) {
+            message = finalMessage;
+            completedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        private Long elapsedMs() {
+            if (startedAt == null) {
+                return null;
+            }
+            LocalDateTime end = completedAt != null ? completedAt : LocalDateTime.now();
+            return Duration.between(startedAt, end).toMillis();
+        }
+
+        private FeeAllocationJobResponse toResponse() {
+            FeeAllocationJobResponse response = new FeeAllocationJobResponse();
+            response.setJobId(jobId);
+            response.setSchoolId(schoolId);
+            response.setFeePlanId(feePlanId);
+            response.setStatus(status);
+            response.setSectionsTotal(classSections.size());
+            response.setSectionsProcessed(sectionsProcessed.get());
+            response.setAllocationsWritten(allocationsWritten.get());
+            response.setAdjustmentsApplied(adjustmentsApplied);
+            response.setMessage(message);
+            response.setSubmittedAt(submittedAt);
+            response.setStartedAt(startedAt);
+            response.setCompletedAt(completedAt);
+            response.setElapsedMs(elapsedMs());
+            return response;
+        }
+    }
+}
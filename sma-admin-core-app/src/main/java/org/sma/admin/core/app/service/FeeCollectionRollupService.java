@@ -0,0 +1,236 @@
+package org.sma.admin.core.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.exception.SmaAdminException;
+import org.sma.admin.core.app.model.response.FeeCollectionBucketResponse;
+import org.sma.jpa.model.fee.FeeCollectionRollup;
+import org.sma.jpa.model.fee.FeePlan;
+import org.sma.jpa.model.fee.StudentFeePayment;
+import org.sma.jpa.repository.fee.FeeCollectionRollupRepository;
+import org.sma.jpa.repository.student.StudentClassSectionMappingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains and reads the fee collection rollup store
+ * Write methods join the caller's transaction so rollups commit together with the payment rows.
+ */
+@Service
+public class FeeCollectionRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeeCollectionRollupService.class);
+
+    private static final List<String> SCOPES = Arrays.asList(
+            FeeCollectionRollup.SCOPE_SCHOOL, FeeCollectionRollup.SCOPE_CLASS, FeeCollectionRollup.SCOPE_SECTION,
+            FeeCollectionRollup.SCOPE_CATEGORY, FeeCollectionRollup.SCOPE_MODE);
+
+    @Autowired
+    private FeeCollectionRollupRepository rollupRepository;
+
+    @Autowired
+    private StudentClassSectionMappingRepository studentClassSectionMappingRepository;
+
+    /**
+     * Stamp payments with the student's active class and section in the installment's academic year
+     * Called before the payments are written, so later reversals and rebuilds use the same buckets.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void assignPlacements(List<StudentFeePayment> payments) {
+        // Resolve placements once per academic year for all students of the batch
+        Map<Long, Set<Long>> studentsByYear = new HashMap<>();
+        for (StudentFeePayment payment : payments) {
+            FeePlan plan = payment.getFeeInstallment().getFeePlan();
+            studentsByYear.computeIfAbsent(plan.getAcademicYear().getId(), k -> new HashSet<>())
+                    .add(payment.getStudent().getId());
+        }
+        Map<String, Long[]> placements = new HashMap<>();
+        for (Map.Entry<Long, Set<Long>> entry : studentsByYear.entrySet()) {
+            for (Object[] row : studentClassSectionMappingRepository.findActivePlacements(entry.getKey(), entry.getValue())) {
+                // Ordered oldest first, so the latest mapping wins
+                placements.put(entry.getKey() + ":" + row[0], new Long[]{(Long) row[1], (Long) row[2]});
+            }
+        }
+
+        for (StudentFeePayment payment : payments) {
+            FeePlan plan = payment.getFeeInstallment().getFeePlan();
+            Long[] placement = placements.get(plan.getAcademicYear().getId() + ":" + payment.getStudent().getId());
+            payment.setClassId(placement != null ? placement[0] : null);
+            payment.setSectionId(placement != null ? placement[1] : null);
+        }
+    }
+
+    /**
+     * Add recorded payments to the rollups, or take deleted ones back out with reversal set
+     * Class and section are the ones stored on the payment by {@link #assignPlacements}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyPayments(Long schoolId, List<StudentFeePayment> payments, boolean reversal) {
+        if (payments.isEmpty()) {
+            return;
+        }
+
+        int sign = reversal ? -1 : 1;
+        Map<String, FeeCollectionRollup> deltas = new LinkedHashMap<>();
+        for (StudentFeePayment payment : payments) {
+            FeePlan plan = payment.getFeeInstallment().getFeePlan();
+            LocalDate paidDate = payment.getPaidOn().toLocalDate();
+            BigDecimal paid = payment.getAmountPaid();
+            BigDecimal discount = payment.getDiscountAmount() != null ? payment.getDiscountAmount() : BigDecimal.ZERO;
+            if (reversal) {
+                paid = paid.negate();
+                discount = discount.negate();
+            }
+
+            addDeltas(deltas, schoolId, FeeCollectionRollup.SCOPE_SCHOOL, String.valueOf(schoolId),
+                    paidDate, paid, discount, sign);
+            addDeltas(deltas, schoolId, FeeCollectionRollup.SCOPE_CATEGORY, String.valueOf(plan.getCategory().getId()),
+                    paidDate, paid, discount, sign);
+            addDeltas(deltas, schoolId, FeeCollectionRollup.SCOPE_MODE,
+                    payment.getPaymentMode() != null ? payment.getPaymentMode() : FeeCollectionRollup.MODE_UNSPECIFIED,
+                    paidDate, paid, discount, sign);
+            if (payment.getClassId() != null) {
+                addDeltas(deltas, schoolId, FeeCollectionRollup.SCOPE_CLASS, String.valueOf(payment.getClassId()),
+                        paidDate, paid, discount, sign);
+            }
+            if (payment.getSectionId() != null) {
+                addDeltas(deltas, schoolId, FeeCollectionRollup.SCOPE_SECTION, String.valueOf(payment.getSectionId()),
+                        paidDate, paid, discount, sign);
+            }
+        }
+
+        rollupRepository.lockSchool(schoolId, false);
+        rollupRepository.mergeTotals(new ArrayList<>(deltas.values()));
+    }
+
+    /**
+     * Collection totals per scope key (class, section, category, mode, or the school) over a date range
+     */
+    @Transactional(readOnly = true)
+    public List<FeeCollectionBucketResponse> getCollectionSummary(Long schoolId, String scopeType,
+                                                                  LocalDate startDate, LocalDate endDate) {
+        String scope = normalizeScope(scopeType);
+        validateRange(startDate, endDate);
+        RollupRange range = RollupRange.of(startDate, endDate);
+
+        List<FeeCollectionBucketResponse> buckets = new ArrayList<>();
+        for (Object[] row : rollupRepository.summarizeByScope(schoolId, scope,
+                range.headStart, range.headEnd, range.monthStart, range.monthEnd, range.tailStart, range.tailEnd)) {
+            FeeCollectionBucketResponse bucket = new FeeCollectionBucketResponse();
+            bucket.setScopeType(scope);
+            bucket.setScopeKey((String) row[0]);
+            bucket.setAmountPaid((BigDecimal) row[1]);
+            bucket.setDiscountAmount((BigDecimal) row[2]);
+            bucket.setPaymentCount((Long) row[3]);
+            buckets.add(bucket);
+        }
+        return buckets;
+    }
+
+    /**
+     * Day or month buckets of one scope over a date range, optionally for a single scope key
+     */
+    @Transactional(readOnly = true)
+    public List<FeeCollectionBucketResponse> getCollectionSeries(Long schoolId, String scopeType, String periodType,
+                                                                 String scopeKey, LocalDate startDate, LocalDate endDate) {
+        String scope = normalizeScope(scopeType);
+        validateRange(startDate, endDate);
+        String period = periodType != null ? periodType.trim().toUpperCase(Locale.ROOT) : FeeCollectionRollup.PERIOD_DAY;
+        if (!FeeCollectionRollup.PERIOD_DAY.equals(period) && !FeeCollectionRollup.PERIOD_MONTH.equals(period)) {
+            throw new SmaAdminException("Granularity must be DAY or MONTH");
+        }
+        LocalDate from = FeeCollectionRollup.PERIOD_MONTH.equals(period) ? startDate.withDayOfMonth(1) : startDate;
+
+        List<FeeCollectionBucketResponse> buckets = new ArrayList<>();
+        for (FeeCollectionRollup rollup : rollupRepository.findSeries(schoolId, scope, period, from, endDate, scopeKey)) {
+            FeeCollectionBucketResponse bucket = new FeeCollectionBucketResponse();
+            bucket.setScopeType(scope);
+            bucket.setScopeKey(rollup.getScopeKey());
+            bucket.setPeriodType(period);
+            bucket.setPeriodStart(rollup.getPeriodStart());
+            bucket.setAmountPaid(rollup.getAmountPaid());
+            bucket.setDiscountAmount(rollup.getDiscountAmount());
+            bucket.setPaymentCount(rollup.getPaymentCount());
+            buckets.add(bucket);
+        }
+        return buckets;
+    }
+
+    /**
+     * Recompute all collection rollups of a school from payment history
+     */
+    @Transactional
+    public Map<String, Object> rebuildForSchool(Long schoolId) {
+        long start = System.currentTimeMillis();
+        rollupRepository.lockSchool(schoolId, true);
+        int written = rollupRepository.rebuildForSchool(schoolId);
+        long durationMs = System.currentTimeMillis() - start;
+        logger.info("Rebuilt fee collection rollups for school {}: {} buckets in {} ms", schoolId, written, durationMs);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("schoolId", schoolId);
+        result.put("bucketsWritten", written);
+        result.put("durationMs", durationMs);
+        return result;
+    }
+
+    private String normalizeScope(String scopeType) {
+        String scope = scopeType != null ? scopeType.trim().toUpperCase(Locale.ROOT) : FeeCollectionRollup.SCOPE_SCHOOL;
+        if (!SCOPES.contains(scope)) {
+            throw new SmaAdminException("Dimension must be one of " + SCOPES);
+        }
+        return scope;
+    }
+
+    private void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new SmaAdminException("Start date and end date are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new SmaAdminException("End date cannot be before start date");
+        }
+    }
+
+    private void addDeltas(Map<String, FeeCollectionRollup> deltas, Long schoolId, String scopeType, String scopeKey,
+                           LocalDate paidDate, BigDecimal paid, BigDecimal discount, int count) {
+        addDelta(deltas, schoolId, scopeType, scopeKey, FeeCollectionRollup.PERIOD_DAY, paidDate,
+                paid, discount, count);
+        addDelta(deltas, schoolId, scopeType, scopeKey, FeeCollectionRollup.PERIOD_MONTH, paidDate.withDayOfMonth(1),
+                paid, discount, count);
+    }
+
+    private void addDelta(Map<String, FeeCollectionRollup> deltas, Long schoolId, String scopeType, String scopeKey,
+                          String periodType, LocalDate periodStart, BigDecimal paid, BigDecimal discount, int count) {
+        String key = scopeType + ":" + scopeKey + ":" + periodType + ":" + periodStart;
+        FeeCollectionRollup row = deltas.get(key);
+        if (row == null) {
+            row = new FeeCollectionRollup();
+            row.setSchoolId(schoolId);
+            row.setScopeType(scopeType);
+            row.setScopeKey(scopeKey);
+            row.setPeriodType(periodType);
+            row.setPeriodStart(periodStart);
+            row.setAmountPaid(BigDecimal.ZERO);
+            row.setDiscountAmount(BigDecimal.ZERO);
+            row.setPaymentCount(0L);
+            deltas.put(key, row);
+        }
+        row.setAmountPaid(row.getAmountPaid().add(paid));
+        row.setDiscountAmount(row.getDiscountAmount().add(discount));
+        row.setPaymentCount(row.getPaymentCount() + count);
+    }
+}
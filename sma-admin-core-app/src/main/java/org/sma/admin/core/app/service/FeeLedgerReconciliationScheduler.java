@@ -0,0 +1,50 @@
+package org.sma.admin.core.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.config.FeeLedgerConfigProperties;
+import org.sma.jpa.repository.school.AcademicYearRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Nightly job verifying the fee ledger of every school with a current academic year
+ */
+@Component
+public class FeeLedgerReconciliationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeeLedgerReconciliationScheduler.class);
+
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+
+    @Autowired
+    private AcademicYearRepository academicYearRepository;
+
+    @Autowired
+    private FeeLedgerConfigProperties feeLedgerConfig;
+
+    @Scheduled(cron = "${sma.app.admin.fee.ledger.reconcile-cron:0 0 2 * * *}")
+    public void reconcileLedgers() {
+        if (!feeLedgerConfig.isReconcileEnabled()) {
+            return;
+        }
+
+        Set<Long> schoolIds = new LinkedHashSet<>();
+        for (Object[] row : academicYearRepository.findCurrentSchoolYearIds()) {
+            schoolIds.add((Long) row[0]);
+        }
+        for (Long schoolId : schoolIds) {
+            try {
+                feeLedgerService.reconcile(schoolId, feeLedgerConfig.isAutoRepair());
+            } catch (Exception e) {
+                // One school's failure must not stop the others
+                logger.error("Fee ledger reconciliation failed for school {}: {}", schoolId, e.getMessage(), e);
+            }
+        }
+    }
+}
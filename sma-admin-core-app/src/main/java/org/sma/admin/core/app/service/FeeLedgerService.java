@@ -0,0 +1,186 @@
+package org.sma.admin.core.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.model.response.StudentFeeBalanceResponse;
+import org.sma.jpa.model.fee.StudentFeeBalance;
+import org.sma.jpa.model.fee.StudentFeePayment;
+import org.sma.jpa.repository.fee.FeeInstallmentRepository;
+import org.sma.jpa.repository.fee.StudentFeeBalanceRepository;
+import org.sma.jpa.repository.studentmgmt.StudentProfileRepository;
+import org.sma.platform.core.exception.SmaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains and serves the per-student fee ledger (StudentFeeBalance)
+ */
+@Service
+public class FeeLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeeLedgerService.class);
+
+    @Autowired
+    private StudentFeeBalanceRepository feeBalanceRepository;
+
+    @Autowired
+    private FeeInstallmentRepository feeInstallmentRepository;
+
+    @Autowired
+    private StudentProfileRepository studentProfileRepository;
+
+    /**
+     * Add a recorded payment to the ledger, or take a deleted one back out with reversal set
+     * Joins the caller's transaction so the ledger commits together with the payment row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyPayment(Long schoolId, Long studentId, Long feeInstallmentId,
+                             BigDecimal amountPaid, BigDecimal discountAmount, boolean reversal) {
+        BigDecimal paid = amountPaid != null ? amountPaid : BigDecimal.ZERO;
+        BigDecimal discount = discountAmount != null ? discountAmount : BigDecimal.ZERO;
+        if (reversal) {
+            paid = paid.negate();
+            discount = discount.negate();
+        }
+
+        feeBalanceRepository.lockSchool(schoolId, false);
+        int updated = feeBalanceRepository.applyPayment(schoolId, studentId, feeInstallmentId, paid, discount);
+        if (updated == 0) {
+            logger.warn("Installment {} is not part of a fee plan of school {}, ledger not updated",
+                    feeInstallmentId, schoolId);
+        }
+    }
+
+    /**
+     * Add a batch of newly inserted payments to the ledger in one JDBC batch
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyPayments(Long schoolId, List<StudentFeePayment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        feeBalanceRepository.lockSchool(schoolId, false);
+        feeBalanceRepository.applyPayments(schoolId, payments);
+    }
+
+    /**
+     * Re-derive amount due of a category after its fee plan or installments changed
+     * Pending installment changes are flushed first so the ledger sees them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshPlan(Long schoolId, Long academicYearId, Long feeCategoryId) {
+        feeInstallmentRepository.flush();
+        feeBalanceRepository.lockSchool(schoolId, false);
+        int touched = feeBalanceRepository.refreshAmountDue(schoolId, academicYearId, feeCategoryId);
+        logger.debug("Refreshed amount due of {} ledger rows for school {}, year {}, category {}",
+                touched, schoolId, academicYearId, feeCategoryId);
+    }
+
+    /**
+     * Open or drop ledger rows of students after their enrollment in an academic year
+     * changed or one of their payments was deleted
+     * Pending mapping and payment changes are flushed first so the ledger sees them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void syncEnrollment(Long schoolId, Long academicYearId, Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        feeBalanceRepository.flush();
+        feeBalanceRepository.lockSchool(schoolId, false);
+        int touched = feeBalanceRepository.syncStudents(schoolId, academicYearId, studentIds);
+        logger.debug("Synced {} ledger rows of {} students for school {}, year {}",
+                touched, studentIds.size(), schoolId, academicYearId);
+    }
+
+    /**
+     * Outstanding balance of a student for an academic year, read from the ledger
+     * Rows exist for every planned category while the student is enrolled, and for any
+     * category they paid into.
+     */
+    @Transactional(readOnly = true)
+    public StudentFeeBalanceResponse getStudentBalance(Long schoolId, Long studentId, Long academicYearId) {
+        if (!studentProfileRepository.existsByIdAndSchoolId(studentId, schoolId)) {
+            throw new SmaException("Student not found with id: " + studentId);
+        }
+
+        List<StudentFeeBalanceResponse.FeeCategoryBalance> categories = new ArrayList<>();
+        for (StudentFeeBalance balance : feeBalanceRepository
+                .findBySchoolIdAndStudentIdAndAcademicYearIdOrderByFeeCategoryId(schoolId, studentId, academicYearId)) {
+            categories.add(toCategoryBalance(balance.getFeeCategoryId(),
+                    balance.getAmountDue(), balance.getAmountPaid(), balance.getDiscountAmount()));
+        }
+
+        BigDecimal totalDue = BigDecimal.ZERO;
+        BigDecimal totalPaid = BigDecimal.ZERO;
+        BigDecimal totalDiscount = BigDecimal.ZERO;
+        for (StudentFeeBalanceResponse.FeeCategoryBalance category : categories) {
+            totalDue = totalDue.add(category.getAmountDue());
+            totalPaid = totalPaid.add(category.getAmountPaid());
+            totalDiscount = totalDiscount.add(category.getDiscountAmount());
+        }
+
+        StudentFeeBalanceResponse response = new StudentFeeBalanceResponse();
+        response.setStudentId(studentId);
+        response.setAcademicYearId(academicYearId);
+        response.setTotalDue(totalDue);
+        response.setTotalPaid(totalPaid);
+        response.setTotalDiscount(totalDiscount);
+        response.setTotalOutstanding(totalDue.subtract(totalPaid).subtract(totalDiscount));
+        response.setCategories(categories);
+        return response;
+    }
+
+    /**
+     * Verify a school's ledger against raw installment and payment rows, and rebuild it
+     * when repair is requested and drift was found
+     */
+    @Transactional
+    public Map<String, Object> reconcile(Long schoolId, boolean repair) {
+        // Exclusive so incremental writers cannot interleave with the check or the rebuild
+        feeBalanceRepository.lockSchool(schoolId, true);
+
+        long start = System.currentTimeMillis();
+        int mismatches = feeBalanceRepository.countMismatches(schoolId);
+        int rowsWritten = 0;
+        if (mismatches > 0 && repair) {
+            rowsWritten = feeBalanceRepository.rebuildForSchool(schoolId);
+        }
+        long durationMs = System.currentTimeMillis() - start;
+
+        if (mismatches > 0) {
+            logger.warn("Fee ledger of school {} has {} mismatched rows{}", schoolId, mismatches,
+                    repair ? ", rebuilt " + rowsWritten + " rows" : "");
+        } else {
+            logger.info("Fee ledger of school {} is consistent ({} ms)", schoolId, durationMs);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("schoolId", schoolId);
+        result.put("mismatches", mismatches);
+        result.put("repaired", mismatches > 0 && repair);
+        result.put("rowsWritten", rowsWritten);
+        result.put("durationMs", durationMs);
+        return result;
+    }
+
+    private StudentFeeBalanceResponse.FeeCategoryBalance toCategoryBalance(Long categoryId, BigDecimal due,
+                                                                          BigDecimal paid, BigDecimal discount) {
+        StudentFeeBalanceResponse.FeeCategoryBalance balance = new StudentFeeBalanceResponse.FeeCategoryBalance();
+        balance.setFeeCategoryId(categoryId);
+        balance.setAmountDue(due);
+        balance.setAmountPaid(paid);
+        balance.setDiscountAmount(discount);
+        balance.setOutstandingAmount(due.subtract(paid).subtract(discount));
+        return balance;
+    }
+}
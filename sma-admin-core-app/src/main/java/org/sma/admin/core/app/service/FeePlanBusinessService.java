@@ -2,6 +2,7 @@ package org.sma.admin.core.app.service;
 
 import org.sma.admin.core.app.exception.SmaAdminException;
 import org.sma.admin.core.app.model.request.FeePlanRequest;
+import org.sma.admin.core.app.model.response.FeePlanPageResponse;
 import org.sma.admin.core.app.model.response.FeePlanResponse;
 import org.sma.jpa.model.school.AcademicYear;
 import org.sma.jpa.model.fee.FeeCategory;
@@ -12,16 +13,26 @@ import org.sma.jpa.repository.school.AcademicYearRepository;
 import org.sma.jpa.repository.fee.FeeCategoryRepository;
 import org.sma.jpa.repository.fee.FeeInstallmentRepository;
 import org.sma.jpa.repository.fee.FeePlanRepository;
+import org.sma.jpa.repository.fee.FeePlanRepository.FeePlanListRow;
+import org.sma.jpa.repository.fee.StudentFeeAllocationRepository;
+import org.sma.jpa.repository.fee.StudentFeePaymentRepository;
 import org.sma.jpa.repository.school.SchoolProfileRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -35,6 +46,9 @@ public class FeePlanBusinessService {
 
     private static final Logger logger = LoggerFactory.getLogger(FeePlanBusinessService.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private FeePlanRepository feePlanRepository;
 
@@ -50,6 +64,15 @@ public class FeePlanBusinessService {
     @Autowired
     private FeeCategoryRepository feeCategoryRepository;
 
+    @Autowired
+    private StudentFeePaymentRepository studentFeePaymentRepository;
+
+    @Autowired
+    private StudentFeeAllocationRepository studentFeeAllocationRepository;
+
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+
     /**
      * Create fee plan with installments
      */
@@ -100,6 +123,7 @@ public class FeePlanBusinessService {
             }
         }
 
+        feeLedgerService.refreshPlan(schoolId, academicYear.getId(), category.getId());
         logger.info("Fee plan created successfully with ID: {}", savedPlan.getId());
         return mapToResponse(savedPlan, true);
     }
@@ -123,62 +147,13 @@ public class FeePlanBusinessService {
 
         FeePlan updated = feePlanRepository.save(feePlan);
 
-        // Update installments - update existing or create new ones
+        // Diff the requested installments against the current ones and apply the result in batches
         if (request.getInstallments() != null && !request.getInstallments().isEmpty()) {
-            logger.info("Processing {} installments for fee plan {}", request.getInstallments().size(), planId);
-            
-            // Get existing installments
-            List<FeeInstallment> existingInstallments = feeInstallmentRepository.findByFeePlanOrderByInstallmentNo(updated);
-            logger.info("Found {} existing installments in database", existingInstallments.size());
-            
-            // Track which installment numbers are in the request
-            Set<Integer> requestedInstallmentNos = request.getInstallments().stream()
-                .map(FeePlanRequest.InstallmentDetail::getInstallmentNo)
-                .collect(Collectors.toSet());
-
-            // Delete installments that are no longer in the request
-            for (FeeInstallment existing : existingInstallments) {
-                if (!requestedInstallmentNos.contains(existing.getInstallmentNo())) {
-                    logger.info("Deleting installment no {} (ID: {}) as it's not in the request", 
-                        existing.getInstallmentNo(), existing.getId());
-                    feeInstallmentRepository.delete(existing);
-                }
-            }
-
-            // Update or create installments
-            for (FeePlanRequest.InstallmentDetail detail : request.getInstallments()) {
-                // Find existing installment by installmentNo
-                Optional<FeeInstallment> existingOpt = feeInstallmentRepository
-                    .findByFeePlanAndInstallmentNo(updated, detail.getInstallmentNo());
-
-                FeeInstallment installment;
-                if (existingOpt.isPresent()) {
-                    // Update existing installment
-                    installment = existingOpt.get();
-                    logger.info("Updating existing installment no {} (ID: {})", detail.getInstallmentNo(), installment.getId());
-                } else {
-                    // Create new installment
-                    installment = new FeeInstallment();
-                    installment.setFeePlan(updated);
-                    installment.setInstallmentNo(detail.getInstallmentNo());
-                    installment.setStatus("ACTIVE");
-                    logger.info("Creating new installment no {}", detail.getInstallmentNo());
-                }
-
-                // Set/update all fields
-                installment.setInstallmentName(detail.getInstallmentName());
-                installment.setPeriodStartDate(detail.getPeriodStartDate());
-                installment.setPeriodEndDate(detail.getPeriodEndDate());
-                installment.setAmountDue(detail.getAmountDue());
-                installment.setDueDate(detail.getDueDate());
-                
-                FeeInstallment saved = feeInstallmentRepository.save(installment);
-                logger.info("Saved installment: ID={}, No={}, Name='{}', Amount={}, DueDate={}", 
-                    saved.getId(), saved.getInstallmentNo(), saved.getInstallmentName(), 
-                    saved.getAmountDue(), saved.getDueDate());
-            }
+            applyInstallmentDiff(updated, request.getInstallments());
         }
 
+        feeLedgerService.refreshPlan(updated.getSchool().getId(), updated.getAcademicYear().getId(),
+            updated.getCategory().getId());
         logger.info("Fee plan updated successfully: {}", planId);
 
         return mapToResponse(updated, true);
@@ -209,43 +184,41 @@ public class FeePlanBusinessService {
         logger.info("Fetching fee plans for school: {}, year: {}, category: {}, status: {}", 
             schoolId, academicYearId, categoryId, status);
 
-        SchoolProfile school = schoolProfileRepository.findById(schoolId)
-            .orElseThrow(() -> new SmaAdminException("School not found with ID: " + schoolId));
+        if (!schoolProfileRepository.existsById(schoolId)) {
+            throw new SmaAdminException("School not found with ID: " + schoolId);
+        }
+        if (academicYearId != null && !academicYearRepository.existsById(academicYearId)) {
+            throw new SmaAdminException("Academic year not found with ID: " + academicYearId);
+        }
 
-        List<FeePlan> plans;
+        List<FeePlanListRow> rows = feePlanRepository.findPlanPage(schoolId, academicYearId, categoryId,
+            normalizeStatus(status), null, Pageable.unpaged());
+        return mapRowsToResponse(rows, includeInstallments);
+    }
 
-        if (academicYearId != null) {
-            AcademicYear academicYear = academicYearRepository.findById(academicYearId)
-                .orElseThrow(() -> new SmaAdminException("Academic year not found with ID: " + academicYearId));
-            
-            if (status != null && !status.equalsIgnoreCase("ALL")) {
-                plans = feePlanRepository.findBySchoolAndAcademicYearAndStatus(school, academicYear, status);
-            } else {
-                plans = feePlanRepository.findBySchoolAndAcademicYear(school, academicYear);
-            }
-        } else {
-            plans = feePlanRepository.findAll().stream()
-                .filter(p -> p.getSchool().getId().equals(schoolId))
-                .collect(Collectors.toList());
-        }
+    /**
+     * List fee plans one keyset page at a time, in id order
+     * Filters run in SQL, plans are read as projections and installments of the whole page
+     * are loaded with one query.
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public FeePlanPageResponse listFeePlanPage(Long schoolId, Long academicYearId, Long categoryId, String status,
+                                               boolean includeInstallments, Long cursor, Integer limit) {
+        int pageSize = limit != null ? Math.min(Math.max(limit, 1), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
 
-        // Apply category filter if provided
-        if (categoryId != null) {
-            plans = plans.stream()
-                .filter(p -> p.getCategory().getId().equals(categoryId))
-                .collect(Collectors.toList());
-        }
+        // Fetch one extra row to know whether another page follows
+        List<FeePlanListRow> rows = feePlanRepository.findPlanPage(schoolId, academicYearId, categoryId,
+            normalizeStatus(status), cursor, PageRequest.of(0, pageSize + 1));
 
-        // Apply status filter if not already applied
-        if (academicYearId == null && status != null && !status.equalsIgnoreCase("ALL")) {
-            plans = plans.stream()
-                .filter(p -> p.getStatus().equalsIgnoreCase(status))
-                .collect(Collectors.toList());
-        }
+        boolean hasMore = rows.size() > pageSize;
+        List<FeePlanListRow> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
 
-        return plans.stream()
-            .map(p -> mapToResponse(p, includeInstallments))
-            .collect(Collectors.toList());
+        FeePlanPageResponse response = new FeePlanPageResponse();
+        response.setItems(mapRowsToResponse(pageRows, includeInstallments));
+        response.setHasMore(hasMore);
+        response.setNextCursor(hasMore ? pageRows.get(pageRows.size() - 1).getId() : null);
+        return response;
     }
 
     /**
@@ -257,10 +230,143 @@ public class FeePlanBusinessService {
         FeePlan feePlan = feePlanRepository.findById(planId)
             .orElseThrow(() -> new SmaAdminException("Fee plan not found with ID: " + planId));
 
+        Long schoolId = feePlan.getSchool().getId();
+        Long academicYearId = feePlan.getAcademicYear().getId();
+        Long categoryId = feePlan.getCategory().getId();
+        List<Long> installmentIds = feeInstallmentRepository.findByFeePlanOrderByInstallmentNo(feePlan).stream()
+            .map(FeeInstallment::getId)
+            .collect(Collectors.toList());
+        if (!installmentIds.isEmpty() && !studentFeePaymentRepository.findPaidInstallmentIds(installmentIds).isEmpty()) {
+            throw new SmaAdminException("Cannot delete a fee plan with recorded payments");
+        }
+        studentFeeAllocationRepository.deletePlan(planId);
         feePlanRepository.delete(feePlan);
+        feeLedgerService.refreshPlan(schoolId, academicYearId, categoryId);
         logger.info("Fee plan deleted successfully: {}", planId);
     }
 
+    /**
+     * Reconcile a plan's installments with the requested ones using a single load
+     * Inserts and deletes are issued as batches, updates are flushed by Hibernate's update batching.
+     * Installments that already have recorded payments cannot be removed; allocations of the
+     * plan are refreshed to the new installments in the same transaction.
+     */
+    private void applyInstallmentDiff(FeePlan feePlan, List<FeePlanRequest.InstallmentDetail> details) {
+        Map<Integer, FeeInstallment> existingByNo = new HashMap<>();
+        for (FeeInstallment existing : feeInstallmentRepository.findByFeePlanOrderByInstallmentNo(feePlan)) {
+            existingByNo.put(existing.getInstallmentNo(), existing);
+        }
+
+        Map<Integer, FeePlanRequest.InstallmentDetail> requestedByNo = new LinkedHashMap<>();
+        for (FeePlanRequest.InstallmentDetail detail : details) {
+            if (requestedByNo.put(detail.getInstallmentNo(), detail) != null) {
+                throw new SmaAdminException("Duplicate installment number in request: " + detail.getInstallmentNo());
+            }
+        }
+
+        List<FeeInstallment> toDelete = new ArrayList<>();
+        for (FeeInstallment existing : existingByNo.values()) {
+            if (!requestedByNo.containsKey(existing.getInstallmentNo())) {
+                toDelete.add(existing);
+            }
+        }
+
+        if (!toDelete.isEmpty()) {
+            Set<Long> paidIds = new HashSet<>(studentFeePaymentRepository.findPaidInstallmentIds(
+                toDelete.stream().map(FeeInstallment::getId).collect(Collectors.toList())));
+            if (!paidIds.isEmpty()) {
+                String paidNos = toDelete.stream()
+                    .filter(installment -> paidIds.contains(installment.getId()))
+                    .map(installment -> String.valueOf(installment.getInstallmentNo()))
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+                throw new SmaAdminException("Cannot remove installments with recorded payments: " + paidNos);
+            }
+        }
+
+        List<FeeInstallment> toInsert = new ArrayList<>();
+        int updatedCount = 0;
+        for (FeePlanRequest.InstallmentDetail detail : requestedByNo.values()) {
+            FeeInstallment installment = existingByNo.get(detail.getInstallmentNo());
+            if (installment == null) {
+                installment = new FeeInstallment();
+                installment.setFeePlan(feePlan);
+                installment.setInstallmentNo(detail.getInstallmentNo());
+                installment.setStatus("ACTIVE");
+                copyInstallmentDetail(installment, detail);
+                toInsert.add(installment);
+            } else if (!matchesInstallmentDetail(installment, detail)) {
+                // Managed entity, dirty checking writes it on flush
+                copyInstallmentDetail(installment, detail);
+                updatedCount++;
+            }
+        }
+
+        if (!toDelete.isEmpty()) {
+            feeInstallmentRepository.deleteAllInBatch(toDelete);
+        }
+        feeInstallmentRepository.insertAll(toInsert);
+        // Allocations are refreshed with JDBC, so dirty installments must reach the database first
+        feeInstallmentRepository.flush();
+        int allocationsTouched = studentFeeAllocationRepository.refreshPlan(feePlan.getId());
+
+        logger.info("Applied installment changes for fee plan {}: {} inserted, {} updated, {} deleted, {} allocation rows refreshed",
+            feePlan.getId(), toInsert.size(), updatedCount, toDelete.size(), allocationsTouched);
+    }
+
+    private void copyInstallmentDetail(FeeInstallment installment, FeePlanRequest.InstallmentDetail detail) {
+        installment.setInstallmentName(detail.getInstallmentName());
+        installment.setPeriodStartDate(detail.getPeriodStartDate());
+        installment.setPeriodEndDate(detail.getPeriodEndDate());
+        installment.setAmountDue(detail.getAmountDue());
+        installment.setDueDate(detail.getDueDate());
+    }
+
+    private boolean matchesInstallmentDetail(FeeInstallment installment, FeePlanRequest.InstallmentDetail detail) {
+        return Objects.equals(installment.getInstallmentName(), detail.getInstallmentName())
+            && Objects.equals(installment.getPeriodStartDate(), detail.getPeriodStartDate())
+            && Objects.equals(installment.getPeriodEndDate(), detail.getPeriodEndDate())
+            && installment.getAmountDue() != null && detail.getAmountDue() != null
+            && installment.getAmountDue().compareTo(detail.getAmountDue()) == 0
+            && Objects.equals(installment.getDueDate(), detail.getDueDate());
+    }
+
+    private String normalizeStatus(String status) {
+        return status != null && !status.equalsIgnoreCase("ALL") ? status.toUpperCase(Locale.ROOT) : null;
+    }
+
+    private List<FeePlanResponse> mapRowsToResponse(List<FeePlanListRow> rows, boolean includeInstallments) {
+        Map<Long, List<FeePlanResponse.InstallmentResponse>> installmentsByPlan = new HashMap<>();
+        if (includeInstallments && !rows.isEmpty()) {
+            List<Long> planIds = rows.stream().map(FeePlanListRow::getId).collect(Collectors.toList());
+            for (FeeInstallment installment : feeInstallmentRepository.findByFeePlanIds(planIds)) {
+                installmentsByPlan.computeIfAbsent(installment.getFeePlan().getId(), k -> new ArrayList<>())
+                    .add(mapInstallmentToResponse(installment));
+            }
+        }
+
+        List<FeePlanResponse> responses = new ArrayList<>(rows.size());
+        for (FeePlanListRow row : rows) {
+            FeePlanResponse response = new FeePlanResponse();
+            response.setId(row.getId());
+            response.setSchoolId(row.getSchoolId());
+            response.setAcademicYearId(row.getAcademicYearId());
+            response.setAcademicYearName(row.getAcademicYearName());
+            response.setCategoryId(row.getCategoryId());
+            response.setCategoryName(row.getCategoryName());
+            response.setCategoryCode(row.getCategoryCode());
+            response.setTotalAmount(row.getTotalAmount());
+            response.setFrequency(row.getFrequency());
+            response.setInstallmentsCount(row.getInstallmentsCount());
+            response.setStatus(row.getStatus());
+            if (includeInstallments) {
+                response.setInstallments(installmentsByPlan.getOrDefault(row.getId(), new ArrayList<>()));
+            }
+            responses.add(response);
+        }
+        return responses;
+    }
+
     /**
      * Map entity to response DTO
      */
@@ -0,0 +1,210 @@
+package org.sma.admin.core.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.config.FeeReceiptConfigProperties;
+import org.sma.admin.core.app.service.FeeReceiptStore.StoredReceipt;
+import org.sma.jpa.model.fee.FeePlan;
+import org.sma.jpa.model.fee.StudentFeePayment;
+import org.sma.jpa.model.school.SchoolProfile;
+import org.sma.jpa.repository.fee.StudentFeePaymentRepository;
+import org.sma.platform.core.exception.SmaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StreamUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders fee receipts off the payment path
+ * Recorded payments queue a render job once their transaction commits; a bounded worker
+ * pool renders the pre-compiled HTML template into the content-addressed receipt store.
+ * A receipt that was never rendered (queue full, restart, imported payment) is rendered
+ * on its first download, and output is deterministic so re-renders land on the same file.
+ */
+@Service
+public class FeeReceiptService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeeReceiptService.class);
+
+    private static final String TEMPLATE_LOCATION = "templates/fee-receipt.html";
+    private static final String EXTENSION = "html";
+    private static final DateTimeFormatter PAID_ON_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+
+    @Autowired
+    private FeeReceiptConfigProperties config;
+
+    @Autowired
+    private FeeReceiptStore receiptStore;
+
+    @Autowired
+    private StudentFeePaymentRepository studentFeePaymentRepository;
+
+    private FeeReceiptTemplate template;
+    private ThreadPoolExecutor rendererPool;
+    // LRU index of "schoolId:paymentId" to stored receipt hash
+    private Map<String, String> receiptIndex;
+
+    @PostConstruct
+    public void start() throws IOException {
+        template = FeeReceiptTemplate.compile(StreamUtils.copyToString(
+                new ClassPathResource(TEMPLATE_LOCATION).getInputStream(), StandardCharsets.UTF_8));
+
+        int cacheEntries = Math.max(1, config.getCacheEntries());
+        receiptIndex = Collections.synchronizedMap(new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheEntries;
+            }
+        });
+
+        int workers = Math.max(1, config.getWorkers());
+        AtomicInteger threadIndex = new AtomicInteger();
+        rendererPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())), runnable -> {
+                    Thread thread = new Thread(runnable, "fee-receipt-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        rendererPool.shutdownNow();
+    }
+
+    /**
+     * Queue a receipt render for a payment once the surrounding transaction commits
+     */
+    public void enqueue(Long schoolId, Long paymentId) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(schoolId, paymentId);
+                }
+            });
+        } else {
+            submit(schoolId, paymentId);
+        }
+    }
+
+    /**
+     * Stored receipt of a payment, rendering it now if it has not been rendered yet
+     */
+    @Transactional(readOnly = true)
+    public StoredReceipt getReceipt(Long schoolId, Long paymentId) throws SmaException {
+        // The payment row is the authority: the index is per node and a payment deleted
+        // through another node still has its entry here
+        StudentFeePayment payment = studentFeePaymentRepository.findReceiptData(schoolId, paymentId)
+                .orElseThrow(() -> new SmaException("Payment not found"));
+
+        String hash = receiptIndex.get(indexKey(schoolId, paymentId));
+        if (hash != null) {
+            StoredReceipt stored = receiptStore.get(hash, EXTENSION);
+            if (stored != null) {
+                return stored;
+            }
+        }
+        return render(payment);
+    }
+
+    /**
+     * Drop this node's index entry of a deleted payment; other nodes keep theirs until LRU
+     * eviction, which is harmless since every download checks the payment row first
+     */
+    public void evict(Long schoolId, Long paymentId) {
+        // The stored file may be shared by identical content, so only the index entry goes
+        receiptIndex.remove(indexKey(schoolId, paymentId));
+    }
+
+    public String getReceiptNo(Long schoolId, Long paymentId) {
+        return "RCPT-" + schoolId + "-" + paymentId;
+    }
+
+    private void submit(Long schoolId, Long paymentId) {
+        try {
+            rendererPool.execute(() -> renderQuietly(schoolId, paymentId));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Receipt queue full, payment {} will be rendered on first download", paymentId);
+        }
+    }
+
+    private void renderQuietly(Long schoolId, Long paymentId) {
+        try {
+            studentFeePaymentRepository.findReceiptData(schoolId, paymentId).ifPresent(this::render);
+        } catch (Exception e) {
+            logger.error("Receipt rendering failed for payment {}: {}", paymentId, e.getMessage(), e);
+        }
+    }
+
+    private StoredReceipt render(StudentFeePayment payment) {
+        SchoolProfile school = payment.getSchool();
+        FeePlan feePlan = payment.getFeeInstallment().getFeePlan();
+
+        Map<String, String> values = new HashMap<>();
+        values.put("receiptNo", getReceiptNo(school.getId(), payment.getId()));
+        values.put("schoolName", school.getSchoolName());
+        values.put("schoolAddress", join(", ", school.getAddressLine1(), school.getAddressLine2(),
+                school.getCity(), school.getState(), school.getPostalCode()));
+        values.put("schoolContact", join(" | ", school.getPhoneNumber(), school.getEmail()));
+        values.put("paymentRef", payment.getPaymentRef());
+        values.put("paidOn", payment.getPaidOn() != null ? payment.getPaidOn().format(PAID_ON_FORMAT) : null);
+        values.put("studentName", join(" ", payment.getStudent().getFirstName(), payment.getStudent().getLastName()));
+        values.put("admissionNo", payment.getStudent().getAdmissionNo());
+        values.put("academicYear", feePlan.getAcademicYear().getYearName());
+        values.put("feeCategory", feePlan.getCategory().getCategoryName());
+        values.put("installmentName", payment.getFeeInstallment().getInstallmentName());
+        values.put("paymentMode", payment.getPaymentMode());
+        values.put("discountAmount", formatAmount(payment.getDiscountAmount()));
+        values.put("amountPaid", formatAmount(payment.getAmountPaid()));
+        values.put("remarks", payment.getRemarks());
+
+        StoredReceipt stored = receiptStore.put(template.render(values).getBytes(StandardCharsets.UTF_8), EXTENSION);
+        receiptIndex.put(indexKey(school.getId(), payment.getId()), stored.getHash());
+        return stored;
+    }
+
+    private String indexKey(Long schoolId, Long paymentId) {
+        return schoolId + ":" + paymentId;
+    }
+
+    private String formatAmount(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).toPlainString() : null;
+    }
+
+    private String join(String separator, String... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.trim().isEmpty()) {
+                if (joined.length() > 0) {
+                    joined.append(separator);
+                }
+                joined.append(part.trim());
+            }
+        }
+        return joined.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package org.sma.admin.core.app.service;
+
+import org.sma.admin.core.app.config.FeeReceiptConfigProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Local content-addressed store for rendered receipts
+ * Files are named by the SHA-256 of their content and fanned out by the first two hex
+ * digits, so identical renders share one file and a stored file never changes.
+ */
+@Component
+public class FeeReceiptStore {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Autowired
+    private FeeReceiptConfigProperties config;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(config.getStoreDir()).toAbsolutePath();
+        Files.createDirectories(root);
+    }
+
+    /**
+     * Store content under its hash; writing content that is already stored is a no-op
+     */
+    public StoredReceipt put(byte[] content, String extension) {
+        String hash = sha256(content);
+        Path target = resolve(hash, extension);
+        try {
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                // Write aside and move into place so readers never see a partial file
+                Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+                try {
+                    Files.write(temp, content);
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Another worker stored the same content first
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to store receipt " + hash, e);
+        }
+        return new StoredReceipt(hash, target, content.length);
+    }
+
+    /**
+     * Look up previously stored content, or null when the file is gone
+     */
+    public StoredReceipt get(String hash, String extension) {
+        Path path = resolve(hash, extension);
+        try {
+            return Files.exists(path) ? new StoredReceipt(hash, path, Files.size(path)) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Path resolve(String hash, String extension) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "." + extension);
+    }
+
+    private String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+                hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Location of one stored receipt
+     */
+    public static final class StoredReceipt {
+        private final String hash;
+        private final Path path;
+        private final long size;
+
+        private StoredReceipt(String hash, Path path, long size) {
+            this.hash = hash;
+            this.path = path;
+            this.size = size;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+}
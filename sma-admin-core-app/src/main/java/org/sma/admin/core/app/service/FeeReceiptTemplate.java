@@ -0,0 +1,57 @@
+package org.sma.admin.core.app.service;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTML receipt template compiled once into literal and placeholder segments
+ * Rendering is a single pass over the segments with no parsing or reflection.
+ */
+public final class FeeReceiptTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final List<String> literals = new ArrayList<>();
+    private final List<String> placeholders = new ArrayList<>();
+    private final int sizeHint;
+
+    private FeeReceiptTemplate(String source) {
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            literals.add(source.substring(position, open));
+            placeholders.add(source.substring(open + OPEN.length(), close).trim());
+            position = close + CLOSE.length();
+        }
+        sizeHint = source.length() + placeholders.size() * 32;
+    }
+
+    public static FeeReceiptTemplate compile(String source) {
+        return new FeeReceiptTemplate(source);
+    }
+
+    /**
+     * Render with HTML-escaped values; missing values render empty
+     */
+    public String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(sizeHint);
+        for (int i = 0; i < placeholders.size(); i++) {
+            out.append(literals.get(i));
+            String value = values.get(placeholders.get(i));
+            if (value != null) {
+                out.append(HtmlUtils.htmlEscape(value));
+            }
+        }
+        out.append(literals.get(literals.size() - 1));
+        return out.toString();
+    }
+}
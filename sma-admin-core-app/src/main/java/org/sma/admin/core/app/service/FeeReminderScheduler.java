@@ -0,0 +1,27 @@
+package org.sma.admin.core.app.service;
+
+import org.sma.admin.core.app.config.FeeReminderConfigProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Daily job publishing overdue fee reminders for every school with a current academic year
+ */
+@Component
+public class FeeReminderScheduler {
+
+    @Autowired
+    private FeeReminderService feeReminderService;
+
+    @Autowired
+    private FeeReminderConfigProperties feeReminderConfig;
+
+    @Scheduled(cron = "${sma.app.admin.fee.reminder.cron:0 0 8 * * *}")
+    public void publishReminders() {
+        if (!feeReminderConfig.isEnabled()) {
+            return;
+        }
+        feeReminderService.runReminders();
+    }
+}
@@ -0,0 +1,284 @@
+package org.sma.admin.core.app.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.amqp.AMQPFeeReminderSender;
+import org.sma.admin.core.app.config.FeeReminderConfigProperties;
+import org.sma.admin.core.app.model.event.FeeReminderBatch;
+import org.sma.admin.core.app.model.event.FeeReminderEvent;
+import org.sma.jpa.model.fee.FeeReminderCheckpoint;
+import org.sma.jpa.repository.fee.FeeReminderCheckpointRepository;
+import org.sma.jpa.repository.fee.StudentFeePaymentRepository;
+import org.sma.jpa.repository.fee.StudentFeePaymentRepository.OverdueReminderRow;
+import org.sma.jpa.repository.school.AcademicYearRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scans overdue fee installments school by school and publishes reminder events
+ * Each school is scanned in keyset-ordered chunks on a bounded worker pool; every
+ * chunk is published in batches and checkpointed, so a run interrupted mid-school
+ * resumes after the last published pair instead of starting over. A school is claimed
+ * with an advisory lock before anything is published, so when several nodes fire the
+ * same cron only one of them sends that school's reminders.
+ */
+@Service
+public class FeeReminderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeeReminderService.class);
+
+    private static final String METRIC_PREFIX = "sma.fee.reminder";
+
+    @Autowired
+    private FeeReminderConfigProperties config;
+
+    @Autowired
+    private StudentFeePaymentRepository studentFeePaymentRepository;
+
+    @Autowired
+    private FeeReminderCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private AcademicYearRepository academicYearRepository;
+
+    @Autowired
+    private AMQPFeeReminderSender feeReminderSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate claimTransaction;
+    private TransactionTemplate checkpointTransaction;
+    private ExecutorService workerPool;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private Counter chunkCounter;
+    private Counter messageCounter;
+    private Counter reminderCounter;
+    private Counter failedSchoolCounter;
+    private Timer runTimer;
+    private Timer schoolLagTimer;
+
+    @PostConstruct
+    public void start() {
+        chunkCounter = Counter.builder(METRIC_PREFIX + ".chunks").register(meterRegistry);
+        messageCounter = Counter.builder(METRIC_PREFIX + ".messages").register(meterRegistry);
+        reminderCounter = Counter.builder(METRIC_PREFIX + ".reminders").register(meterRegistry);
+        failedSchoolCounter = Counter.builder(METRIC_PREFIX + ".schools").tag("outcome", "failed")
+                .register(meterRegistry);
+        runTimer = Timer.builder(METRIC_PREFIX + ".run").register(meterRegistry);
+        // Time from the start of a run until a school's reminders are all published
+        schoolLagTimer = Timer.builder(METRIC_PREFIX + ".lag").register(meterRegistry);
+
+        // The claim transaction holds a school's lock for the whole scan; checkpoints commit
+        // on their own so progress survives a crash mid-school
+        claimTransaction = new TransactionTemplate(transactionManager);
+        claimTransaction.setReadOnly(true);
+        checkpointTransaction = new TransactionTemplate(transactionManager);
+        checkpointTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(Math.max(1, config.getWorkers()), runnable -> {
+            Thread thread = new Thread(runnable, "fee-reminder-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * Publish today's overdue reminders for every school with a current academic year
+     * Schools already completed today are skipped; partially processed ones resume
+     * from their checkpoint.
+     */
+    public Map<String, Object> runReminders() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Fee reminder run skipped, previous run still in progress");
+            result.put("skipped", true);
+            return result;
+        }
+
+        long start = System.nanoTime();
+        LocalDate runDate = LocalDate.now();
+        int schools = 0;
+        int failedSchools = 0;
+        long reminders = 0;
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            List<Long> schoolIds = new ArrayList<>();
+            for (Object[] row : academicYearRepository.findCurrentSchoolYearIds()) {
+                Long schoolId = (Long) row[0];
+                Long academicYearId = (Long) row[1];
+                schoolIds.add(schoolId);
+                futures.add(workerPool.submit(() -> processSchool(schoolId, academicYearId, runDate, start)));
+            }
+            schools = futures.size();
+
+            long deadline = start + TimeUnit.MINUTES.toNanos(config.getRunTimeoutMinutes());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    reminders += futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    // One school's failure must not stop the others; its checkpoint lets the next run resume
+                    failedSchools++;
+                    failedSchoolCounter.increment();
+                    logger.error("Fee reminders failed for school {}: {}", schoolIds.get(i),
+                            e.getCause().getMessage(), e.getCause());
+                } catch (TimeoutException e) {
+                    failedSchools++;
+                    failedSchoolCounter.increment();
+                    futures.get(i).cancel(true);
+                    logger.error("Fee reminders for school {} exceeded the run timeout", schoolIds.get(i));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+
+        long durationNanos = System.nanoTime() - start;
+        runTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        logger.info("Fee reminder run for {} finished: {} schools, {} failed, {} reminders in {} ms",
+                runDate, schools, failedSchools, reminders, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+
+        result.put("runDate", runDate);
+        result.put("schools", schools);
+        result.put("failedSchools", failedSchools);
+        result.put("remindersSent", reminders);
+        result.put("durationMs", TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        return result;
+    }
+
+    /**
+     * Claim a school for this run and publish its reminders, or skip it when another node holds the claim
+     */
+    private long processSchool(Long schoolId, Long academicYearId, LocalDate runDate, long runStartNanos) {
+        Long sent = claimTransaction.execute(status -> {
+            if (!checkpointRepository.tryClaimSchool(schoolId)) {
+                logger.info("Fee reminders for school {} are being sent by another node", schoolId);
+                return 0L;
+            }
+            return publishSchool(schoolId, academicYearId, runDate, runStartNanos);
+        });
+        return sent != null ? sent : 0;
+    }
+
+    /**
+     * Scan one school's overdue pairs chunk by chunk, publishing and checkpointing each chunk
+     * Runs under the school's claim, so the checkpoint read here is not being advanced elsewhere.
+     */
+    private long publishSchool(Long schoolId, Long academicYearId, LocalDate runDate, long runStartNanos) {
+        // Loaded in its own transaction so the claim transaction never flushes a stale copy
+        FeeReminderCheckpoint checkpoint = checkpointTransaction.execute(status ->
+                checkpointRepository.findBySchoolIdAndRunDate(schoolId, runDate)
+                        .orElseGet(() -> {
+                            FeeReminderCheckpoint created = new FeeReminderCheckpoint();
+                            created.setSchoolId(schoolId);
+                            created.setAcademicYearId(academicYearId);
+                            created.setRunDate(runDate);
+                            return created;
+                        }));
+        if (checkpoint.getCompletedAt() != null) {
+            return 0;
+        }
+
+        PageRequest chunk = PageRequest.of(0, Math.max(1, config.getChunkSize()));
+        int publishBatchSize = Math.max(1, config.getPublishBatchSize());
+        long sent = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<OverdueReminderRow> rows = studentFeePaymentRepository.findOverdueChunk(schoolId, academicYearId,
+                    runDate, checkpoint.getLastStudentId(), checkpoint.getLastInstallmentId(), chunk);
+            if (rows.isEmpty()) {
+                checkpoint.setCompletedAt(LocalDateTime.now());
+                checkpoint = saveCheckpoint(checkpoint);
+                break;
+            }
+
+            for (int from = 0; from < rows.size(); from += publishBatchSize) {
+                List<OverdueReminderRow> slice = rows.subList(from, Math.min(rows.size(), from + publishBatchSize));
+                FeeReminderBatch batch = new FeeReminderBatch();
+                batch.setSchoolId(schoolId);
+                batch.setAcademicYearId(academicYearId);
+                batch.setRunDate(runDate);
+                for (OverdueReminderRow row : slice) {
+                    batch.getReminders().add(toEvent(row, runDate));
+                }
+                feeReminderSender.sendReminderBatch(batch,
+                        schoolId + ":" + runDate + ":" + checkpoint.getChunksProcessed() + ":" + from);
+                messageCounter.increment();
+            }
+
+            // Checkpoint only after the whole chunk is published
+            OverdueReminderRow last = rows.get(rows.size() - 1);
+            checkpoint.setLastStudentId(last.getStudentId());
+            checkpoint.setLastInstallmentId(last.getFeeInstallmentId());
+            checkpoint.setChunksProcessed(checkpoint.getChunksProcessed() + 1);
+            checkpoint.setRemindersSent(checkpoint.getRemindersSent() + rows.size());
+            checkpoint = saveCheckpoint(checkpoint);
+
+            sent += rows.size();
+            chunkCounter.increment();
+            reminderCounter.increment(rows.size());
+        }
+
+        schoolLagTimer.record(Duration.ofNanos(System.nanoTime() - runStartNanos));
+        logger.info("Published {} fee reminders for school {} ({} chunks so far today)",
+                sent, schoolId, checkpoint.getChunksProcessed());
+        return sent;
+    }
+
+    private FeeReminderCheckpoint saveCheckpoint(FeeReminderCheckpoint checkpoint) {
+        return checkpointTransaction.execute(status -> checkpointRepository.save(checkpoint));
+    }
+
+    private FeeReminderEvent toEvent(OverdueReminderRow row, LocalDate runDate) {
+        FeeReminderEvent event = new FeeReminderEvent();
+        event.setStudentId(row.getStudentId());
+        event.setStudentName(row.getFirstName() + " " + row.getLastName());
+        event.setAdmissionNo(row.getAdmissionNo());
+        event.setFeeInstallmentId(row.getFeeInstallmentId());
+        event.setInstallmentName(row.getInstallmentName());
+        event.setFeeCategoryName(row.getFeeCategoryName());
+        event.setAmountDue(row.getAmountDue());
+        event.setDueDate(row.getDueDate());
+        event.setDaysOverdue(ChronoUnit.DAYS.between(row.getDueDate(), runDate));
+        return event;
+    }
+}
@@ -0,0 +1,262 @@
+package org.sma.admin.core.app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.config.PaymentImportConfigProperties;
+import org.sma.admin.core.app.exception.SmaAdminException;
+import org.sma.admin.core.app.model.request.PaymentImportRow;
+import org.sma.admin.core.app.model.response.PaymentImportReportResponse;
+import org.sma.jpa.repository.school.SchoolProfileRepository;
+import org.sma.platform.core.utils.ImportFileUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams a bank statement / payment batch file (CSV with a header row, or NDJSON) and
+ * records its payments batch by batch through StudentFeePaymentBusinessService.
+ * Only one batch of parsed rows is held in memory at a time; each batch commits on its own.
+ */
+@Service
+public class PaymentImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentImportService.class);
+
+    @Autowired
+    private StudentFeePaymentBusinessService studentFeePaymentBusinessService;
+
+    @Autowired
+    private SchoolProfileRepository schoolProfileRepository;
+
+    @Autowired
+    private PaymentImportConfigProperties importConfig;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Resolve the file format from an explicit format parameter or the file name
+     */
+    public String resolveFormat(String format, String fileName) {
+        try {
+            return ImportFileUtils.resolveFormat(format, fileName);
+        } catch (IllegalArgumentException e) {
+            throw new SmaAdminException(e.getMessage());
+        }
+    }
+
+    public PaymentImportReportResponse importPayments(Long schoolId, InputStream input, String format,
+                                                      boolean dryRun) throws IOException {
+        if (!schoolProfileRepository.existsById(schoolId)) {
+            throw new SmaAdminException("School not found with ID: " + schoolId);
+        }
+
+        long start = System.currentTimeMillis();
+        PaymentImportReportResponse report = new PaymentImportReportResponse();
+        report.setSchoolId(schoolId);
+        report.setFormat(format);
+        report.setDryRun(dryRun);
+        report.setTruncated(false);
+        report.setFailedBatches(0);
+
+        int batchSize = Math.max(importConfig.getBatchSize(), 1);
+        Set<String> seenPaymentRefs = new HashSet<>();
+        List<PaymentImportRow> batch = new ArrayList<>(batchSize);
+        int rowNumber = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> csvColumns = null;
+            if (ImportFileUtils.FORMAT_CSV.equals(format)) {
+                String header = reader.readLine();
+                if (header == null) {
+                    throw new SmaAdminException("Import file is empty");
+                }
+                csvColumns = ImportFileUtils.parseHeader(header);
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                if (rowNumber >= importConfig.getMaxRows()) {
+                    report.setTruncated(true);
+                    break;
+                }
+                rowNumber++;
+
+                PaymentImportRow row = new PaymentImportRow();
+                row.setRowNumber(rowNumber);
+                try {
+                    Map<String, String> values = ImportFileUtils.FORMAT_CSV.equals(format)
+                            ? ImportFileUtils.parseCsvLine(line, csvColumns)
+                            : parseJsonLine(line);
+                    populateRow(row, values);
+                } catch (IllegalArgumentException e) {
+                    report.getRows().add(rejected(row, e.getMessage()));
+                    continue;
+                }
+
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    flush(schoolId, batch, seenPaymentRefs, dryRun, report);
+                }
+            }
+        }
+        flush(schoolId, batch, seenPaymentRefs, dryRun, report);
+
+        int accepted = 0;
+        int duplicates = 0;
+        for (PaymentImportReportResponse.RowResult result : report.getRows()) {
+            if ("ACCEPTED".equals(result.getStatus())) {
+                accepted++;
+            } else if ("DUPLICATE".equals(result.getStatus())) {
+                duplicates++;
+            }
+        }
+        report.setTotalRows(rowNumber);
+        report.setAccepted(accepted);
+        report.setDuplicates(duplicates);
+        report.setRejected(rowNumber - accepted - duplicates);
+        report.setDurationMs(System.currentTimeMillis() - start);
+        logger.info("Payment import for school {} ({}, dryRun={}): {} rows, {} accepted, {} duplicates, {} rejected in {} ms",
+                schoolId, format, dryRun, rowNumber, accepted, duplicates, report.getRejected(), report.getDurationMs());
+        return report;
+    }
+
+    /**
+     * Record one batch; a failing batch is rolled back and reported row by row while earlier,
+     * already committed batches stand and later batches still run
+     */
+    private void flush(Long schoolId, List<PaymentImportRow> batch, Set<String> seenPaymentRefs,
+                       boolean dryRun, PaymentImportReportResponse report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<String> newRefs = new HashSet<>();
+        for (PaymentImportRow row : batch) {
+            if (row.getPaymentRef() != null && !seenPaymentRefs.contains(row.getPaymentRef())) {
+                newRefs.add(row.getPaymentRef());
+            }
+        }
+        try {
+            report.getRows().addAll(
+                    studentFeePaymentBusinessService.importPaymentBatch(schoolId, batch, seenPaymentRefs, dryRun));
+        } catch (RuntimeException e) {
+            // Refs of the rolled back batch were never recorded
+            seenPaymentRefs.removeAll(newRefs);
+            report.setFailedBatches(report.getFailedBatches() + 1);
+            logger.error("Payment import batch of rows {}-{} failed for school {}", batch.get(0).getRowNumber(),
+                    batch.get(batch.size() - 1).getRowNumber(), schoolId, e);
+            for (PaymentImportRow row : batch) {
+                PaymentImportReportResponse.RowResult result = new PaymentImportReportResponse.RowResult();
+                result.setRowNumber(row.getRowNumber());
+                result.setPaymentRef(row.getPaymentRef());
+                result.setStatus("FAILED");
+                result.setReason("Batch not recorded: " + e.getMessage());
+                report.getRows().add(result);
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private Map<String, String> parseJsonLine(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed JSON line");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Line is not a JSON object");
+        }
+        Map<String, String> values = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!field.getValue().isNull()) {
+                values.put(ImportFileUtils.normalizeKey(field.getKey()), field.getValue().asText());
+            }
+        }
+        return values;
+    }
+
+    private void populateRow(PaymentImportRow row, Map<String, String> values) {
+        row.setStudentId(parseLong(values, "studentid"));
+        row.setAdmissionNo(text(values, "admissionno"));
+        row.setFeeInstallmentId(parseLong(values, "feeinstallmentid"));
+        row.setAmountPaid(parseDecimal(values, "amountpaid"));
+        row.setDiscountAmount(parseDecimal(values, "discountamount"));
+        row.setPaidOn(parseDateTime(values, "paidon"));
+        row.setPaymentRef(text(values, "paymentref"));
+        row.setPaymentMode(text(values, "paymentmode"));
+        row.setRemarks(text(values, "remarks"));
+    }
+
+    private String text(Map<String, String> values, String key) {
+        String value = values.get(key);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Long parseLong(Map<String, String> values, String key) {
+        String value = text(values, key);
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+
+    private BigDecimal parseDecimal(Map<String, String> values, String key) {
+        String value = text(values, key);
+        try {
+            return value != null ? new BigDecimal(value) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+
+    // Accepts ISO date-time or a plain ISO date (start of day)
+    private LocalDateTime parseDateTime(Map<String, String> values, String key) {
+        String value = text(values, key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+
+    private PaymentImportReportResponse.RowResult rejected(PaymentImportRow row, String reason) {
+        PaymentImportReportResponse.RowResult result = new PaymentImportReportResponse.RowResult();
+        result.setRowNumber(row.getRowNumber());
+        result.setStatus("REJECTED");
+        result.setReason(reason);
+        return result;
+    }
+}
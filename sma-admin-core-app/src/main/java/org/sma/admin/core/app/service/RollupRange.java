@@ -0,0 +1,42 @@
+package org.sma.admin.core.app.service;
+
+import java.time.LocalDate;
+
+/**
+ * Splits [start, end] into a partial-month head, whole months and a partial-month tail,
+ * so rollup reads take day buckets for the partial months and month buckets in between
+ */
+final class RollupRange {
+
+    final LocalDate headStart;
+    final LocalDate headEnd;
+    final LocalDate monthStart;
+    final LocalDate monthEnd;
+    final LocalDate tailStart;
+    final LocalDate tailEnd;
+
+    private RollupRange(LocalDate headStart, LocalDate headEnd, LocalDate monthStart, LocalDate monthEnd,
+                        LocalDate tailStart, LocalDate tailEnd) {
+        this.headStart = headStart;
+        this.headEnd = headEnd;
+        this.monthStart = monthStart;
+        this.monthEnd = monthEnd;
+        this.tailStart = tailStart;
+        this.tailEnd = tailEnd;
+    }
+
+    static RollupRange of(LocalDate start, LocalDate end) {
+        // An empty range is expressed as start after end
+        LocalDate emptyStart = end.plusDays(1);
+
+        LocalDate firstFullMonth = start.getDayOfMonth() == 1 ? start : start.withDayOfMonth(1).plusMonths(1);
+        LocalDate lastFullMonth = end.getDayOfMonth() == end.lengthOfMonth()
+                ? end.withDayOfMonth(1) : end.withDayOfMonth(1).minusMonths(1);
+
+        if (!firstFullMonth.isAfter(lastFullMonth)) {
+            return new RollupRange(start, firstFullMonth.minusDays(1), firstFullMonth, lastFullMonth,
+                    lastFullMonth.plusMonths(1), end);
+        }
+        return new RollupRange(start, end, emptyStart, end, emptyStart, end);
+    }
+}
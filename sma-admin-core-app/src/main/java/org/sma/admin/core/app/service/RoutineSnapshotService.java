@@ -0,0 +1,312 @@
+package org.sma.admin.core.app.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.config.RoutineSnapshotConfigProperties;
+import org.sma.admin.core.app.model.response.RoutineEntryResponse;
+import org.sma.admin.core.app.model.response.RoutineSnapshotResponse;
+import org.sma.jpa.repository.routine.ClassRoutineMasterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory, versioned snapshot of the weekly routine per school and academic year
+ * Snapshots are immutable and replaced as a whole after routine writes commit, so
+ * readers never see a half-built routine. A snapshot older than the configured max
+ * age is rebuilt on the next read, which bounds staleness for writes made through
+ * other application instances.
+ */
+@Service
+public class RoutineSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutineSnapshotService.class);
+
+    private static final String METRIC_PREFIX = "sma.routine.snapshot";
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    @Autowired
+    private RoutineSnapshotConfigProperties config;
+
+    @Autowired
+    private ClassRoutineMasterRepository classRoutineMasterRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<SnapshotKey, RoutineSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong buildSequence = new AtomicLong();
+
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Counter refreshFailedCounter;
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    public void init() {
+        hitCounter = Counter.builder(METRIC_PREFIX + ".requests").tag("result", "hit").register(meterRegistry);
+        missCounter = Counter.builder(METRIC_PREFIX + ".requests").tag("result", "miss").register(meterRegistry);
+        refreshFailedCounter = Counter.builder(METRIC_PREFIX + ".refresh.failed").register(meterRegistry);
+        rebuildTimer = Timer.builder(METRIC_PREFIX + ".rebuild").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", snapshots, Map::size).register(meterRegistry);
+    }
+
+    public RoutineSnapshotResponse getWeeklyRoutine(Long schoolId, Long academicYearId, Long classId, Long sectionId) {
+        RoutineSnapshot snapshot = getSnapshot(schoolId, academicYearId);
+        return toResponse(schoolId, academicYearId, snapshot, snapshot.weekly(classId, sectionId));
+    }
+
+    public RoutineSnapshotResponse getDailyRoutine(Long schoolId, Long academicYearId, Long classId,
+                                                   Long sectionId, String dayOfWeek) {
+        RoutineSnapshot snapshot = getSnapshot(schoolId, academicYearId);
+        return toResponse(schoolId, academicYearId, snapshot, snapshot.daily(classId, sectionId, dayOfWeek));
+    }
+
+    public RoutineSnapshotResponse getTeacherRoutine(Long schoolId, Long academicYearId, Long teacherId,
+                                                     String dayOfWeek) {
+        RoutineSnapshot snapshot = getSnapshot(schoolId, academicYearId);
+        return toResponse(schoolId, academicYearId, snapshot, snapshot.teacherDay(teacherId, dayOfWeek));
+    }
+
+    /**
+     * Current snapshot version, building the snapshot if needed
+     */
+    public long getVersion(Long schoolId, Long academicYearId) {
+        return getSnapshot(schoolId, academicYearId).version;
+    }
+
+    /**
+     * Rebuild the snapshot once the current transaction commits
+     * Without an active transaction the snapshot is refreshed immediately.
+     */
+    public void refreshAfterCommit(Long schoolId, Long academicYearId) {
+        SnapshotKey key = new SnapshotKey(schoolId, academicYearId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh(key);
+            }
+        });
+    }
+
+    private RoutineSnapshot getSnapshot(Long schoolId, Long academicYearId) {
+        SnapshotKey key = new SnapshotKey(schoolId, academicYearId);
+        RoutineSnapshot snapshot = snapshots.get(key);
+        if (snapshot != null && !isExpired(snapshot)) {
+            hitCounter.increment();
+            return snapshot;
+        }
+        missCounter.increment();
+        // Concurrent misses for the same key wait for a single build
+        return snapshots.compute(key, (k, existing) ->
+                existing != null && !isExpired(existing) ? existing : build(k));
+    }
+
+    private void refresh(SnapshotKey key) {
+        if (!snapshots.containsKey(key)) {
+            // Nobody has read this routine yet, the next read builds it
+            return;
+        }
+        try {
+            RoutineSnapshot fresh = build(key);
+            // A build that started later has read later data, so never replace it with an older one
+            snapshots.merge(key, fresh, (current, candidate) ->
+                    candidate.sequence > current.sequence ? candidate : current);
+        } catch (RuntimeException e) {
+            refreshFailedCounter.increment();
+            snapshots.remove(key);
+            logger.warn("Failed to refresh routine snapshot for school {}, year {}: {}",
+                    key.schoolId, key.academicYearId, e.getMessage());
+        }
+    }
+
+    private RoutineSnapshot build(SnapshotKey key) {
+        long sequence = buildSequence.incrementAndGet();
+        long start = System.nanoTime();
+
+        List<ClassRoutineMasterRepository.RoutineRow> rows =
+                classRoutineMasterRepository.findSchoolRoutineRows(key.schoolId, key.academicYearId);
+        List<RoutineEntryResponse> entries = new ArrayList<>(rows.size());
+        for (ClassRoutineMasterRepository.RoutineRow row : rows) {
+            entries.add(toEntry(row));
+        }
+        RoutineSnapshot snapshot = new RoutineSnapshot(sequence, entries);
+
+        long durationNanos = System.nanoTime() - start;
+        rebuildTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        logger.debug("Built routine snapshot for school {}, year {}: {} entries, version {} in {} ms",
+                key.schoolId, key.academicYearId, entries.size(), snapshot.version,
+                TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        return snapshot;
+    }
+
+    private boolean isExpired(RoutineSnapshot snapshot) {
+        return snapshot.builtAt.plusSeconds(config.getMaxAgeSeconds()).isBefore(LocalDateTime.now());
+    }
+
+    private RoutineSnapshotResponse toResponse(Long schoolId, Long academicYearId, RoutineSnapshot snapshot,
+                                               List<RoutineEntryResponse> entries) {
+        RoutineSnapshotResponse response = new RoutineSnapshotResponse();
+        response.setSchoolId(schoolId);
+        response.setAcademicYearId(academicYearId);
+        response.setVersion(snapshot.version);
+        response.setBuiltAt(snapshot.builtAt);
+        response.setEntries(entries);
+        return response;
+    }
+
+    private RoutineEntryResponse toEntry(ClassRoutineMasterRepository.RoutineRow row) {
+        RoutineEntryResponse entry = new RoutineEntryResponse();
+        entry.setRoutineMasterId(row.getRoutineMasterId());
+        entry.setDayOfWeek(row.getDayOfWeek());
+        entry.setClassId(row.getClassId());
+        entry.setClassName(row.getClassName());
+        entry.setSectionId(row.getSectionId());
+        entry.setSectionName(row.getSectionName());
+        entry.setTimeSlotId(row.getTimeSlotId());
+        entry.setSlotName(row.getSlotName());
+        entry.setStartTime(row.getStartTime());
+        entry.setEndTime(row.getEndTime());
+        entry.setSlotOrder(row.getSlotOrder());
+        entry.setSubjectId(row.getSubjectId());
+        entry.setSubjectName(row.getSubjectName());
+        entry.setTeacherId(row.getTeacherId());
+        entry.setTeacherName(fullName(row.getTeacherFirstName(), row.getTeacherLastName()));
+        return entry;
+    }
+
+    private String fullName(String firstName, String lastName) {
+        if (firstName == null) {
+            return lastName;
+        }
+        return lastName == null ? firstName : firstName + " " + lastName;
+    }
+
+    private static final class SnapshotKey {
+        private final Long schoolId;
+        private final Long academicYearId;
+
+        private SnapshotKey(Long schoolId, Long academicYearId) {
+            this.schoolId = schoolId;
+            this.academicYearId = academicYearId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SnapshotKey)) {
+                return false;
+            }
+            SnapshotKey that = (SnapshotKey) o;
+            return Objects.equals(schoolId, that.schoolId) && Objects.equals(academicYearId, that.academicYearId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(schoolId, academicYearId);
+        }
+    }
+
+    /**
+     * Immutable routine of one school and academic year with lookup indexes
+     * The version is a fingerprint of the content, so it is stable across rebuilds
+     * and application instances as long as the routine itself does not change.
+     */
+    private static final class RoutineSnapshot {
+        private final long sequence;
+        private final long version;
+        private final LocalDateTime builtAt;
+        private final Map<String, List<RoutineEntryResponse>> bySection;
+        private final Map<String, List<RoutineEntryResponse>> bySectionDay;
+        private final Map<String, List<RoutineEntryResponse>> byTeacherDay;
+
+        private RoutineSnapshot(long sequence, List<RoutineEntryResponse> entries) {
+            this.sequence = sequence;
+            this.builtAt = LocalDateTime.now();
+
+            Map<String, List<RoutineEntryResponse>> sections = new HashMap<>();
+            Map<String, List<RoutineEntryResponse>> sectionDays = new HashMap<>();
+            Map<String, List<RoutineEntryResponse>> teacherDays = new HashMap<>();
+            long hash = FNV_OFFSET_BASIS;
+            // Entries arrive ordered by day and slot, so every index list keeps that order
+            for (RoutineEntryResponse entry : entries) {
+                String sectionKey = entry.getClassId() + ":" + entry.getSectionId();
+                String day = normalizeDay(entry.getDayOfWeek());
+                sections.computeIfAbsent(sectionKey, k -> new ArrayList<>()).add(entry);
+                sectionDays.computeIfAbsent(sectionKey + ":" + day, k -> new ArrayList<>()).add(entry);
+                if (entry.getTeacherId() != null) {
+                    teacherDays.computeIfAbsent(entry.getTeacherId() + ":" + day, k -> new ArrayList<>()).add(entry);
+                }
+                hash = fingerprint(hash, entry);
+            }
+            this.version = hash & Long.MAX_VALUE;
+            this.bySection = freeze(sections);
+            this.bySectionDay = freeze(sectionDays);
+            this.byTeacherDay = freeze(teacherDays);
+        }
+
+        private List<RoutineEntryResponse> weekly(Long classId, Long sectionId) {
+            return bySection.getOrDefault(classId + ":" + sectionId, Collections.emptyList());
+        }
+
+        private List<RoutineEntryResponse> daily(Long classId, Long sectionId, String dayOfWeek) {
+            return bySectionDay.getOrDefault(classId + ":" + sectionId + ":" + normalizeDay(dayOfWeek),
+                    Collections.emptyList());
+        }
+
+        private List<RoutineEntryResponse> teacherDay(Long teacherId, String dayOfWeek) {
+            return byTeacherDay.getOrDefault(teacherId + ":" + normalizeDay(dayOfWeek), Collections.emptyList());
+        }
+
+        private static String normalizeDay(String dayOfWeek) {
+            return dayOfWeek == null ? null : dayOfWeek.toUpperCase();
+        }
+
+        private static Map<String, List<RoutineEntryResponse>> freeze(Map<String, List<RoutineEntryResponse>> index) {
+            Map<String, List<RoutineEntryResponse>> frozen = new HashMap<>(index.size() * 2);
+            for (Map.Entry<String, List<RoutineEntryResponse>> e : index.entrySet()) {
+                frozen.put(e.getKey(), Collections.unmodifiableList(e.getValue()));
+            }
+            return Collections.unmodifiableMap(frozen);
+        }
+
+        private static long fingerprint(long hash, RoutineEntryResponse entry) {
+            String content = entry.getRoutineMasterId() + "|" + entry.getDayOfWeek() + "|" + entry.getClassId()
+                    + "|" + entry.getClassName() + "|" + entry.getSectionId() + "|" + entry.getSectionName()
+                    + "|" + entry.getTimeSlotId() + "|" + entry.getSlotName() + "|" + entry.getStartTime()
+                    + "|" + entry.getEndTime() + "|" + entry.getSlotOrder() + "|" + entry.getSubjectId()
+                    + "|" + entry.getSubjectName() + "|" + entry.getTeacherId() + "|" + entry.getTeacherName() + "\n";
+            for (int i = 0; i < content.length(); i++) {
+                hash ^= content.charAt(i);
+                hash *= FNV_PRIME;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.sma.admin.core.app.service;
+
+import org.sma.jpa.model.master.SectionMaster;
+import org.sma.jpa.repository.master.SectionOccupancyRepository;
+import org.sma.platform.core.exception.SmaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Seat reservations against per (academic year, section) occupancy counters
+ * A reservation is one conditional increment of the counter row, so the capacity check
+ * and the count update are atomic and concurrent assignments to a section serialize on
+ * that row only. Reservations join the caller's transaction, so a failure anywhere in the
+ * caller (SmaException is unchecked) rolls the reservation back with everything else.
+ */
+@Service
+public class SectionCapacityService {
+
+    @Autowired
+    private SectionOccupancyRepository sectionOccupancyRepository;
+
+    /**
+     * Reserve seats in a section for an academic year or fail without changing the count
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Long schoolId, Long academicYearId, SectionMaster section, int seats) throws SmaException {
+        if (seats <= 0) {
+            return;
+        }
+        Integer capacity = section.getCapacity();
+        if (sectionOccupancyRepository.tryReserve(academicYearId, section.getId(), seats, capacity)) {
+            return;
+        }
+
+        Integer occupied = sectionOccupancyRepository.findOccupied(academicYearId, section.getId());
+        if (occupied == null) {
+            // First assignment since counters were introduced: seed from existing enrollments
+            sectionOccupancyRepository.seed(schoolId, academicYearId, section.getId());
+            if (sectionOccupancyRepository.tryReserve(academicYearId, section.getId(), seats, capacity)) {
+                return;
+            }
+            occupied = sectionOccupancyRepository.findOccupied(academicYearId, section.getId());
+        }
+        if (seats > 1) {
+            throw new SmaException("Section capacity exceeded. Current: " + occupied + ", Requested: " + seats
+                    + ", Max: " + capacity);
+        }
+        throw new SmaException("Section capacity exceeded. Current: " + occupied + ", Max: " + capacity);
+    }
+
+    /**
+     * Give back seats of deactivated or moved assignments
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Long academicYearId, Long sectionId, int seats) {
+        if (seats > 0) {
+            sectionOccupancyRepository.release(academicYearId, sectionId, seats);
+        }
+    }
+
+    /**
+     * Rebuild a school's counters for an academic year from active enrollments
+     * @return number of sections recounted
+     */
+    @Transactional
+    public int recount(Long schoolId, Long academicYearId) {
+        return sectionOccupancyRepository.recount(schoolId, academicYearId);
+    }
+}
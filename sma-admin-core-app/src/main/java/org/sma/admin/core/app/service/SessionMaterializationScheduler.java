@@ -0,0 +1,52 @@
+package org.sma.admin.core.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.config.SessionMaterializationConfigProperties;
+import org.sma.jpa.repository.school.AcademicYearRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Nightly job keeping the next few days of sessions materialized for every current academic year
+ */
+@Component
+public class SessionMaterializationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionMaterializationScheduler.class);
+
+    @Autowired
+    private SessionMaterializationService materializationService;
+
+    @Autowired
+    private AcademicYearRepository academicYearRepository;
+
+    @Autowired
+    private SessionMaterializationConfigProperties materializationConfig;
+
+    @Scheduled(cron = "${sma.app.admin.routine.materialization.cron:0 30 1 * * *}")
+    public void materializeUpcomingSessions() {
+        if (!materializationConfig.isEnabled()) {
+            return;
+        }
+
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(Math.max(materializationConfig.getDaysAhead(), 1) - 1L);
+        List<Object[]> currentYears = academicYearRepository.findCurrentSchoolYearIds();
+        for (Object[] row : currentYears) {
+            Long schoolId = (Long) row[0];
+            Long academicYearId = (Long) row[1];
+            try {
+                materializationService.materialize(schoolId, academicYearId, from, to, null);
+            } catch (Exception e) {
+                // One school's failure must not stop the others
+                logger.error("Session materialization failed for school {}, year {}: {}",
+                        schoolId, academicYearId, e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.sma.admin.core.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.config.SessionMaterializationConfigProperties;
+import org.sma.jpa.model.school.AcademicYear;
+import org.sma.jpa.repository.routine.DailyClassSessionRepository;
+import org.sma.jpa.repository.school.AcademicYearRepository;
+import org.sma.platform.core.exception.SmaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pre-creates DailyClassSession rows from the weekly routine ahead of time.
+ * Sessions are expanded set-based in the database so the attendance path finds them
+ * already present; DailyClassSessionBusinessService still creates a missing session lazily.
+ */
+@Service
+public class SessionMaterializationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionMaterializationService.class);
+
+    @Autowired
+    private DailyClassSessionRepository dailyClassSessionRepository;
+
+    @Autowired
+    private AcademicYearRepository academicYearRepository;
+
+    @Autowired
+    private SessionMaterializationConfigProperties materializationConfig;
+
+    /**
+     * Create the scheduled sessions of every routine entry for each teaching day in the range.
+     * The range is clamped to the academic year; holidays and configured off days are skipped.
+     * Existing sessions are kept, so re-running over the same range only fills the gaps.
+     */
+    @Transactional
+    public Map<String, Object> materialize(Long schoolId, Long academicYearId, LocalDate startDate,
+                                           LocalDate endDate, Collection<LocalDate> holidays) throws SmaException {
+        if (startDate == null || endDate == null) {
+            throw new SmaException("Start date and end date are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new SmaException("End date cannot be before start date");
+        }
+
+        AcademicYear academicYear = academicYearRepository.findById(academicYearId)
+                .orElseThrow(() -> new SmaException("Academic year not found"));
+        if (!academicYear.getSchool().getId().equals(schoolId)) {
+            throw new SmaException("Academic year does not belong to this school");
+        }
+
+        LocalDate from = startDate.isBefore(academicYear.getStartDate()) ? academicYear.getStartDate() : startDate;
+        LocalDate to = endDate.isAfter(academicYear.getEndDate()) ? academicYear.getEndDate() : endDate;
+        if (ChronoUnit.DAYS.between(from, to) + 1 > materializationConfig.getMaxRangeDays()) {
+            throw new SmaException("Date range cannot exceed " + materializationConfig.getMaxRangeDays() + " days");
+        }
+
+        Set<DayOfWeek> offDays = offDays();
+        Set<LocalDate> holidaySet = holidays != null ? new HashSet<>(holidays) : Collections.emptySet();
+        List<LocalDate> sessionDates = new ArrayList<>();
+        int datesSkipped = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (offDays.contains(date.getDayOfWeek()) || holidaySet.contains(date)) {
+                datesSkipped++;
+            } else {
+                sessionDates.add(date);
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        int[] counts = dailyClassSessionRepository.materializeFromRoutine(schoolId, academicYearId, sessionDates);
+        int created = 0;
+        for (int count : counts) {
+            created += Math.max(count, 0);
+        }
+        long durationMs = System.currentTimeMillis() - start;
+        logger.info("Materialized {} sessions for school {}, year {} over {} dates ({} to {}) in {} ms",
+                created, schoolId, academicYearId, sessionDates.size(), from, to, durationMs);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("schoolId", schoolId);
+        result.put("academicYearId", academicYearId);
+        result.put("startDate", from);
+        result.put("endDate", to);
+        result.put("datesProcessed", sessionDates.size());
+        result.put("datesSkipped", datesSkipped);
+        result.put("sessionsCreated", created);
+        result.put("durationMs", durationMs);
+        return result;
+    }
+
+    private Set<DayOfWeek> offDays() {
+        Set<DayOfWeek> offDays = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : materializationConfig.getSkipDays()) {
+            offDays.add(DayOfWeek.valueOf(day.trim().toUpperCase()));
+        }
+        return offDays;
+    }
+}
@@ -1,6 +1,7 @@
 package org.sma.admin.core.app.service;
 
 import org.sma.admin.core.app.model.request.BulkAttendanceRequest;
+import org.sma.admin.core.app.model.response.AttendanceBitmapResponse;
 import org.sma.jpa.model.staff.Staff;
 import org.sma.jpa.model.studentmgmt.StudentProfile;
 import org.sma.jpa.model.routine.DailyClassSession;
@@ -17,8 +18,14 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class StudentAttendanceBusinessService {
@@ -38,6 +45,12 @@ public class StudentAttendanceBusinessService {
     @Autowired
     private DailyClassSessionBusinessService dailyClassSessionBusinessService;
 
+    @Autowired
+    private AttendanceRollupService attendanceRollupService;
+
+    @Autowired
+    private AttendanceBitmapService attendanceBitmapService;
+
     @Transactional
     public List<StudentAttendance> markBulkAttendance(Long schoolId, BulkAttendanceRequest request) throws SmaException {
         // First check if session exists at all
@@ -58,33 +71,69 @@ public class StudentAttendanceBusinessService {
         DailyClassSession session = dailyClassSessionRepository.findByIdAndSchool(request.getSessionId(), schoolId)
                 .orElseThrow(() -> new SmaException("Session not found or does not belong to the specified school"));
 
-        // Validate staff
-        Staff markedBy = staffRepository.findById(request.getMarkedBy())
-                .orElseThrow(() -> new SmaException("Staff not found"));
+        // Validate staff (device pushes arrive without a marking staff member)
+        Long markedById = null;
+        if (request.getMarkedBy() != null) {
+            Staff markedBy = staffRepository.findById(request.getMarkedBy())
+                    .orElseThrow(() -> new SmaException("Staff not found"));
+            markedById = markedBy.getId();
+        }
 
-        List<StudentAttendance> attendanceRecords = new ArrayList<>();
-        LocalDateTime markedAt = LocalDateTime.now();
+        List<BulkAttendanceRequest.StudentAttendanceItem> items = request.getAttendanceList();
+        if (items == null || items.isEmpty()) {
+            dailyClassSessionBusinessService.markAttendanceCompleted(request.getSessionId());
+            return new ArrayList<>();
+        }
 
-        for (BulkAttendanceRequest.StudentAttendanceItem item : request.getAttendanceList()) {
-            // Validate student
-            StudentProfile student = studentProfileRepository.findById(item.getStudentId())
-                    .orElseThrow(() -> new SmaException("Student not found: " + item.getStudentId()));
+        // Validate all students in one query
+        Set<Long> studentIds = new LinkedHashSet<>();
+        for (BulkAttendanceRequest.StudentAttendanceItem item : items) {
+            studentIds.add(item.getStudentId());
+        }
+        Map<Long, StudentProfile> studentsById = new HashMap<>();
+        for (StudentProfile student : studentProfileRepository.findAllById(studentIds)) {
+            studentsById.put(student.getId(), student);
+        }
+        for (Long studentId : studentIds) {
+            if (!studentsById.containsKey(studentId)) {
+                throw new SmaException("Student not found: " + studentId);
+            }
+        }
 
-            // Check if attendance already exists
-            StudentAttendance attendance = studentAttendanceRepository
-                    .findBySessionAndStudent(request.getSessionId(), item.getStudentId())
-                    .orElse(new StudentAttendance());
+        // Last entry wins when a student appears more than once in the request
+        Map<Long, StudentAttendance> attendanceByStudent = new LinkedHashMap<>();
+        LocalDateTime markedAt = LocalDateTime.now();
 
-            // Set or update fields
+        for (BulkAttendanceRequest.StudentAttendanceItem item : items) {
+            StudentAttendance attendance = new StudentAttendance();
             attendance.setClassSession(session);
-            attendance.setStudent(student);
+            attendance.setStudent(studentsById.get(item.getStudentId()));
             attendance.setAttendanceStatus(item.getAttendanceStatus());
             attendance.setMarkedAt(markedAt);
-            attendance.setMarkedBy(markedBy.getId());
+            attendance.setMarkedBy(markedById);
             attendance.setRemarks(item.getRemarks());
+            attendanceByStudent.put(item.getStudentId(), attendance);
+        }
 
-            attendanceRecords.add(studentAttendanceRepository.save(attendance));
+        // Capture prior statuses so rollups can be adjusted by delta
+        attendanceRollupService.lockForWrite(schoolId, request.getSessionId());
+        Map<Long, String> oldStatuses = new HashMap<>();
+        for (Object[] row : studentAttendanceRepository.findStatusesBySessionAndStudents(
+                request.getSessionId(), studentIds)) {
+            oldStatuses.put((Long) row[0], (String) row[1]);
         }
+        Map<Long, String> newStatuses = new HashMap<>();
+        for (Map.Entry<Long, StudentAttendance> entry : attendanceByStudent.entrySet()) {
+            newStatuses.put(entry.getKey(), entry.getValue().getAttendanceStatus());
+        }
+
+        // Inserts and updates go out as one batched upsert keyed on (session, student)
+        studentAttendanceRepository.upsertAll(new ArrayList<>(attendanceByStudent.values()));
+        attendanceRollupService.applyTransitions(session, oldStatuses, newStatuses);
+        attendanceBitmapService.recordSessionStatuses(session, newStatuses);
+
+        List<StudentAttendance> attendanceRecords = studentAttendanceRepository
+                .findBySessionAndStudents(request.getSessionId(), studentIds);
 
         // Mark session as attendance completed
         dailyClassSessionBusinessService.markAttendanceCompleted(request.getSessionId());
@@ -100,13 +149,25 @@ public class StudentAttendanceBusinessService {
         return studentAttendanceRepository.findStudentAttendanceHistory(studentId, startDate, endDate);
     }
 
+    /**
+     * Full academic year history for a student as status bitmaps
+     */
+    public AttendanceBitmapResponse getStudentAttendanceBitmap(Long schoolId, Long studentId, Long academicYearId)
+            throws SmaException {
+        return attendanceBitmapService.getStudentBitmap(schoolId, studentId, academicYearId);
+    }
+
+    public Map<String, Object> rebuildAttendanceBitmaps(Long schoolId, Long academicYearId) throws SmaException {
+        return attendanceBitmapService.rebuildForYear(schoolId, academicYearId);
+    }
+
     public List<StudentAttendance> getClassAttendanceForDate(Long schoolId, Long academicYearId, 
                                                              Long classId, Long sectionId, LocalDate date) {
         return studentAttendanceRepository.findClassAttendanceForDate(sectionId, schoolId, date);
     }
 
     public Long countStudentAttendance(Long studentId, LocalDate startDate, LocalDate endDate, String status) {
-        return studentAttendanceRepository.countStudentAttendanceByStatus(studentId, startDate, endDate, status);
+        return attendanceRollupService.countStudentAttendance(studentId, startDate, endDate, status);
     }
 
     /**
@@ -116,8 +177,14 @@ public class StudentAttendanceBusinessService {
     public List<Object[]> getAttendanceSummary(Long schoolId, Long academicYearId, 
                                                Long classId, Long sectionId, 
                                                LocalDate startDate, LocalDate endDate) {
-        return studentAttendanceRepository.getAttendanceSummaryForClass(
-                sectionId, schoolId, startDate, endDate);
+        return attendanceRollupService.getSectionSummary(schoolId, sectionId, startDate, endDate);
+    }
+
+    /**
+     * Rebuild attendance rollups for a school from recorded attendance
+     */
+    public Map<String, Object> rebuildAttendanceRollups(Long schoolId) {
+        return attendanceRollupService.rebuildForSchool(schoolId);
     }
 
     @Transactional
@@ -125,6 +192,22 @@ public class StudentAttendanceBusinessService {
         StudentAttendance attendance = studentAttendanceRepository.findById(attendanceId)
                 .orElseThrow(() -> new SmaException("Attendance record not found"));
 
+        DailyClassSession session = attendance.getClassSession();
+        Long studentId = attendance.getStudent().getId();
+        attendanceRollupService.lockForWrite(session.getSchool().getId(), session.getId());
+
+        // Re-read the status under the session lock; the loaded entity may predate a concurrent write
+        Map<Long, String> oldStatuses = new HashMap<>();
+        for (Object[] row : studentAttendanceRepository.findStatusesBySessionAndStudents(
+                session.getId(), Collections.singleton(studentId))) {
+            oldStatuses.put((Long) row[0], (String) row[1]);
+        }
+        attendanceRollupService.applyTransitions(session, oldStatuses,
+                Collections.singletonMap(studentId, status));
+        if (status != null) {
+            attendanceBitmapService.recordSessionStatuses(session, Collections.singletonMap(studentId, status));
+        }
+
         attendance.setAttendanceStatus(status);
         attendance.setRemarks(remarks);
 
@@ -1,5 +1,6 @@
 package org.sma.admin.core.app.service;
 
+import org.sma.admin.core.app.model.request.BulkSectionAssignmentRequest;
 import org.sma.admin.core.app.model.request.StudentClassSectionRequest;
 import org.sma.admin.core.app.model.response.StudentClassSectionResponse;
 import org.sma.jpa.model.master.ClassMaster;
@@ -21,8 +22,15 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -50,6 +58,12 @@ public class StudentClassSectionBusinessService {
     @Autowired
     private SectionMasterRepository sectionMasterRepository;
 
+    @Autowired
+    private SectionCapacityService sectionCapacityService;
+
+    @Autowired
+    private FeeLedgerService feeLedgerService;
+
     /**
      * Assign student to a class and section
      */
@@ -86,16 +100,13 @@ public class StudentClassSectionBusinessService {
                     "Please update the existing assignment instead.");
         }
 
-        // Check section capacity
-        Long currentCount = mappingRepository.countByClassAndSection(request.getClassId(), request.getSectionId());
-        if (section.getCapacity() != null && currentCount >= section.getCapacity()) {
-            throw new SmaException("Section capacity exceeded. Current: " + currentCount + ", Max: " + section.getCapacity());
-        }
-
         // Create and persist new mapping
         StudentClassSectionMapping mapping = createMappingFromRequest(student, school, academicYear, classMaster, section, request);
 
+        sectionCapacityService.reserve(school.getId(), academicYear.getId(), section, 1);
         StudentClassSectionMapping savedMapping = mappingRepository.save(mapping);
+        feeLedgerService.syncEnrollment(school.getId(), academicYear.getId(),
+                Collections.singletonList(student.getId()));
         return convertToResponse(savedMapping);
     }
 
@@ -144,16 +155,14 @@ public class StudentClassSectionBusinessService {
             SectionMaster section = sectionMasterRepository.findById(request.getSectionId())
                     .orElseThrow(() -> new SmaException("Section not found with id: " + request.getSectionId()));
             
-            // Check section capacity if changing section
-            if (!existingMapping.getSection().getId().equals(section.getId())) {
-                Long currentCount = mappingRepository.countByClassAndSection(
-                        existingMapping.getClassMaster().getId(), 
-                        request.getSectionId());
-                if (section.getCapacity() != null && currentCount >= section.getCapacity()) {
-                    throw new SmaException("Section capacity exceeded. Current: " + currentCount + ", Max: " + section.getCapacity());
-                }
+            // Move the seat if an active assignment changes section
+            Long previousSectionId = existingMapping.getSection().getId();
+            if (Boolean.TRUE.equals(existingMapping.getIsActive()) && !previousSectionId.equals(section.getId())) {
+                Long academicYearId = existingMapping.getAcademicYear().getId();
+                sectionCapacityService.reserve(existingMapping.getSchool().getId(), academicYearId, section, 1);
+                sectionCapacityService.release(academicYearId, previousSectionId, 1);
             }
-            
+
             existingMapping.setSection(section);
         }
 
@@ -230,8 +239,116 @@ public class StudentClassSectionBusinessService {
         StudentClassSectionMapping mapping = mappingRepository.findById(mappingId)
                 .orElseThrow(() -> new SmaException("Mapping not found with id: " + mappingId));
 
-        mapping.setIsActive(false);
-        mappingRepository.save(mapping);
+        Long schoolId = mapping.getSchool().getId();
+        Long academicYearId = mapping.getAcademicYear().getId();
+        Long sectionId = mapping.getSection().getId();
+        Long studentId = mapping.getStudent().getId();
+
+        // Only the deactivation that flipped the row gives the seat back
+        if (mappingRepository.deactivateIfActive(mappingId) == 0) {
+            return;
+        }
+        sectionCapacityService.release(academicYearId, sectionId, 1);
+        feeLedgerService.syncEnrollment(schoolId, academicYearId, Collections.singletonList(studentId));
+    }
+
+    /**
+     * Assign many students to one class and section
+     * Students already placed in the academic year are skipped; seats for the rest are
+     * reserved in one step, so either all of them fit in the section or none are assigned.
+     */
+    @Transactional
+    public Map<String, Object> assignStudentsToClassSection(
+            ServiceRequestContext context,
+            BulkSectionAssignmentRequest request) throws SmaException {
+
+        if (request.getSchoolId() == null) {
+            throw new SmaException("School ID is mandatory");
+        }
+        if (request.getAcademicYearId() == null) {
+            throw new SmaException("Academic Year ID is mandatory");
+        }
+        if (request.getClassId() == null) {
+            throw new SmaException("Class ID is mandatory");
+        }
+        if (request.getSectionId() == null) {
+            throw new SmaException("Section ID is mandatory");
+        }
+        if (request.getStudentIds() == null || request.getStudentIds().isEmpty()) {
+            throw new SmaException("At least one student is required");
+        }
+
+        SchoolProfile school = schoolProfileRepository.findById(request.getSchoolId())
+                .orElseThrow(() -> new SmaException("School not found with id: " + request.getSchoolId()));
+
+        AcademicYear academicYear = academicYearRepository.findById(request.getAcademicYearId())
+                .orElseThrow(() -> new SmaException("Academic year not found with id: " + request.getAcademicYearId()));
+
+        ClassMaster classMaster = classMasterRepository.findById(request.getClassId())
+                .orElseThrow(() -> new SmaException("Class not found with id: " + request.getClassId()));
+
+        SectionMaster section = sectionMasterRepository.findById(request.getSectionId())
+                .orElseThrow(() -> new SmaException("Section not found with id: " + request.getSectionId()));
+
+        Set<Long> studentIds = new LinkedHashSet<>(request.getStudentIds());
+        studentIds.remove(null);
+
+        List<StudentProfile> students = studentRepository.findAllById(studentIds);
+        Set<Long> foundIds = new HashSet<>();
+        for (StudentProfile student : students) {
+            if (!school.getId().equals(student.getSchoolId())) {
+                throw new SmaException("Student " + student.getId() + " does not belong to school");
+            }
+            foundIds.add(student.getId());
+        }
+        if (foundIds.size() < studentIds.size()) {
+            Set<Long> missing = new LinkedHashSet<>(studentIds);
+            missing.removeAll(foundIds);
+            throw new SmaException("Students not found with ids: " + missing);
+        }
+
+        Set<Long> alreadyPlaced = new HashSet<>();
+        for (Object[] placement : mappingRepository.findActivePlacements(academicYear.getId(), studentIds)) {
+            alreadyPlaced.add((Long) placement[0]);
+        }
+
+        StudentClassSectionRequest template = new StudentClassSectionRequest();
+        template.setEnrollmentDate(request.getEnrollmentDate());
+        template.setRemarks(request.getRemarks());
+
+        List<StudentClassSectionMapping> mappings = new ArrayList<>();
+        for (StudentProfile student : students) {
+            if (!alreadyPlaced.contains(student.getId())) {
+                mappings.add(createMappingFromRequest(student, school, academicYear, classMaster, section, template));
+            }
+        }
+
+        sectionCapacityService.reserve(school.getId(), academicYear.getId(), section, mappings.size());
+        mappingRepository.saveAll(mappings);
+        feeLedgerService.syncEnrollment(school.getId(), academicYear.getId(),
+                mappings.stream().map(m -> m.getStudent().getId()).collect(Collectors.toList()));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requested", studentIds.size());
+        result.put("assigned", mappings.size());
+        result.put("alreadyAssigned", alreadyPlaced.size());
+        result.put("sectionId", section.getId());
+        result.put("capacity", section.getCapacity());
+        return result;
+    }
+
+    /**
+     * Rebuild section occupancy counts of a school's academic year from active assignments
+     */
+    public int recountSectionOccupancy(
+            ServiceRequestContext context,
+            Long schoolId,
+            Long academicYearId) throws SmaException {
+
+        if (schoolId == null || academicYearId == null) {
+            throw new SmaException("School ID and Academic Year ID are mandatory");
+        }
+        return sectionCapacityService.recount(schoolId, academicYearId);
     }
 
     /**
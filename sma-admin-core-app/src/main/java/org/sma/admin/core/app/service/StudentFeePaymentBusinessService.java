@@ -1,32 +1,47 @@
 package org.sma.admin.core.app.service;
 
 import org.sma.admin.core.app.exception.SmaAdminException;
+import org.sma.admin.core.app.model.request.PaymentImportRow;
 import org.sma.admin.core.app.model.request.StudentFeePaymentRequest;
+import org.sma.admin.core.app.model.response.StudentFeePaymentPageResponse;
 import org.sma.admin.core.app.model.response.StudentFeePaymentResponse;
+import org.sma.admin.core.app.model.response.PaymentImportReportResponse;
 import org.sma.admin.core.app.model.response.PendingPaymentResponse;
 import org.sma.jpa.model.fee.FeeInstallment;
 import org.sma.jpa.model.fee.StudentFeePayment;
 import org.sma.jpa.model.school.SchoolProfile;
 import org.sma.jpa.model.studentmgmt.StudentProfile;
-import org.sma.jpa.model.student.StudentClassSectionMapping;
 import org.sma.jpa.repository.fee.FeeInstallmentRepository;
 import org.sma.jpa.repository.fee.StudentFeePaymentRepository;
+import org.sma.jpa.repository.fee.StudentFeePaymentRepository.PaymentListRow;
+import org.sma.jpa.repository.fee.StudentFeePaymentRepository.PendingPaymentRow;
 import org.sma.jpa.repository.school.SchoolProfileRepository;
 import org.sma.jpa.repository.studentmgmt.StudentProfileRepository;
-import org.sma.jpa.repository.student.StudentClassSectionMappingRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Business Service for Student Fee Payment Management
@@ -37,6 +52,9 @@ public class StudentFeePaymentBusinessService {
 
     private static final Logger logger = LoggerFactory.getLogger(StudentFeePaymentBusinessService.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private StudentFeePaymentRepository studentFeePaymentRepository;
 
@@ -50,7 +68,13 @@ public class StudentFeePaymentBusinessService {
     private StudentProfileRepository studentProfileRepository;
 
     @Autowired
-    private StudentClassSectionMappingRepository studentClassSectionMappingRepository;
+    private FeeLedgerService feeLedgerService;
+
+    @Autowired
+    private FeeCollectionRollupService feeCollectionRollupService;
+
+    @Autowired
+    private FeeReceiptService feeReceiptService;
 
     /**
      * Record student fee payment
@@ -76,14 +100,162 @@ public class StudentFeePaymentBusinessService {
         payment.setDiscountAmount(request.getDiscountAmount() != null ? request.getDiscountAmount() : BigDecimal.ZERO);
         payment.setPaidOn(request.getPaidOn());
         payment.setPaymentRef(request.getPaymentRef());
+        payment.setPaymentMode(normalizePaymentMode(request.getPaymentMode()));
         payment.setRemarks(request.getRemarks());
 
-        StudentFeePayment saved = studentFeePaymentRepository.save(payment);
+        if (request.getPaymentRef() != null && !studentFeePaymentRepository
+            .findExistingPaymentRefs(schoolId, Collections.singleton(request.getPaymentRef())).isEmpty()) {
+            throw new SmaAdminException("Payment ref already recorded: " + request.getPaymentRef());
+        }
+        feeCollectionRollupService.assignPlacements(Collections.singletonList(payment));
+        StudentFeePayment saved;
+        try {
+            saved = studentFeePaymentRepository.save(payment);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race on uk_payment_school_ref
+            throw new SmaAdminException("Payment ref already recorded: " + request.getPaymentRef());
+        }
+        feeLedgerService.applyPayment(schoolId, student.getId(), installment.getId(),
+            saved.getAmountPaid(), saved.getDiscountAmount(), false);
+        feeCollectionRollupService.applyPayments(schoolId, Collections.singletonList(saved), false);
+        feeReceiptService.enqueue(schoolId, saved.getId());
         logger.info("Payment recorded successfully with ID: {}", saved.getId());
 
         return mapToResponse(saved);
     }
 
+    /**
+     * Record one batch of a bulk payment import in a single transaction
+     * Students, installments and already recorded payment refs are looked up once for the
+     * whole batch; accepted rows are inserted in one JDBC batch and applied to the fee ledger.
+     * @param seenPaymentRefs refs accepted earlier in the same file, extended with this batch
+     */
+    public List<PaymentImportReportResponse.RowResult> importPaymentBatch(Long schoolId, List<PaymentImportRow> rows,
+                                                                        Set<String> seenPaymentRefs, boolean dryRun) {
+        Set<Long> studentIds = new HashSet<>();
+        Set<String> admissionNos = new HashSet<>();
+        Set<Long> installmentIds = new HashSet<>();
+        Set<String> paymentRefs = new HashSet<>();
+        for (PaymentImportRow row : rows) {
+            if (row.getStudentId() != null) {
+                studentIds.add(row.getStudentId());
+            } else if (row.getAdmissionNo() != null) {
+                admissionNos.add(row.getAdmissionNo());
+            }
+            if (row.getFeeInstallmentId() != null) {
+                installmentIds.add(row.getFeeInstallmentId());
+            }
+            if (row.getPaymentRef() != null) {
+                paymentRefs.add(row.getPaymentRef());
+            }
+        }
+
+        Map<Long, StudentProfile> studentsById = new HashMap<>();
+        Map<String, StudentProfile> studentsByAdmissionNo = new HashMap<>();
+        if (!studentIds.isEmpty()) {
+            for (StudentProfile student : studentProfileRepository.findBySchoolIdAndIdInAndIsDeletedFalse(schoolId, studentIds)) {
+                studentsById.put(student.getId(), student);
+            }
+        }
+        if (!admissionNos.isEmpty()) {
+            for (StudentProfile student : studentProfileRepository
+                    .findBySchoolIdAndAdmissionNoInAndIsDeletedFalse(schoolId, admissionNos)) {
+                studentsByAdmissionNo.put(student.getAdmissionNo(), student);
+            }
+        }
+        Map<Long, FeeInstallment> installmentsById = new HashMap<>();
+        if (!installmentIds.isEmpty()) {
+            for (FeeInstallment installment : feeInstallmentRepository.findBySchoolIdAndIdIn(schoolId, installmentIds)) {
+                installmentsById.put(installment.getId(), installment);
+            }
+        }
+        Set<String> existingRefs = paymentRefs.isEmpty()
+            ? new HashSet<>()
+            : new HashSet<>(studentFeePaymentRepository.findExistingPaymentRefs(schoolId, paymentRefs));
+
+        SchoolProfile school = schoolProfileRepository.getById(schoolId);
+        List<StudentFeePayment> payments = new ArrayList<>();
+        List<PaymentImportReportResponse.RowResult> acceptedResults = new ArrayList<>();
+        List<PaymentImportReportResponse.RowResult> results = new ArrayList<>(rows.size());
+        for (PaymentImportRow row : rows) {
+            StudentProfile student = row.getStudentId() != null
+                ? studentsById.get(row.getStudentId())
+                : studentsByAdmissionNo.get(row.getAdmissionNo());
+            FeeInstallment installment = installmentsById.get(row.getFeeInstallmentId());
+
+            String reason = null;
+            if (row.getStudentId() == null && row.getAdmissionNo() == null) {
+                reason = "studentId or admissionNo is required";
+            } else if (student == null) {
+                reason = "Student not found in this school";
+            } else if (row.getFeeInstallmentId() == null) {
+                reason = "feeInstallmentId is required";
+            } else if (installment == null) {
+                reason = "Fee installment not found in this school";
+            } else if (row.getAmountPaid() == null || row.getAmountPaid().signum() <= 0) {
+                reason = "amountPaid must be greater than zero";
+            } else if (row.getDiscountAmount() != null && row.getDiscountAmount().signum() < 0) {
+                reason = "discountAmount cannot be negative";
+            } else if (row.getPaidOn() == null) {
+                reason = "paidOn is required";
+            } else if (row.getPaymentRef() != null && row.getPaymentRef().length() > 100) {
+                reason = "paymentRef exceeds 100 characters";
+            } else if (row.getPaymentMode() != null && row.getPaymentMode().length() > 30) {
+                reason = "paymentMode exceeds 30 characters";
+            } else if (row.getRemarks() != null && row.getRemarks().length() > 300) {
+                reason = "remarks exceed 300 characters";
+            }
+            if (reason != null) {
+                results.add(rowResult(row, "REJECTED", reason));
+                continue;
+            }
+
+            if (row.getPaymentRef() != null) {
+                if (existingRefs.contains(row.getPaymentRef())) {
+                    results.add(rowResult(row, "DUPLICATE", "Payment ref already recorded"));
+                    continue;
+                }
+                if (!seenPaymentRefs.add(row.getPaymentRef())) {
+                    results.add(rowResult(row, "DUPLICATE", "Payment ref repeated in this file"));
+                    continue;
+                }
+            }
+
+            StudentFeePayment payment = new StudentFeePayment();
+            payment.setSchool(school);
+            payment.setStudent(student);
+            payment.setFeeInstallment(installment);
+            payment.setAmountPaid(row.getAmountPaid());
+            payment.setDiscountAmount(row.getDiscountAmount() != null ? row.getDiscountAmount() : BigDecimal.ZERO);
+            payment.setPaidOn(row.getPaidOn());
+            payment.setPaymentRef(row.getPaymentRef());
+            payment.setPaymentMode(normalizePaymentMode(row.getPaymentMode()));
+            payment.setRemarks(row.getRemarks());
+            payments.add(payment);
+            PaymentImportReportResponse.RowResult result = rowResult(row, "ACCEPTED", null);
+            acceptedResults.add(result);
+            results.add(result);
+        }
+
+        if (!dryRun && !payments.isEmpty()) {
+            feeCollectionRollupService.assignPlacements(payments);
+            // The unique ref index settles races with a concurrent import of the same file
+            int[] counts = studentFeePaymentRepository.insertAll(payments);
+            List<StudentFeePayment> inserted = new ArrayList<>(payments.size());
+            for (int i = 0; i < payments.size(); i++) {
+                if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                    inserted.add(payments.get(i));
+                } else {
+                    acceptedResults.get(i).setStatus("DUPLICATE");
+                    acceptedResults.get(i).setReason("Payment ref already recorded");
+                }
+            }
+            feeLedgerService.applyPayments(schoolId, inserted);
+            feeCollectionRollupService.applyPayments(schoolId, inserted, false);
+        }
+        return results;
+    }
+
     /**
      * Get payment by ID
      */
@@ -106,34 +278,49 @@ public class StudentFeePaymentBusinessService {
         logger.info("Fetching payments for school: {}, student: {}, installment: {}", 
             schoolId, studentId, installmentId);
 
-        SchoolProfile school = schoolProfileRepository.findById(schoolId)
-            .orElseThrow(() -> new SmaAdminException("School not found with ID: " + schoolId));
-
-        List<StudentFeePayment> payments;
-
-        if (studentId != null && installmentId != null) {
-            // Both filters
-            payments = studentFeePaymentRepository.findByStudentIdAndInstallmentId(studentId, installmentId);
-        } else if (studentId != null) {
-            // Student filter only
-            StudentProfile student = studentProfileRepository.findById(studentId)
-                .orElseThrow(() -> new SmaAdminException("Student not found with ID: " + studentId));
-            payments = studentFeePaymentRepository.findBySchoolAndStudent(school, student);
-        } else if (installmentId != null) {
-            // Installment filter only
-            payments = studentFeePaymentRepository.findByFeeInstallmentId(installmentId);
-        } else {
-            // No specific filter, get all for school
-            payments = studentFeePaymentRepository.findAll().stream()
-                .filter(p -> p.getSchool().getId().equals(schoolId))
-                .collect(Collectors.toList());
+        if (!schoolProfileRepository.existsById(schoolId)) {
+            throw new SmaAdminException("School not found with ID: " + schoolId);
+        }
+        if (studentId != null && !studentProfileRepository.existsById(studentId)) {
+            throw new SmaAdminException("Student not found with ID: " + studentId);
         }
 
-        return payments.stream()
+        return studentFeePaymentRepository
+            .findPaymentPage(schoolId, studentId, installmentId, null, null, null, Pageable.unpaged())
+            .stream()
             .map(this::mapToResponse)
             .collect(Collectors.toList());
     }
 
+    /**
+     * List payments one keyset page at a time, newest first
+     * Filters run in SQL and rows are read as projections, so cost depends only on the page size.
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param paidFrom first payment date to include (optional)
+     * @param paidTo last payment date to include (optional)
+     */
+    @Transactional(readOnly = true)
+    public StudentFeePaymentPageResponse listPaymentPage(Long schoolId, Long studentId, Long installmentId,
+                                                        LocalDate paidFrom, LocalDate paidTo,
+                                                        Long cursor, Integer limit) {
+        int pageSize = limit != null ? Math.min(Math.max(limit, 1), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+
+        // Fetch one extra row to know whether another page follows
+        List<PaymentListRow> rows = studentFeePaymentRepository.findPaymentPage(schoolId, studentId, installmentId,
+            paidFrom != null ? paidFrom.atStartOfDay() : null,
+            paidTo != null ? paidTo.plusDays(1).atStartOfDay() : null,
+            cursor, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<PaymentListRow> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        StudentFeePaymentPageResponse response = new StudentFeePaymentPageResponse();
+        response.setItems(pageRows.stream().map(this::mapToResponse).collect(Collectors.toList()));
+        response.setHasMore(hasMore);
+        response.setNextCursor(hasMore ? pageRows.get(pageRows.size() - 1).getId() : null);
+        return response;
+    }
+
     /**
      * Delete payment
      */
@@ -143,7 +330,14 @@ public class StudentFeePaymentBusinessService {
         StudentFeePayment payment = studentFeePaymentRepository.findById(paymentId)
             .orElseThrow(() -> new SmaAdminException("Payment not found with ID: " + paymentId));
 
+        feeLedgerService.applyPayment(payment.getSchool().getId(), payment.getStudent().getId(),
+            payment.getFeeInstallment().getId(), payment.getAmountPaid(), payment.getDiscountAmount(), true);
+        feeCollectionRollupService.applyPayments(payment.getSchool().getId(), Collections.singletonList(payment), true);
         studentFeePaymentRepository.delete(payment);
+        feeLedgerService.syncEnrollment(payment.getSchool().getId(),
+            payment.getFeeInstallment().getFeePlan().getAcademicYear().getId(),
+            Collections.singletonList(payment.getStudent().getId()));
+        feeReceiptService.evict(payment.getSchool().getId(), paymentId);
         logger.info("Payment deleted successfully: {}", paymentId);
     }
 
@@ -162,15 +356,17 @@ public class StudentFeePaymentBusinessService {
         response.setDiscountAmount(payment.getDiscountAmount());
         response.setPaidOn(payment.getPaidOn());
         response.setPaymentRef(payment.getPaymentRef());
+        response.setPaymentMode(payment.getPaymentMode());
         response.setRemarks(payment.getRemarks());
         return response;
     }
 
     /**
-     * Get pending payments for students in a class/section
+     * Get pending payments for students in a class/section, or the whole school
+     * Overdue, unpaid (student, installment) pairs are computed in the database as an anti-join.
      * @param schoolId School ID
      * @param academicYearId Academic Year ID
-     * @param classId Class ID (required)
+     * @param classId Class ID (optional, null for the whole school)
      * @param sectionId Section ID (optional)
      * @return List of pending payments
      */
@@ -180,80 +376,84 @@ public class StudentFeePaymentBusinessService {
         logger.info("Fetching pending payments for school: {}, academicYear: {}, class: {}, section: {}", 
             schoolId, academicYearId, classId, sectionId);
 
-        // Get all students in the class/section
-        List<StudentClassSectionMapping> studentMappings;
-        if (sectionId != null) {
-            studentMappings = studentClassSectionMappingRepository.findByClassAndSection(classId, sectionId);
-        } else {
-            studentMappings = studentClassSectionMappingRepository.findByClass(classId);
+        LocalDate today = LocalDate.now();
+        List<PendingPaymentResponse> pendingPayments = new ArrayList<>();
+        try (Stream<PendingPaymentRow> rows = studentFeePaymentRepository.streamPendingPayments(
+                schoolId, academicYearId, classId, sectionId, today)) {
+            rows.forEach(row -> pendingPayments.add(toPendingPaymentResponse(row, today)));
         }
 
-        if (studentMappings.isEmpty()) {
-            logger.info("No students found for the given class/section");
-            return new ArrayList<>();
+        logger.info("Found {} pending payments", pendingPayments.size());
+        return pendingPayments;
+    }
+
+    /**
+     * One page of pending payments, in the same order as {@link #getPendingPayments}
+     */
+    @Transactional(readOnly = true)
+    public List<PendingPaymentResponse> getPendingPayments(Long schoolId, Long academicYearId,
+                                                           Long classId, Long sectionId,
+                                                           int page, int size) {
+        logger.info("Fetching pending payments page {} (size {}) for school: {}, academicYear: {}, class: {}, section: {}",
+            page, size, schoolId, academicYearId, classId, sectionId);
+
+        if (page < 0 || size < 1) {
+            throw new SmaAdminException("Page must be non-negative and size must be positive");
         }
 
-        // Get all overdue installments for the academic year
         LocalDate today = LocalDate.now();
-        List<FeeInstallment> overdueInstallments = feeInstallmentRepository.findAll().stream()
-            .filter(installment -> {
-                // Check if installment belongs to the academic year
-                boolean belongsToAcademicYear = installment.getFeePlan() != null 
-                    && installment.getFeePlan().getAcademicYear() != null
-                    && installment.getFeePlan().getAcademicYear().getId().equals(academicYearId);
-                
-                // Check if due date has passed
-                boolean isDueDate = installment.getDueDate() != null 
-                    && installment.getDueDate().isBefore(today);
-                
-                return belongsToAcademicYear && isDueDate;
-            })
+        Slice<PendingPaymentRow> rows = studentFeePaymentRepository.findPendingPayments(
+            schoolId, academicYearId, classId, sectionId, today, PageRequest.of(page, size));
+        return rows.getContent().stream()
+            .map(row -> toPendingPaymentResponse(row, today))
             .collect(Collectors.toList());
+    }
 
-        if (overdueInstallments.isEmpty()) {
-            logger.info("No overdue installments found for academic year: {}", academicYearId);
-            return new ArrayList<>();
-        }
-
-        logger.info("Found {} students and {} overdue installments", 
-            studentMappings.size(), overdueInstallments.size());
+    private PendingPaymentResponse toPendingPaymentResponse(PendingPaymentRow row, LocalDate today) {
+        PendingPaymentResponse pending = new PendingPaymentResponse();
+        pending.setStudentId(row.getStudentId());
+        pending.setStudentName(row.getFirstName() + " " + row.getLastName());
+        pending.setAdmissionNo(row.getAdmissionNo());
+        pending.setRollNumber(row.getRollNumber());
+        pending.setClassName(row.getClassName());
+        pending.setSectionName(row.getSectionName() != null ? row.getSectionName() : "");
+        pending.setFeeInstallmentId(row.getFeeInstallmentId());
+        pending.setInstallmentName(row.getInstallmentName());
+        pending.setFeeCategoryName(row.getFeeCategoryName());
+        pending.setAmountDue(row.getAmountDue());
+        pending.setDueDate(row.getDueDate());
+        pending.setDaysPastDue((int) ChronoUnit.DAYS.between(row.getDueDate(), today));
+        return pending;
+    }
 
-        // Build pending payments list
-        List<PendingPaymentResponse> pendingPayments = new ArrayList<>();
+    private StudentFeePaymentResponse mapToResponse(PaymentListRow row) {
+        StudentFeePaymentResponse response = new StudentFeePaymentResponse();
+        response.setId(row.getId());
+        response.setSchoolId(row.getSchoolId());
+        response.setStudentId(row.getStudentId());
+        response.setStudentName(row.getFirstName() + " " + row.getLastName());
+        response.setFeeInstallmentId(row.getFeeInstallmentId());
+        response.setInstallmentName(row.getInstallmentName());
+        response.setAmountPaid(row.getAmountPaid());
+        response.setDiscountAmount(row.getDiscountAmount());
+        response.setPaidOn(row.getPaidOn());
+        response.setPaymentRef(row.getPaymentRef());
+        response.setPaymentMode(row.getPaymentMode());
+        response.setRemarks(row.getRemarks());
+        return response;
+    }
 
-        for (StudentClassSectionMapping mapping : studentMappings) {
-            StudentProfile student = mapping.getStudent();
-            
-            for (FeeInstallment installment : overdueInstallments) {
-                // Check if payment exists for this student and installment
-                List<StudentFeePayment> existingPayments = studentFeePaymentRepository
-                    .findByStudentIdAndInstallmentId(student.getId(), installment.getId());
-
-                if (existingPayments.isEmpty()) {
-                    // No payment found - this is a pending payment
-                    PendingPaymentResponse pending = new PendingPaymentResponse();
-                    pending.setStudentId(student.getId());
-                    pending.setStudentName(student.getFirstName() + " " + student.getLastName());
-                    pending.setAdmissionNo(student.getAdmissionNo());
-                    pending.setRollNumber(mapping.getRollNumber());
-                    pending.setClassName(mapping.getClassMaster().getClassName());
-                    pending.setSectionName(mapping.getSection() != null ? mapping.getSection().getSectionName() : "");
-                    pending.setFeeInstallmentId(installment.getId());
-                    pending.setInstallmentName(installment.getInstallmentName());
-                    pending.setFeeCategoryName(installment.getFeePlan().getCategory().getCategoryName());
-                    pending.setAmountDue(installment.getAmountDue());
-                    pending.setDueDate(installment.getDueDate());
-                    
-                    // Calculate days past due
-                    long daysPastDue = ChronoUnit.DAYS.between(installment.getDueDate(), today);
-                    pending.setDaysPastDue((int) daysPastDue);
-                    
-                    pendingPayments.add(pending);
-                }
-            }
-        }
+    private String normalizePaymentMode(String paymentMode) {
+        return paymentMode != null && !paymentMode.trim().isEmpty()
+            ? paymentMode.trim().toUpperCase(Locale.ROOT) : null;
+    }
 
-        logger.info("Found {} pending payments", pendingPayments.size());
-        return pendingPayments;
+    private PaymentImportReportResponse.RowResult rowResult(PaymentImportRow row, String status, String reason) {
+        PaymentImportReportResponse.RowResult result = new PaymentImportReportResponse.RowResult();
+        result.setRowNumber(row.getRowNumber());
+        result.setPaymentRef(row.getPaymentRef());
+        result.setStatus(status);
+        result.setReason(reason);
+        return result;
     }
 }
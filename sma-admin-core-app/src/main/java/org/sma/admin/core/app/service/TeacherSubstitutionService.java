@@ -0,0 +1,296 @@
+package org.sma.admin.core.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.model.request.SubstitutionRequest;
+import org.sma.admin.core.app.model.response.DayScheduleEntryResponse;
+import org.sma.admin.core.app.model.response.SubstitutionAssignmentResponse;
+import org.sma.admin.core.app.model.response.SubstitutionPlanResponse;
+import org.sma.jpa.model.routine.DailyClassSession;
+import org.sma.jpa.model.school.AcademicYear;
+import org.sma.jpa.model.school.SchoolProfile;
+import org.sma.jpa.model.staff.Staff;
+import org.sma.jpa.model.staff.StaffSubjectMapping;
+import org.sma.jpa.repository.master.ClassMasterRepository;
+import org.sma.jpa.repository.master.SectionMasterRepository;
+import org.sma.jpa.repository.routine.ClassRoutineMasterRepository;
+import org.sma.jpa.repository.routine.DailyClassSessionRepository;
+import org.sma.jpa.repository.routine.RoutineTimeSlotRepository;
+import org.sma.jpa.repository.school.AcademicYearRepository;
+import org.sma.jpa.repository.school.SchoolProfileRepository;
+import org.sma.jpa.repository.staff.StaffRepository;
+import org.sma.jpa.repository.staff.StaffSubjectMappingRepository;
+import org.sma.platform.core.exception.SmaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allocates substitute teachers for every session of absent staff on a date
+ * Works off the whole-school day schedule, so occupancy already reflects the day's
+ * overrides, and writes all override sessions in one transaction.
+ */
+@Service
+public class TeacherSubstitutionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeacherSubstitutionService.class);
+
+    private static final String STAFF_TYPE_TEACHING = "TEACHING";
+    private static final int RANK_UNQUALIFIED = 4;
+
+    @Autowired
+    private DailyClassSessionBusinessService dailyClassSessionService;
+
+    @Autowired
+    private DailyClassSessionRepository dailyClassSessionRepository;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private StaffSubjectMappingRepository staffSubjectMappingRepository;
+
+    @Autowired
+    private SchoolProfileRepository schoolProfileRepository;
+
+    @Autowired
+    private AcademicYearRepository academicYearRepository;
+
+    @Autowired
+    private ClassMasterRepository classMasterRepository;
+
+    @Autowired
+    private SectionMasterRepository sectionMasterRepository;
+
+    @Autowired
+    private RoutineTimeSlotRepository routineTimeSlotRepository;
+
+    @Autowired
+    private ClassRoutineMasterRepository classRoutineMasterRepository;
+
+    @Transactional
+    public SubstitutionPlanResponse allocateSubstitutes(Long schoolId, SubstitutionRequest request) throws SmaException {
+        if (request.getAcademicYearId() == null || request.getSessionDate() == null) {
+            throw new SmaException("Academic year and session date are required");
+        }
+        if (request.getAbsentTeacherIds() == null || request.getAbsentTeacherIds().isEmpty()) {
+            throw new SmaException("At least one absent teacher is required");
+        }
+        Set<Long> absentTeacherIds = new LinkedHashSet<>(request.getAbsentTeacherIds());
+        boolean allowUnqualified = Boolean.TRUE.equals(request.getAllowUnqualified());
+        Integer maxPeriodsPerDay = request.getMaxPeriodsPerDay();
+
+        List<DayScheduleEntryResponse> schedule = dailyClassSessionService.getSchoolDaySchedule(
+                schoolId, request.getAcademicYearId(), request.getSessionDate());
+
+        // Occupancy and load of the day as it stands, including existing overrides
+        Set<String> busy = new HashSet<>();
+        Map<Long, Integer> dayLoad = new HashMap<>();
+        List<DayScheduleEntryResponse> affected = new ArrayList<>();
+        for (DayScheduleEntryResponse entry : schedule) {
+            if ("CANCELLED".equals(entry.getSessionStatus()) || entry.getTeacherId() == null) {
+                continue;
+            }
+            busy.add(entry.getTeacherId() + ":" + entry.getTimeSlotId());
+            dayLoad.merge(entry.getTeacherId(), 1, Integer::sum);
+            if (absentTeacherIds.contains(entry.getTeacherId())) {
+                affected.add(entry);
+            }
+        }
+        affected.sort(Comparator.comparing(DayScheduleEntryResponse::getSlotOrder,
+                Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(DayScheduleEntryResponse::getSectionId));
+
+        List<Staff> candidates = new ArrayList<>();
+        for (Staff staff : staffRepository.findBySchoolIdAndStaffTypeAndIsActiveTrue(schoolId, STAFF_TYPE_TEACHING)) {
+            if (!absentTeacherIds.contains(staff.getId())) {
+                candidates.add(staff);
+            }
+        }
+
+        // subjectId -> staffId -> proficiency level
+        Map<Long, Map<Long, String>> proficiency = new HashMap<>();
+        for (StaffSubjectMapping mapping : staffSubjectMappingRepository.findBySchoolId(schoolId)) {
+            proficiency.computeIfAbsent(mapping.getSubject().getId(), k -> new HashMap<>())
+                    .put(mapping.getStaff().getId(), mapping.getProficiencyLevel());
+        }
+
+        List<SubstitutionAssignmentResponse> assignments = new ArrayList<>(affected.size());
+        int assignedCount = 0;
+        for (DayScheduleEntryResponse entry : affected) {
+            Map<Long, String> subjectProficiency = proficiency.getOrDefault(entry.getSubjectId(), Collections.emptyMap());
+
+            // Best rank first, then the lightest day, then staff id for a stable order
+            Staff best = null;
+            int bestRank = Integer.MAX_VALUE;
+            int bestLoad = Integer.MAX_VALUE;
+            for (Staff candidate : candidates) {
+                if (busy.contains(candidate.getId() + ":" + entry.getTimeSlotId())) {
+                    continue;
+                }
+                int load = dayLoad.getOrDefault(candidate.getId(), 0);
+                if (maxPeriodsPerDay != null && load >= maxPeriodsPerDay) {
+                    continue;
+                }
+                int rank = subjectProficiency.containsKey(candidate.getId())
+                        ? proficiencyRank(subjectProficiency.get(candidate.getId())) : RANK_UNQUALIFIED;
+                if (rank == RANK_UNQUALIFIED && !allowUnqualified) {
+                    continue;
+                }
+                if (rank < bestRank || (rank == bestRank && (load < bestLoad
+                        || (load == bestLoad && candidate.getId() < best.getId())))) {
+                    best = candidate;
+                    bestRank = rank;
+                    bestLoad = load;
+                }
+            }
+
+            SubstitutionAssignmentResponse assignment = toAssignment(entry);
+            if (best != null) {
+                busy.add(best.getId() + ":" + entry.getTimeSlotId());
+                dayLoad.merge(best.getId(), 1, Integer::sum);
+                assignment.setSubstituteTeacherId(best.getId());
+                assignment.setSubstituteTeacherName(fullName(best.getFirstName(), best.getLastName()));
+                assignment.setProficiencyLevel(subjectProficiency.get(best.getId()));
+                assignment.setSubstituteDayLoad(bestLoad + 1);
+                assignedCount++;
+            }
+            assignments.add(assignment);
+        }
+
+        boolean apply = !Boolean.TRUE.equals(request.getDryRun());
+        if (apply && assignedCount > 0) {
+            saveOverrides(schoolId, request, assignments);
+        }
+        logger.info("Substitution for school {} on {}: {} affected sessions, {} assigned, applied {}",
+                schoolId, request.getSessionDate(), affected.size(), assignedCount, apply);
+
+        SubstitutionPlanResponse response = new SubstitutionPlanResponse();
+        response.setSessionDate(request.getSessionDate());
+        response.setAbsentTeacherIds(new ArrayList<>(absentTeacherIds));
+        response.setApplied(apply && assignedCount > 0);
+        response.setAffectedCount(affected.size());
+        response.setAssignedCount(assignedCount);
+        response.setUnassignedCount(affected.size() - assignedCount);
+        response.setAssignments(assignments);
+        return response;
+    }
+
+    /**
+     * Write the override sessions of all assigned periods: existing sessions are updated in
+     * one flush, missing ones are inserted as one JDBC batch (IDENTITY ids rule out Hibernate
+     * insert batching) and their ids read back with one query
+     */
+    private void saveOverrides(Long schoolId, SubstitutionRequest request,
+                               List<SubstitutionAssignmentResponse> assignments) {
+        List<Long> sessionIds = new ArrayList<>();
+        for (SubstitutionAssignmentResponse assignment : assignments) {
+            if (assignment.getSubstituteTeacherId() != null && assignment.getSessionId() != null) {
+                sessionIds.add(assignment.getSessionId());
+            }
+        }
+        Map<Long, DailyClassSession> existing = new HashMap<>();
+        for (DailyClassSession session : dailyClassSessionRepository.findAllById(sessionIds)) {
+            existing.put(session.getId(), session);
+        }
+
+        SchoolProfile school = schoolProfileRepository.getById(schoolId);
+        AcademicYear academicYear = academicYearRepository.getById(request.getAcademicYearId());
+        List<DailyClassSession> updates = new ArrayList<>();
+        List<DailyClassSession> inserts = new ArrayList<>();
+        Map<Long, SubstitutionAssignmentResponse> insertedByRoutineMaster = new HashMap<>();
+        for (SubstitutionAssignmentResponse assignment : assignments) {
+            if (assignment.getSubstituteTeacherId() == null) {
+                continue;
+            }
+            DailyClassSession session = assignment.getSessionId() != null ? existing.get(assignment.getSessionId()) : null;
+            if (session == null) {
+                session = new DailyClassSession();
+                session.setSchool(school);
+                session.setAcademicYear(academicYear);
+                session.setClassMaster(classMasterRepository.getById(assignment.getClassId()));
+                session.setSection(sectionMasterRepository.getById(assignment.getSectionId()));
+                session.setSessionDate(request.getSessionDate());
+                session.setTimeSlot(routineTimeSlotRepository.getById(assignment.getTimeSlotId()));
+                session.setRoutineMaster(classRoutineMasterRepository.getById(assignment.getRoutineMasterId()));
+                session.setSessionStatus("SCHEDULED");
+                session.setRemarks("Substitute for " + assignment.getAbsentTeacherName());
+                session.setTeacherOverride(staffRepository.getById(assignment.getSubstituteTeacherId()));
+                inserts.add(session);
+                insertedByRoutineMaster.put(assignment.getRoutineMasterId(), assignment);
+                continue;
+            }
+            session.setTeacherOverride(staffRepository.getById(assignment.getSubstituteTeacherId()));
+            // An actual teacher recorded as the absent one would otherwise still win over the override
+            if (session.getActualTeacher() != null
+                    && session.getActualTeacher().getId().equals(assignment.getAbsentTeacherId())) {
+                session.setActualTeacher(null);
+            }
+            updates.add(session);
+        }
+
+        if (!updates.isEmpty()) {
+            dailyClassSessionRepository.saveAll(updates);
+        }
+        if (!inserts.isEmpty()) {
+            dailyClassSessionRepository.insertOverrides(inserts);
+            for (Object[] row : dailyClassSessionRepository.findSessionIdsByRoutineMasters(
+                    insertedByRoutineMaster.keySet(), request.getSessionDate())) {
+                SubstitutionAssignmentResponse assignment = insertedByRoutineMaster.get((Long) row[0]);
+                if (assignment != null) {
+                    assignment.setSessionId((Long) row[1]);
+                }
+            }
+        }
+    }
+
+    private int proficiencyRank(String proficiencyLevel) {
+        if ("EXPERT".equals(proficiencyLevel)) {
+            return 0;
+        }
+        if ("QUALIFIED".equals(proficiencyLevel)) {
+            return 1;
+        }
+        if ("SUBSTITUTE".equals(proficiencyLevel)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private SubstitutionAssignmentResponse toAssignment(DayScheduleEntryResponse entry) {
+        SubstitutionAssignmentResponse assignment = new SubstitutionAssignmentResponse();
+        assignment.setSessionId(entry.getSessionId());
+        assignment.setRoutineMasterId(entry.getRoutineMasterId());
+        assignment.setClassId(entry.getClassId());
+        assignment.setClassName(entry.getClassName());
+        assignment.setSectionId(entry.getSectionId());
+        assignment.setSectionName(entry.getSectionName());
+        assignment.setTimeSlotId(entry.getTimeSlotId());
+        assignment.setSlotName(entry.getSlotName());
+        assignment.setStartTime(entry.getStartTime());
+        assignment.setEndTime(entry.getEndTime());
+        assignment.setSlotOrder(entry.getSlotOrder());
+        assignment.setSubjectId(entry.getSubjectId());
+        assignment.setSubjectName(entry.getSubjectName());
+        assignment.setAbsentTeacherId(entry.getTeacherId());
+        assignment.setAbsentTeacherName(entry.getTeacherName());
+        return assignment;
+    }
+
+    private String fullName(String firstName, String lastName) {
+        if (firstName == null) {
+            return lastName;
+        }
+        return lastName == null ? firstName : firstName + " " + lastName;
+    }
+}
@@ -0,0 +1,584 @@
+package org.sma.admin.core.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.admin.core.app.config.TimetableGeneratorConfigProperties;
+import org.sma.admin.core.app.model.request.TimetableGenerationRequest;
+import org.sma.admin.core.app.model.response.RoutineEntryResponse;
+import org.sma.admin.core.app.model.response.TimetableGenerationJobResponse;
+import org.sma.jpa.model.master.SectionMaster;
+import org.sma.jpa.model.master.SubjectMaster;
+import org.sma.jpa.model.routine.RoutineTimeSlot;
+import org.sma.jpa.model.staff.Staff;
+import org.sma.jpa.model.staff.StaffSubjectAssignment;
+import org.sma.jpa.model.staff.StaffSubjectMapping;
+import org.sma.jpa.repository.master.SectionMasterRepository;
+import org.sma.jpa.repository.master.SubjectMasterRepository;
+import org.sma.jpa.repository.routine.ClassRoutineMasterRepository;
+import org.sma.jpa.repository.routine.RoutineTimeSlotRepository;
+import org.sma.jpa.repository.school.AcademicYearRepository;
+import org.sma.jpa.repository.staff.StaffRepository;
+import org.sma.jpa.repository.staff.StaffSubjectAssignmentRepository;
+import org.sma.jpa.repository.staff.StaffSubjectMappingRepository;
+import org.sma.platform.core.exception.SmaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates weekly class routines with a parallel portfolio of local search solvers
+ * Inputs are loaded and validated synchronously; the search runs as a background job on a
+ * ForkJoinPool sized to the available cores, and the best routine is written in one batch.
+ */
+@Service
+public class TimetableGeneratorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableGeneratorService.class);
+
+    private static final int MAX_WORKERS = 64;
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+    // Portfolio of starting temperatures, from greedy to exploratory
+    private static final double[] TEMPERATURES = {1.0, 4.0, 16.0, 200.0};
+
+    @Autowired
+    private TimetableGeneratorConfigProperties config;
+
+    @Autowired
+    private ClassRoutineMasterBusinessService classRoutineMasterService;
+
+    @Autowired
+    private ClassRoutineMasterRepository classRoutineMasterRepository;
+
+    @Autowired
+    private AcademicYearRepository academicYearRepository;
+
+    @Autowired
+    private SectionMasterRepository sectionMasterRepository;
+
+    @Autowired
+    private SubjectMasterRepository subjectMasterRepository;
+
+    @Autowired
+    private RoutineTimeSlotRepository routineTimeSlotRepository;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private StaffSubjectAssignmentRepository staffSubjectAssignmentRepository;
+
+    @Autowired
+    private StaffSubjectMappingRepository staffSubjectMappingRepository;
+
+    private final Map<String, GenerationJob> jobs = new LinkedHashMap<>();
+    private ForkJoinPool solverPool;
+    private ExecutorService jobExecutor;
+
+    @PostConstruct
+    public void start() {
+        int parallelism = config.getParallelism() > 0
+                ? config.getParallelism() : Runtime.getRuntime().availableProcessors();
+        solverPool = new ForkJoinPool(parallelism);
+        // One generation at a time; later jobs wait in QUEUED state
+        jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "timetable-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        jobExecutor.shutdownNow();
+        solverPool.shutdownNow();
+    }
+
+    /**
+     * Validate inputs, build the search problem and queue a generation job
+     */
+    @Transactional(readOnly = true)
+    public TimetableGenerationJobResponse startGeneration(Long schoolId, TimetableGenerationRequest request)
+            throws SmaException {
+        if (request.getAcademicYearId() == null) {
+            throw new SmaException("Academic year is required");
+        }
+        if (request.getSectionLoads() == null || request.getSectionLoads().isEmpty()) {
+            throw new SmaException("At least one section subject load is required");
+        }
+        academicYearRepository.findById(request.getAcademicYearId())
+                .orElseThrow(() -> new SmaException("Academic year not found"));
+
+        GenerationInput input = loadInput(schoolId, request);
+
+        GenerationJob job = new GenerationJob();
+        job.jobId = UUID.randomUUID().toString();
+        job.schoolId = schoolId;
+        job.academicYearId = request.getAcademicYearId();
+        job.seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong();
+        job.workers = request.getWorkers() != null
+                ? Math.max(1, Math.min(MAX_WORKERS, request.getWorkers())) : solverPool.getParallelism();
+        long timeBudgetMs = request.getTimeBudgetMs() != null ? request.getTimeBudgetMs() : config.getDefaultTimeBudgetMs();
+        job.timeBudgetMs = Math.max(1, Math.min(config.getMaxTimeBudgetMs(), timeBudgetMs));
+        job.maxIterations = request.getMaxIterations();
+        job.dryRun = Boolean.TRUE.equals(request.getDryRun());
+        job.lessonCount = input.problem.lessonCount();
+        job.status = "QUEUED";
+        job.submittedAt = LocalDateTime.now();
+
+        synchronized (jobs) {
+            jobs.put(job.jobId, job);
+            evictFinishedJobs();
+        }
+        jobExecutor.submit(() -> runJob(job, input));
+        logger.info("Queued timetable generation {} for school {}: {} lessons, {} sections, {} workers, budget {} ms",
+                job.jobId, schoolId, job.lessonCount, input.sectionIds.size(), job.workers, job.timeBudgetMs);
+        return job.toResponse();
+    }
+
+    public TimetableGenerationJobResponse getJob(Long schoolId, String jobId) throws SmaException {
+        GenerationJob job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null || !job.schoolId.equals(schoolId)) {
+            throw new SmaException("Generation job not found");
+        }
+        return job.toResponse();
+    }
+
+    private GenerationInput loadInput(Long schoolId, TimetableGenerationRequest request) throws SmaException {
+        Long academicYearId = request.getAcademicYearId();
+        boolean replaceExisting = Boolean.TRUE.equals(request.getReplaceExisting());
+        GenerationInput input = new GenerationInput();
+
+        // Cells: requested days x active teaching slots
+        List<String> requestedDays = request.getDays() != null && !request.getDays().isEmpty()
+                ? request.getDays() : config.getDefaultDays();
+        for (String day : requestedDays) {
+            String normalized = day.toUpperCase();
+            if (!input.days.contains(normalized)) {
+                input.days.add(normalized);
+            }
+        }
+        for (RoutineTimeSlot slot : routineTimeSlotRepository.findBySchoolIdAndIsActiveTrue(schoolId)) {
+            if (slot.getSlotType() == null || "TEACHING".equalsIgnoreCase(slot.getSlotType())) {
+                input.slots.add(slot);
+            }
+        }
+        if (input.slots.isEmpty()) {
+            throw new SmaException("No active teaching time slots configured for school");
+        }
+        input.slots.sort(Comparator.comparing(RoutineTimeSlot::getDisplayOrder,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        Map<Long, Integer> slotIndex = new HashMap<>();
+        for (int i = 0; i < input.slots.size(); i++) {
+            slotIndex.put(input.slots.get(i).getId(), i);
+        }
+        int cells = input.days.size() * input.slots.size();
+
+        // Sections and subjects referenced by the loads
+        Set<Long> sectionIds = new LinkedHashSet<>();
+        Set<Long> subjectIds = new LinkedHashSet<>();
+        for (TimetableGenerationRequest.SectionSubjectLoad load : request.getSectionLoads()) {
+            if (load.getSectionId() == null || load.getSubjectId() == null) {
+                throw new SmaException("Each load needs a section and a subject");
+            }
+            sectionIds.add(load.getSectionId());
+            subjectIds.add(load.getSubjectId());
+        }
+        Map<Long, SectionMaster> sections = new HashMap<>();
+        for (SectionMaster section : sectionMasterRepository.findAllById(sectionIds)) {
+            if (!section.getSchool().getId().equals(schoolId)) {
+                throw new SmaException("Section " + section.getId() + " does not belong to school");
+            }
+            sections.put(section.getId(), section);
+        }
+        Map<Long, SubjectMaster> subjects = new HashMap<>();
+        for (SubjectMaster subject : subjectMasterRepository.findAllById(subjectIds)) {
+            subjects.put(subject.getId(), subject);
+        }
+        for (Long sectionId : sectionIds) {
+            if (!sections.containsKey(sectionId)) {
+                throw new SmaException("Section not found: " + sectionId);
+            }
+            input.sectionIds.add(sectionId);
+            input.sections.add(sections.get(sectionId));
+            input.sectionClassIds.add(sections.get(sectionId).getClassMaster().getId());
+        }
+        for (Long subjectId : subjectIds) {
+            if (!subjects.containsKey(subjectId)) {
+                throw new SmaException("Subject not found: " + subjectId);
+            }
+        }
+        Map<Long, Integer> sectionIndex = new HashMap<>();
+        for (int i = 0; i < input.sectionIds.size(); i++) {
+            sectionIndex.put(input.sectionIds.get(i), i);
+        }
+
+        // Teacher candidates: section assignment, else qualified staff for the subject
+        Map<String, Long> assignedTeacher = new HashMap<>();
+        for (StaffSubjectAssignment assignment :
+                staffSubjectAssignmentRepository.findByAcademicYearIdAndSectionIds(academicYearId, sectionIds)) {
+            assignedTeacher.put(assignment.getSection().getId() + ":" + assignment.getSubject().getId(),
+                    assignment.getStaff().getId());
+        }
+        Map<Long, List<Long>> qualifiedTeachers = new HashMap<>();
+        for (StaffSubjectMapping mapping : staffSubjectMappingRepository.findBySchoolId(schoolId)) {
+            List<Long> teachers = qualifiedTeachers.computeIfAbsent(mapping.getSubject().getId(), k -> new ArrayList<>());
+            if (!teachers.contains(mapping.getStaff().getId())) {
+                teachers.add(mapping.getStaff().getId());
+            }
+        }
+
+        Map<Long, Integer> teacherIndex = new HashMap<>();
+        Map<String, Integer> loadIndex = new HashMap<>();
+        List<int[]> candidateList = new ArrayList<>();
+        List<Integer> periodList = new ArrayList<>();
+        List<Integer> loadSectionList = new ArrayList<>();
+        for (TimetableGenerationRequest.SectionSubjectLoad load : request.getSectionLoads()) {
+            String key = load.getSectionId() + ":" + load.getSubjectId();
+            if (loadIndex.containsKey(key)) {
+                throw new SmaException("Duplicate load for section " + load.getSectionId()
+                        + " and subject " + load.getSubjectId());
+            }
+            SubjectMaster subject = subjects.get(load.getSubjectId());
+            Integer periods = load.getPeriodsPerWeek() != null ? load.getPeriodsPerWeek() : subject.getCredits();
+            if (periods == null || periods < 0) {
+                throw new SmaException("Periods per week missing for subject " + subject.getSubjectName());
+            }
+
+            List<Long> candidates;
+            if (load.getTeacherId() != null) {
+                candidates = Collections.singletonList(load.getTeacherId());
+            } else if (assignedTeacher.containsKey(key)) {
+                candidates = Collections.singletonList(assignedTeacher.get(key));
+            } else {
+                candidates = qualifiedTeachers.getOrDefault(load.getSubjectId(), Collections.emptyList());
+            }
+            if (candidates.isEmpty()) {
+                throw new SmaException("No qualified teacher for subject " + subject.getSubjectName()
+                        + " in section " + sections.get(load.getSectionId()).getSectionName());
+            }
+            int[] candidateIndexes = new int[candidates.size()];
+            for (int i = 0; i < candidates.size(); i++) {
+                Long teacherId = candidates.get(i);
+                candidateIndexes[i] = teacherIndex.computeIfAbsent(teacherId, k -> {
+                    input.teacherIds.add(k);
+                    return input.teacherIds.size() - 1;
+                });
+            }
+
+            loadIndex.put(key, periodList.size());
+            input.loadSubjects.add(subject);
+            candidateList.add(candidateIndexes);
+            periodList.add(periods);
+            loadSectionList.add(sectionIndex.get(load.getSectionId()));
+        }
+
+        TimetableSolver.Problem problem = new TimetableSolver.Problem();
+        problem.dayCount = input.days.size();
+        problem.slotCount = input.slots.size();
+        problem.sectionCount = input.sectionIds.size();
+        problem.sectionFixed = new int[problem.sectionCount * cells];
+        problem.teacherFixed = new int[input.teacherIds.size() * cells];
+        problem.teacherFixedLoad = new int[input.teacherIds.size()];
+        int[] loadPeriods = new int[periodList.size()];
+        for (int i = 0; i < loadPeriods.length; i++) {
+            loadPeriods[i] = periodList.get(i);
+        }
+
+        // Existing routine: other sections only occupy teachers; kept entries of target sections also fill cells
+        for (ClassRoutineMasterRepository.RoutineRow row :
+                classRoutineMasterRepository.findSchoolRoutineRows(schoolId, academicYearId)) {
+            Integer section = sectionIndex.get(row.getSectionId());
+            if (section != null && replaceExisting) {
+                continue;
+            }
+            int dayIdx = row.getDayOfWeek() == null ? -1 : input.days.indexOf(row.getDayOfWeek().toUpperCase());
+            Integer slotIdx = slotIndex.get(row.getTimeSlotId());
+            int cell = dayIdx >= 0 && slotIdx != null ? dayIdx * problem.slotCount + slotIdx : -1;
+
+            Integer teacher = row.getTeacherId() != null ? teacherIndex.get(row.getTeacherId()) : null;
+            if (teacher != null) {
+                problem.teacherFixedLoad[teacher]++;
+                if (cell >= 0) {
+                    problem.teacherFixed[teacher * cells + cell]++;
+                }
+            }
+            if (section != null) {
+                if (cell >= 0) {
+                    problem.sectionFixed[section * cells + cell]++;
+                }
+                Integer load = loadIndex.get(row.getSectionId() + ":" + row.getSubjectId());
+                if (load != null && loadPeriods[load] > 0) {
+                    loadPeriods[load]--;
+                }
+            }
+        }
+
+        problem.loadPeriods = loadPeriods;
+        problem.loadSection = new int[loadPeriods.length];
+        problem.loadCandidates = new int[loadPeriods.length][];
+        for (int i = 0; i < loadPeriods.length; i++) {
+            problem.loadSection[i] = loadSectionList.get(i);
+            problem.loadCandidates[i] = candidateList.get(i);
+        }
+
+        Map<Long, Integer> teacherLimits = new HashMap<>();
+        if (request.getTeacherLimits() != null) {
+            for (TimetableGenerationRequest.TeacherLimit limit : request.getTeacherLimits()) {
+                if (limit.getTeacherId() != null && limit.getMaxPeriodsPerWeek() != null) {
+                    teacherLimits.put(limit.getTeacherId(), limit.getMaxPeriodsPerWeek());
+                }
+            }
+        }
+        int defaultMax = request.getDefaultMaxPeriodsPerWeek() != null
+                ? request.getDefaultMaxPeriodsPerWeek() : config.getDefaultMaxPeriodsPerWeek();
+        problem.teacherMaxPeriods = new int[input.teacherIds.size()];
+        for (int i = 0; i < input.teacherIds.size(); i++) {
+            problem.teacherMaxPeriods[i] = teacherLimits.getOrDefault(input.teacherIds.get(i), defaultMax);
+        }
+        problem.expandLessons();
+
+        // Reject loads that cannot fit before spending the time budget
+        for (int section = 0; section < problem.sectionCount; section++) {
+            int freeCells = 0;
+            for (int cell = 0; cell < cells; cell++) {
+                if (problem.sectionFixed[section * cells + cell] == 0) {
+                    freeCells++;
+                }
+            }
+            if (problem.sectionLessons[section].length > freeCells) {
+                throw new SmaException("Section " + input.sections.get(section).getSectionName() + " needs "
+                        + problem.sectionLessons[section].length + " periods but only " + freeCells
+                        + " slots are free");
+            }
+        }
+        if (problem.lessonCount() == 0) {
+            throw new SmaException("All requested periods are already scheduled");
+        }
+
+        // Requested and mapped teachers must be active staff of this school before anything is solved
+        for (Staff staff : staffRepository.findAllById(input.teacherIds)) {
+            if (staff.getSchool() == null || !staff.getSchool().getId().equals(schoolId)
+                    || !Boolean.TRUE.equals(staff.getIsActive())) {
+                continue;
+            }
+            input.teacherNames.put(staff.getId(), fullName(staff.getFirstName(), staff.getLastName()));
+        }
+        for (Long teacherId : input.teacherIds) {
+            if (!input.teacherNames.containsKey(teacherId)) {
+                throw new SmaException("Teacher " + teacherId + " is not active staff of school " + schoolId);
+            }
+        }
+        input.problem = problem;
+        input.replaceExisting = replaceExisting;
+        return input;
+    }
+
+    private void runJob(GenerationJob job, GenerationInput input) {
+        job.status = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        try {
+            long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(job.timeBudgetMs);
+            long maxIterations = job.maxIterations != null ? job.maxIterations : 0;
+            List<TimetableSolver> solvers = new ArrayList<>(job.workers);
+            for (int worker = 0; worker < job.workers; worker++) {
+                solvers.add(new TimetableSolver(input.problem, worker, job.seed + worker * SEED_STRIDE,
+                        TEMPERATURES[worker % TEMPERATURES.length], maxIterations, deadlineNanos,
+                        job.iterations, job.bestCost));
+            }
+
+            // Lowest cost wins, ties go to the lowest worker index so seeded runs are reproducible
+            TimetableSolver.Solution best = null;
+            for (Future<TimetableSolver.Solution> future : solverPool.invokeAll(solvers)) {
+                TimetableSolver.Solution solution = future.get();
+                if (best == null || solution.cost < best.cost) {
+                    best = solution;
+                }
+            }
+
+            job.hardViolations = best.hardViolations;
+            job.softPenalty = best.softPenalty();
+            job.entries = decode(input, best);
+            if (best.hardViolations > 0) {
+                job.finish("INFEASIBLE", "Best routine still has " + best.hardViolations
+                        + " hard violations; nothing was written");
+            } else if (job.dryRun) {
+                job.finish("COMPLETED", "Dry run; routine was not written");
+            } else {
+                job.entriesWritten = classRoutineMasterService.saveGeneratedRoutine(job.schoolId,
+                        job.academicYearId, input.replaceExisting ? input.sectionIds : Collections.emptyList(),
+                        job.entries);
+                job.finish("COMPLETED", "Routine generated");
+            }
+            logger.info("Timetable generation {} finished as {}: cost {}, {} iterations in {} ms",
+                    job.jobId, job.status, best.cost, job.iterations.get(), job.elapsedMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish("FAILED", "Generation interrupted");
+        } catch (Exception e) {
+            logger.error("Timetable generation {} failed", job.jobId, e);
+            job.finish("FAILED", e.getMessage());
+        }
+    }
+
+    private List<RoutineEntryResponse> decode(GenerationInput input, TimetableSolver.Solution solution) {
+        TimetableSolver.Problem problem = input.problem;
+        List<RoutineEntryResponse> entries = new ArrayList<>(problem.lessonCount());
+        for (int lesson = 0; lesson < problem.lessonCount(); lesson++) {
+            int load = problem.lessonLoad[lesson];
+            int cell = solution.lessonCell[lesson];
+            int sectionIdx = problem.loadSection[load];
+            SectionMaster section = input.sections.get(sectionIdx);
+            SubjectMaster subject = input.loadSubjects.get(load);
+            RoutineTimeSlot slot = input.slots.get(cell % problem.slotCount);
+            Long teacherId = input.teacherIds.get(solution.loadTeacher[load]);
+
+            RoutineEntryResponse entry = new RoutineEntryResponse();
+            entry.setDayOfWeek(input.days.get(cell / problem.slotCount));
+            entry.setClassId(input.sectionClassIds.get(sectionIdx));
+            entry.setSectionId(section.getId());
+            entry.setSectionName(section.getSectionName());
+            entry.setTimeSlotId(slot.getId());
+            entry.setSlotName(slot.getSlotName());
+            entry.setStartTime(slot.getStartTime());
+            entry.setEndTime(slot.getEndTime());
+            entry.setSlotOrder(slot.getDisplayOrder());
+            entry.setSubjectId(subject.getId());
+            entry.setSubjectName(subject.getSubjectName());
+            entry.setTeacherId(teacherId);
+            entry.setTeacherName(input.teacherNames.get(teacherId));
+            entries.add(entry);
+        }
+        entries.sort(Comparator.comparing(RoutineEntryResponse::getSectionId)
+                .thenComparing(entry -> input.days.indexOf(entry.getDayOfWeek()))
+                .thenComparing(RoutineEntryResponse::getSlotOrder, Comparator.nullsLast(Comparator.naturalOrder())));
+        return entries;
+    }
+
+    /**
+     * Drop the oldest finished jobs beyond the retention limit
+     */
+    private void evictFinishedJobs() {
+        Iterator<GenerationJob> iterator = jobs.values().iterator();
+        while (jobs.size() > config.getMaxRetainedJobs() && iterator.hasNext()) {
+            if (iterator.next().completedAt != null) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private String fullName(String firstName, String lastName) {
+        if (firstName == null) {
+            return lastName;
+        }
+        return lastName == null ? firstName : firstName + " " + lastName;
+    }
+
+    /**
+     * Loaded inputs of one generation; entities are only read for names after loading
+     */
+    private static final class GenerationInput {
+        private final List<String> days = new ArrayList<>();
+        private final List<RoutineTimeSlot> slots = new ArrayList<>();
+        private final List<Long> sectionIds = new ArrayList<>();
+        private final List<SectionMaster> sections = new ArrayList<>();
+        private final List<Long> sectionClassIds = new ArrayList<>();
+        private final List<SubjectMaster> loadSubjects = new ArrayList<>();
+        private final List<Long> teacherIds = new ArrayList<>();
+        private final Map<Long, String> teacherNames = new HashMap<>();
+        private TimetableSolver.Problem problem;
+        private boolean replaceExisting;
+    }
+
+    /**
+     * Mutable job state, written by the generator thread and read by status requests
+     */
+    private static final class GenerationJob {
+        private String jobId;
+        private Long schoolId;
+        private Long academicYearId;
+        private long seed;
+        private int workers;
+        private long timeBudgetMs;
+        private Long maxIterations;
+        private boolean dryRun;
+        private int lessonCount;
+        private final AtomicLong iterations = new AtomicLong();
+        private final AtomicLong bestCost = new AtomicLong(Long.MAX_VALUE);
+        private volatile String status;
+        private volatile String message;
+        private volatile Integer hardViolations;
+        private volatile Long softPenalty;
+        private volatile Integer entriesWritten;
+        private volatile List<RoutineEntryResponse> entries;
+        private LocalDateTime submittedAt;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+
+        private void finish(String finalStatus, String finalMessage) {
+            message = finalMessage;
+            completedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        private Long elapsedMs() {
+            if (startedAt == null) {
+                return null;
+            }
+            LocalDateTime end = completedAt != null ? completedAt : LocalDateTime.now();
+            return Duration.between(startedAt, end).toMillis();
+        }
+
+        private TimetableGenerationJobResponse toResponse() {
+            TimetableGenerationJobResponse response = new TimetableGenerationJobResponse();
+            response.setJobId(jobId);
+            response.setSchoolId(schoolId);
+            response.setAcademicYearId(academicYearId);
+            response.setStatus(status);
+            response.setSeed(seed);
+            response.setWorkers(workers);
+            response.setTimeBudgetMs(timeBudgetMs);
+            response.setMaxIterations(maxIterations);
+            response.setDryRun(dryRun);
+            response.setLessonCount(lessonCount);
+            response.setIterations(iterations.get());
+            long cost = bestCost.get();
+            response.setBestScore(cost == Long.MAX_VALUE ? null : cost);
+            response.setHardViolations(hardViolations);
+            response.setSoftPenalty(softPenalty);
+            response.setEntriesWritten(entriesWritten);
+            response.setMessage(message);
+            response.setSubmittedAt(submittedAt);
+            response.setStartedAt(startedAt);
+            response.setCompletedAt(completedAt);
+            response.setElapsedMs(elapsedMs());
+            response.setEntries(completedAt != null ? entries : null);
+            return response;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package org.sma.admin.core.app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulated annealing search over a weekly timetable
+ * Each lesson of a section subject load is placed in a (day, slot) cell and each load
+ * gets one teacher from its candidates. Section clashes, teacher clashes and teacher
+ * overload are hard violations; the same subject more than once a day in a section is
+ * a soft penalty. Instances are independent, so several can run in parallel as a portfolio.
+ */
+final class TimetableSolver implements Callable<TimetableSolver.Solution> {
+
+    static final long HARD_WEIGHT = 1000;
+
+    private static final int PROGRESS_INTERVAL = 1024;
+    private static final double MIN_TEMPERATURE = 0.05;
+
+    private final Problem problem;
+    private final int workerIndex;
+    private final long seed;
+    private final double startTemperature;
+    private final long maxIterations;
+    private final long deadlineNanos;
+    private final AtomicLong sharedIterations;
+    private final AtomicLong sharedBestCost;
+
+    private final int cells;
+    private final int[] lessonCell;
+    private final int[] loadTeacher;
+    private final int[] sectionCell;
+    private final int[] teacherCell;
+    private final int[] teacherLoad;
+    private final int[] loadDay;
+    private long cost;
+
+    TimetableSolver(Problem problem, int workerIndex, long seed, double startTemperature, long maxIterations,
+                    long deadlineNanos, AtomicLong sharedIterations, AtomicLong sharedBestCost) {
+        this.problem = problem;
+        this.workerIndex = workerIndex;
+        this.seed = seed;
+        this.startTemperature = startTemperature;
+        this.maxIterations = maxIterations;
+        this.deadlineNanos = deadlineNanos;
+        this.sharedIterations = sharedIterations;
+        this.sharedBestCost = sharedBestCost;
+
+        this.cells = problem.dayCount * problem.slotCount;
+        this.lessonCell = new int[problem.lessonLoad.length];
+        this.loadTeacher = new int[problem.loadSection.length];
+        this.sectionCell = problem.sectionFixed.clone();
+        this.teacherCell = problem.teacherFixed.clone();
+        this.teacherLoad = problem.teacherFixedLoad.clone();
+        this.loadDay = new int[problem.loadSection.length * problem.dayCount];
+    }
+
+    @Override
+    public Solution call() {
+        Random random = new Random(seed);
+        initialize(random);
+
+        long bestCost = cost;
+        int[] bestLessonCell = lessonCell.clone();
+        int[] bestLoadTeacher = loadTeacher.clone();
+        publishBest(bestCost);
+
+        long startNanos = System.nanoTime();
+        long budgetNanos = Math.max(1, deadlineNanos - startNanos);
+        long iteration = 0;
+        double temperature = startTemperature;
+
+        while (bestCost > 0 && (maxIterations <= 0 || iteration < maxIterations)) {
+            if (iteration % PROGRESS_INTERVAL == 0) {
+                long now = System.nanoTime();
+                if (now >= deadlineNanos || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                // Iteration-based cooling keeps seeded runs reproducible
+                double progress = maxIterations > 0
+                        ? (double) iteration / maxIterations
+                        : (double) (now - startNanos) / budgetNanos;
+                temperature = Math.max(MIN_TEMPERATURE, startTemperature * (1.0 - progress));
+                if (iteration > 0) {
+                    sharedIterations.addAndGet(PROGRESS_INTERVAL);
+                }
+            }
+            iteration++;
+
+            if (step(random, temperature) && cost < bestCost) {
+                bestCost = cost;
+                System.arraycopy(lessonCell, 0, bestLessonCell, 0, lessonCell.length);
+                System.arraycopy(loadTeacher, 0, bestLoadTeacher, 0, loadTeacher.length);
+                publishBest(bestCost);
+            }
+        }
+        sharedIterations.addAndGet(iteration % PROGRESS_INTERVAL);
+
+        return new Solution(workerIndex, bestCost, bestLessonCell, bestLoadTeacher, iteration,
+                countHardViolations(bestLessonCell, bestLoadTeacher));
+    }
+
+    private void initialize(Random random) {
+        // Least loaded candidate teacher per load
+        for (int load = 0; load < loadTeacher.length; load++) {
+            int[] candidates = problem.loadCandidates[load];
+            int best = candidates[random.nextInt(candidates.length)];
+            for (int candidate : candidates) {
+                if (teacherLoad[candidate] < teacherLoad[best]) {
+                    best = candidate;
+                }
+            }
+            loadTeacher[load] = best;
+            teacherLoad[best] += problem.loadPeriods[load];
+        }
+
+        // Spread each section's lessons over its free cells in random order
+        List<List<Integer>> sectionLessons = new ArrayList<>();
+        for (int section = 0; section < problem.sectionCount; section++) {
+            sectionLessons.add(new ArrayList<>());
+        }
+        for (int lesson = 0; lesson < lessonCell.length; lesson++) {
+            sectionLessons.get(problem.loadSection[problem.lessonLoad[lesson]]).add(lesson);
+        }
+        for (int section = 0; section < problem.sectionCount; section++) {
+            List<Integer> freeCells = new ArrayList<>();
+            for (int cell = 0; cell < cells; cell++) {
+                if (problem.sectionFixed[section * cells + cell] == 0) {
+                    freeCells.add(cell);
+                }
+            }
+            shuffle(freeCells, random);
+            List<Integer> lessons = sectionLessons.get(section);
+            for (int i = 0; i < lessons.size(); i++) {
+                lessonCell[lessons.get(i)] = freeCells.isEmpty() ? random.nextInt(cells) : freeCells.get(i % freeCells.size());
+            }
+        }
+
+        // Clashes and overload already present in fixed entries are constant, so only the change is scored
+        cost = 0;
+        for (int lesson = 0; lesson < lessonCell.length; lesson++) {
+            cost += place(lesson, lessonCell[lesson]);
+        }
+        for (int teacher = 0; teacher < teacherLoad.length; teacher++) {
+            cost += HARD_WEIGHT * (overload(teacher, teacherLoad[teacher])
+                    - overload(teacher, problem.teacherFixedLoad[teacher]));
+        }
+    }
+
+    /**
+     * One move with annealing acceptance; returns whether the move was kept
+     */
+    private boolean step(Random random, double temperature) {
+        int moveType = random.nextInt(10);
+        if (moveType == 0) {
+            int load = random.nextInt(loadTeacher.length);
+            int[] candidates = problem.loadCandidates[load];
+            if (candidates.length < 2) {
+                return false;
+            }
+            int previous = loadTeacher[load];
+            int next = candidates[random.nextInt(candidates.length)];
+            if (next == previous) {
+                return false;
+            }
+            long delta = changeTeacher(load, next);
+            if (accept(delta, temperature, random)) {
+                cost += delta;
+                return true;
+            }
+            changeTeacher(load, previous);
+            return false;
+        }
+
+        int lesson = random.nextInt(lessonCell.length);
+        int from = lessonCell[lesson];
+        if (moveType < 5) {
+            int[] siblings = problem.sectionLessons[problem.loadSection[problem.lessonLoad[lesson]]];
+            int other = siblings[random.nextInt(siblings.length)];
+            int otherCell = lessonCell[other];
+            if (other == lesson || otherCell == from) {
+                return false;
+            }
+            long delta = remove(lesson) + remove(other) + place(lesson, otherCell) + place(other, from);
+            if (accept(delta, temperature, random)) {
+                cost += delta;
+                return true;
+            }
+            remove(lesson);
+            remove(other);
+            place(lesson, from);
+            place(other, otherCell);
+            return false;
+        }
+
+        int to = random.nextInt(cells);
+        if (to == from) {
+            return false;
+        }
+        long delta = remove(lesson) + place(lesson, to);
+        if (accept(delta, temperature, random)) {
+            cost += delta;
+            return true;
+        }
+        remove(lesson);
+        place(lesson, from);
+        return false;
+    }
+
+    private boolean accept(long delta, double temperature, Random random) {
+        return delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature);
+    }
+
+    private long place(int lesson, int cell) {
+        lessonCell[lesson] = cell;
+        return adjustLesson(lesson, cell, 1);
+    }
+
+    private long remove(int lesson) {
+        return adjustLesson(lesson, lessonCell[lesson], -1);
+    }
+
+    private long adjustLesson(int lesson, int cell, int change) {
+        int load = problem.lessonLoad[lesson];
+        int section = problem.loadSection[load];
+        int day = cell / problem.slotCount;
+        return HARD_WEIGHT * adjust(sectionCell, section * cells + cell, change)
+                + HARD_WEIGHT * adjust(teacherCell, loadTeacher[load] * cells + cell, change)
+                + adjust(loadDay, load * problem.dayCount + day, change);
+    }
+
+    private long changeTeacher(int load, int next) {
+        int previous = loadTeacher[load];
+        long delta = 0;
+        for (int lesson : problem.loadLessons[load]) {
+            int cell = lessonCell[lesson];
+            delta += HARD_WEIGHT * adjust(teacherCell, previous * cells + cell, -1);
+            delta += HARD_WEIGHT * adjust(teacherCell, next * cells + cell, 1);
+        }
+        int periods = problem.loadPeriods[load];
+        delta += HARD_WEIGHT * (overload(previous, teacherLoad[previous] - periods) - overload(previous, teacherLoad[previous]));
+        delta += HARD_WEIGHT * (overload(next, teacherLoad[next] + periods) - overload(next, teacherLoad[next]));
+        teacherLoad[previous] -= periods;
+        teacherLoad[next] += periods;
+        loadTeacher[load] = next;
+        return delta;
+    }
+
+    /**
+     * Change a counter and return the change of its clash penalty
+     */
+    private static long adjust(int[] counters, int index, int change) {
+        int before = counters[index];
+        counters[index] = before + change;
+        return penalty(before + change) - penalty(before);
+    }
+
+    private static int penalty(int count) {
+        return count > 1 ? count - 1 : 0;
+    }
+
+    private int overload(int teacher, int load) {
+        return Math.max(0, load - problem.teacherMaxPeriods[teacher]);
+    }
+
+    private int countHardViolations(int[] lessonCells, int[] loadTeachers) {
+        int[] sections = problem.sectionFixed.clone();
+        int[] teachers = problem.teacherFixed.clone();
+        int[] loads = problem.teacherFixedLoad.clone();
+        for (int lesson = 0; lesson < lessonCells.length; lesson++) {
+            int load = problem.lessonLoad[lesson];
+            sections[problem.loadSection[load] * cells + lessonCells[lesson]]++;
+            teachers[loadTeachers[load] * cells + lessonCells[lesson]]++;
+        }
+        for (int load = 0; load < loadTeachers.length; load++) {
+            loads[loadTeachers[load]] += problem.loadPeriods[load];
+        }
+        int violations = 0;
+        for (int index = 0; index < sections.length; index++) {
+            violations += penalty(sections[index]) - penalty(problem.sectionFixed[index]);
+        }
+        for (int index = 0; index < teachers.length; index++) {
+            violations += penalty(teachers[index]) - penalty(problem.teacherFixed[index]);
+        }
+        for (int teacher = 0; teacher < loads.length; teacher++) {
+            violations += overload(teacher, loads[teacher]) - overload(teacher, problem.teacherFixedLoad[teacher]);
+        }
+        return violations;
+    }
+
+    private void publishBest(long bestCost) {
+        sharedBestCost.accumulateAndGet(bestCost, Math::min);
+    }
+
+    private static void shuffle(List<Integer> values, Random random) {
+        for (int i = values.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer swap = values.get(i);
+            values.set(i, values.get(j));
+            values.set(j, swap);
+        }
+    }
+
+    /**
+     * Index-based problem definition shared read-only by all solver instances
+     * Cells are numbered day * slotCount + slot.
+     */
+    static final class Problem {
+        int dayCount;
+        int slotCount;
+        int sectionCount;
+        int[] loadSection;
+        int[] loadPeriods;
+        int[][] loadCandidates;
+        int[] teacherMaxPeriods;
+        int[] sectionFixed;
+        int[] teacherFixed;
+        int[] teacherFixedLoad;
+
+        int[] lessonLoad;
+        int[][] loadLessons;
+        int[][] sectionLessons;
+
+        /**
+         * Expand loads into individual lessons once all load arrays are set
+         */
+        void expandLessons() {
+            int lessonCount = 0;
+            for (int periods : loadPeriods) {
+                lessonCount += periods;
+            }
+            lessonLoad = new int[lessonCount];
+            loadLessons = new int[loadPeriods.length][];
+            int[] sectionLessonCount = new int[sectionCount];
+            int lesson = 0;
+            for (int load = 0; load < loadPeriods.length; load++) {
+                loadLessons[load] = new int[loadPeriods[load]];
+                for (int i = 0; i < loadPeriods[load]; i++) {
+                    lessonLoad[lesson] = load;
+                    loadLessons[load][i] = lesson;
+                    lesson++;
+                }
+                sectionLessonCount[loadSection[load]] += loadPeriods[load];
+            }
+            sectionLessons = new int[sectionCount][];
+            int[] filled = new int[sectionCount];
+            for (int section = 0; section < sectionCount; section++) {
+                sectionLessons[section] = new int[sectionLessonCount[section]];
+            }
+            for (lesson = 0; lesson < lessonCount; lesson++) {
+                int section = loadSection[lessonLoad[lesson]];
+                sectionLessons[section][filled[section]++] = lesson;
+            }
+        }
+
+        int lessonCount() {
+            return lessonLoad.length;
+        }
+    }
+
+    static final class Solution {
+        final int workerIndex;
+        final long cost;
+        final int[] lessonCell;
+        final int[] loadTeacher;
+        final long iterations;
+        final int hardViolations;
+
+        private Solution(int workerIndex, long cost, int[] lessonCell, int[] loadTeacher, long iterations,
+                         int hardViolations) {
+            this.workerIndex = workerIndex;
+            this.cost = cost;
+            this.lessonCell = lessonCell;
+            this.loadTeacher = loadTeacher;
+            this.iterations = iterations;
+            this.hardViolations = hardViolations;
+        }
+
+        long softPenalty() {
+            return cost - HARD_WEIGHT * hardViolations;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.sma.platform.core.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Format detection and CSV parsing shared by the bulk import endpoints
+ * Imports are either CSV with a header row or NDJSON, one object per line.
+ */
+public class ImportFileUtils {
+
+    public static final String FORMAT_CSV = "CSV";
+    public static final String FORMAT_NDJSON = "NDJSON";
+
+    /**
+     * Resolve the file format from an explicit format parameter or the file name
+     * @throws IllegalArgumentException for an unsupported explicit format
+     */
+    public static String resolveFormat(String format, String fileName) {
+        if (format != null && !format.trim().isEmpty()) {
+            String normalized = format.trim().toUpperCase(Locale.ROOT);
+            if ("JSONL".equals(normalized)) {
+                return FORMAT_NDJSON;
+            }
+            if (FORMAT_CSV.equals(normalized) || FORMAT_NDJSON.equals(normalized)) {
+                return normalized;
+            }
+            throw new IllegalArgumentException("Unsupported import format: " + format);
+        }
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")) {
+            return FORMAT_NDJSON;
+        }
+        return FORMAT_CSV;
+    }
+
+    /**
+     * Column positions of a CSV header row by normalized name, ignoring a leading BOM
+     */
+    public static Map<String, Integer> parseHeader(String header) {
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> names = splitCsv(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(normalizeKey(names.get(i)), i);
+        }
+        return columns;
+    }
+
+    /**
+     * Cells of one CSV line keyed by the normalized column names of the header
+     */
+    public static Map<String, String> parseCsvLine(String line, Map<String, Integer> columns) {
+        List<String> cells = splitCsv(line);
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, Integer> column : columns.entrySet()) {
+            if (column.getValue() < cells.size()) {
+                values.put(column.getKey(), cells.get(column.getValue()));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Split one CSV line on commas, honouring double-quoted cells with "" escapes
+     */
+    public static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    /**
+     * Header and field keys are matched case-insensitively, ignoring '_', '-' and spaces
+     */
+    public static String normalizeKey(String key) {
+        return key.trim().replaceAll("[_\\- ]", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,16 @@
+-- Migration to add a trigram search index on student_profile
+-- Version: 1.10
+-- Date: October 17, 2026
+
+-- Trigram matching for substring, prefix and typo tolerant student search
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Expression must stay identical to the one used by StudentProfileRepository.searchStudents
+CREATE INDEX IF NOT EXISTS idx_student_profile_search_trgm
+    ON sma_student.student_profile
+    USING GIN ((LOWER(COALESCE(admission_no, '') || ' ' || COALESCE(first_name, '') || ' ' || COALESCE(last_name, ''))) gin_trgm_ops);
+
+-- Leading school_id lookups for the school filter applied alongside the search
+CREATE INDEX IF NOT EXISTS idx_student_profile_school_active
+    ON sma_student.student_profile (school_id)
+    WHERE is_deleted = false;
@@ -0,0 +1,31 @@
+-- Migration to enforce one attendance row per student per class session
+-- Version: 1.11
+-- Date: October 17, 2026
+
+-- StudentAttendanceRepositoryImpl.upsertAll writes with ON CONFLICT (class_session_id, student_id),
+-- which needs this constraint to exist; ddl-auto cannot add it while duplicates are present.
+
+-- Keep one row per (session, student): live rows first, then the most recently marked
+DELETE FROM sma_admin.student_attendance sa
+USING (
+    SELECT id,
+           ROW_NUMBER() OVER (
+               PARTITION BY class_session_id, student_id
+               ORDER BY is_deleted ASC, COALESCE(updated_at, marked_at, created_at) DESC NULLS LAST, id DESC
+           ) AS rn
+    FROM sma_admin.student_attendance
+) ranked
+WHERE sa.id = ranked.id
+  AND ranked.rn > 1;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_constraint
+        WHERE conname = 'uk_attendance_session_student'
+          AND conrelid = 'sma_admin.student_attendance'::regclass
+    ) THEN
+        ALTER TABLE sma_admin.student_attendance
+            ADD CONSTRAINT uk_attendance_session_student UNIQUE (class_session_id, student_id);
+    END IF;
+END $$;
@@ -0,0 +1,86 @@
+-- Migration to enforce one daily class session per routine entry per date
+-- Version: 1.12
+-- Date: October 17, 2026
+
+-- DailyClassSessionRepositoryImpl writes with ON CONFLICT (routine_master_id, session_date),
+-- which needs this constraint to exist; ddl-auto cannot add it while duplicates are present.
+
+-- Point attendance of duplicate sessions at the session that is kept, unless the kept
+-- session already has a row for that student or staff member. When several duplicates hold
+-- a row for the same person only the first is moved; the UPDATE checks the kept session
+-- against its starting snapshot, so moving them all would break the session/person key.
+CREATE TEMP TABLE daily_session_duplicates AS
+SELECT id AS duplicate_id, keep_id
+FROM (
+    SELECT id,
+           FIRST_VALUE(id) OVER w AS keep_id,
+           ROW_NUMBER() OVER w AS rn
+    FROM sma_admin.daily_class_session
+    WHERE routine_master_id IS NOT NULL
+    WINDOW w AS (
+        PARTITION BY routine_master_id, session_date
+        ORDER BY is_attendance_marked DESC NULLS LAST, is_deleted ASC, id ASC
+    )
+) ranked
+WHERE rn > 1;
+
+UPDATE sma_admin.student_attendance sa
+SET class_session_id = moved.keep_id
+FROM (
+    SELECT a.id,
+           d.keep_id,
+           ROW_NUMBER() OVER (PARTITION BY d.keep_id, a.student_id ORDER BY a.id) AS rn
+    FROM sma_admin.student_attendance a
+    JOIN daily_session_duplicates d ON d.duplicate_id = a.class_session_id
+) moved
+WHERE sa.id = moved.id
+  AND moved.rn = 1
+  AND NOT EXISTS (
+      SELECT 1 FROM sma_admin.student_attendance kept
+      WHERE kept.class_session_id = moved.keep_id AND kept.student_id = sa.student_id
+  );
+
+DELETE FROM sma_admin.student_attendance sa
+USING daily_session_duplicates d
+WHERE sa.class_session_id = d.duplicate_id;
+
+UPDATE sma_admin.staff_attendance sa
+SET class_session_id = moved.keep_id
+FROM (
+    SELECT a.id,
+           d.keep_id,
+           ROW_NUMBER() OVER (PARTITION BY d.keep_id, a.staff_id ORDER BY a.id) AS rn
+    FROM sma_admin.staff_attendance a
+    JOIN daily_session_duplicates d ON d.duplicate_id = a.class_session_id
+) moved
+WHERE sa.id = moved.id
+  AND moved.rn = 1
+  AND NOT EXISTS (
+      SELECT 1 FROM sma_admin.staff_attendance kept
+      WHERE kept.class_session_id = moved.keep_id AND kept.staff_id = sa.staff_id
+  );
+
+DELETE FROM sma_admin.staff_attendance sa
+USING daily_session_duplicates d
+WHERE sa.class_session_id = d.duplicate_id;
+
+DELETE FROM sma_admin.daily_class_session dcs
+USING daily_session_duplicates d
+WHERE dcs.id = d.duplicate_id;
+
+DROP TABLE daily_session_duplicates;
+
+-- Attendance rollups and bitmaps count by date, so rebuild them for affected schools
+-- (POST /schools/{schoolId}/attendance/rollup/rebuild) if any duplicates were removed
+
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_constraint
+        WHERE conname = 'uk_daily_session_master_date'
+          AND conrelid = 'sma_admin.daily_class_session'::regclass
+    ) THEN
+        ALTER TABLE sma_admin.daily_class_session
+            ADD CONSTRAINT uk_daily_session_master_date UNIQUE (routine_master_id, session_date);
+    END IF;
+END $$;
@@ -0,0 +1,23 @@
+-- Migration to make payment references unique per school
+-- Version: 1.13
+-- Date: October 17, 2026
+
+-- Payment imports insert with ON CONFLICT (school_id, payment_ref) WHERE payment_ref IS NOT NULL
+-- DO NOTHING, which needs this partial unique index. Payments without a reference are unaffected.
+
+-- Existing repeats keep their money rows; every repeat after the first gets its id appended
+-- to the reference so it stays traceable
+UPDATE sma_admin.student_fee_payment p
+SET payment_ref = LEFT(p.payment_ref, 100 - LENGTH('#' || p.id::text)) || '#' || p.id::text
+FROM (
+    SELECT id,
+           ROW_NUMBER() OVER (PARTITION BY school_id, payment_ref ORDER BY id) AS rn
+    FROM sma_admin.student_fee_payment
+    WHERE payment_ref IS NOT NULL
+) ranked
+WHERE p.id = ranked.id
+  AND ranked.rn > 1;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_payment_school_ref
+    ON sma_admin.student_fee_payment (school_id, payment_ref)
+    WHERE payment_ref IS NOT NULL;
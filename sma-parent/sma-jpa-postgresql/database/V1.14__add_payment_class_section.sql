@@ -0,0 +1,29 @@
+-- Migration to store the student's class and section on each fee payment
+-- Version: 1.14
+-- Date: October 17, 2026
+
+-- Fee collection rollups bucket payments by class and section. Storing the placement on the
+-- payment when it is applied lets deletes and rebuilds hit the same buckets even after the
+-- student has moved section.
+
+ALTER TABLE sma_admin.student_fee_payment ADD COLUMN IF NOT EXISTS class_id BIGINT;
+ALTER TABLE sma_admin.student_fee_payment ADD COLUMN IF NOT EXISTS section_id BIGINT;
+
+-- Existing payments take the latest active enrollment in the installment's academic year,
+-- which is what the rollups were built from so far
+UPDATE sma_admin.student_fee_payment p
+SET class_id = m.class_id,
+    section_id = m.section_id
+FROM (
+    SELECT DISTINCT ON (sp.id) sp.id AS payment_id, scsm.class_id, scsm.section_id
+    FROM sma_admin.student_fee_payment sp
+    JOIN sma_admin.fee_installment fi ON fi.id = sp.fee_installment_id
+    JOIN sma_admin.fee_plan fp ON fp.id = fi.fee_plan_id
+    JOIN sma_student.student_class_section_mapping scsm
+      ON scsm.student_id = sp.student_id
+     AND scsm.academic_year_id = fp.academic_year_id
+     AND scsm.is_active = true
+    WHERE sp.class_id IS NULL
+    ORDER BY sp.id, scsm.id DESC
+) m
+WHERE p.id = m.payment_id;
@@ -0,0 +1,123 @@
+package org.sma.jpa.model.fee;
+
+import org.sma.jpa.model.BaseEntity;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Fee Collection Rollup - Pre-aggregated fee collection totals
+ * One row per (school, scope, period bucket); scope is the whole school, a class, a section,
+ * a fee category or a payment mode, period is a single day or a calendar month
+ * (period_start = first day of month). Maintained incrementally by the payment write paths.
+ */
+@Entity
+@Table(name = "fee_collection_rollup", schema = "sma_admin",
+        uniqueConstraints = @UniqueConstraint(
+                columnNames = {"school_id", "scope_type", "scope_key", "period_type", "period_start"},
+                name = "uk_fee_collection_rollup_bucket"
+        ))
+public class FeeCollectionRollup extends BaseEntity {
+
+    public static final String SCOPE_SCHOOL = "SCHOOL";
+    public static final String SCOPE_CLASS = "CLASS";
+    public static final String SCOPE_SECTION = "SECTION";
+    public static final String SCOPE_CATEGORY = "CATEGORY";
+    public static final String SCOPE_MODE = "MODE";
+    public static final String PERIOD_DAY = "DAY";
+    public static final String PERIOD_MONTH = "MONTH";
+    public static final String MODE_UNSPECIFIED = "UNSPECIFIED";
+
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
+    @Column(name = "scope_type", nullable = false, length = 20)
+    private String scopeType; // SCHOOL, CLASS, SECTION, CATEGORY, MODE
+
+    @Column(name = "scope_key", nullable = false, length = 50)
+    private String scopeKey; // School/class/section/category ID, or payment mode
+
+    @Column(name = "period_type", nullable = false, length = 10)
+    private String periodType; // DAY, MONTH
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "amount_paid", nullable = false, precision = 14, scale = 2)
+    private BigDecimal amountPaid = BigDecimal.ZERO;
+
+    @Column(name = "discount_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    @Column(name = "payment_count", nullable = false)
+    private Long paymentCount = 0L;
+
+    // Constructors
+    public FeeCollectionRollup() {}
+
+    // Getters and Setters
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public String getScopeType() {
+        return scopeType;
+    }
+
+    public void setScopeType(String scopeType) {
+        this.scopeType = scopeType;
+    }
+
+    public String getScopeKey() {
+        return scopeKey;
+    }
+
+    public void setScopeKey(String scopeKey) {
+        this.scopeKey = scopeKey;
+    }
+
+    public String getPeriodType() {
+        return periodType;
+    }
+
+    public void setPeriodType(String periodType) {
+        this.periodType = periodType;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public BigDecimal getAmountPaid() {
+        return amountPaid;
+    }
+
+    public void setAmountPaid(BigDecimal amountPaid) {
+        this.amountPaid = amountPaid;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+
+    public Long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public void setPaymentCount(Long paymentCount) {
+        this.paymentCount = paymentCount;
+    }
+}
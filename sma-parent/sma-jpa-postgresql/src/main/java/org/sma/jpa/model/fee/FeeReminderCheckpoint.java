@@ -0,0 +1,113 @@
+package org.sma.jpa.model.fee;
+
+import org.sma.jpa.model.BaseEntity;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fee Reminder Checkpoint - Progress of one school's overdue reminder run for a day
+ * The keyset position is saved after every published chunk so an interrupted run
+ * resumes where it stopped instead of re-sending reminders.
+ */
+@Entity
+@Table(name = "fee_reminder_checkpoint", schema = "sma_admin",
+        uniqueConstraints = @UniqueConstraint(
+                columnNames = {"school_id", "run_date"},
+                name = "uk_fee_reminder_school_run_date"
+        ))
+public class FeeReminderCheckpoint extends BaseEntity {
+
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
+    @Column(name = "academic_year_id", nullable = false)
+    private Long academicYearId;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(name = "last_student_id", nullable = false)
+    private Long lastStudentId = 0L; // Keyset position: last (student, installment) pair published
+
+    @Column(name = "last_installment_id", nullable = false)
+    private Long lastInstallmentId = 0L;
+
+    @Column(name = "chunks_processed", nullable = false)
+    private Integer chunksProcessed = 0;
+
+    @Column(name = "reminders_sent", nullable = false)
+    private Long remindersSent = 0L;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public FeeReminderCheckpoint() {}
+
+    // Getters and Setters
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public LocalDate getRunDate() {
+        return runDate;
+    }
+
+    public void setRunDate(LocalDate runDate) {
+        this.runDate = runDate;
+    }
+
+    public Long getLastStudentId() {
+        return lastStudentId;
+    }
+
+    public void setLastStudentId(Long lastStudentId) {
+        this.lastStudentId = lastStudentId;
+    }
+
+    public Long getLastInstallmentId() {
+        return lastInstallmentId;
+    }
+
+    public void setLastInstallmentId(Long lastInstallmentId) {
+        this.lastInstallmentId = lastInstallmentId;
+    }
+
+    public Integer getChunksProcessed() {
+        return chunksProcessed;
+    }
+
+    public void setChunksProcessed(Integer chunksProcessed) {
+        this.chunksProcessed = chunksProcessed;
+    }
+
+    public Long getRemindersSent() {
+        return remindersSent;
+    }
+
+    public void setRemindersSent(Long remindersSent) {
+        this.remindersSent = remindersSent;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
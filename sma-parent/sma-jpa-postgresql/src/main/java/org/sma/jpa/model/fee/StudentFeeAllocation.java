@@ -0,0 +1,178 @@
+package org.sma.jpa.model.fee;
+
+import org.sma.jpa.model.BaseEntity;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Student Fee Allocation - One fee plan installment assigned to one student
+ * Written in bulk per class section; carries the student's discount or exemption
+ * so the net amount owed per installment is explicit.
+ */
+@Entity
+@Table(name = "student_fee_allocation", schema = "sma_admin",
+        uniqueConstraints = @UniqueConstraint(
+                columnNames = {"student_id", "fee_installment_id"},
+                name = "uk_fee_allocation_student_installment"
+        ),
+        indexes = {
+            @Index(name = "idx_fee_allocation_plan_student", columnList = "fee_plan_id,student_id"),
+            @Index(name = "idx_fee_allocation_school_year", columnList = "school_id,academic_year_id")
+        })
+public class StudentFeeAllocation extends BaseEntity {
+
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
+    @Column(name = "academic_year_id", nullable = false)
+    private Long academicYearId;
+
+    @Column(name = "fee_plan_id", nullable = false)
+    private Long feePlanId;
+
+    @Column(name = "fee_installment_id", nullable = false)
+    private Long feeInstallmentId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "class_id", nullable = false)
+    private Long classId;
+
+    @Column(name = "section_id", nullable = false)
+    private Long sectionId;
+
+    @Column(name = "amount_due", nullable = false, precision = 12, scale = 2)
+    private BigDecimal amountDue = BigDecimal.ZERO; // Installment amount at allocation time
+
+    @Column(name = "discount_percent", nullable = false, precision = 5, scale = 2)
+    private BigDecimal discountPercent = BigDecimal.ZERO;
+
+    @Column(name = "discount_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    @Column(name = "is_exempted", nullable = false)
+    private Boolean isExempted = false;
+
+    @Column(name = "allocation_status", nullable = false, length = 20)
+    private String allocationStatus = "ALLOCATED"; // ALLOCATED, EXEMPTED
+
+    @Column(name = "remarks", length = 300)
+    private String remarks;
+
+    // Constructors
+    public StudentFeeAllocation() {}
+
+    // Getters and Setters
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public Long getFeePlanId() {
+        return feePlanId;
+    }
+
+    public void setFeePlanId(Long feePlanId) {
+        this.feePlanId = feePlanId;
+    }
+
+    public Long getFeeInstallmentId() {
+        return feeInstallmentId;
+    }
+
+    public void setFeeInstallmentId(Long feeInstallmentId) {
+        this.feeInstallmentId = feeInstallmentId;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public void setClassId(Long classId) {
+        this.classId = classId;
+    }
+
+    public Long getSectionId() {
+        return sectionId;
+    }
+
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public BigDecimal getAmountDue() {
+        return amountDue;
+    }
+
+    public void setAmountDue(BigDecimal amountDue) {
+        this.amountDue = amountDue;
+    }
+
+    public BigDecimal getDiscountPercent() {
+        return discountPercent;
+    }
+
+    public void setDiscountPercent(BigDecimal discountPercent) {
+        this.discountPercent = discountPercent;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+
+    public Boolean getIsExempted() {
+        return isExempted;
+    }
+
+    public void setIsExempted(Boolean isExempted) {
+        this.isExempted = isExempted;
+    }
+
+    public String getAllocationStatus() {
+        return allocationStatus;
+    }
+
+    public void setAllocationStatus(String allocationStatus) {
+        this.allocationStatus = allocationStatus;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+
+    /**
+     * Amount the student still owes for this installment after discount or exemption
+     */
+    public BigDecimal getNetAmount() {
+        return amountDue.subtract(discountAmount);
+    }
+}
@@ -0,0 +1,111 @@
+package org.sma.jpa.model.fee;
+
+import org.sma.jpa.model.BaseEntity;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Student Fee Balance - Running fee ledger per (student, academic year, fee category)
+ * Maintained incrementally by the payment and fee plan write paths so the outstanding
+ * balance is a single row lookup; a reconciliation job checks it against raw rows.
+ */
+@Entity
+@Table(name = "student_fee_balance", schema = "sma_admin",
+        uniqueConstraints = @UniqueConstraint(
+                columnNames = {"student_id", "academic_year_id", "fee_category_id"},
+                name = "uk_fee_balance_student_year_category"
+        ),
+        indexes = {
+            @Index(name = "idx_fee_balance_school_year", columnList = "school_id,academic_year_id")
+        })
+public class StudentFeeBalance extends BaseEntity {
+
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "academic_year_id", nullable = false)
+    private Long academicYearId;
+
+    @Column(name = "fee_category_id", nullable = false)
+    private Long feeCategoryId;
+
+    @Column(name = "amount_due", nullable = false, precision = 12, scale = 2)
+    private BigDecimal amountDue = BigDecimal.ZERO; // Sum of the category's installments for the year
+
+    @Column(name = "amount_paid", nullable = false, precision = 12, scale = 2)
+    private BigDecimal amountPaid = BigDecimal.ZERO;
+
+    @Column(name = "discount_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    // Constructors
+    public StudentFeeBalance() {}
+
+    // Getters and Setters
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public Long getFeeCategoryId() {
+        return feeCategoryId;
+    }
+
+    public void setFeeCategoryId(Long feeCategoryId) {
+        this.feeCategoryId = feeCategoryId;
+    }
+
+    public BigDecimal getAmountDue() {
+        return amountDue;
+    }
+
+    public void setAmountDue(BigDecimal amountDue) {
+        this.amountDue = amountDue;
+    }
+
+    public BigDecimal getAmountPaid() {
+        return amountPaid;
+    }
+
+    public void setAmountPaid(BigDecimal amountPaid) {
+        this.amountPaid = amountPaid;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+
+    /**
+     * Amount still owed: due minus paid minus discount
+     */
+    public BigDecimal getOutstandingAmount() {
+        return amountDue.subtract(amountPaid).subtract(discountAmount);
+    }
+}
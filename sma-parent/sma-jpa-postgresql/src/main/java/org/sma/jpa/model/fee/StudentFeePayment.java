@@ -16,7 +16,9 @@ import java.time.LocalDateTime;
         indexes = {
             @Index(name = "idx_student_installment", columnList = "student_id,fee_installment_id"),
             @Index(name = "idx_fee_installment", columnList = "fee_installment_id"),
-            @Index(name = "idx_school_student", columnList = "school_id,student_id")
+            @Index(name = "idx_school_student", columnList = "school_id,student_id"),
+            @Index(name = "idx_school_payment_ref", columnList = "school_id,payment_ref"),
+            @Index(name = "idx_school_payment_id", columnList = "school_id,id")
         })
 public class StudentFeePayment extends BaseEntity {
 
@@ -44,9 +46,19 @@ public class StudentFeePayment extends BaseEntity {
     @Column(name = "payment_ref", length = 100)
     private String paymentRef;
 
+    @Column(name = "payment_mode", length = 30)
+    private String paymentMode; // CASH, CHEQUE, BANK_TRANSFER, CARD, UPI, ONLINE
+
     @Column(name = "remarks", length = 300)
     private String remarks;
 
+    // Student's class and section when the payment was applied; collection rollups are keyed on these
+    @Column(name = "class_id")
+    private Long classId;
+
+    @Column(name = "section_id")
+    private Long sectionId;
+
     // Getters and Setters
     public SchoolProfile getSchool() {
         return school;
@@ -104,6 +116,14 @@ public class StudentFeePayment extends BaseEntity {
         this.paymentRef = paymentRef;
     }
 
+    public String getPaymentMode() {
+        return paymentMode;
+    }
+
+    public void setPaymentMode(String paymentMode) {
+        this.paymentMode = paymentMode;
+    }
+
     public String getRemarks() {
         return remarks;
     }
@@ -111,4 +131,20 @@ public class StudentFeePayment extends BaseEntity {
     public void setRemarks(String remarks) {
         this.remarks = remarks;
     }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public void setClassId(Long classId) {
+        this.classId = classId;
+    }
+
+    public Long getSectionId() {
+        return sectionId;
+    }
+
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
 }
@@ -0,0 +1,70 @@
+package org.sma.jpa.model.master;
+
+import org.sma.jpa.model.BaseEntity;
+
+import javax.persistence.*;
+
+/**
+ * Section Occupancy - Running count of active enrollments per (academic year, section)
+ * Seats are reserved with a conditional update on this row, so capacity checks are a
+ * single-row operation and concurrent admissions cannot overfill a section.
+ */
+@Entity
+@Table(name = "section_occupancy", schema = "sma_admin",
+        uniqueConstraints = @UniqueConstraint(
+                columnNames = {"academic_year_id", "section_id"},
+                name = "uk_section_occupancy_year_section"
+        ),
+        indexes = {
+            @Index(name = "idx_section_occupancy_school_year", columnList = "school_id,academic_year_id")
+        })
+public class SectionOccupancy extends BaseEntity {
+
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
+    @Column(name = "academic_year_id", nullable = false)
+    private Long academicYearId;
+
+    @Column(name = "section_id", nullable = false)
+    private Long sectionId;
+
+    @Column(name = "occupied", nullable = false)
+    private Integer occupied = 0;
+
+    // Constructors
+    public SectionOccupancy() {}
+
+    // Getters and Setters
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public Long getSectionId() {
+        return sectionId;
+    }
+
+    public void setSectionId(Long sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public Integer getOccupied() {
+        return occupied;
+    }
+
+    public void setOccupied(Integer occupied) {
+        this.occupied = occupied;
+    }
+}
@@ -23,6 +23,10 @@ import java.time.LocalDate;
  */
 @Entity
 @Table(name = "daily_class_session", schema = "sma_admin",
+        uniqueConstraints = @UniqueConstraint(
+                columnNames = {"routine_master_id", "session_date"},
+                name = "uk_daily_session_master_date"
+        ),
         indexes = {
             @Index(name = "idx_daily_session_date", columnList = "session_date, school_id"),
             @Index(name = "idx_daily_session_class", columnList = "class_id, section_id, session_date"),
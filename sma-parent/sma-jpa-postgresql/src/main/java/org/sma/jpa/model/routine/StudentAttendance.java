@@ -12,6 +12,10 @@ import javax.persistence.*;
  */
 @Entity
 @Table(name = "student_attendance", schema = "sma_admin",
+        uniqueConstraints = @UniqueConstraint(
+                columnNames = {"class_session_id", "student_id"},
+                name = "uk_attendance_session_student"
+        ),
         indexes = {
             @Index(name = "idx_attendance_session", columnList = "class_session_id"),
             @Index(name = "idx_attendance_student", columnList = "student_id, class_session_id"),
@@ -0,0 +1,150 @@
+package org.sma.jpa.model.routine;
+
+import org.sma.jpa.model.BaseEntity;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Student Attendance Bitmap - Compact per-student, per-academic-year attendance history
+ * Each status has a bitmap indexed by session ordinal:
+ *   ordinal = (days since year_start_date) * SLOTS_PER_DAY + time slot display order
+ * Bit n lives in byte n / 8 at position n % 8 (least significant bit first),
+ * matching PostgreSQL get_bit/set_bit on bytea.
+ */
+@Entity
+@Table(name = "student_attendance_bitmap", schema = "sma_admin",
+        uniqueConstraints = @UniqueConstraint(
+                columnNames = {"student_id", "academic_year_id"},
+                name = "uk_attendance_bitmap_student_year"
+        ),
+        indexes = {
+            @Index(name = "idx_attendance_bitmap_school", columnList = "school_id, academic_year_id")
+        })
+public class StudentAttendanceBitmap extends BaseEntity {
+
+    public static final int SLOTS_PER_DAY = 32;
+    public static final int DAYS_PER_YEAR = 366;
+    public static final int BITMAP_BYTES = DAYS_PER_YEAR * SLOTS_PER_DAY / 8;
+
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "academic_year_id", nullable = false)
+    private Long academicYearId;
+
+    @Column(name = "year_start_date", nullable = false)
+    private LocalDate yearStartDate;
+
+    @Column(name = "present_bits", nullable = false)
+    private byte[] presentBits;
+
+    @Column(name = "absent_bits", nullable = false)
+    private byte[] absentBits;
+
+    @Column(name = "late_bits", nullable = false)
+    private byte[] lateBits;
+
+    @Column(name = "other_bits", nullable = false)
+    private byte[] otherBits; // EXCUSED, SICK_LEAVE and any other status
+
+    // Constructors
+    public StudentAttendanceBitmap() {}
+
+    /**
+     * Session ordinal for a date and slot, or -1 when it falls outside the bitmap
+     */
+    public static int ordinalOf(LocalDate yearStartDate, LocalDate sessionDate, Integer slotOrder) {
+        long dayIndex = ChronoUnit.DAYS.between(yearStartDate, sessionDate);
+        if (slotOrder == null || slotOrder < 0 || slotOrder >= SLOTS_PER_DAY
+                || dayIndex < 0 || dayIndex >= DAYS_PER_YEAR) {
+            return -1;
+        }
+        return (int) dayIndex * SLOTS_PER_DAY + slotOrder;
+    }
+
+    /**
+     * Bitmap index for a status: 0 = present, 1 = absent, 2 = late, 3 = other
+     */
+    public static int statusIndex(String attendanceStatus) {
+        if ("PRESENT".equalsIgnoreCase(attendanceStatus)) {
+            return 0;
+        }
+        if ("ABSENT".equalsIgnoreCase(attendanceStatus)) {
+            return 1;
+        }
+        if ("LATE".equalsIgnoreCase(attendanceStatus)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    // Getters and Setters
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public LocalDate getYearStartDate() {
+        return yearStartDate;
+    }
+
+    public void setYearStartDate(LocalDate yearStartDate) {
+        this.yearStartDate = yearStartDate;
+    }
+
+    public byte[] getPresentBits() {
+        return presentBits;
+    }
+
+    public void setPresentBits(byte[] presentBits) {
+        this.presentBits = presentBits;
+    }
+
+    public byte[] getAbsentBits() {
+        return absentBits;
+    }
+
+    public void setAbsentBits(byte[] absentBits) {
+        this.absentBits = absentBits;
+    }
+
+    public byte[] getLateBits() {
+        return lateBits;
+    }
+
+    public void setLateBits(byte[] lateBits) {
+        this.lateBits = lateBits;
+    }
+
+    public byte[] getOtherBits() {
+        return otherBits;
+    }
+
+    public void setOtherBits(byte[] otherBits) {
+        this.otherBits = otherBits;
+    }
+}
@@ -0,0 +1,110 @@
+package org.sma.jpa.model.routine;
+
+import org.sma.jpa.model.BaseEntity;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Student Attendance Rollup - Pre-aggregated attendance counts by status
+ * One row per (scope, period bucket, status); scope is a student or a section,
+ * period is a single day or a calendar month (period_start = first day of month).
+ * Maintained incrementally by the attendance write paths.
+ */
+@Entity
+@Table(name = "student_attendance_rollup", schema = "sma_admin",
+        uniqueConstraints = @UniqueConstraint(
+                columnNames = {"scope_type", "scope_id", "period_type", "period_start", "attendance_status"},
+                name = "uk_attendance_rollup_bucket"
+        ),
+        indexes = {
+            @Index(name = "idx_attendance_rollup_school", columnList = "school_id")
+        })
+public class StudentAttendanceRollup extends BaseEntity {
+
+    public static final String SCOPE_STUDENT = "STUDENT";
+    public static final String SCOPE_SECTION = "SECTION";
+    public static final String PERIOD_DAY = "DAY";
+    public static final String PERIOD_MONTH = "MONTH";
+
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
+    @Column(name = "scope_type", nullable = false, length = 20)
+    private String scopeType; // STUDENT, SECTION
+
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId; // Student ID or Section ID
+
+    @Column(name = "period_type", nullable = false, length = 10)
+    private String periodType; // DAY, MONTH
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "attendance_status", nullable = false, length = 20)
+    private String attendanceStatus;
+
+    @Column(name = "session_count", nullable = false)
+    private Long sessionCount = 0L;
+
+    // Constructors
+    public StudentAttendanceRollup() {}
+
+    // Getters and Setters
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public String getScopeType() {
+        return scopeType;
+    }
+
+    public void setScopeType(String scopeType) {
+        this.scopeType = scopeType;
+    }
+
+    public Long getScopeId() {
+        return scopeId;
+    }
+
+    public void setScopeId(Long scopeId) {
+        this.scopeId = scopeId;
+    }
+
+    public String getPeriodType() {
+        return periodType;
+    }
+
+    public void setPeriodType(String periodType) {
+        this.periodType = periodType;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public String getAttendanceStatus() {
+        return attendanceStatus;
+    }
+
+    public void setAttendanceStatus(String attendanceStatus) {
+        this.attendanceStatus = attendanceStatus;
+    }
+
+    public Long getSessionCount() {
+        return sessionCount;
+    }
+
+    public void setSessionCount(Long sessionCount) {
+        this.sessionCount = sessionCount;
+    }
+}
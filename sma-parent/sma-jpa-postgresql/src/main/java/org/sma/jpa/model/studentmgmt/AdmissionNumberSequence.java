@@ -0,0 +1,54 @@
+package org.sma.jpa.model.studentmgmt;
+
+import org.sma.jpa.model.BaseEntity;
+
+import javax.persistence.*;
+
+/**
+ * AdmissionNumberSequence entity - per school, per admission year high-water mark of
+ * allocated admission numbers
+ * Application nodes reserve blocks of numbers by advancing nextValue, then hand them
+ * out from memory, so no two nodes ever hold the same number.
+ */
+@Entity
+@Table(name = "admission_number_sequence", schema = "sma_student",
+    uniqueConstraints = @UniqueConstraint(
+        columnNames = {"school_id", "admission_year"},
+        name = "uk_admission_number_sequence_school_year"
+    ))
+public class AdmissionNumberSequence extends BaseEntity {
+
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
+    @Column(name = "admission_year", nullable = false)
+    private Integer admissionYear;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue = 1L; // First number not yet reserved by any node
+
+    // Getters and Setters
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public Integer getAdmissionYear() {
+        return admissionYear;
+    }
+
+    public void setAdmissionYear(Integer admissionYear) {
+        this.admissionYear = admissionYear;
+    }
+
+    public Long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(Long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
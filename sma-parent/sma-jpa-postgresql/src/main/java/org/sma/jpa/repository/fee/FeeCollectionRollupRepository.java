@@ -0,0 +1,58 @@
+package org.sma.jpa.repository.fee;
+
+import org.sma.jpa.model.fee.FeeCollectionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for FeeCollectionRollup
+ * Range totals combine MONTH buckets for fully covered months with DAY buckets
+ * for the partial head and tail of the range; an unused range is passed with start after end.
+ */
+@Repository
+public interface FeeCollectionRollupRepository extends JpaRepository<FeeCollectionRollup, Long>,
+        FeeCollectionRollupRepositoryCustom {
+
+    /**
+     * Returns list of Object[] with [scopeKey, amountPaid, discountAmount, paymentCount]
+     */
+    @Query("SELECT r.scopeKey, SUM(r.amountPaid), SUM(r.discountAmount), SUM(r.paymentCount) " +
+           "FROM FeeCollectionRollup r " +
+           "WHERE r.schoolId = :schoolId " +
+           "AND r.scopeType = :scopeType " +
+           "AND ((r.periodType = 'MONTH' AND r.periodStart BETWEEN :monthStart AND :monthEnd) " +
+           "OR (r.periodType = 'DAY' AND (r.periodStart BETWEEN :headStart AND :headEnd " +
+           "OR r.periodStart BETWEEN :tailStart AND :tailEnd))) " +
+           "GROUP BY r.scopeKey " +
+           "HAVING SUM(r.paymentCount) > 0")
+    List<Object[]> summarizeByScope(
+            @Param("schoolId") Long schoolId,
+            @Param("scopeType") String scopeType,
+            @Param("headStart") LocalDate headStart,
+            @Param("headEnd") LocalDate headEnd,
+            @Param("monthStart") LocalDate monthStart,
+            @Param("monthEnd") LocalDate monthEnd,
+            @Param("tailStart") LocalDate tailStart,
+            @Param("tailEnd") LocalDate tailEnd);
+
+    @Query("SELECT r FROM FeeCollectionRollup r " +
+           "WHERE r.schoolId = :schoolId " +
+           "AND r.scopeType = :scopeType " +
+           "AND r.periodType = :periodType " +
+           "AND r.periodStart BETWEEN :startDate AND :endDate " +
+           "AND (:scopeKey IS NULL OR r.scopeKey = :scopeKey) " +
+           "AND r.paymentCount > 0 " +
+           "ORDER BY r.periodStart, r.scopeKey")
+    List<FeeCollectionRollup> findSeries(
+            @Param("schoolId") Long schoolId,
+            @Param("scopeType") String scopeType,
+            @Param("periodType") String periodType,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("scopeKey") String scopeKey);
+}
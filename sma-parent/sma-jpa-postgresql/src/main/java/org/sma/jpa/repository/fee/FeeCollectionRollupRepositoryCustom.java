@@ -0,0 +1,30 @@
+package org.sma.jpa.repository.fee;
+
+import org.sma.jpa.model.fee.FeeCollectionRollup;
+
+import java.util.List;
+
+/**
+ * Set-based maintenance operations for FeeCollectionRollup
+ */
+public interface FeeCollectionRollupRepositoryCustom {
+
+    /**
+     * Add each row's amounts and paymentCount (may be negative) to its bucket in a single
+     * JDBC batch, creating buckets that do not exist yet
+     */
+    int[] mergeTotals(List<FeeCollectionRollup> deltas);
+
+    /**
+     * Drop and recompute every bucket of a school from raw student_fee_payment rows
+     * Returns the number of buckets written
+     */
+    int rebuildForSchool(Long schoolId);
+
+    /**
+     * Advisory lock on a school's collection buckets, released at commit. Payment writers
+     * share it because their merged deltas commute; a rebuild holds it exclusive, since a
+     * delta merged while buckets are deleted and re-summed would be lost or counted twice.
+     */
+    void lockSchool(Long schoolId, boolean exclusive);
+}
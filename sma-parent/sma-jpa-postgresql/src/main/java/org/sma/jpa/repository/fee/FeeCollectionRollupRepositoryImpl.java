@@ -0,0 +1,124 @@
+package org.sma.jpa.repository.fee;
+
+import org.sma.jpa.model.fee.FeeCollectionRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link FeeCollectionRollupRepositoryCustom}
+ */
+public class FeeCollectionRollupRepositoryImpl implements FeeCollectionRollupRepositoryCustom {
+
+    // Namespace for pg advisory locks taken on behalf of fee collection rollups
+    private static final int ROLLUP_LOCK_NAMESPACE = 0x5A03;
+
+    private static final String MERGE_SQL =
+            "INSERT INTO sma_admin.fee_collection_rollup " +
+            "(school_id, scope_type, scope_key, period_type, period_start, amount_paid, discount_amount, " +
+            "payment_count, created_at, is_active, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, true, false) " +
+            "ON CONFLICT (school_id, scope_type, scope_key, period_type, period_start) DO UPDATE SET " +
+            "amount_paid = fee_collection_rollup.amount_paid + EXCLUDED.amount_paid, " +
+            "discount_amount = fee_collection_rollup.discount_amount + EXCLUDED.discount_amount, " +
+            "payment_count = fee_collection_rollup.payment_count + EXCLUDED.payment_count, " +
+            "updated_at = EXCLUDED.created_at";
+
+    private static final String DELETE_SCHOOL_SQL =
+            "DELETE FROM sma_admin.fee_collection_rollup WHERE school_id = ?";
+
+    // Payments with their category and the class/section stored on the payment when it was applied
+    private static final String BASE_SQL =
+            "SELECT p.school_id, p.amount_paid, COALESCE(p.discount_amount, 0) AS discount_amount, " +
+            "CAST(p.paid_on AS date) AS paid_date, " +
+            "COALESCE(p.payment_mode, '" + FeeCollectionRollup.MODE_UNSPECIFIED + "') AS payment_mode, " +
+            "fp.category_id, p.class_id, p.section_id " +
+            "FROM sma_admin.student_fee_payment p " +
+            "JOIN sma_admin.fee_installment fi ON fi.id = p.fee_installment_id " +
+            "JOIN sma_admin.fee_plan fp ON fp.id = fi.fee_plan_id " +
+            "WHERE p.school_id = ?";
+
+    // %1$s = scope type, %2$s = scope expression, %3$s = period type, %4$s = period expression
+    private static final String REBUILD_SQL_TEMPLATE =
+            "INSERT INTO sma_admin.fee_collection_rollup " +
+            "(school_id, scope_type, scope_key, period_type, period_start, amount_paid, discount_amount, " +
+            "payment_count, created_at, is_active, is_deleted) " +
+            "SELECT b.school_id, '%1$s', CAST(%2$s AS varchar), '%3$s', %4$s, SUM(b.amount_paid), " +
+            "SUM(b.discount_amount), COUNT(*), now(), true, false " +
+            "FROM (" + BASE_SQL + ") b " +
+            "WHERE %2$s IS NOT NULL " +
+            "GROUP BY b.school_id, %2$s, %4$s";
+
+    private static final String DAY_EXPR = "b.paid_date";
+    private static final String MONTH_EXPR = "CAST(date_trunc('month', b.paid_date) AS date)";
+
+    private static final String[][] SCOPES = {
+            {FeeCollectionRollup.SCOPE_SCHOOL, "b.school_id"},
+            {FeeCollectionRollup.SCOPE_CLASS, "b.class_id"},
+            {FeeCollectionRollup.SCOPE_SECTION, "b.section_id"},
+            {FeeCollectionRollup.SCOPE_CATEGORY, "b.category_id"},
+            {FeeCollectionRollup.SCOPE_MODE, "b.payment_mode"}
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] mergeTotals(List<FeeCollectionRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        for (FeeCollectionRollup delta : deltas) {
+            batchArgs.add(new Object[]{
+                    delta.getSchoolId(),
+                    delta.getScopeType(),
+                    delta.getScopeKey(),
+                    delta.getPeriodType(),
+                    Date.valueOf(delta.getPeriodStart()),
+                    delta.getAmountPaid(),
+                    delta.getDiscountAmount(),
+                    delta.getPaymentCount(),
+                    now
+            });
+        }
+
+        int[] argTypes = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DATE,
+                Types.NUMERIC, Types.NUMERIC, Types.BIGINT, Types.TIMESTAMP};
+        return jdbcTemplate.batchUpdate(MERGE_SQL, batchArgs, argTypes);
+    }
+
+    @Override
+    public int rebuildForSchool(Long schoolId) {
+        jdbcTemplate.update(DELETE_SCHOOL_SQL, schoolId);
+
+        int written = 0;
+        for (String[] scope : SCOPES) {
+            written += jdbcTemplate.update(rebuildSql(scope[0], scope[1],
+                    FeeCollectionRollup.PERIOD_DAY, DAY_EXPR), schoolId);
+            written += jdbcTemplate.update(rebuildSql(scope[0], scope[1],
+                    FeeCollectionRollup.PERIOD_MONTH, MONTH_EXPR), schoolId);
+        }
+        return written;
+    }
+
+    @Override
+    public void lockSchool(Long schoolId, boolean exclusive) {
+        String sql = exclusive
+                ? "SELECT pg_advisory_xact_lock(?, ?)"
+                : "SELECT pg_advisory_xact_lock_shared(?, ?)";
+        jdbcTemplate.queryForList(sql, ROLLUP_LOCK_NAMESPACE, schoolId.intValue());
+    }
+
+    private String rebuildSql(String scopeType, String scopeExpr, String periodType, String periodExpr) {
+        return String.format(REBUILD_SQL_TEMPLATE, scopeType, scopeExpr, periodType, periodExpr);
+    }
+}
@@ -3,8 +3,11 @@ package org.sma.jpa.repository.fee;
 import org.sma.jpa.model.fee.FeeInstallment;
 import org.sma.jpa.model.fee.FeePlan;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,11 +15,27 @@ import java.util.Optional;
  * Repository for FeeInstallment entity
  */
 @Repository
-public interface FeeInstallmentRepository extends JpaRepository<FeeInstallment, Long> {
+public interface FeeInstallmentRepository extends JpaRepository<FeeInstallment, Long>,
+        FeeInstallmentRepositoryCustom {
     
     List<FeeInstallment> findByFeePlanOrderByInstallmentNo(FeePlan feePlan);
     
     List<FeeInstallment> findByFeePlanAndStatus(FeePlan feePlan, String status);
     
     Optional<FeeInstallment> findByFeePlanAndInstallmentNo(FeePlan feePlan, Integer installmentNo);
+
+    /**
+     * Installments of several plans in one query, grouped by plan and ordered by installment number
+     */
+    @Query("SELECT fi FROM FeeInstallment fi WHERE fi.feePlan.id IN :planIds " +
+           "ORDER BY fi.feePlan.id, fi.installmentNo")
+    List<FeeInstallment> findByFeePlanIds(@Param("planIds") Collection<Long> planIds);
+
+    /**
+     * Installments with their fee plan, restricted to plans of the given school
+     */
+    @Query("SELECT fi FROM FeeInstallment fi JOIN FETCH fi.feePlan fp " +
+           "WHERE fi.id IN :ids AND fp.school.id = :schoolId")
+    List<FeeInstallment> findBySchoolIdAndIdIn(@Param("schoolId") Long schoolId,
+                                               @Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,17 @@
+package org.sma.jpa.repository.fee;
+
+import org.sma.jpa.model.fee.FeeInstallment;
+
+import java.util.List;
+
+/**
+ * Set-based write operations for FeeInstallment that bypass per-row JPA saves
+ */
+public interface FeeInstallmentRepositoryCustom {
+
+    /**
+     * Insert new installments in a single JDBC batch
+     * The fee plan only needs its id set.
+     */
+    int[] insertAll(List<FeeInstallment> installments);
+}
@@ -0,0 +1,54 @@
+package org.sma.jpa.repository.fee;
+
+import org.sma.jpa.model.fee.FeeInstallment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link FeeInstallmentRepositoryCustom}
+ */
+public class FeeInstallmentRepositoryImpl implements FeeInstallmentRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sma_admin.fee_installment " +
+            "(fee_plan_id, installment_no, installment_name, period_start_date, period_end_date, amount_due, " +
+            "due_date, status, created_at, is_active, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, true, false)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] insertAll(List<FeeInstallment> installments) {
+        if (installments.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(installments.size());
+        for (FeeInstallment installment : installments) {
+            batchArgs.add(new Object[]{
+                    installment.getFeePlan().getId(),
+                    installment.getInstallmentNo(),
+                    installment.getInstallmentName(),
+                    Date.valueOf(installment.getPeriodStartDate()),
+                    Date.valueOf(installment.getPeriodEndDate()),
+                    installment.getAmountDue(),
+                    installment.getDueDate() != null ? Date.valueOf(installment.getDueDate()) : null,
+                    installment.getStatus(),
+                    now
+            });
+        }
+
+        int[] argTypes = {Types.BIGINT, Types.INTEGER, Types.VARCHAR, Types.DATE, Types.DATE,
+                Types.NUMERIC, Types.DATE, Types.VARCHAR, Types.TIMESTAMP};
+        return jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs, argTypes);
+    }
+}
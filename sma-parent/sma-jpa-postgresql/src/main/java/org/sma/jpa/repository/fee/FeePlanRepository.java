@@ -3,9 +3,13 @@ package org.sma.jpa.repository.fee;
 import org.sma.jpa.model.fee.FeePlan;
 import org.sma.jpa.model.school.SchoolProfile;
 import org.sma.jpa.model.school.AcademicYear;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +24,44 @@ public interface FeePlanRepository extends JpaRepository<FeePlan, Long> {
     List<FeePlan> findBySchoolAndAcademicYearAndStatus(SchoolProfile school, AcademicYear academicYear, String status);
     
     Optional<FeePlan> findBySchoolAndAcademicYearAndCategory_Id(SchoolProfile school, AcademicYear academicYear, Long categoryId);
+
+    /**
+     * One keyset page of a school's fee plans in id order
+     * Pass the last id of the previous page as afterId, or null for the first page.
+     * Status is compared upper-cased; pass null for all statuses.
+     */
+    @Query("SELECT fp.id AS id, fp.school.id AS schoolId, ay.id AS academicYearId, ay.yearName AS academicYearName, " +
+           "c.id AS categoryId, c.categoryName AS categoryName, c.categoryCode AS categoryCode, " +
+           "fp.totalAmount AS totalAmount, fp.frequency AS frequency, " +
+           "fp.installmentsCount AS installmentsCount, fp.status AS status " +
+           "FROM FeePlan fp JOIN fp.academicYear ay JOIN fp.category c " +
+           "WHERE fp.school.id = :schoolId " +
+           "AND (:academicYearId IS NULL OR ay.id = :academicYearId) " +
+           "AND (:categoryId IS NULL OR c.id = :categoryId) " +
+           "AND (:status IS NULL OR UPPER(fp.status) = :status) " +
+           "AND (:afterId IS NULL OR fp.id > :afterId) " +
+           "ORDER BY fp.id")
+    List<FeePlanListRow> findPlanPage(@Param("schoolId") Long schoolId,
+                                      @Param("academicYearId") Long academicYearId,
+                                      @Param("categoryId") Long categoryId,
+                                      @Param("status") String status,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    /**
+     * Projection of one fee plan with its academic year and category fields
+     */
+    interface FeePlanListRow {
+        Long getId();
+        Long getSchoolId();
+        Long getAcademicYearId();
+        String getAcademicYearName();
+        Long getCategoryId();
+        String getCategoryName();
+        String getCategoryCode();
+        BigDecimal getTotalAmount();
+        String getFrequency();
+        Integer getInstallmentsCount();
+        String getStatus();
+    }
 }
@@ -0,0 +1,18 @@
+package org.sma.jpa.repository.fee;
+
+import org.sma.jpa.model.fee.FeeReminderCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Repository for FeeReminderCheckpoint
+ */
+@Repository
+public interface FeeReminderCheckpointRepository extends JpaRepository<FeeReminderCheckpoint, Long>,
+        FeeReminderCheckpointRepositoryCustom {
+
+    Optional<FeeReminderCheckpoint> findBySchoolIdAndRunDate(Long schoolId, LocalDate runDate);
+}
@@ -0,0 +1,13 @@
+package org.sma.jpa.repository.fee;
+
+/**
+ * Locking operations for FeeReminderCheckpoint that JPA cannot express
+ */
+public interface FeeReminderCheckpointRepositoryCustom {
+
+    /**
+     * Try to take the transaction-scoped reminder claim for a school without waiting
+     * Returns false when another node's reminder run already holds it.
+     */
+    boolean tryClaimSchool(Long schoolId);
+}
@@ -0,0 +1,23 @@
+package org.sma.jpa.repository.fee;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC backed implementation of {@link FeeReminderCheckpointRepositoryCustom}
+ */
+public class FeeReminderCheckpointRepositoryImpl implements FeeReminderCheckpointRepositoryCustom {
+
+    // Namespace for pg advisory locks claiming a school's fee reminder run
+    private static final int REMINDER_LOCK_NAMESPACE = 0x5A06;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean tryClaimSchool(Long schoolId) {
+        Boolean claimed = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?, ?)", Boolean.class,
+                REMINDER_LOCK_NAMESPACE, schoolId.intValue());
+        return Boolean.TRUE.equals(claimed);
+    }
+}
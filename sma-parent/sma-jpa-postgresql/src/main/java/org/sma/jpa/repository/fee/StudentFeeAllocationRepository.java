@@ -0,0 +1,18 @@
+package org.sma.jpa.repository.fee;
+
+import org.sma.jpa.model.fee.StudentFeeAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for StudentFeeAllocation
+ */
+@Repository
+public interface StudentFeeAllocationRepository extends JpaRepository<StudentFeeAllocation, Long>,
+        StudentFeeAllocationRepositoryCustom {
+
+    List<StudentFeeAllocation> findBySchoolIdAndStudentIdAndAcademicYearIdOrderByFeeInstallmentId(
+            Long schoolId, Long studentId, Long academicYearId);
+}
@@ -0,0 +1,68 @@
+package org.sma.jpa.repository.fee;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Set-based write operations for StudentFeeAllocation
+ */
+public interface StudentFeeAllocationRepositoryCustom {
+
+    /**
+     * Allocate every installment of a fee plan to each student actively enrolled in one
+     * class section of the plan's academic year, in a single statement
+     * Re-running refreshes amounts from the plan and leaves discounts and exemptions in place.
+     */
+    int allocateSection(Long feePlanId, Long classId, Long sectionId);
+
+    /**
+     * Apply per-student discounts and exemptions to a plan's allocations as one JDBC batch
+     */
+    int[] applyAdjustments(Long feePlanId, List<Adjustment> adjustments);
+
+    /**
+     * Bring a plan's allocations in line with its current installments: rows of removed
+     * installments are deleted, students already on the plan get the added installments with
+     * their existing discount or exemption, and changed amounts are re-priced
+     * Installment changes must be flushed first.
+     */
+    int refreshPlan(Long feePlanId);
+
+    /**
+     * Delete every allocation of a plan, ahead of deleting the plan itself
+     */
+    int deletePlan(Long feePlanId);
+
+    /**
+     * Discount or exemption of one student across all installments of a plan
+     */
+    class Adjustment {
+        private final Long studentId;
+        private final BigDecimal discountPercent;
+        private final boolean exempted;
+        private final String remarks;
+
+        public Adjustment(Long studentId, BigDecimal discountPercent, boolean exempted, String remarks) {
+            this.studentId = studentId;
+            this.discountPercent = discountPercent;
+            this.exempted = exempted;
+            this.remarks = remarks;
+        }
+
+        public Long getStudentId() {
+            return studentId;
+        }
+
+        public BigDecimal getDiscountPercent() {
+            return discountPercent;
+        }
+
+        public boolean isExempted() {
+            return exempted;
+        }
+
+        public String getRemarks() {
+            return remarks;
+        }
+    }
+}
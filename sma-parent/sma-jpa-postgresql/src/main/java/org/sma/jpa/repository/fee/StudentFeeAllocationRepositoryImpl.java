@@ -0,0 +1,130 @@
+package org.sma.jpa.repository.fee;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link StudentFeeAllocationRepositoryCustom}
+ */
+public class StudentFeeAllocationRepositoryImpl implements StudentFeeAllocationRepositoryCustom {
+
+    // Enrolled students of the section x installments of the plan; conflicts only rewrite rows
+    // whose placement or amount changed, so an unchanged re-run writes nothing
+    private static final String ALLOCATE_SECTION_SQL =
+            "INSERT INTO sma_admin.student_fee_allocation " +
+            "(school_id, academic_year_id, fee_plan_id, fee_installment_id, student_id, class_id, section_id, " +
+            "amount_due, discount_percent, discount_amount, is_exempted, allocation_status, " +
+            "created_at, is_active, is_deleted) " +
+            "SELECT fp.school_id, fp.academic_year_id, fp.id, fi.id, s.student_id, s.class_id, s.section_id, " +
+            "fi.amount_due, 0, 0, false, 'ALLOCATED', ?, true, false " +
+            "FROM sma_admin.fee_plan fp " +
+            "JOIN sma_admin.fee_installment fi ON fi.fee_plan_id = fp.id " +
+            "JOIN (SELECT DISTINCT scsm.student_id, scsm.class_id, scsm.section_id, scsm.school_id, " +
+            "scsm.academic_year_id FROM sma_student.student_class_section_mapping scsm " +
+            "WHERE scsm.class_id = ? AND scsm.section_id = ? AND scsm.is_active = true) s " +
+            "ON s.school_id = fp.school_id AND s.academic_year_id = fp.academic_year_id " +
+            "WHERE fp.id = ? " +
+            "ON CONFLICT (student_id, fee_installment_id) DO UPDATE SET " +
+            "class_id = EXCLUDED.class_id, section_id = EXCLUDED.section_id, amount_due = EXCLUDED.amount_due, " +
+            "discount_amount = CASE WHEN student_fee_allocation.is_exempted THEN EXCLUDED.amount_due " +
+            "ELSE ROUND(EXCLUDED.amount_due * student_fee_allocation.discount_percent / 100, 2) END, " +
+            "updated_at = EXCLUDED.created_at " +
+            "WHERE student_fee_allocation.amount_due <> EXCLUDED.amount_due " +
+            "OR student_fee_allocation.class_id <> EXCLUDED.class_id " +
+            "OR student_fee_allocation.section_id <> EXCLUDED.section_id";
+
+    private static final String ADJUST_SQL =
+            "UPDATE sma_admin.student_fee_allocation SET discount_percent = ?, " +
+            "discount_amount = CASE WHEN ? THEN amount_due ELSE ROUND(amount_due * ? / 100, 2) END, " +
+            "is_exempted = ?, allocation_status = ?, remarks = ?, updated_at = ? " +
+            "WHERE fee_plan_id = ? AND student_id = ?";
+
+    private static final String DELETE_REMOVED_SQL =
+            "DELETE FROM sma_admin.student_fee_allocation a WHERE a.fee_plan_id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM sma_admin.fee_installment fi " +
+            "WHERE fi.id = a.fee_installment_id AND fi.fee_plan_id = a.fee_plan_id)";
+
+    // One row per student already on the plan, carrying the adjustment of their latest allocation
+    private static final String ALLOCATE_ADDED_SQL =
+            "INSERT INTO sma_admin.student_fee_allocation " +
+            "(school_id, academic_year_id, fee_plan_id, fee_installment_id, student_id, class_id, section_id, " +
+            "amount_due, discount_percent, discount_amount, is_exempted, allocation_status, remarks, " +
+            "created_at, is_active, is_deleted) " +
+            "SELECT s.school_id, s.academic_year_id, s.fee_plan_id, fi.id, s.student_id, s.class_id, s.section_id, " +
+            "fi.amount_due, s.discount_percent, " +
+            "CASE WHEN s.is_exempted THEN fi.amount_due ELSE ROUND(fi.amount_due * s.discount_percent / 100, 2) END, " +
+            "s.is_exempted, s.allocation_status, s.remarks, ?, true, false " +
+            "FROM (SELECT DISTINCT ON (a.student_id) a.* FROM sma_admin.student_fee_allocation a " +
+            "WHERE a.fee_plan_id = ? ORDER BY a.student_id, a.id DESC) s " +
+            "JOIN sma_admin.fee_installment fi ON fi.fee_plan_id = s.fee_plan_id " +
+            "ON CONFLICT (student_id, fee_installment_id) DO NOTHING";
+
+    private static final String REPRICE_SQL =
+            "UPDATE sma_admin.student_fee_allocation a SET amount_due = fi.amount_due, " +
+            "discount_amount = CASE WHEN a.is_exempted THEN fi.amount_due " +
+            "ELSE ROUND(fi.amount_due * a.discount_percent / 100, 2) END, updated_at = ? " +
+            "FROM sma_admin.fee_installment fi " +
+            "WHERE fi.id = a.fee_installment_id AND a.fee_plan_id = ? AND a.amount_due <> fi.amount_due";
+
+    private static final String DELETE_PLAN_SQL =
+            "DELETE FROM sma_admin.student_fee_allocation WHERE fee_plan_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int allocateSection(Long feePlanId, Long classId, Long sectionId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.update(ALLOCATE_SECTION_SQL, now, classId, sectionId, feePlanId);
+    }
+
+    @Override
+    public int[] applyAdjustments(Long feePlanId, List<Adjustment> adjustments) {
+        if (adjustments.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(adjustments.size());
+        for (Adjustment adjustment : adjustments) {
+            BigDecimal percent = adjustment.isExempted() || adjustment.getDiscountPercent() == null
+                    ? BigDecimal.ZERO : adjustment.getDiscountPercent();
+            batchArgs.add(new Object[]{
+                    percent,
+                    adjustment.isExempted(),
+                    percent,
+                    adjustment.isExempted(),
+                    adjustment.isExempted() ? "EXEMPTED" : "ALLOCATED",
+                    adjustment.getRemarks(),
+                    now,
+                    feePlanId,
+                    adjustment.getStudentId()
+            });
+        }
+
+        int[] argTypes = {Types.NUMERIC, Types.BOOLEAN, Types.NUMERIC, Types.BOOLEAN, Types.VARCHAR,
+                Types.VARCHAR, Types.TIMESTAMP, Types.BIGINT, Types.BIGINT};
+        return jdbcTemplate.batchUpdate(ADJUST_SQL, batchArgs, argTypes);
+    }
+
+    @Override
+    public int refreshPlan(Long feePlanId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int touched = jdbcTemplate.update(DELETE_REMOVED_SQL, feePlanId);
+        touched += jdbcTemplate.update(ALLOCATE_ADDED_SQL, now, feePlanId);
+        touched += jdbcTemplate.update(REPRICE_SQL, now, feePlanId);
+        return touched;
+    }
+
+    @Override
+    public int deletePlan(Long feePlanId) {
+        return jdbcTemplate.update(DELETE_PLAN_SQL, feePlanId);
+    }
+}
@@ -0,0 +1,22 @@
+package org.sma.jpa.repository.fee;
+
+import org.sma.jpa.model.fee.StudentFeeBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for StudentFeeBalance
+ */
+@Repository
+public interface StudentFeeBalanceRepository extends JpaRepository<StudentFeeBalance, Long>,
+        StudentFeeBalanceRepositoryCustom {
+
+    List<StudentFeeBalance> findBySchoolIdAndStudentIdAndAcademicYearIdOrderByFeeCategoryId(
+            Long schoolId, Long studentId, Long academicYearId);
+
+    Optional<StudentFeeBalance> findByStudentIdAndAcademicYearIdAndFeeCategoryId(
+            Long studentId, Long academicYearId, Long feeCategoryId);
+}
@@ -0,0 +1,62 @@
+package org.sma.jpa.repository.fee;
+
+import org.sma.jpa.model.fee.StudentFeePayment;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based maintenance operations for StudentFeeBalance
+ */
+public interface StudentFeeBalanceRepositoryCustom {
+
+    /**
+     * Add a payment (or its reversal, with negative amounts) to the student's ledger row
+     * for the installment's academic year and category, creating the row if needed
+     */
+    int applyPayment(Long schoolId, Long studentId, Long feeInstallmentId,
+                     BigDecimal amountPaid, BigDecimal discountAmount);
+
+    /**
+     * Batch form of {@link #applyPayment} for newly inserted payments, one JDBC batch.
+     * Rows of the same student and category are applied in order within the batch.
+     */
+    int[] applyPayments(Long schoolId, List<StudentFeePayment> payments);
+
+    /**
+     * Recompute amount due of every ledger row of a (school, academic year, category) from
+     * its fee plan and allocations, open rows for actively enrolled students that owe the
+     * plan and have none yet, and drop unpaid rows of students who no longer owe it
+     * (plan deleted or emptied, student left out of the plan's allocations)
+     * Returns the number of rows touched
+     */
+    int refreshAmountDue(Long schoolId, Long academicYearId, Long feeCategoryId);
+
+    /**
+     * Bring the ledger rows of students in line with their enrollment: open a row per
+     * planned category of the year they owe for those actively enrolled, and drop rows
+     * without payments of those who are not (withdrawn, transferred out)
+     * Returns the number of rows touched
+     */
+    int syncStudents(Long schoolId, Long academicYearId, Collection<Long> studentIds);
+
+    /**
+     * Count ledger rows of a school that differ from what the raw installment and payment
+     * rows say, including rows that are missing on either side
+     */
+    int countMismatches(Long schoolId);
+
+    /**
+     * Drop and recompute every ledger row of a school from raw rows
+     * Returns the number of rows written
+     */
+    int rebuildForSchool(Long schoolId);
+
+    /**
+     * Advisory lock on a school's ledger, released at commit. Payments, plan refreshes and
+     * enrollment syncs share it; {@link #countMismatches} and {@link #rebuildForSchool} need
+     * it exclusive, or a payment committed in between shows up as drift or gets dropped.
+     */
+    void lockSchool(Long schoolId, boolean exclusive);
+}
@@ -0,0 +1,293 @@
+package org.sma.jpa.repository.fee;
+
+import org.sma.jpa.model.fee.StudentFeePayment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link StudentFeeBalanceRepositoryCustom}
+ */
+public class StudentFeeBalanceRepositoryImpl implements StudentFeeBalanceRepositoryCustom {
+
+    // Namespace for pg advisory locks taken on behalf of the fee ledger
+    private static final int LEDGER_LOCK_NAMESPACE = 0x5A02;
+
+    // Amount due of a category for a year: all installments of the school's plan(s)
+    private static final String PLAN_TOTAL_SQL =
+            "(SELECT COALESCE(SUM(fi.amount_due), 0) FROM sma_admin.fee_installment fi " +
+            "JOIN sma_admin.fee_plan fp ON fp.id = fi.fee_plan_id " +
+            "WHERE fp.school_id = ? AND fp.academic_year_id = ? AND fp.category_id = ?)";
+
+    // Discounts and exemptions a student was allocated in a category for a year, taken off the
+    // plan total; %1$s = student, %2$s = school, %3$s = academic year, %4$s = category
+    private static final String ALLOCATION_DISCOUNT_SQL_TEMPLATE =
+            "(SELECT COALESCE(SUM(sfa.discount_amount), 0) FROM sma_admin.student_fee_allocation sfa " +
+            "JOIN sma_admin.fee_plan sp ON sp.id = sfa.fee_plan_id " +
+            "WHERE sfa.student_id = %1$s AND sp.school_id = %2$s AND sp.academic_year_id = %3$s " +
+            "AND sp.category_id = %4$s)";
+
+    // Whether a student owes a category's plan: everyone enrolled does until the plan has
+    // allocations, from then on only the allocated students; same arguments as above
+    private static final String OWES_PLAN_SQL_TEMPLATE =
+            "(NOT EXISTS (SELECT 1 FROM sma_admin.student_fee_allocation oa " +
+            "JOIN sma_admin.fee_plan op ON op.id = oa.fee_plan_id " +
+            "WHERE op.school_id = %2$s AND op.academic_year_id = %3$s AND op.category_id = %4$s) " +
+            "OR EXISTS (SELECT 1 FROM sma_admin.student_fee_allocation oa " +
+            "JOIN sma_admin.fee_plan op ON op.id = oa.fee_plan_id " +
+            "WHERE oa.student_id = %1$s AND op.school_id = %2$s AND op.academic_year_id = %3$s " +
+            "AND op.category_id = %4$s))";
+
+    private static final String APPLY_PAYMENT_SQL =
+            "INSERT INTO sma_admin.student_fee_balance " +
+            "(school_id, student_id, academic_year_id, fee_category_id, amount_due, amount_paid, discount_amount, " +
+            "created_at, is_active, is_deleted) " +
+            "SELECT fp.school_id, ?, fp.academic_year_id, fp.category_id, CASE WHEN " +
+            String.format(OWES_PLAN_SQL_TEMPLATE, "?", "fp.school_id", "fp.academic_year_id", "fp.category_id") +
+            " THEN (SELECT COALESCE(SUM(ai.amount_due), 0) FROM sma_admin.fee_installment ai " +
+            "JOIN sma_admin.fee_plan ap ON ap.id = ai.fee_plan_id " +
+            "WHERE ap.school_id = fp.school_id AND ap.academic_year_id = fp.academic_year_id " +
+            "AND ap.category_id = fp.category_id) - " +
+            String.format(ALLOCATION_DISCOUNT_SQL_TEMPLATE, "?", "fp.school_id", "fp.academic_year_id",
+                    "fp.category_id") + " ELSE 0 END, ?, ?, ?, true, false " +
+            "FROM sma_admin.fee_installment fi JOIN sma_admin.fee_plan fp ON fp.id = fi.fee_plan_id " +
+            "WHERE fi.id = ? AND fp.school_id = ? " +
+            "ON CONFLICT (student_id, academic_year_id, fee_category_id) DO UPDATE SET " +
+            "amount_paid = student_fee_balance.amount_paid + EXCLUDED.amount_paid, " +
+            "discount_amount = student_fee_balance.discount_amount + EXCLUDED.discount_amount, " +
+            "updated_at = EXCLUDED.created_at";
+
+    private static final String UPDATE_DUE_SQL =
+            "UPDATE sma_admin.student_fee_balance SET amount_due = CASE WHEN " +
+            String.format(OWES_PLAN_SQL_TEMPLATE, "student_fee_balance.student_id",
+                    "student_fee_balance.school_id", "student_fee_balance.academic_year_id",
+                    "student_fee_balance.fee_category_id") + " THEN " + PLAN_TOTAL_SQL + " - " +
+            String.format(ALLOCATION_DISCOUNT_SQL_TEMPLATE, "student_fee_balance.student_id",
+                    "student_fee_balance.school_id", "student_fee_balance.academic_year_id",
+                    "student_fee_balance.fee_category_id") + " ELSE 0 END, updated_at = ? " +
+            "WHERE school_id = ? AND academic_year_id = ? AND fee_category_id = ?";
+
+    private static final String OPEN_ENROLLED_SQL =
+            "INSERT INTO sma_admin.student_fee_balance " +
+            "(school_id, student_id, academic_year_id, fee_category_id, amount_due, amount_paid, discount_amount, " +
+            "created_at, is_active, is_deleted) " +
+            "SELECT e.school_id, e.student_id, e.academic_year_id, e.fee_category_id, " + PLAN_TOTAL_SQL + " - " +
+            String.format(ALLOCATION_DISCOUNT_SQL_TEMPLATE, "e.student_id", "e.school_id", "e.academic_year_id",
+                    "e.fee_category_id") + ", 0, 0, ?, true, false " +
+            "FROM (SELECT DISTINCT scsm.school_id, scsm.student_id, scsm.academic_year_id, " +
+            "CAST(? AS bigint) AS fee_category_id " +
+            "FROM sma_student.student_class_section_mapping scsm " +
+            "WHERE scsm.school_id = ? AND scsm.academic_year_id = ? AND scsm.is_active = true " +
+            "AND EXISTS (SELECT 1 FROM sma_admin.fee_plan fp " +
+            "JOIN sma_admin.fee_installment fi ON fi.fee_plan_id = fp.id " +
+            "WHERE fp.school_id = ? AND fp.academic_year_id = ? AND fp.category_id = ?)) e " +
+            "WHERE " + String.format(OWES_PLAN_SQL_TEMPLATE, "e.student_id", "e.school_id", "e.academic_year_id",
+                    "e.fee_category_id") + " " +
+            "ON CONFLICT (student_id, academic_year_id, fee_category_id) DO NOTHING";
+
+    // Rows for every planned category a student who is actively enrolled in the year owes
+    private static final String OPEN_STUDENT_SQL =
+            "INSERT INTO sma_admin.student_fee_balance " +
+            "(school_id, student_id, academic_year_id, fee_category_id, amount_due, amount_paid, discount_amount, " +
+            "created_at, is_active, is_deleted) " +
+            "SELECT s.school_id, s.student_id, s.academic_year_id, pt.category_id, pt.amount_due - " +
+            String.format(ALLOCATION_DISCOUNT_SQL_TEMPLATE, "s.student_id", "s.school_id", "s.academic_year_id",
+                    "pt.category_id") + ", 0, 0, ?, true, false " +
+            "FROM (SELECT DISTINCT scsm.school_id, scsm.student_id, scsm.academic_year_id " +
+            "FROM sma_student.student_class_section_mapping scsm " +
+            "WHERE scsm.school_id = ? AND scsm.academic_year_id = ? AND scsm.student_id = ? " +
+            "AND scsm.is_active = true) s " +
+            "JOIN (SELECT fp.category_id, SUM(fi.amount_due) AS amount_due " +
+            "FROM sma_admin.fee_plan fp JOIN sma_admin.fee_installment fi ON fi.fee_plan_id = fp.id " +
+            "WHERE fp.school_id = ? AND fp.academic_year_id = ? GROUP BY fp.category_id) pt ON true " +
+            "WHERE " + String.format(OWES_PLAN_SQL_TEMPLATE, "s.student_id", "s.school_id", "s.academic_year_id",
+                    "pt.category_id") + " " +
+            "ON CONFLICT (student_id, academic_year_id, fee_category_id) DO NOTHING";
+
+    // Rows no longer backed by either rule of EXPECTED_SQL: the student has no payments in the
+    // category and is not both actively enrolled in the year and owing its plan;
+    // %s narrows the rows looked at
+    private static final String CLOSE_SQL_TEMPLATE =
+            "DELETE FROM sma_admin.student_fee_balance b WHERE b.school_id = ? AND %s " +
+            "AND NOT EXISTS (SELECT 1 FROM sma_admin.student_fee_payment p " +
+            "JOIN sma_admin.fee_installment fi ON fi.id = p.fee_installment_id " +
+            "JOIN sma_admin.fee_plan fp ON fp.id = fi.fee_plan_id " +
+            "WHERE p.school_id = b.school_id AND p.student_id = b.student_id " +
+            "AND fp.academic_year_id = b.academic_year_id AND fp.category_id = b.fee_category_id) " +
+            "AND NOT (EXISTS (SELECT 1 FROM sma_student.student_class_section_mapping scsm " +
+            "WHERE scsm.school_id = b.school_id AND scsm.student_id = b.student_id " +
+            "AND scsm.academic_year_id = b.academic_year_id AND scsm.is_active = true) " +
+            "AND EXISTS (SELECT 1 FROM sma_admin.fee_plan fp " +
+            "JOIN sma_admin.fee_installment fi ON fi.fee_plan_id = fp.id " +
+            "WHERE fp.school_id = b.school_id AND fp.academic_year_id = b.academic_year_id " +
+            "AND fp.category_id = b.fee_category_id) AND " +
+            String.format(OWES_PLAN_SQL_TEMPLATE, "b.student_id", "b.school_id", "b.academic_year_id",
+                    "b.fee_category_id") + ")";
+
+    private static final String CLOSE_CATEGORY_SQL =
+            String.format(CLOSE_SQL_TEMPLATE, "b.academic_year_id = ? AND b.fee_category_id = ?");
+
+    private static final String CLOSE_STUDENT_SQL =
+            String.format(CLOSE_SQL_TEMPLATE, "b.student_id = ?");
+
+    // Ledger rows as derived from raw rows: every enrolled student owes each planned category
+    // less their allocated discounts (only allocated students, once the plan has allocations),
+    // and any student with payments has a row for the categories they paid into
+    private static final String EXPECTED_SQL =
+            "WITH plan_totals AS (" +
+            "SELECT fp.academic_year_id, fp.category_id, SUM(fi.amount_due) AS amount_due " +
+            "FROM sma_admin.fee_plan fp JOIN sma_admin.fee_installment fi ON fi.fee_plan_id = fp.id " +
+            "WHERE fp.school_id = ? GROUP BY fp.academic_year_id, fp.category_id), " +
+            "paid AS (" +
+            "SELECT p.student_id, fp.academic_year_id, fp.category_id, " +
+            "SUM(p.amount_paid) AS amount_paid, SUM(COALESCE(p.discount_amount, 0)) AS discount_amount " +
+            "FROM sma_admin.student_fee_payment p " +
+            "JOIN sma_admin.fee_installment fi ON fi.id = p.fee_installment_id " +
+            "JOIN sma_admin.fee_plan fp ON fp.id = fi.fee_plan_id " +
+            "WHERE p.school_id = ? GROUP BY p.student_id, fp.academic_year_id, fp.category_id), " +
+            "allocation_discounts AS (" +
+            "SELECT sfa.student_id, sp.academic_year_id, sp.category_id, SUM(sfa.discount_amount) AS discount_amount " +
+            "FROM sma_admin.student_fee_allocation sfa JOIN sma_admin.fee_plan sp ON sp.id = sfa.fee_plan_id " +
+            "WHERE sp.school_id = ? GROUP BY sfa.student_id, sp.academic_year_id, sp.category_id), " +
+            "allocated_plans AS (" +
+            "SELECT DISTINCT academic_year_id, category_id FROM allocation_discounts), " +
+            "ledger_keys AS (" +
+            "SELECT scsm.student_id, pt.academic_year_id, pt.category_id " +
+            "FROM sma_student.student_class_section_mapping scsm " +
+            "JOIN plan_totals pt ON pt.academic_year_id = scsm.academic_year_id " +
+            "LEFT JOIN allocated_plans ap ON ap.academic_year_id = pt.academic_year_id " +
+            "AND ap.category_id = pt.category_id " +
+            "LEFT JOIN allocation_discounts sa ON sa.student_id = scsm.student_id " +
+            "AND sa.academic_year_id = pt.academic_year_id AND sa.category_id = pt.category_id " +
+            "WHERE scsm.school_id = ? AND scsm.is_active = true " +
+            "AND (ap.category_id IS NULL OR sa.student_id IS NOT NULL) " +
+            "UNION SELECT student_id, academic_year_id, category_id FROM paid) " +
+            "SELECT k.student_id, k.academic_year_id, k.category_id AS fee_category_id, " +
+            "CASE WHEN ap.category_id IS NULL OR ad.student_id IS NOT NULL " +
+            "THEN COALESCE(pt.amount_due, 0) - COALESCE(ad.discount_amount, 0) ELSE 0 END AS amount_due, " +
+            "COALESCE(pd.amount_paid, 0) AS amount_paid, " +
+            "COALESCE(pd.discount_amount, 0) AS discount_amount " +
+            "FROM ledger_keys k " +
+            "LEFT JOIN plan_totals pt ON pt.academic_year_id = k.academic_year_id AND pt.category_id = k.category_id " +
+            "LEFT JOIN paid pd ON pd.student_id = k.student_id AND pd.academic_year_id = k.academic_year_id " +
+            "AND pd.category_id = k.category_id " +
+            "LEFT JOIN allocation_discounts ad ON ad.student_id = k.student_id " +
+            "AND ad.academic_year_id = k.academic_year_id AND ad.category_id = k.category_id " +
+            "LEFT JOIN allocated_plans ap ON ap.academic_year_id = k.academic_year_id " +
+            "AND ap.category_id = k.category_id";
+
+    private static final String COUNT_MISMATCHES_SQL =
+            "SELECT COUNT(*) FROM (" + EXPECTED_SQL + ") e " +
+            "FULL OUTER JOIN (SELECT * FROM sma_admin.student_fee_balance WHERE school_id = ?) b " +
+            "ON b.student_id = e.student_id AND b.academic_year_id = e.academic_year_id " +
+            "AND b.fee_category_id = e.fee_category_id " +
+            "WHERE e.student_id IS NULL OR b.id IS NULL " +
+            "OR b.amount_due <> e.amount_due OR b.amount_paid <> e.amount_paid " +
+            "OR b.discount_amount <> e.discount_amount";
+
+    private static final String DELETE_SCHOOL_SQL =
+            "DELETE FROM sma_admin.student_fee_balance WHERE school_id = ?";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO sma_admin.student_fee_balance " +
+            "(school_id, student_id, academic_year_id, fee_category_id, amount_due, amount_paid, discount_amount, " +
+            "created_at, is_active, is_deleted) " +
+            "SELECT ?, e.student_id, e.academic_year_id, e.fee_category_id, e.amount_due, e.amount_paid, " +
+            "e.discount_amount, now(), true, false FROM (" + EXPECTED_SQL + ") e";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int applyPayment(Long schoolId, Long studentId, Long feeInstallmentId,
+                            BigDecimal amountPaid, BigDecimal discountAmount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.update(APPLY_PAYMENT_SQL, studentId, studentId, studentId, amountPaid, discountAmount,
+                now, feeInstallmentId, schoolId);
+    }
+
+    @Override
+    public int[] applyPayments(Long schoolId, List<StudentFeePayment> payments) {
+        if (payments.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(payments.size());
+        for (StudentFeePayment payment : payments) {
+            batchArgs.add(new Object[]{
+                    payment.getStudent().getId(),
+                    payment.getStudent().getId(),
+                    payment.getStudent().getId(),
+                    payment.getAmountPaid(),
+                    payment.getDiscountAmount() != null ? payment.getDiscountAmount() : BigDecimal.ZERO,
+                    now,
+                    payment.getFeeInstallment().getId(),
+                    schoolId
+            });
+        }
+        return jdbcTemplate.batchUpdate(APPLY_PAYMENT_SQL, batchArgs);
+    }
+
+    @Override
+    public int refreshAmountDue(Long schoolId, Long academicYearId, Long feeCategoryId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int touched = jdbcTemplate.update(UPDATE_DUE_SQL, schoolId, academicYearId, feeCategoryId, now,
+                schoolId, academicYearId, feeCategoryId);
+        touched += jdbcTemplate.update(OPEN_ENROLLED_SQL, schoolId, academicYearId, feeCategoryId, now,
+                feeCategoryId, schoolId, academicYearId, schoolId, academicYearId, feeCategoryId);
+        touched += jdbcTemplate.update(CLOSE_CATEGORY_SQL, schoolId, academicYearId, feeCategoryId);
+        return touched;
+    }
+
+    @Override
+    public int syncStudents(Long schoolId, Long academicYearId, Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> openArgs = new ArrayList<>(studentIds.size());
+        List<Object[]> closeArgs = new ArrayList<>(studentIds.size());
+        for (Long studentId : studentIds) {
+            openArgs.add(new Object[]{now, schoolId, academicYearId, studentId, schoolId, academicYearId});
+            closeArgs.add(new Object[]{schoolId, studentId});
+        }
+
+        int touched = 0;
+        for (int count : jdbcTemplate.batchUpdate(OPEN_STUDENT_SQL, openArgs)) {
+            touched += Math.max(count, 0);
+        }
+        for (int count : jdbcTemplate.batchUpdate(CLOSE_STUDENT_SQL, closeArgs)) {
+            touched += Math.max(count, 0);
+        }
+        return touched;
+    }
+
+    @Override
+    public int countMismatches(Long schoolId) {
+        Integer count = jdbcTemplate.queryForObject(COUNT_MISMATCHES_SQL, Integer.class,
+                schoolId, schoolId, schoolId, schoolId, schoolId);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public int rebuildForSchool(Long schoolId) {
+        jdbcTemplate.update(DELETE_SCHOOL_SQL, schoolId);
+        return jdbcTemplate.update(REBUILD_SQL, schoolId, schoolId, schoolId, schoolId, schoolId);
+    }
+
+    @Override
+    public void lockSchool(Long schoolId, boolean exclusive) {
+        String sql = exclusive
+                ? "SELECT pg_advisory_xact_lock(?, ?)"
+                : "SELECT pg_advisory_xact_lock_shared(?, ?)";
+        jdbcTemplate.queryForList(sql, LEDGER_LOCK_NAMESPACE, schoolId.intValue());
+    }
+}
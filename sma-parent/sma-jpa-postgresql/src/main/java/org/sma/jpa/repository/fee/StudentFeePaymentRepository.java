@@ -4,18 +4,29 @@ import org.sma.jpa.model.fee.StudentFeePayment;
 import org.sma.jpa.model.fee.FeeInstallment;
 import org.sma.jpa.model.studentmgmt.StudentProfile;
 import org.sma.jpa.model.school.SchoolProfile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for StudentFeePayment entity
  */
 @Repository
-public interface StudentFeePaymentRepository extends JpaRepository<StudentFeePayment, Long> {
+public interface StudentFeePaymentRepository extends JpaRepository<StudentFeePayment, Long>,
+        StudentFeePaymentRepositoryCustom {
     
     List<StudentFeePayment> findByStudentAndFeeInstallment(StudentProfile student, FeeInstallment feeInstallment);
     
@@ -28,4 +39,180 @@ public interface StudentFeePaymentRepository extends JpaRepository<StudentFeePay
     
     @Query("SELECT sfp FROM StudentFeePayment sfp WHERE sfp.student.id = :studentId AND sfp.feeInstallment.id = :installmentId")
     List<StudentFeePayment> findByStudentIdAndInstallmentId(@Param("studentId") Long studentId, @Param("installmentId") Long installmentId);
+
+    /**
+     * Payment with everything a receipt prints, fetched in one query
+     */
+    @Query("SELECT sfp FROM StudentFeePayment sfp JOIN FETCH sfp.school JOIN FETCH sfp.student " +
+           "JOIN FETCH sfp.feeInstallment fi JOIN FETCH fi.feePlan fp JOIN FETCH fp.category " +
+           "JOIN FETCH fp.academicYear WHERE sfp.id = :paymentId AND sfp.school.id = :schoolId")
+    Optional<StudentFeePayment> findReceiptData(@Param("schoolId") Long schoolId,
+                                                @Param("paymentId") Long paymentId);
+
+    @Query("SELECT DISTINCT sfp.feeInstallment.id FROM StudentFeePayment sfp " +
+           "WHERE sfp.feeInstallment.id IN :installmentIds")
+    List<Long> findPaidInstallmentIds(@Param("installmentIds") Collection<Long> installmentIds);
+
+    @Query("SELECT sfp.paymentRef FROM StudentFeePayment sfp WHERE sfp.school.id = :schoolId " +
+           "AND sfp.paymentRef IN :paymentRefs")
+    List<String> findExistingPaymentRefs(@Param("schoolId") Long schoolId,
+                                         @Param("paymentRefs") Collection<String> paymentRefs);
+
+    /**
+     * One keyset page of a school's payments, newest first (id descending)
+     * Pass the last id of the previous page as beforeId, or null for the first page.
+     */
+    @Query("SELECT sfp.id AS id, sfp.school.id AS schoolId, s.id AS studentId, " +
+           "s.firstName AS firstName, s.lastName AS lastName, fi.id AS feeInstallmentId, " +
+           "fi.installmentName AS installmentName, sfp.amountPaid AS amountPaid, " +
+           "sfp.discountAmount AS discountAmount, sfp.paidOn AS paidOn, sfp.paymentRef AS paymentRef, " +
+           "sfp.paymentMode AS paymentMode, sfp.remarks AS remarks " +
+           "FROM StudentFeePayment sfp JOIN sfp.student s JOIN sfp.feeInstallment fi " +
+           "WHERE sfp.school.id = :schoolId " +
+           "AND (:studentId IS NULL OR s.id = :studentId) " +
+           "AND (:installmentId IS NULL OR fi.id = :installmentId) " +
+           "AND (:paidFrom IS NULL OR sfp.paidOn >= :paidFrom) " +
+           "AND (:paidTo IS NULL OR sfp.paidOn < :paidTo) " +
+           "AND (:beforeId IS NULL OR sfp.id < :beforeId) " +
+           "ORDER BY sfp.id DESC")
+    List<PaymentListRow> findPaymentPage(@Param("schoolId") Long schoolId,
+                                         @Param("studentId") Long studentId,
+                                         @Param("installmentId") Long installmentId,
+                                         @Param("paidFrom") LocalDateTime paidFrom,
+                                         @Param("paidTo") LocalDateTime paidTo,
+                                         @Param("beforeId") Long beforeId,
+                                         Pageable pageable);
+
+    /**
+     * Projection of one payment with the student and installment fields shown in listings
+     */
+    interface PaymentListRow {
+        Long getId();
+        Long getSchoolId();
+        Long getStudentId();
+        String getFirstName();
+        String getLastName();
+        Long getFeeInstallmentId();
+        String getInstallmentName();
+        BigDecimal getAmountPaid();
+        BigDecimal getDiscountAmount();
+        LocalDateTime getPaidOn();
+        String getPaymentRef();
+        String getPaymentMode();
+        String getRemarks();
+    }
+
+    // Amount a student owes on an installment after their allocated discount or exemption
+    String NET_AMOUNT_DUE = "fi.amountDue - COALESCE((SELECT sfa.discountAmount FROM StudentFeeAllocation sfa " +
+            "WHERE sfa.studentId = s.id AND sfa.feeInstallmentId = fi.id), 0)";
+
+    // Once a plan has allocations only the allocated students owe it; exempted and fully
+    // discounted pairs owe nothing
+    String OWES_ON_INSTALLMENT = "(NOT EXISTS (SELECT pa.id FROM StudentFeeAllocation pa " +
+            "WHERE pa.feePlanId = fp.id) OR EXISTS (SELECT ma.id FROM StudentFeeAllocation ma " +
+            "WHERE ma.feePlanId = fp.id AND ma.studentId = s.id)) " +
+            "AND NOT EXISTS (SELECT sfa.id FROM StudentFeeAllocation sfa " +
+            "WHERE sfa.studentId = s.id AND sfa.feeInstallmentId = fi.id AND sfa.discountAmount >= fi.amountDue)";
+
+    String PENDING_PAYMENT_QUERY =
+            "SELECT s.id AS studentId, s.firstName AS firstName, s.lastName AS lastName, " +
+            "s.admissionNo AS admissionNo, scsm.rollNumber AS rollNumber, " +
+            "c.className AS className, sec.sectionName AS sectionName, " +
+            "fi.id AS feeInstallmentId, fi.installmentName AS installmentName, " +
+            "fc.categoryName AS feeCategoryName, " + NET_AMOUNT_DUE + " AS amountDue, fi.dueDate AS dueDate " +
+            "FROM StudentClassSectionMapping scsm JOIN scsm.student s " +
+            "JOIN scsm.classMaster c JOIN scsm.section sec, " +
+            "FeeInstallment fi JOIN fi.feePlan fp JOIN fp.category fc " +
+            "WHERE scsm.school.id = :schoolId AND scsm.academicYear.id = :academicYearId " +
+            "AND scsm.isActive = true " +
+            "AND (:classId IS NULL OR c.id = :classId) " +
+            "AND (:sectionId IS NULL OR sec.id = :sectionId) " +
+            "AND fp.school.id = :schoolId AND fp.academicYear.id = :academicYearId " +
+            "AND fi.dueDate < :asOf " +
+            "AND " + OWES_ON_INSTALLMENT + " " +
+            "AND NOT EXISTS (SELECT p.id FROM StudentFeePayment p " +
+            "WHERE p.student = s AND p.feeInstallment = fi) " +
+            "ORDER BY c.displayOrder, sec.sectionName, scsm.rollNumber, s.id, fi.dueDate, fi.id";
+
+    /**
+     * Overdue (student, installment) pairs with no payment recorded, computed as an anti-join.
+     * Class and section are optional; leaving both null covers the whole school.
+     */
+    @Query(PENDING_PAYMENT_QUERY)
+    Slice<PendingPaymentRow> findPendingPayments(@Param("schoolId") Long schoolId,
+                                                 @Param("academicYearId") Long academicYearId,
+                                                 @Param("classId") Long classId,
+                                                 @Param("sectionId") Long sectionId,
+                                                 @Param("asOf") LocalDate asOf,
+                                                 Pageable pageable);
+
+    /**
+     * Same as {@link #findPendingPayments} but streamed, for callers that want every row.
+     * Must be consumed inside a transaction and closed.
+     */
+    @Query(PENDING_PAYMENT_QUERY)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<PendingPaymentRow> streamPendingPayments(@Param("schoolId") Long schoolId,
+                                                    @Param("academicYearId") Long academicYearId,
+                                                    @Param("classId") Long classId,
+                                                    @Param("sectionId") Long sectionId,
+                                                    @Param("asOf") LocalDate asOf);
+
+    /**
+     * One bounded chunk of overdue unpaid (student, installment) pairs for a school's year,
+     * keyset-ordered by (student, installment) so a scan can resume after any pair.
+     */
+    @Query("SELECT s.id AS studentId, s.firstName AS firstName, s.lastName AS lastName, " +
+           "s.admissionNo AS admissionNo, fi.id AS feeInstallmentId, fi.installmentName AS installmentName, " +
+           "fc.categoryName AS feeCategoryName, " + NET_AMOUNT_DUE + " AS amountDue, fi.dueDate AS dueDate " +
+           "FROM StudentClassSectionMapping scsm JOIN scsm.student s, " +
+           "FeeInstallment fi JOIN fi.feePlan fp JOIN fp.category fc " +
+           "WHERE scsm.school.id = :schoolId AND scsm.academicYear.id = :academicYearId " +
+           "AND scsm.isActive = true " +
+           "AND fp.school.id = :schoolId AND fp.academicYear.id = :academicYearId " +
+           "AND fi.dueDate < :asOf " +
+           "AND (s.id > :afterStudentId OR (s.id = :afterStudentId AND fi.id > :afterInstallmentId)) " +
+           "AND " + OWES_ON_INSTALLMENT + " " +
+           "AND NOT EXISTS (SELECT p.id FROM StudentFeePayment p " +
+           "WHERE p.student = s AND p.feeInstallment = fi) " +
+           "ORDER BY s.id, fi.id")
+    List<OverdueReminderRow> findOverdueChunk(@Param("schoolId") Long schoolId,
+                                              @Param("academicYearId") Long academicYearId,
+                                              @Param("asOf") LocalDate asOf,
+                                              @Param("afterStudentId") Long afterStudentId,
+                                              @Param("afterInstallmentId") Long afterInstallmentId,
+                                              Pageable pageable);
+
+    /**
+     * Projection of one pending (student, installment) pair
+     */
+    interface PendingPaymentRow {
+        Long getStudentId();
+        String getFirstName();
+        String getLastName();
+        String getAdmissionNo();
+        String getRollNumber();
+        String getClassName();
+        String getSectionName();
+        Long getFeeInstallmentId();
+        String getInstallmentName();
+        String getFeeCategoryName();
+        BigDecimal getAmountDue();
+        LocalDate getDueDate();
+    }
+
+    /**
+     * Projection of one overdue (student, installment) pair queued for a reminder
+     */
+    interface OverdueReminderRow {
+        Long getStudentId();
+        String getFirstName();
+        String getLastName();
+        String getAdmissionNo();
+        Long getFeeInstallmentId();
+        String getInstallmentName();
+        String getFeeCategoryName();
+        BigDecimal getAmountDue();
+        LocalDate getDueDate();
+    }
 }
@@ -0,0 +1,18 @@
+package org.sma.jpa.repository.fee;
+
+import org.sma.jpa.model.fee.StudentFeePayment;
+
+import java.util.List;
+
+/**
+ * Set-based write operations for StudentFeePayment that bypass per-row JPA saves
+ */
+public interface StudentFeePaymentRepositoryCustom {
+
+    /**
+     * Insert new payments in a single JDBC batch
+     * School, student and installment only need their ids set. A payment whose ref is already
+     * recorded for the school is skipped and reports 0 in its slot of the returned counts.
+     */
+    int[] insertAll(List<StudentFeePayment> payments);
+}
@@ -0,0 +1,59 @@
+package org.sma.jpa.repository.fee;
+
+import org.sma.jpa.model.fee.StudentFeePayment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link StudentFeePaymentRepositoryCustom}
+ */
+public class StudentFeePaymentRepositoryImpl implements StudentFeePaymentRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sma_admin.student_fee_payment " +
+            "(school_id, student_id, fee_installment_id, amount_paid, discount_amount, paid_on, " +
+            "payment_ref, payment_mode, remarks, class_id, section_id, created_at, is_active, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true, false) " +
+            // Backed by the partial unique index uk_payment_school_ref (migration V1.13)
+            "ON CONFLICT (school_id, payment_ref) WHERE payment_ref IS NOT NULL DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] insertAll(List<StudentFeePayment> payments) {
+        if (payments.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(payments.size());
+        for (StudentFeePayment payment : payments) {
+            batchArgs.add(new Object[]{
+                    payment.getSchool().getId(),
+                    payment.getStudent().getId(),
+                    payment.getFeeInstallment().getId(),
+                    payment.getAmountPaid(),
+                    payment.getDiscountAmount() != null ? payment.getDiscountAmount() : BigDecimal.ZERO,
+                    Timestamp.valueOf(payment.getPaidOn()),
+                    payment.getPaymentRef(),
+                    payment.getPaymentMode(),
+                    payment.getRemarks(),
+                    payment.getClassId(),
+                    payment.getSectionId(),
+                    now
+            });
+        }
+
+        int[] argTypes = {Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.NUMERIC, Types.NUMERIC,
+                Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.TIMESTAMP};
+        return jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs, argTypes);
+    }
+}
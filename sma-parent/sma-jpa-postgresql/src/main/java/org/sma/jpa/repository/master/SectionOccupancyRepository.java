@@ -0,0 +1,17 @@
+package org.sma.jpa.repository.master;
+
+import org.sma.jpa.model.master.SectionOccupancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for SectionOccupancy
+ */
+@Repository
+public interface SectionOccupancyRepository extends JpaRepository<SectionOccupancy, Long>,
+        SectionOccupancyRepositoryCustom {
+
+    List<SectionOccupancy> findBySchoolIdAndAcademicYearId(Long schoolId, Long academicYearId);
+}
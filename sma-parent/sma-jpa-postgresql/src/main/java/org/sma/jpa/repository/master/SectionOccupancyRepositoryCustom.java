@@ -0,0 +1,37 @@
+package org.sma.jpa.repository.master;
+
+/**
+ * Atomic seat counter operations for SectionOccupancy
+ */
+public interface SectionOccupancyRepositoryCustom {
+
+    /**
+     * Add seats to a section's count if the result stays within capacity
+     * The row stays locked until the caller's transaction ends, so a rolled back
+     * assignment also gives its seats back.
+     * @param capacity maximum occupancy, or null for an uncapped section
+     * @return true when the seats were reserved, false when the section is full or has no counter yet
+     */
+    boolean tryReserve(Long academicYearId, Long sectionId, int seats, Integer capacity);
+
+    /**
+     * Give seats back, never going below zero
+     */
+    void release(Long academicYearId, Long sectionId, int seats);
+
+    /**
+     * Current count of a section, or null when it has no counter yet
+     */
+    Integer findOccupied(Long academicYearId, Long sectionId);
+
+    /**
+     * Create a section's counter from its active enrollments; no-op when it already exists
+     */
+    void seed(Long schoolId, Long academicYearId, Long sectionId);
+
+    /**
+     * Reset every counter of a school's academic year from active enrollments
+     * @return number of counters written
+     */
+    int recount(Long schoolId, Long academicYearId);
+}
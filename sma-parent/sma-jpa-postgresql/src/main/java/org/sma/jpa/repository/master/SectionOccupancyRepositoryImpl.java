@@ -0,0 +1,82 @@
+package org.sma.jpa.repository.master;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link SectionOccupancyRepositoryCustom}
+ */
+public class SectionOccupancyRepositoryImpl implements SectionOccupancyRepositoryCustom {
+
+    private static final String RESERVE_SQL =
+            "UPDATE sma_admin.section_occupancy SET occupied = occupied + ?, updated_at = ? " +
+            "WHERE academic_year_id = ? AND section_id = ? " +
+            "AND (CAST(? AS INTEGER) IS NULL OR occupied + ? <= ?)";
+
+    private static final String RELEASE_SQL =
+            "UPDATE sma_admin.section_occupancy SET occupied = GREATEST(occupied - ?, 0), updated_at = ? " +
+            "WHERE academic_year_id = ? AND section_id = ?";
+
+    private static final String OCCUPIED_SQL =
+            "SELECT occupied FROM sma_admin.section_occupancy WHERE academic_year_id = ? AND section_id = ?";
+
+    private static final String SEED_SQL =
+            "INSERT INTO sma_admin.section_occupancy " +
+            "(school_id, academic_year_id, section_id, occupied, created_at, is_active, is_deleted) " +
+            "SELECT ?, ?, ?, (SELECT COUNT(*) FROM sma_student.student_class_section_mapping scsm " +
+            "WHERE scsm.academic_year_id = ? AND scsm.section_id = ? AND scsm.is_active = true), " +
+            "?, true, false " +
+            "ON CONFLICT (academic_year_id, section_id) DO NOTHING";
+
+    private static final String RECOUNT_SQL =
+            "INSERT INTO sma_admin.section_occupancy " +
+            "(school_id, academic_year_id, section_id, occupied, created_at, is_active, is_deleted) " +
+            "SELECT sm.school_id, ?, sm.id, COUNT(scsm.id), ?, true, false " +
+            "FROM sma_admin.section_master sm " +
+            "LEFT JOIN sma_student.student_class_section_mapping scsm ON scsm.section_id = sm.id " +
+            "AND scsm.academic_year_id = ? AND scsm.is_active = true " +
+            "WHERE sm.school_id = ? GROUP BY sm.school_id, sm.id " +
+            "ON CONFLICT (academic_year_id, section_id) DO UPDATE SET " +
+            "occupied = EXCLUDED.occupied, updated_at = EXCLUDED.created_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean tryReserve(Long academicYearId, Long sectionId, int seats, Integer capacity) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] argTypes = {Types.INTEGER, Types.TIMESTAMP, Types.BIGINT, Types.BIGINT,
+                Types.INTEGER, Types.INTEGER, Types.INTEGER};
+        return jdbcTemplate.update(RESERVE_SQL, new Object[]{seats, now, academicYearId, sectionId,
+                capacity, seats, capacity}, argTypes) > 0;
+    }
+
+    @Override
+    public void release(Long academicYearId, Long sectionId, int seats) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(RELEASE_SQL, seats, now, academicYearId, sectionId);
+    }
+
+    @Override
+    public Integer findOccupied(Long academicYearId, Long sectionId) {
+        List<Integer> rows = jdbcTemplate.queryForList(OCCUPIED_SQL, Integer.class, academicYearId, sectionId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    @Override
+    public void seed(Long schoolId, Long academicYearId, Long sectionId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(SEED_SQL, schoolId, academicYearId, sectionId, academicYearId, sectionId, now);
+    }
+
+    @Override
+    public int recount(Long schoolId, Long academicYearId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.update(RECOUNT_SQL, academicYearId, now, academicYearId, schoolId);
+    }
+}
@@ -2,15 +2,19 @@ package org.sma.jpa.repository.routine;
 
 import org.sma.jpa.model.routine.ClassRoutineMaster;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ClassRoutineMasterRepository extends JpaRepository<ClassRoutineMaster, Long> {
+public interface ClassRoutineMasterRepository extends JpaRepository<ClassRoutineMaster, Long>,
+        ClassRoutineMasterRepositoryCustom {
 
     @Query("SELECT crm FROM ClassRoutineMaster crm " +
            "WHERE crm.school.id = :schoolId " +
@@ -55,8 +59,8 @@ public interface ClassRoutineMasterRepository extends JpaRepository<ClassRoutine
            "AND crm.classMaster.id = :classId " +
            "AND crm.section.id = :sectionId " +
            "AND crm.dayOfWeek = :dayOfWeek " +
-           "AND crm.timeSlot.id = :timeSlotId " +
-           "AND crm.isActive = true")
+           "AND crm.timeSlot.id = :timeSlotId")
+    // No isActive filter: deactivated rows still hold their slot in uk_routine_master_schedule
     Optional<ClassRoutineMaster> findByUniqueConstraint(
             @Param("schoolId") Long schoolId,
             @Param("academicYearId") Long academicYearId,
@@ -86,4 +90,154 @@ public interface ClassRoutineMasterRepository extends JpaRepository<ClassRoutine
             @Param("schoolId") Long schoolId,
             @Param("timeSlotId") Long timeSlotId,
             @Param("academicYearId") Long academicYearId);
+
+    /**
+     * Teachers scheduled in a time slot, as [teacherId, dayOfWeek] rows
+     */
+    @Query("SELECT crm.teacher.id, crm.dayOfWeek FROM ClassRoutineMaster crm " +
+           "WHERE crm.school.id = :schoolId " +
+           "AND crm.academicYear.id = :academicYearId " +
+           "AND crm.timeSlot.id = :timeSlotId " +
+           "AND crm.teacher IS NOT NULL " +
+           "AND crm.isActive = true")
+    List<Object[]> findBusyTeachersForSlot(
+            @Param("schoolId") Long schoolId,
+            @Param("academicYearId") Long academicYearId,
+            @Param("timeSlotId") Long timeSlotId);
+
+    /**
+     * Teachers scheduled on a day, as [teacherId, timeSlotId] rows
+     */
+    @Query("SELECT crm.teacher.id, crm.timeSlot.id FROM ClassRoutineMaster crm " +
+           "WHERE crm.school.id = :schoolId " +
+           "AND crm.academicYear.id = :academicYearId " +
+           "AND crm.dayOfWeek = :dayOfWeek " +
+           "AND crm.teacher IS NOT NULL " +
+           "AND crm.isActive = true")
+    List<Object[]> findBusyTeacherSlotsForDay(
+            @Param("schoolId") Long schoolId,
+            @Param("academicYearId") Long academicYearId,
+            @Param("dayOfWeek") String dayOfWeek);
+
+    /**
+     * Active entries that put the teacher in the slot on the day for any other class section
+     */
+    @Query("SELECT COUNT(crm) FROM ClassRoutineMaster crm " +
+           "WHERE crm.school.id = :schoolId " +
+           "AND crm.academicYear.id = :academicYearId " +
+           "AND crm.teacher.id = :teacherId " +
+           "AND crm.dayOfWeek = :dayOfWeek " +
+           "AND crm.timeSlot.id = :timeSlotId " +
+           "AND NOT (crm.classMaster.id = :classId AND crm.section.id = :sectionId) " +
+           "AND crm.isActive = true")
+    long countTeacherClashes(
+            @Param("schoolId") Long schoolId,
+            @Param("academicYearId") Long academicYearId,
+            @Param("teacherId") Long teacherId,
+            @Param("dayOfWeek") String dayOfWeek,
+            @Param("timeSlotId") Long timeSlotId,
+            @Param("classId") Long classId,
+            @Param("sectionId") Long sectionId);
+
+    /**
+     * Teachers among the given ones scheduled more than once in the same day and slot
+     */
+    @Query("SELECT DISTINCT crm.teacher.id FROM ClassRoutineMaster crm " +
+           "WHERE crm.school.id = :schoolId " +
+           "AND crm.academicYear.id = :academicYearId " +
+           "AND crm.teacher.id IN :teacherIds " +
+           "AND crm.isActive = true " +
+           "GROUP BY crm.teacher.id, crm.dayOfWeek, crm.timeSlot.id " +
+           "HAVING COUNT(crm) > 1")
+    List<Long> findDoubleBookedTeachers(
+            @Param("schoolId") Long schoolId,
+            @Param("academicYearId") Long academicYearId,
+            @Param("teacherIds") Collection<Long> teacherIds);
+
+    /**
+     * Whole-school routine for one day as flat rows, without loading entity graphs
+     */
+    @Query("SELECT crm.id AS routineMasterId, crm.dayOfWeek AS dayOfWeek, " +
+           "c.id AS classId, c.className AS className, " +
+           "s.id AS sectionId, s.sectionName AS sectionName, " +
+           "ts.id AS timeSlotId, ts.slotName AS slotName, ts.startTime AS startTime, " +
+           "ts.endTime AS endTime, ts.displayOrder AS slotOrder, " +
+           "sub.id AS subjectId, sub.subjectName AS subjectName, " +
+           "t.id AS teacherId, t.firstName AS teacherFirstName, t.lastName AS teacherLastName " +
+           "FROM ClassRoutineMaster crm " +
+           "JOIN crm.classMaster c " +
+           "JOIN crm.section s " +
+           "JOIN crm.timeSlot ts " +
+           "LEFT JOIN crm.subject sub " +
+           "LEFT JOIN crm.teacher t " +
+           "WHERE crm.school.id = :schoolId " +
+           "AND crm.academicYear.id = :academicYearId " +
+           "AND crm.dayOfWeek = :dayOfWeek " +
+           "AND crm.isActive = true " +
+           "ORDER BY c.displayOrder, s.sectionName, ts.displayOrder")
+    List<RoutineRow> findSchoolDayRoutineRows(
+            @Param("schoolId") Long schoolId,
+            @Param("academicYearId") Long academicYearId,
+            @Param("dayOfWeek") String dayOfWeek);
+
+    /**
+     * Whole-school routine for every day of the week, for building in-memory snapshots
+     */
+    @Query("SELECT crm.id AS routineMasterId, crm.dayOfWeek AS dayOfWeek, " +
+           "c.id AS classId, c.className AS className, " +
+           "s.id AS sectionId, s.sectionName AS sectionName, " +
+           "ts.id AS timeSlotId, ts.slotName AS slotName, ts.startTime AS startTime, " +
+           "ts.endTime AS endTime, ts.displayOrder AS slotOrder, " +
+           "sub.id AS subjectId, sub.subjectName AS subjectName, " +
+           "t.id AS teacherId, t.firstName AS teacherFirstName, t.lastName AS teacherLastName " +
+           "FROM ClassRoutineMaster crm " +
+           "JOIN crm.classMaster c " +
+           "JOIN crm.section s " +
+           "JOIN crm.timeSlot ts " +
+           "LEFT JOIN crm.subject sub " +
+           "LEFT JOIN crm.teacher t " +
+           "WHERE crm.school.id = :schoolId " +
+           "AND crm.academicYear.id = :academicYearId " +
+           "AND crm.isActive = true " +
+           // Day names are stored as text, so weekday order needs an explicit rank
+           "ORDER BY CASE crm.dayOfWeek " +
+           "WHEN 'MONDAY' THEN 1 WHEN 'TUESDAY' THEN 2 WHEN 'WEDNESDAY' THEN 3 WHEN 'THURSDAY' THEN 4 " +
+           "WHEN 'FRIDAY' THEN 5 WHEN 'SATURDAY' THEN 6 WHEN 'SUNDAY' THEN 7 ELSE 8 END, " +
+           "ts.displayOrder, crm.id")
+    List<RoutineRow> findSchoolRoutineRows(
+            @Param("schoolId") Long schoolId,
+            @Param("academicYearId") Long academicYearId);
+
+    /**
+     * Deactivate the routine of the given sections, keeping rows referenced by daily sessions intact
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE ClassRoutineMaster crm SET crm.isActive = false " +
+           "WHERE crm.school.id = :schoolId " +
+           "AND crm.academicYear.id = :academicYearId " +
+           "AND crm.section.id IN :sectionIds " +
+           "AND crm.isActive = true")
+    int deactivateForSections(
+            @Param("schoolId") Long schoolId,
+            @Param("academicYearId") Long academicYearId,
+            @Param("sectionIds") Collection<Long> sectionIds);
+
+    interface RoutineRow {
+        Long getRoutineMasterId();
+        String getDayOfWeek();
+        Long getClassId();
+        String getClassName();
+        Long getSectionId();
+        String getSectionName();
+        Long getTimeSlotId();
+        String getSlotName();
+        LocalTime getStartTime();
+        LocalTime getEndTime();
+        Integer getSlotOrder();
+        Long getSubjectId();
+        String getSubjectName();
+        Long getTeacherId();
+        String getTeacherFirstName();
+        String getTeacherLastName();
+    }
 }
@@ -0,0 +1,24 @@
+package org.sma.jpa.repository.routine;
+
+import org.sma.jpa.model.routine.ClassRoutineMaster;
+
+import java.util.List;
+
+/**
+ * Set-based write operations for ClassRoutineMaster that bypass per-row JPA saves
+ */
+public interface ClassRoutineMasterRepositoryCustom {
+
+    /**
+     * Insert or update routine rows keyed on uk_routine_master_schedule as a single
+     * JDBC batch. Existing rows are reactivated. Entities must carry school, academic year,
+     * class, section and time slot with ids; subject and teacher are optional.
+     */
+    int[] upsertAll(List<ClassRoutineMaster> routines);
+
+    /**
+     * Take the transaction-scoped routine write lock for a school, so teacher clash checks
+     * and the writes they guard never interleave with another routine write
+     */
+    void lockSchool(Long schoolId);
+}
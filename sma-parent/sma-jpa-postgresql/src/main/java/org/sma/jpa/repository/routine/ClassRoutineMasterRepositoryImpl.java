@@ -0,0 +1,69 @@
+package org.sma.jpa.repository.routine;
+
+import org.sma.jpa.model.routine.ClassRoutineMaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link ClassRoutineMasterRepositoryCustom}
+ */
+public class ClassRoutineMasterRepositoryImpl implements ClassRoutineMasterRepositoryCustom {
+
+    // Namespace for pg advisory locks serialising routine writes
+    private static final int ROUTINE_LOCK_NAMESPACE = 0x5A05;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO sma_admin.class_routine_master " +
+            "(school_id, academic_year_id, class_id, section_id, day_of_week, time_slot_id, " +
+            "subject_id, teacher_id, remarks, created_at, is_active, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true, false) " +
+            "ON CONFLICT (school_id, academic_year_id, class_id, section_id, day_of_week, time_slot_id) " +
+            "DO UPDATE SET " +
+            "subject_id = EXCLUDED.subject_id, " +
+            "teacher_id = EXCLUDED.teacher_id, " +
+            "remarks = EXCLUDED.remarks, " +
+            "is_active = true, " +
+            "updated_at = EXCLUDED.created_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] upsertAll(List<ClassRoutineMaster> routines) {
+        if (routines.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(routines.size());
+        for (ClassRoutineMaster routine : routines) {
+            batchArgs.add(new Object[]{
+                    routine.getSchool().getId(),
+                    routine.getAcademicYear().getId(),
+                    routine.getClassMaster().getId(),
+                    routine.getSection().getId(),
+                    routine.getDayOfWeek(),
+                    routine.getTimeSlot().getId(),
+                    routine.getSubject() != null ? routine.getSubject().getId() : null,
+                    routine.getTeacher() != null ? routine.getTeacher().getId() : null,
+                    routine.getRemarks(),
+                    now
+            });
+        }
+
+        int[] argTypes = {Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.VARCHAR,
+                Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP};
+        return jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs, argTypes);
+    }
+
+    @Override
+    public void lockSchool(Long schoolId) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, ?)", ROUTINE_LOCK_NAMESPACE, schoolId.intValue());
+    }
+}
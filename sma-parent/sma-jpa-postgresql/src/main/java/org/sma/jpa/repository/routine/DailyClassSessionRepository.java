@@ -7,11 +7,13 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DailyClassSessionRepository extends JpaRepository<DailyClassSession, Long> {
+public interface DailyClassSessionRepository extends JpaRepository<DailyClassSession, Long>,
+        DailyClassSessionRepositoryCustom {
 
     @Query("SELECT dcs FROM DailyClassSession dcs " +
            "WHERE dcs.school.id = :schoolId " +
@@ -64,4 +66,54 @@ public interface DailyClassSessionRepository extends JpaRepository<DailyClassSes
            "WHERE dcs.id = :sessionId " +
            "AND dcs.school.id = :schoolId")
     Optional<DailyClassSession> findByIdAndSchool(@Param("sessionId") Long sessionId, @Param("schoolId") Long schoolId);
+
+    /**
+     * Session ids of routine entries on one date, as [routineMasterId, sessionId] rows
+     */
+    @Query("SELECT dcs.routineMaster.id, dcs.id FROM DailyClassSession dcs " +
+           "WHERE dcs.sessionDate = :sessionDate " +
+           "AND dcs.routineMaster.id IN :routineMasterIds")
+    List<Object[]> findSessionIdsByRoutineMasters(
+            @Param("routineMasterIds") Collection<Long> routineMasterIds,
+            @Param("sessionDate") LocalDate sessionDate);
+
+    /**
+     * All sessions of a school for one date as flat rows, keyed by routine master
+     */
+    @Query("SELECT dcs.id AS sessionId, rm.id AS routineMasterId, " +
+           "dcs.sessionStatus AS sessionStatus, dcs.isAttendanceMarked AS isAttendanceMarked, " +
+           "dcs.remarks AS remarks, " +
+           "so.id AS subjectOverrideId, so.subjectName AS subjectOverrideName, " +
+           "tov.id AS teacherOverrideId, tov.firstName AS teacherOverrideFirstName, " +
+           "tov.lastName AS teacherOverrideLastName, " +
+           "act.id AS actualTeacherId, act.firstName AS actualTeacherFirstName, " +
+           "act.lastName AS actualTeacherLastName " +
+           "FROM DailyClassSession dcs " +
+           "LEFT JOIN dcs.routineMaster rm " +
+           "LEFT JOIN dcs.subjectOverride so " +
+           "LEFT JOIN dcs.teacherOverride tov " +
+           "LEFT JOIN dcs.actualTeacher act " +
+           "WHERE dcs.school.id = :schoolId " +
+           "AND dcs.academicYear.id = :academicYearId " +
+           "AND dcs.sessionDate = :sessionDate")
+    List<DaySessionRow> findSchoolDaySessionRows(
+            @Param("schoolId") Long schoolId,
+            @Param("academicYearId") Long academicYearId,
+            @Param("sessionDate") LocalDate sessionDate);
+
+    interface DaySessionRow {
+        Long getSessionId();
+        Long getRoutineMasterId();
+        String getSessionStatus();
+        Boolean getIsAttendanceMarked();
+        String getRemarks();
+        Long getSubjectOverrideId();
+        String getSubjectOverrideName();
+        Long getTeacherOverrideId();
+        String getTeacherOverrideFirstName();
+        String getTeacherOverrideLastName();
+        Long getActualTeacherId();
+        String getActualTeacherFirstName();
+        String getActualTeacherLastName();
+    }
 }
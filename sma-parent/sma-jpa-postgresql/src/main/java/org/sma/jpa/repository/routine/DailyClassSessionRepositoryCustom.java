@@ -0,0 +1,29 @@
+package org.sma.jpa.repository.routine;
+
+import org.sma.jpa.model.routine.DailyClassSession;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Set-based write operations for DailyClassSession that bypass per-row JPA saves
+ */
+public interface DailyClassSessionRepositoryCustom {
+
+    /**
+     * Expand the active weekly routine of a school's academic year into SCHEDULED sessions
+     * for the given dates, one INSERT ... SELECT per date sent as a single JDBC batch.
+     * Sessions that already exist for a routine entry and date are left untouched.
+     *
+     * @return number of sessions created per date, in the order of the dates
+     */
+    int[] materializeFromRoutine(Long schoolId, Long academicYearId, List<LocalDate> sessionDates);
+
+    /**
+     * Insert sessions carrying a teacher override as a single JDBC batch keyed on
+     * uk_daily_session_master_date. A session created meanwhile for the same routine entry
+     * and date only gets the override. Entities must carry school, academic year, class,
+     * section, time slot, routine master and override teacher with ids.
+     */
+    int[] insertOverrides(List<DailyClassSession> sessions);
+}
@@ -0,0 +1,92 @@
+package org.sma.jpa.repository.routine;
+
+import org.sma.jpa.model.routine.DailyClassSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link DailyClassSessionRepositoryCustom}
+ */
+public class DailyClassSessionRepositoryImpl implements DailyClassSessionRepositoryCustom {
+
+    private static final String MATERIALIZE_SQL =
+            "INSERT INTO sma_admin.daily_class_session " +
+            "(school_id, academic_year_id, class_id, section_id, session_date, time_slot_id, " +
+            "routine_master_id, session_status, is_attendance_marked, created_at, is_active, is_deleted) " +
+            "SELECT crm.school_id, crm.academic_year_id, crm.class_id, crm.section_id, ?, crm.time_slot_id, " +
+            "crm.id, 'SCHEDULED', false, ?, true, false " +
+            "FROM sma_admin.class_routine_master crm " +
+            "WHERE crm.school_id = ? AND crm.academic_year_id = ? " +
+            "AND upper(crm.day_of_week) = ? AND crm.is_active = true " +
+            "ON CONFLICT (routine_master_id, session_date) DO NOTHING";
+
+    private static final String INSERT_OVERRIDE_SQL =
+            "INSERT INTO sma_admin.daily_class_session " +
+            "(school_id, academic_year_id, class_id, section_id, session_date, time_slot_id, " +
+            "routine_master_id, teacher_id, session_status, is_attendance_marked, remarks, " +
+            "created_at, is_active, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, false, ?, ?, true, false) " +
+            "ON CONFLICT (routine_master_id, session_date) DO UPDATE SET " +
+            "teacher_id = EXCLUDED.teacher_id, " +
+            "updated_at = EXCLUDED.created_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] materializeFromRoutine(Long schoolId, Long academicYearId, List<LocalDate> sessionDates) {
+        if (sessionDates.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(sessionDates.size());
+        for (LocalDate sessionDate : sessionDates) {
+            batchArgs.add(new Object[]{
+                    Date.valueOf(sessionDate),
+                    now,
+                    schoolId,
+                    academicYearId,
+                    sessionDate.getDayOfWeek().name()
+            });
+        }
+        return jdbcTemplate.batchUpdate(MATERIALIZE_SQL, batchArgs);
+    }
+
+    @Override
+    public int[] insertOverrides(List<DailyClassSession> sessions) {
+        if (sessions.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(sessions.size());
+        for (DailyClassSession session : sessions) {
+            batchArgs.add(new Object[]{
+                    session.getSchool().getId(),
+                    session.getAcademicYear().getId(),
+                    session.getClassMaster().getId(),
+                    session.getSection().getId(),
+                    Date.valueOf(session.getSessionDate()),
+                    session.getTimeSlot().getId(),
+                    session.getRoutineMaster().getId(),
+                    session.getTeacherOverride().getId(),
+                    session.getSessionStatus(),
+                    session.getRemarks(),
+                    now
+            });
+        }
+
+        int[] argTypes = {Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.DATE, Types.BIGINT,
+                Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP};
+        return jdbcTemplate.batchUpdate(INSERT_OVERRIDE_SQL, batchArgs, argTypes);
+    }
+}
@@ -0,0 +1,15 @@
+package org.sma.jpa.repository.routine;
+
+import org.sma.jpa.model.routine.StudentAttendanceBitmap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StudentAttendanceBitmapRepository extends JpaRepository<StudentAttendanceBitmap, Long>,
+        StudentAttendanceBitmapRepositoryCustom {
+
+    Optional<StudentAttendanceBitmap> findBySchoolIdAndStudentIdAndAcademicYearId(Long schoolId, Long studentId,
+                                                                                 Long academicYearId);
+}
@@ -0,0 +1,23 @@
+package org.sma.jpa.repository.routine;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Set-based maintenance operations for StudentAttendanceBitmap
+ */
+public interface StudentAttendanceBitmapRepositoryCustom {
+
+    /**
+     * Set the bit at the given session ordinal for each student's status (clearing it in the
+     * other status bitmaps) as a single JDBC batch, creating missing bitmaps
+     */
+    int[] markSessionStatuses(Long schoolId, Long academicYearId, LocalDate yearStartDate,
+                              int ordinal, Map<Long, String> statusByStudent);
+
+    /**
+     * Recompute every bitmap of a school's academic year from raw student_attendance rows
+     * Returns the number of student bitmaps written
+     */
+    int rebuildForYear(Long schoolId, Long academicYearId, LocalDate yearStartDate);
+}
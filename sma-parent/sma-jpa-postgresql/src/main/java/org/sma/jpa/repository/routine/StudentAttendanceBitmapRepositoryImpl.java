@@ -0,0 +1,149 @@
+package org.sma.jpa.repository.routine;
+
+import org.sma.jpa.model.routine.StudentAttendanceBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC backed implementation of {@link StudentAttendanceBitmapRepositoryCustom}
+ */
+public class StudentAttendanceBitmapRepositoryImpl implements StudentAttendanceBitmapRepositoryCustom {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int REBUILD_FETCH_SIZE = 1000;
+
+    private static final String EMPTY_BITMAP =
+            "decode(repeat('00', " + StudentAttendanceBitmap.BITMAP_BYTES + "), 'hex')";
+
+    private static final String MARK_SQL =
+            "INSERT INTO sma_admin.student_attendance_bitmap " +
+            "(school_id, student_id, academic_year_id, year_start_date, " +
+            "present_bits, absent_bits, late_bits, other_bits, created_at, is_active, is_deleted) " +
+            "VALUES (?, ?, ?, ?, " +
+            "set_bit(" + EMPTY_BITMAP + ", ?, ?), set_bit(" + EMPTY_BITMAP + ", ?, ?), " +
+            "set_bit(" + EMPTY_BITMAP + ", ?, ?), set_bit(" + EMPTY_BITMAP + ", ?, ?), ?, true, false) " +
+            "ON CONFLICT (student_id, academic_year_id) DO UPDATE SET " +
+            "present_bits = set_bit(student_attendance_bitmap.present_bits, ?, ?), " +
+            "absent_bits = set_bit(student_attendance_bitmap.absent_bits, ?, ?), " +
+            "late_bits = set_bit(student_attendance_bitmap.late_bits, ?, ?), " +
+            "other_bits = set_bit(student_attendance_bitmap.other_bits, ?, ?), " +
+            "updated_at = EXCLUDED.created_at";
+
+    private static final String DELETE_YEAR_SQL =
+            "DELETE FROM sma_admin.student_attendance_bitmap WHERE school_id = ? AND academic_year_id = ?";
+
+    private static final String HISTORY_SQL =
+            "SELECT sa.student_id, dcs.session_date, ts.display_order, sa.attendance_status " +
+            "FROM sma_admin.student_attendance sa " +
+            "JOIN sma_admin.daily_class_session dcs ON dcs.id = sa.class_session_id " +
+            "JOIN sma_admin.routine_time_slot ts ON ts.id = dcs.time_slot_id " +
+            "WHERE dcs.school_id = ? AND dcs.academic_year_id = ? " +
+            "ORDER BY sa.student_id";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sma_admin.student_attendance_bitmap " +
+            "(school_id, student_id, academic_year_id, year_start_date, " +
+            "present_bits, absent_bits, late_bits, other_bits, created_at, is_active, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, true, false)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] markSessionStatuses(Long schoolId, Long academicYearId, LocalDate yearStartDate,
+                                     int ordinal, Map<Long, String> statusByStudent) {
+        if (statusByStudent.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Date yearStart = Date.valueOf(yearStartDate);
+        List<Object[]> batchArgs = new ArrayList<>(statusByStudent.size());
+        for (Map.Entry<Long, String> entry : statusByStudent.entrySet()) {
+            int statusIndex = StudentAttendanceBitmap.statusIndex(entry.getValue());
+            Object[] args = new Object[21];
+            args[0] = schoolId;
+            args[1] = entry.getKey();
+            args[2] = academicYearId;
+            args[3] = yearStart;
+            for (int i = 0; i < 4; i++) {
+                int bit = i == statusIndex ? 1 : 0;
+                // Insert values, then the same ordinal/bit pairs for the conflict update
+                args[4 + i * 2] = ordinal;
+                args[5 + i * 2] = bit;
+                args[13 + i * 2] = ordinal;
+                args[14 + i * 2] = bit;
+            }
+            args[12] = now;
+            batchArgs.add(args);
+        }
+        return jdbcTemplate.batchUpdate(MARK_SQL, batchArgs);
+    }
+
+    @Override
+    public int rebuildForYear(Long schoolId, Long academicYearId, LocalDate yearStartDate) {
+        jdbcTemplate.update(DELETE_YEAR_SQL, schoolId, academicYearId);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Date yearStart = Date.valueOf(yearStartDate);
+        List<Object[]> pending = new ArrayList<>(REBUILD_BATCH_SIZE);
+        int[] written = {0};
+
+        // Stream rows ordered by student so only one student's bitmaps are held at a time
+        JdbcTemplate streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streamingTemplate.setFetchSize(REBUILD_FETCH_SIZE);
+
+        Long[] currentStudent = {null};
+        byte[][][] current = {null};
+        streamingTemplate.query(HISTORY_SQL, rs -> {
+            long studentId = rs.getLong(1);
+            if (currentStudent[0] == null || currentStudent[0] != studentId) {
+                if (currentStudent[0] != null) {
+                    pending.add(insertArgs(schoolId, currentStudent[0], academicYearId, yearStart, current[0], now));
+                    if (pending.size() >= REBUILD_BATCH_SIZE) {
+                        written[0] += flush(pending);
+                    }
+                }
+                currentStudent[0] = studentId;
+                current[0] = new byte[4][StudentAttendanceBitmap.BITMAP_BYTES];
+            }
+
+            int slotOrder = rs.getInt(3);
+            Integer slot = rs.wasNull() ? null : slotOrder;
+            int ordinal = StudentAttendanceBitmap.ordinalOf(yearStartDate, rs.getDate(2).toLocalDate(), slot);
+            if (ordinal >= 0) {
+                int statusIndex = StudentAttendanceBitmap.statusIndex(rs.getString(4));
+                current[0][statusIndex][ordinal >> 3] |= (byte) (1 << (ordinal & 7));
+            }
+        }, schoolId, academicYearId);
+
+        if (currentStudent[0] != null) {
+            pending.add(insertArgs(schoolId, currentStudent[0], academicYearId, yearStart, current[0], now));
+        }
+        written[0] += flush(pending);
+        return written[0];
+    }
+
+    private Object[] insertArgs(Long schoolId, Long studentId, Long academicYearId, Date yearStart,
+                                byte[][] bitmaps, Timestamp now) {
+        return new Object[]{schoolId, studentId, academicYearId, yearStart,
+                bitmaps[0], bitmaps[1], bitmaps[2], bitmaps[3], now};
+    }
+
+    private int flush(List<Object[]> pending) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        int count = jdbcTemplate.batchUpdate(INSERT_SQL, pending).length;
+        pending.clear();
+        return count;
+    }
+}
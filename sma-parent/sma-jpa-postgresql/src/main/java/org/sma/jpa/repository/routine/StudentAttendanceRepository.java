@@ -7,11 +7,13 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface StudentAttendanceRepository extends JpaRepository<StudentAttendance, Long> {
+public interface StudentAttendanceRepository extends JpaRepository<StudentAttendance, Long>,
+        StudentAttendanceRepositoryCustom {
 
     @Query("SELECT sa FROM StudentAttendance sa WHERE sa.classSession.id = :sessionId")
     List<StudentAttendance> findBySessionId(@Param("sessionId") Long sessionId);
@@ -23,6 +25,24 @@ public interface StudentAttendanceRepository extends JpaRepository<StudentAttend
             @Param("sessionId") Long sessionId,
             @Param("studentId") Long studentId);
 
+    @Query("SELECT sa FROM StudentAttendance sa " +
+           "JOIN FETCH sa.student " +
+           "WHERE sa.classSession.id = :sessionId " +
+           "AND sa.student.id IN :studentIds")
+    List<StudentAttendance> findBySessionAndStudents(
+            @Param("sessionId") Long sessionId,
+            @Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Returns [studentId, attendanceStatus] pairs without materializing attendance entities
+     */
+    @Query("SELECT sa.student.id, sa.attendanceStatus FROM StudentAttendance sa " +
+           "WHERE sa.classSession.id = :sessionId " +
+           "AND sa.student.id IN :studentIds")
+    List<Object[]> findStatusesBySessionAndStudents(
+            @Param("sessionId") Long sessionId,
+            @Param("studentIds") Collection<Long> studentIds);
+
     @Query("SELECT sa FROM StudentAttendance sa " +
            "JOIN sa.classSession dcs " +
            "WHERE sa.student.id = :studentId " +
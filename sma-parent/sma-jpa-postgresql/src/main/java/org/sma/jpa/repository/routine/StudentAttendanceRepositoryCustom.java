@@ -0,0 +1,17 @@
+package org.sma.jpa.repository.routine;
+
+import org.sma.jpa.model.routine.StudentAttendance;
+
+import java.util.List;
+
+/**
+ * Set-based write operations for StudentAttendance that bypass per-row JPA saves
+ */
+public interface StudentAttendanceRepositoryCustom {
+
+    /**
+     * Insert or update attendance rows keyed on (class_session_id, student_id)
+     * as a single JDBC batch. Entities must carry a class session and student with ids.
+     */
+    int[] upsertAll(List<StudentAttendance> attendanceRecords);
+}
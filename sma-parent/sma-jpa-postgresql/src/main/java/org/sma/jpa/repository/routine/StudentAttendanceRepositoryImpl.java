@@ -0,0 +1,60 @@
+package org.sma.jpa.repository.routine;
+
+import org.sma.jpa.model.routine.StudentAttendance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link StudentAttendanceRepositoryCustom}
+ */
+public class StudentAttendanceRepositoryImpl implements StudentAttendanceRepositoryCustom {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO sma_admin.student_attendance " +
+            "(class_session_id, student_id, attendance_status, marked_at, marked_by, remarks, " +
+            "created_at, is_active, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, true, false) " +
+            "ON CONFLICT (class_session_id, student_id) DO UPDATE SET " +
+            "attendance_status = EXCLUDED.attendance_status, " +
+            "marked_at = EXCLUDED.marked_at, " +
+            "marked_by = EXCLUDED.marked_by, " +
+            "remarks = EXCLUDED.remarks, " +
+            // Re-marking a soft-deleted row brings it back
+            "is_active = true, " +
+            "is_deleted = false, " +
+            "updated_at = EXCLUDED.created_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] upsertAll(List<StudentAttendance> attendanceRecords) {
+        if (attendanceRecords.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(attendanceRecords.size());
+        for (StudentAttendance attendance : attendanceRecords) {
+            batchArgs.add(new Object[]{
+                    attendance.getClassSession().getId(),
+                    attendance.getStudent().getId(),
+                    attendance.getAttendanceStatus(),
+                    attendance.getMarkedAt() != null ? Timestamp.valueOf(attendance.getMarkedAt()) : null,
+                    attendance.getMarkedBy(),
+                    attendance.getRemarks(),
+                    now
+            });
+        }
+
+        int[] argTypes = {Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP,
+                Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP};
+        return jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs, argTypes);
+    }
+}
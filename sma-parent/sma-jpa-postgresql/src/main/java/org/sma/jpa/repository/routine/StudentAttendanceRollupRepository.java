@@ -0,0 +1,58 @@
+package org.sma.jpa.repository.routine;
+
+import org.sma.jpa.model.routine.StudentAttendanceRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for StudentAttendanceRollup
+ * Range queries combine MONTH buckets for fully covered months with DAY buckets
+ * for the partial head and tail of the range; an unused range is passed with start after end.
+ */
+@Repository
+public interface StudentAttendanceRollupRepository extends JpaRepository<StudentAttendanceRollup, Long>,
+        StudentAttendanceRollupRepositoryCustom {
+
+    @Query("SELECT COALESCE(SUM(r.sessionCount), 0) FROM StudentAttendanceRollup r " +
+           "WHERE r.scopeType = :scopeType " +
+           "AND r.scopeId = :scopeId " +
+           "AND r.attendanceStatus = :status " +
+           "AND ((r.periodType = 'MONTH' AND r.periodStart BETWEEN :monthStart AND :monthEnd) " +
+           "OR (r.periodType = 'DAY' AND (r.periodStart BETWEEN :headStart AND :headEnd " +
+           "OR r.periodStart BETWEEN :tailStart AND :tailEnd)))")
+    long sumSessionCount(
+            @Param("scopeType") String scopeType,
+            @Param("scopeId") Long scopeId,
+            @Param("status") String status,
+            @Param("headStart") LocalDate headStart,
+            @Param("headEnd") LocalDate headEnd,
+            @Param("monthStart") LocalDate monthStart,
+            @Param("monthEnd") LocalDate monthEnd,
+            @Param("tailStart") LocalDate tailStart,
+            @Param("tailEnd") LocalDate tailEnd);
+
+    @Query("SELECT r.attendanceStatus, SUM(r.sessionCount) FROM StudentAttendanceRollup r " +
+           "WHERE r.schoolId = :schoolId " +
+           "AND r.scopeType = :scopeType " +
+           "AND r.scopeId = :scopeId " +
+           "AND ((r.periodType = 'MONTH' AND r.periodStart BETWEEN :monthStart AND :monthEnd) " +
+           "OR (r.periodType = 'DAY' AND (r.periodStart BETWEEN :headStart AND :headEnd " +
+           "OR r.periodStart BETWEEN :tailStart AND :tailEnd))) " +
+           "GROUP BY r.attendanceStatus " +
+           "HAVING SUM(r.sessionCount) > 0")
+    List<Object[]> summarizeByStatus(
+            @Param("schoolId") Long schoolId,
+            @Param("scopeType") String scopeType,
+            @Param("scopeId") Long scopeId,
+            @Param("headStart") LocalDate headStart,
+            @Param("headEnd") LocalDate headEnd,
+            @Param("monthStart") LocalDate monthStart,
+            @Param("monthEnd") LocalDate monthEnd,
+            @Param("tailStart") LocalDate tailStart,
+            @Param("tailEnd") LocalDate tailEnd);
+}
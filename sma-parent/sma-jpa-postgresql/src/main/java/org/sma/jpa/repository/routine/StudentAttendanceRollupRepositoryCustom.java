@@ -0,0 +1,36 @@
+package org.sma.jpa.repository.routine;
+
+import org.sma.jpa.model.routine.StudentAttendanceRollup;
+
+import java.util.List;
+
+/**
+ * Set-based maintenance operations for StudentAttendanceRollup
+ */
+public interface StudentAttendanceRollupRepositoryCustom {
+
+    /**
+     * Add each row's sessionCount (may be negative) to its bucket in a single JDBC batch,
+     * creating buckets that do not exist yet
+     */
+    int[] mergeCounts(List<StudentAttendanceRollup> deltas);
+
+    /**
+     * Drop and recompute every bucket of a school from raw student_attendance rows
+     * Returns the number of buckets written
+     */
+    int rebuildForSchool(Long schoolId);
+
+    /**
+     * Advisory lock on a school's attendance rollups, released at commit. Attendance writers
+     * share it and serialize per session through {@link #lockSession}; rollup and bitmap
+     * rebuilds hold it exclusive while they re-read the school's attendance rows.
+     */
+    void lockSchool(Long schoolId, boolean exclusive);
+
+    /**
+     * Take the transaction-scoped exclusive lock for one class session, so concurrent
+     * writers of the same session read prior statuses and apply deltas one at a time
+     */
+    void lockSession(Long sessionId);
+}
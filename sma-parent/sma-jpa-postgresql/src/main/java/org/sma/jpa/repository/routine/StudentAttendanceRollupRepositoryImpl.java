@@ -0,0 +1,110 @@
+package org.sma.jpa.repository.routine;
+
+import org.sma.jpa.model.routine.StudentAttendanceRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link StudentAttendanceRollupRepositoryCustom}
+ */
+public class StudentAttendanceRollupRepositoryImpl implements StudentAttendanceRollupRepositoryCustom {
+
+    // Namespace for pg advisory locks taken on behalf of attendance rollups
+    private static final int ROLLUP_LOCK_NAMESPACE = 0x5A01;
+    private static final int SESSION_LOCK_NAMESPACE = 0x5A04;
+
+    private static final String MERGE_SQL =
+            "INSERT INTO sma_admin.student_attendance_rollup " +
+            "(school_id, scope_type, scope_id, period_type, period_start, attendance_status, session_count, " +
+            "created_at, is_active, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, true, false) " +
+            "ON CONFLICT (scope_type, scope_id, period_type, period_start, attendance_status) DO UPDATE SET " +
+            "session_count = student_attendance_rollup.session_count + EXCLUDED.session_count, " +
+            "updated_at = EXCLUDED.created_at";
+
+    private static final String DELETE_SCHOOL_SQL =
+            "DELETE FROM sma_admin.student_attendance_rollup WHERE school_id = ?";
+
+    // %1$s = scope type, %2$s = scope column, %3$s = period type, %4$s = period expression
+    private static final String REBUILD_SQL_TEMPLATE =
+            "INSERT INTO sma_admin.student_attendance_rollup " +
+            "(school_id, scope_type, scope_id, period_type, period_start, attendance_status, session_count, " +
+            "created_at, is_active, is_deleted) " +
+            "SELECT dcs.school_id, '%1$s', %2$s, '%3$s', %4$s, sa.attendance_status, COUNT(*), now(), true, false " +
+            "FROM sma_admin.student_attendance sa " +
+            "JOIN sma_admin.daily_class_session dcs ON dcs.id = sa.class_session_id " +
+            "WHERE dcs.school_id = ? " +
+            "GROUP BY dcs.school_id, %2$s, %4$s, sa.attendance_status";
+
+    private static final String DAY_EXPR = "dcs.session_date";
+    private static final String MONTH_EXPR = "CAST(date_trunc('month', dcs.session_date) AS date)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] mergeCounts(List<StudentAttendanceRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        for (StudentAttendanceRollup delta : deltas) {
+            batchArgs.add(new Object[]{
+                    delta.getSchoolId(),
+                    delta.getScopeType(),
+                    delta.getScopeId(),
+                    delta.getPeriodType(),
+                    Date.valueOf(delta.getPeriodStart()),
+                    delta.getAttendanceStatus(),
+                    delta.getSessionCount(),
+                    now
+            });
+        }
+
+        int[] argTypes = {Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.DATE,
+                Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP};
+        return jdbcTemplate.batchUpdate(MERGE_SQL, batchArgs, argTypes);
+    }
+
+    @Override
+    public int rebuildForSchool(Long schoolId) {
+        jdbcTemplate.update(DELETE_SCHOOL_SQL, schoolId);
+
+        int written = 0;
+        written += jdbcTemplate.update(rebuildSql(StudentAttendanceRollup.SCOPE_STUDENT, "sa.student_id",
+                StudentAttendanceRollup.PERIOD_DAY, DAY_EXPR), schoolId);
+        written += jdbcTemplate.update(rebuildSql(StudentAttendanceRollup.SCOPE_STUDENT, "sa.student_id",
+                StudentAttendanceRollup.PERIOD_MONTH, MONTH_EXPR), schoolId);
+        written += jdbcTemplate.update(rebuildSql(StudentAttendanceRollup.SCOPE_SECTION, "dcs.section_id",
+                StudentAttendanceRollup.PERIOD_DAY, DAY_EXPR), schoolId);
+        written += jdbcTemplate.update(rebuildSql(StudentAttendanceRollup.SCOPE_SECTION, "dcs.section_id",
+                StudentAttendanceRollup.PERIOD_MONTH, MONTH_EXPR), schoolId);
+        return written;
+    }
+
+    @Override
+    public void lockSchool(Long schoolId, boolean exclusive) {
+        String sql = exclusive
+                ? "SELECT pg_advisory_xact_lock(?, ?)"
+                : "SELECT pg_advisory_xact_lock_shared(?, ?)";
+        jdbcTemplate.queryForList(sql, ROLLUP_LOCK_NAMESPACE, schoolId.intValue());
+    }
+
+    @Override
+    public void lockSession(Long sessionId) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, ?)", SESSION_LOCK_NAMESPACE, sessionId.intValue());
+    }
+
+    private String rebuildSql(String scopeType, String scopeColumn, String periodType, String periodExpr) {
+        return String.format(REBUILD_SQL_TEMPLATE, scopeType, scopeColumn, periodType, periodExpr);
+    }
+}
@@ -22,6 +22,12 @@ public interface AcademicYearRepository extends JpaRepository<AcademicYear, Long
     Optional<AcademicYear> findBySchoolAndYearCode(SchoolProfile school, String yearCode);
     
     Optional<AcademicYear> findBySchoolAndIsCurrentTrue(SchoolProfile school);
+
+    /**
+     * School and academic year ids of every current, active academic year
+     */
+    @Query("SELECT a.school.id, a.id FROM AcademicYear a WHERE a.isCurrent = true AND a.isActive = true")
+    List<Object[]> findCurrentSchoolYearIds();
     
     Optional<AcademicYear> findByYearName(String yearName);
     
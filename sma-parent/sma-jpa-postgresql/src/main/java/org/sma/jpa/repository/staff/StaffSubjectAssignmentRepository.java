@@ -7,8 +7,11 @@ import org.sma.jpa.model.master.SubjectMaster;
 import org.sma.jpa.model.staff.Staff;
 import org.sma.jpa.model.staff.StaffSubjectAssignment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,6 +25,13 @@ public interface StaffSubjectAssignmentRepository extends JpaRepository<StaffSub
     List<StaffSubjectAssignment> findByAcademicYearAndClassMasterAndSection(AcademicYear academicYear, ClassMaster classMaster, SectionMaster section);
     
     List<StaffSubjectAssignment> findBySubjectAndAcademicYear(SubjectMaster subject, AcademicYear academicYear);
+
+    @Query("SELECT ssa FROM StaffSubjectAssignment ssa " +
+           "WHERE ssa.academicYear.id = :academicYearId " +
+           "AND ssa.section.id IN :sectionIds " +
+           "AND ssa.isActive = true")
+    List<StaffSubjectAssignment> findByAcademicYearIdAndSectionIds(@Param("academicYearId") Long academicYearId,
+                                                                   @Param("sectionIds") Collection<Long> sectionIds);
 }
 
 
@@ -3,10 +3,12 @@ package org.sma.jpa.repository.student;
 
 import org.sma.jpa.model.student.StudentClassSectionMapping;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -55,6 +57,14 @@ public interface StudentClassSectionMappingRepository extends JpaRepository<Stud
             "ORDER BY scsm.academicYear.yearName DESC, scsm.enrollmentDate DESC")
     List<StudentClassSectionMapping> findStudentHistory(@Param("studentId") Long studentId);
 
+    /**
+     * Student's complete enrollment history with academic year, class and section fetched in the same query
+     */
+    @Query("SELECT scsm FROM StudentClassSectionMapping scsm JOIN FETCH scsm.academicYear ay " +
+            "JOIN FETCH scsm.classMaster JOIN FETCH scsm.section WHERE scsm.student.id = :studentId " +
+            "ORDER BY ay.yearName DESC, scsm.enrollmentDate DESC")
+    List<StudentClassSectionMapping> findStudentHistoryWithPlacement(@Param("studentId") Long studentId);
+
     /**
      * Count students in a class/section
      */
@@ -82,4 +92,40 @@ public interface StudentClassSectionMappingRepository extends JpaRepository<Stud
     List<StudentClassSectionMapping> findByAcademicYearAndClass(
             @Param("academicYearId") Long academicYearId,
             @Param("classId") Long classId);
+
+    /**
+     * Active class and section of the given students in an academic year, as
+     * [studentId, classId, sectionId], oldest mapping first
+     */
+    @Query("SELECT scsm.student.id, scsm.classMaster.id, scsm.section.id FROM StudentClassSectionMapping scsm " +
+            "WHERE scsm.academicYear.id = :academicYearId AND scsm.student.id IN :studentIds " +
+            "AND scsm.isActive = true ORDER BY scsm.id")
+    List<Object[]> findActivePlacements(
+            @Param("academicYearId") Long academicYearId,
+            @Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Distinct (classId, sectionId) pairs with active enrollments in a school's academic year,
+     * optionally narrowed to one class and/or section
+     */
+    @Query("SELECT DISTINCT scsm.classMaster.id, scsm.section.id FROM StudentClassSectionMapping scsm " +
+            "WHERE scsm.school.id = :schoolId AND scsm.academicYear.id = :academicYearId " +
+            "AND scsm.isActive = true " +
+            "AND (:classId IS NULL OR scsm.classMaster.id = :classId) " +
+            "AND (:sectionId IS NULL OR scsm.section.id = :sectionId) " +
+            "ORDER BY scsm.classMaster.id, scsm.section.id")
+    List<Object[]> findEnrolledClassSections(
+            @Param("schoolId") Long schoolId,
+            @Param("academicYearId") Long academicYearId,
+            @Param("classId") Long classId,
+            @Param("sectionId") Long sectionId);
+
+    /**
+     * Deactivate a mapping only if it is still active; returns 1 for the caller that did it
+     * and 0 for any concurrent caller that lost the race
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE StudentClassSectionMapping scsm SET scsm.isActive = false " +
+            "WHERE scsm.id = :mappingId AND scsm.isActive = true")
+    int deactivateIfActive(@Param("mappingId") Long mappingId);
 }
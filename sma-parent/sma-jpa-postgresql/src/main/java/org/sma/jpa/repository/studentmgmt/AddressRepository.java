@@ -8,7 +8,8 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AddressRepository extends JpaRepository<Address, Long> {
+public interface AddressRepository extends JpaRepository<Address, Long>,
+        AddressRepositoryCustom {
 
     List<Address> findByStudentIdAndIsDeletedFalse(Long studentId);
 
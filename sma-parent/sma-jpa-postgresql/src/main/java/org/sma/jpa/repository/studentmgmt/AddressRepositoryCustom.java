@@ -0,0 +1,16 @@
+package org.sma.jpa.repository.studentmgmt;
+
+import org.sma.jpa.model.studentmgmt.Address;
+
+import java.util.List;
+
+/**
+ * Bulk JDBC operations for Address
+ */
+public interface AddressRepositoryCustom {
+
+    /**
+     * Insert new addresses as one JDBC batch
+     */
+    int[] insertAll(List<Address> addresses);
+}
@@ -0,0 +1,56 @@
+package org.sma.jpa.repository.studentmgmt;
+
+import org.sma.jpa.model.studentmgmt.Address;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link AddressRepositoryCustom}
+ */
+public class AddressRepositoryImpl implements AddressRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sma_student.address " +
+            "(student_id, address_type, line1, line2, city, state, pincode, country, landmark, " +
+            "created_at, created_by, is_active, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true, false)";
+
+    private static final int[] INSERT_ARG_TYPES = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP,
+            Types.VARCHAR};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] insertAll(List<Address> addresses) {
+        if (addresses.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(addresses.size());
+        for (Address address : addresses) {
+            batchArgs.add(new Object[]{
+                    address.getStudentId(),
+                    address.getAddressType(),
+                    address.getLine1(),
+                    address.getLine2(),
+                    address.getCity(),
+                    address.getState(),
+                    address.getPincode(),
+                    address.getCountry(),
+                    address.getLandmark(),
+                    now,
+                    address.getCreatedBy()
+            });
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs, INSERT_ARG_TYPES);
+    }
+}
@@ -0,0 +1,14 @@
+package org.sma.jpa.repository.studentmgmt;
+
+import org.sma.jpa.model.studentmgmt.AdmissionNumberSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AdmissionNumberSequenceRepository extends JpaRepository<AdmissionNumberSequence, Long>,
+        AdmissionNumberSequenceRepositoryCustom {
+
+    Optional<AdmissionNumberSequence> findBySchoolIdAndAdmissionYear(Long schoolId, Integer admissionYear);
+}
@@ -0,0 +1,22 @@
+package org.sma.jpa.repository.studentmgmt;
+
+/**
+ * Atomic block reservation on AdmissionNumberSequence
+ */
+public interface AdmissionNumberSequenceRepositoryCustom {
+
+    /**
+     * Advance a school year's sequence by blockSize and return the first number of the reserved block
+     * The row is locked until the caller's transaction ends, so callers should reserve in a short
+     * transaction of their own.
+     * @return first reserved number, or null when the school year has no sequence yet
+     */
+    Long reserveBlock(Long schoolId, Integer admissionYear, int blockSize);
+
+    /**
+     * Create a school year's sequence, starting after the highest existing admission number
+     * that follows the generated format; no-op when the sequence already exists
+     * @param prefix fixed part of generated numbers for that year, e.g. ADM2026
+     */
+    void seed(Long schoolId, Integer admissionYear, String prefix);
+}
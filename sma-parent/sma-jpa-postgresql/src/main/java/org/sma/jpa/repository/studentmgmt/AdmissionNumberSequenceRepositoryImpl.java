@@ -0,0 +1,45 @@
+package org.sma.jpa.repository.studentmgmt;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link AdmissionNumberSequenceRepositoryCustom}
+ */
+public class AdmissionNumberSequenceRepositoryImpl implements AdmissionNumberSequenceRepositoryCustom {
+
+    private static final String RESERVE_SQL =
+            "UPDATE sma_student.admission_number_sequence SET next_value = next_value + ?, updated_at = ? " +
+            "WHERE school_id = ? AND admission_year = ? RETURNING next_value - ?";
+
+    // Existing students may already carry generated numbers, so start after the highest one
+    private static final String SEED_SQL =
+            "INSERT INTO sma_student.admission_number_sequence " +
+            "(school_id, admission_year, next_value, created_at, is_active, is_deleted) " +
+            "SELECT ?, ?, COALESCE(MAX(CAST(SUBSTRING(sp.admission_no FROM ?) AS BIGINT)), 0) + 1, ?, true, false " +
+            "FROM sma_student.student_profile sp " +
+            "WHERE sp.school_id = ? AND sp.admission_no ~ ? " +
+            "ON CONFLICT (school_id, admission_year) DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Long reserveBlock(Long schoolId, Integer admissionYear, int blockSize) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> first = jdbcTemplate.queryForList(RESERVE_SQL, Long.class,
+                blockSize, now, schoolId, admissionYear, blockSize);
+        return first.isEmpty() ? null : first.get(0);
+    }
+
+    @Override
+    public void seed(Long schoolId, Integer admissionYear, String prefix) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String pattern = "^" + prefix.replaceAll("[^A-Za-z0-9]", "\\\\$0") + "[0-9]{1,18}$";
+        jdbcTemplate.update(SEED_SQL, schoolId, admissionYear, prefix.length() + 1, now, schoolId, pattern);
+    }
+}
@@ -8,7 +8,8 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface GuardianRepository extends JpaRepository<Guardian, Long> {
+public interface GuardianRepository extends JpaRepository<Guardian, Long>,
+        GuardianRepositoryCustom {
 
     List<Guardian> findByStudentIdAndIsDeletedFalse(Long studentId);
 
@@ -0,0 +1,16 @@
+package org.sma.jpa.repository.studentmgmt;
+
+import org.sma.jpa.model.studentmgmt.Guardian;
+
+import java.util.List;
+
+/**
+ * Bulk JDBC operations for Guardian
+ */
+public interface GuardianRepositoryCustom {
+
+    /**
+     * Insert new guardians as one JDBC batch
+     */
+    int[] insertAll(List<Guardian> guardians);
+}
@@ -0,0 +1,60 @@
+package org.sma.jpa.repository.studentmgmt;
+
+import org.sma.jpa.model.studentmgmt.Guardian;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link GuardianRepositoryCustom}
+ */
+public class GuardianRepositoryImpl implements GuardianRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sma_student.guardian " +
+            "(student_id, relation, name, phone, alternate_phone, email, occupation, annual_income, education, " +
+            "is_primary, aadhar_no, pan_no, photo_url, created_at, created_by, is_active, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true, false)";
+
+    private static final int[] INSERT_ARG_TYPES = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BOOLEAN,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] insertAll(List<Guardian> guardians) {
+        if (guardians.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(guardians.size());
+        for (Guardian guardian : guardians) {
+            batchArgs.add(new Object[]{
+                    guardian.getStudentId(),
+                    guardian.getRelation(),
+                    guardian.getName(),
+                    guardian.getPhone(),
+                    guardian.getAlternatePhone(),
+                    guardian.getEmail(),
+                    guardian.getOccupation(),
+                    guardian.getAnnualIncome(),
+                    guardian.getEducation(),
+                    Boolean.TRUE.equals(guardian.getIsPrimary()),
+                    guardian.getAadharNo(),
+                    guardian.getPanNo(),
+                    guardian.getPhotoUrl(),
+                    now,
+                    guardian.getCreatedBy()
+            });
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs, INSERT_ARG_TYPES);
+    }
+}
@@ -8,27 +8,79 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface StudentProfileRepository extends JpaRepository<StudentProfile, Long> {
+public interface StudentProfileRepository extends JpaRepository<StudentProfile, Long>,
+        StudentProfileRepositoryCustom {
+
+    // Indexed search expression; must match idx_student_profile_search_trgm
+    String SEARCH_TEXT = "LOWER(COALESCE(s.admission_no, '') || ' ' || COALESCE(s.first_name, '') || ' ' " +
+            "|| COALESCE(s.last_name, ''))";
 
     Optional<StudentProfile> findBySchoolIdAndAdmissionNo(Long schoolId, String admissionNo);
 
+    boolean existsBySchoolIdAndAdmissionNo(Long schoolId, String admissionNo);
+
+    /**
+     * Every admission number taken in a school, deleted students included since the
+     * (school_id, admission_no) constraint still covers them
+     */
+    @Query("SELECT s.admissionNo FROM StudentProfile s WHERE s.schoolId = :schoolId")
+    List<String> findAdmissionNosBySchoolId(@Param("schoolId") Long schoolId);
+
     Optional<StudentProfile> findByIdAndSchoolIdAndIsDeletedFalse(Long id, Long schoolId);
 
+    boolean existsByIdAndSchoolId(Long id, Long schoolId);
+
+    /**
+     * A student with its live guardians and addresses in one query, as [profile, guardian, address]
+     * rows; guardian and address are null when there are none and repeat across rows otherwise
+     */
+    @Query("SELECT s, g, a FROM StudentProfile s " +
+           "LEFT JOIN Guardian g ON g.studentId = s.id AND g.isDeleted = false " +
+           "LEFT JOIN Address a ON a.studentId = s.id AND a.isDeleted = false " +
+           "WHERE s.id = :studentId AND s.schoolId = :schoolId AND s.isDeleted = false " +
+           "ORDER BY g.id, a.id")
+    List<Object[]> findWithGuardiansAndAddresses(@Param("studentId") Long studentId,
+                                                 @Param("schoolId") Long schoolId);
+
+    List<StudentProfile> findBySchoolIdAndAdmissionNoInAndIsDeletedFalse(Long schoolId, Collection<String> admissionNos);
+
+    List<StudentProfile> findBySchoolIdAndIdInAndIsDeletedFalse(Long schoolId, Collection<Long> ids);
+
     Page<StudentProfile> findBySchoolIdAndIsDeletedFalse(Long schoolId, Pageable pageable);
 
     Page<StudentProfile> findBySchoolIdAndStatusAndIsDeletedFalse(Long schoolId, String status, Pageable pageable);
 
-    @Query("SELECT s FROM StudentProfile s WHERE s.schoolId = :schoolId " +
-           "AND s.isDeleted = false " +
-           "AND (LOWER(s.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(s.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(s.admissionNo) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    /**
+     * Ranked student search over admission number, first and last name
+     * Served by the idx_student_profile_search_trgm trigram index (migration V1.10): matches
+     * substrings of the search text plus words similar to the term, so misspelt names are
+     * still found. Exact admission numbers rank first, then prefix matches, then similarity.
+     * @param term lower-cased search term
+     * @param likeTerm lower-cased term with LIKE wildcards escaped
+     * @param status optional status filter
+     */
+    @Query(value = "SELECT s.* FROM sma_student.student_profile s " +
+           "WHERE s.school_id = :schoolId AND s.is_deleted = false " +
+           "AND (CAST(:status AS VARCHAR) IS NULL OR s.status = :status) " +
+           "AND (" + SEARCH_TEXT + " LIKE '%' || :likeTerm || '%' OR :term <% " + SEARCH_TEXT + ") " +
+           "ORDER BY (LOWER(s.admission_no) = :term) DESC, " +
+           "(LOWER(s.admission_no) LIKE :likeTerm || '%' OR LOWER(s.first_name) LIKE :likeTerm || '%' " +
+           "OR LOWER(s.last_name) LIKE :likeTerm || '%') DESC, " +
+           "word_similarity(:term, " + SEARCH_TEXT + ") DESC, s.id",
+           countQuery = "SELECT COUNT(*) FROM sma_student.student_profile s " +
+           "WHERE s.school_id = :schoolId AND s.is_deleted = false " +
+           "AND (CAST(:status AS VARCHAR) IS NULL OR s.status = :status) " +
+           "AND (" + SEARCH_TEXT + " LIKE '%' || :likeTerm || '%' OR :term <% " + SEARCH_TEXT + ")",
+           nativeQuery = true)
     Page<StudentProfile> searchStudents(@Param("schoolId") Long schoolId,
-                                        @Param("searchTerm") String searchTerm,
+                                        @Param("term") String term,
+                                        @Param("likeTerm") String likeTerm,
+                                        @Param("status") String status,
                                         Pageable pageable);
 
     List<StudentProfile> findBySchoolIdAndStatusAndIsDeletedFalse(Long schoolId, String status);
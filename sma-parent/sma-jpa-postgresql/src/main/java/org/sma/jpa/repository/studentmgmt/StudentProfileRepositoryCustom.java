@@ -0,0 +1,22 @@
+package org.sma.jpa.repository.studentmgmt;
+
+import org.sma.jpa.model.studentmgmt.StudentProfile;
+
+import java.util.List;
+
+/**
+ * Bulk JDBC operations for StudentProfile
+ */
+public interface StudentProfileRepositoryCustom {
+
+    /**
+     * Draw ids for new student profiles from the table's id sequence in one round trip,
+     * so children can reference their students before anything is inserted
+     */
+    List<Long> reserveIds(int count);
+
+    /**
+     * Insert profiles whose ids were drawn with {@link #reserveIds(int)} as one JDBC batch
+     */
+    int[] insertAll(List<StudentProfile> students);
+}
@@ -0,0 +1,84 @@
+package org.sma.jpa.repository.studentmgmt;
+
+import org.sma.jpa.model.studentmgmt.StudentProfile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link StudentProfileRepositoryCustom}
+ */
+public class StudentProfileRepositoryImpl implements StudentProfileRepositoryCustom {
+
+    private static final String RESERVE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('sma_student.student_profile', 'id')) " +
+            "FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sma_student.student_profile " +
+            "(id, school_id, admission_no, first_name, middle_name, last_name, gender, date_of_birth, phone, " +
+            "email, blood_group, religion, caste, nationality, mother_tongue, aadhar_no, status, admission_date, " +
+            "photo_url, remarks, medical_conditions, allergies, created_at, created_by, is_active, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true, false)";
+
+    private static final int[] INSERT_ARG_TYPES = {Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DATE, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DATE,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> reserveIds(int count) {
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, count);
+    }
+
+    @Override
+    public int[] insertAll(List<StudentProfile> students) {
+        if (students.isEmpty()) {
+            return new int[0];
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(students.size());
+        for (StudentProfile student : students) {
+            batchArgs.add(new Object[]{
+                    student.getId(),
+                    student.getSchoolId(),
+                    student.getAdmissionNo(),
+                    student.getFirstName(),
+                    student.getMiddleName(),
+                    student.getLastName(),
+                    student.getGender(),
+                    student.getDateOfBirth() != null ? Date.valueOf(student.getDateOfBirth()) : null,
+                    student.getPhone(),
+                    student.getEmail(),
+                    student.getBloodGroup(),
+                    student.getReligion(),
+                    student.getCaste(),
+                    student.getNationality(),
+                    student.getMotherTongue(),
+                    student.getAadharNo(),
+                    student.getStatus(),
+                    student.getAdmissionDate() != null ? Date.valueOf(student.getAdmissionDate()) : null,
+                    student.getPhotoUrl(),
+                    student.getRemarks(),
+                    student.getMedicalConditions(),
+                    student.getAllergies(),
+                    now,
+                    student.getCreatedBy()
+            });
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs, INSERT_ARG_TYPES);
+    }
+}
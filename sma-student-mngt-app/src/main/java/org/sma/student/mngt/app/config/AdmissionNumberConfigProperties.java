@@ -0,0 +1,41 @@
+package org.sma.student.mngt.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Admission Number Allocation Configuration Properties
+ * Loaded from application.yml with prefix: sma.app.student.admission-number
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sma.app.student.admission-number")
+public class AdmissionNumberConfigProperties {
+
+    private String prefix = "ADM";
+    private int digits = 6;
+    private int blockSize = 20; // Numbers reserved per database round trip; unused numbers are skipped on restart
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public int getDigits() {
+        return digits;
+    }
+
+    public void setDigits(int digits) {
+        this.digits = digits;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+}
@@ -0,0 +1,41 @@
+package org.sma.student.mngt.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Student Details Cache Configuration Properties
+ * Loaded from application.yml with prefix: sma.app.student.details-cache
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sma.app.student.details-cache")
+public class StudentDetailsCacheConfigProperties {
+
+    private boolean enabled = true;
+    private int maxEntries = 5000;
+    private long ttlSeconds = 300; // Bounds staleness from writes this node does not see, e.g. other services or nodes
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
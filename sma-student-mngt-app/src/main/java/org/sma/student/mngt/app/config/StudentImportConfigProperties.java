@@ -0,0 +1,59 @@
+package org.sma.student.mngt.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bulk Student Import Configuration Properties
+ * Loaded from application.yml with prefix: sma.app.student.import
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sma.app.student.import")
+public class StudentImportConfigProperties {
+
+    private int chunkSize = 500; // Rows validated and inserted per transaction
+    private int validationWorkers = 4;
+    private int maxRows = 100000;
+    private int maxRetainedJobs = 20;
+    private String workDir = System.getProperty("java.io.tmpdir") + "/sma-student-import";
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getValidationWorkers() {
+        return validationWorkers;
+    }
+
+    public void setValidationWorkers(int validationWorkers) {
+        this.validationWorkers = validationWorkers;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    public int getMaxRetainedJobs() {
+        return maxRetainedJobs;
+    }
+
+    public void setMaxRetainedJobs(int maxRetainedJobs) {
+        this.maxRetainedJobs = maxRetainedJobs;
+    }
+
+    public String getWorkDir() {
+        return workDir;
+    }
+
+    public void setWorkDir(String workDir) {
+        this.workDir = workDir;
+    }
+}
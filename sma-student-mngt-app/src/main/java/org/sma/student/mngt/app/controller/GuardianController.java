@@ -5,6 +5,7 @@ import io.swagger.annotations.ApiOperation;
 import org.sma.student.mngt.app.dto.GuardianDto;
 import org.sma.jpa.model.studentmgmt.Guardian;
 import org.sma.jpa.repository.studentmgmt.GuardianRepository;
+import org.sma.student.mngt.app.service.StudentDetailsLoader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +26,9 @@ public class GuardianController {
     @Autowired
     private GuardianRepository guardianRepository;
 
+    @Autowired
+    private StudentDetailsLoader studentDetailsLoader;
+
     @GetMapping
     @ApiOperation(value = "Get student guardians", notes = "Returns all guardians for a student")
     public ResponseEntity<List<GuardianDto>> getGuardians(
@@ -60,6 +64,7 @@ public class GuardianController {
         guardian.setCreatedBy("SYSTEM");
         
         guardian = guardianRepository.save(guardian);
+        studentDetailsLoader.evict(studentId);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -82,6 +87,7 @@ public class GuardianController {
         guardian.setIsDeleted(true);
         guardian.setUpdatedBy("SYSTEM");
         guardianRepository.save(guardian);
+        studentDetailsLoader.evict(studentId);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
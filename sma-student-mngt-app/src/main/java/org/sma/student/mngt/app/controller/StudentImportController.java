@@ -0,0 +1,96 @@
+package org.sma.student.mngt.app.controller;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.sma.student.mngt.app.dto.StudentImportJobResponse;
+import org.sma.platform.core.utils.ImportFileUtils;
+import org.sma.security.auth.util.SecurityContextUtil;
+import org.sma.student.mngt.app.service.StudentImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/schools/{schoolId}/students/import")
+@Api(tags = "StudentProfile Import", description = "APIs for bulk StudentProfile onboarding")
+public class StudentImportController {
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ApiOperation(value = "Import students in bulk",
+            notes = "Queues an import of a CSV (with header row) or NDJSON file of students with guardians and addresses")
+    public ResponseEntity<?> importStudents(
+            @PathVariable Long schoolId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) throws IOException {
+
+        String resolvedFormat;
+        try {
+            resolvedFormat = ImportFileUtils.resolveFormat(format, file.getOriginalFilename());
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+        if (file.isEmpty()) {
+            return badRequest("Import file is empty");
+        }
+
+        StudentImportJobResponse job;
+        try (InputStream input = file.getInputStream()) {
+            job = studentImportService.startImport(schoolId, input, resolvedFormat, currentUser());
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    @ApiOperation(value = "Get import progress", notes = "Progress and counts of a bulk import job")
+    public ResponseEntity<StudentImportJobResponse> getImportJob(
+            @PathVariable Long schoolId,
+            @PathVariable String jobId) {
+
+        StudentImportJobResponse job = studentImportService.getJob(schoolId, jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/{jobId}/errors")
+    @ApiOperation(value = "Download import errors", notes = "CSV of rejected and duplicate rows of a finished import")
+    public ResponseEntity<Resource> getImportErrors(
+            @PathVariable Long schoolId,
+            @PathVariable String jobId) {
+
+        Path errorFile = studentImportService.getErrorFile(schoolId, jobId);
+        if (errorFile == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"student-import-" + jobId + "-errors.csv\"")
+                .body(new FileSystemResource(errorFile));
+    }
+
+    // Rows are written on a worker thread, so the user is resolved here on the request thread
+    private String currentUser() {
+        String username = SecurityContextUtil.getCurrentUsername();
+        return username != null ? username : "SYSTEM";
+    }
+
+    private ResponseEntity<Map<String, Object>> badRequest(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        return ResponseEntity.badRequest().body(response);
+    }
+}
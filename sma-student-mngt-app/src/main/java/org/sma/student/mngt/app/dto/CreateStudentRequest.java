@@ -236,4 +236,8 @@ public class CreateStudentRequest {
     public String getStatus() {
         return this.status;
     }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
 }
@@ -8,8 +8,11 @@ public class EnrollmentDto {
     private Long studentId;
     private Long schoolId;
     private Long academicYearId;
+    private String academicYearName;
     private Long classId;
+    private String className;
     private Long sectionId;
+    private String sectionName;
     private String rollNo;
     private LocalDate startDate;
     private LocalDate endDate;
@@ -50,6 +53,14 @@ public class EnrollmentDto {
         this.academicYearId = academicYearId;
     }
 
+    public String getAcademicYearName() {
+        return academicYearName;
+    }
+
+    public void setAcademicYearName(String academicYearName) {
+        this.academicYearName = academicYearName;
+    }
+
     public Long getClassId() {
         return classId;
     }
@@ -58,6 +69,14 @@ public class EnrollmentDto {
         this.classId = classId;
     }
 
+    public String getClassName() {
+        return className;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
     public Long getSectionId() {
         return sectionId;
     }
@@ -66,6 +85,14 @@ public class EnrollmentDto {
         this.sectionId = sectionId;
     }
 
+    public String getSectionName() {
+        return sectionName;
+    }
+
+    public void setSectionName(String sectionName) {
+        this.sectionName = sectionName;
+    }
+
     public String getRollNo() {
         return rollNo;
     }
@@ -0,0 +1,154 @@
+package org.sma.student.mngt.app.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress and outcome of a bulk student import job
+ */
+public class StudentImportJobResponse {
+
+    private String jobId;
+    private Long schoolId;
+    private String format;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private Integer rowsRead;
+    private Integer chunksProcessed;
+    private Integer imported;
+    private Integer rejected;
+    private Integer duplicates;
+    private Boolean truncated;
+    private Boolean errorFileAvailable;
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Long elapsedMs;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public Long getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Long schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(Integer rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public Integer getChunksProcessed() {
+        return chunksProcessed;
+    }
+
+    public void setChunksProcessed(Integer chunksProcessed) {
+        this.chunksProcessed = chunksProcessed;
+    }
+
+    public Integer getImported() {
+        return imported;
+    }
+
+    public void setImported(Integer imported) {
+        this.imported = imported;
+    }
+
+    public Integer getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(Integer rejected) {
+        this.rejected = rejected;
+    }
+
+    public Integer getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(Integer duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public Boolean getTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(Boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public Boolean getErrorFileAvailable() {
+        return errorFileAvailable;
+    }
+
+    public void setErrorFileAvailable(Boolean errorFileAvailable) {
+        this.errorFileAvailable = errorFileAvailable;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public Long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(Long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+}
@@ -0,0 +1,85 @@
+package org.sma.student.mngt.app.service;
+
+import org.sma.jpa.repository.studentmgmt.AdmissionNumberSequenceRepository;
+import org.sma.student.mngt.app.config.AdmissionNumberConfigProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out per school, per admission year admission numbers using hi/lo blocks
+ * Each node reserves a block of numbers with one atomic update of the school year's
+ * sequence row and serves the block from memory, so most admissions never touch the
+ * database and nodes never overlap. Numbers left in a block when a node stops are skipped.
+ */
+@Component
+public class AdmissionNumberAllocator {
+
+    @Autowired
+    private AdmissionNumberConfigProperties config;
+
+    @Autowired
+    private AdmissionNumberSequenceRepository sequenceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate reserveTransaction;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        // Reserve outside the caller's transaction so the sequence row is locked only briefly
+        // and a rolled back admission cannot hand its block to another node
+        reserveTransaction = new TransactionTemplate(transactionManager);
+        reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Next admission number for a school and admission year, e.g. ADM2026000042
+     */
+    public String nextAdmissionNumber(Long schoolId, int admissionYear) {
+        Block block = blocks.computeIfAbsent(schoolId + ":" + admissionYear, key -> new Block());
+        long value;
+        synchronized (block) {
+            if (block.next >= block.limit) {
+                int blockSize = Math.max(1, config.getBlockSize());
+                long first = reserveBlock(schoolId, admissionYear, blockSize);
+                block.next = first;
+                block.limit = first + blockSize;
+            }
+            value = block.next++;
+        }
+        return prefix(admissionYear) + String.format("%0" + config.getDigits() + "d", value);
+    }
+
+    private long reserveBlock(Long schoolId, int admissionYear, int blockSize) {
+        Long first = reserveTransaction.execute(status -> {
+            Long reserved = sequenceRepository.reserveBlock(schoolId, admissionYear, blockSize);
+            if (reserved == null) {
+                sequenceRepository.seed(schoolId, admissionYear, prefix(admissionYear));
+                reserved = sequenceRepository.reserveBlock(schoolId, admissionYear, blockSize);
+            }
+            return reserved;
+        });
+        if (first == null) {
+            throw new IllegalStateException("Unable to reserve admission numbers for school " + schoolId);
+        }
+        return first;
+    }
+
+    private String prefix(int admissionYear) {
+        return config.getPrefix() + admissionYear;
+    }
+
+    private static final class Block {
+        private long next;
+        private long limit;
+    }
+}
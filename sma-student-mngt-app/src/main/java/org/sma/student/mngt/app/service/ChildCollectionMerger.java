@@ -0,0 +1,118 @@
+package org.sma.student.mngt.app.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diffs an incoming child collection (DTOs) against the live child rows of a parent
+ * Incoming items are matched to existing rows by id first, then by natural key; matched
+ * rows that differ are updated in place, unmatched items become inserts and unmatched
+ * rows become removals. An unchanged payload yields an empty plan.
+ */
+public final class ChildCollectionMerger {
+
+    private ChildCollectionMerger() {
+    }
+
+    /**
+     * How one kind of child row is identified, compared and written from its DTO
+     */
+    public interface ChildMapping<E, D> {
+
+        Long entityId(E entity);
+
+        Long dtoId(D dto);
+
+        /**
+         * Natural key used when an incoming item has no (known) id, or null when it has none
+         */
+        String entityKey(E entity);
+
+        String dtoKey(D dto);
+
+        boolean sameContent(E entity, D dto);
+
+        void apply(E entity, D dto);
+
+        E create(D dto);
+    }
+
+    public static final class MergePlan<E> {
+        private final List<E> inserts = new ArrayList<>();
+        private final List<E> updates = new ArrayList<>();
+        private final List<E> removals = new ArrayList<>();
+
+        public List<E> getInserts() {
+            return inserts;
+        }
+
+        public List<E> getUpdates() {
+            return updates;
+        }
+
+        public List<E> getRemovals() {
+            return removals;
+        }
+
+        public boolean isEmpty() {
+            return inserts.isEmpty() && updates.isEmpty() && removals.isEmpty();
+        }
+    }
+
+    public static <E, D> MergePlan<E> merge(List<E> existing, List<D> incoming, ChildMapping<E, D> mapping) {
+        MergePlan<E> plan = new MergePlan<>();
+        Map<Long, E> unmatchedById = new LinkedHashMap<>();
+        for (E entity : existing) {
+            unmatchedById.put(mapping.entityId(entity), entity);
+        }
+
+        List<D> withoutIdMatch = new ArrayList<>();
+        Map<E, D> matches = new LinkedHashMap<>();
+        if (incoming != null) {
+            for (D dto : incoming) {
+                if (dto == null) {
+                    continue;
+                }
+                Long id = mapping.dtoId(dto);
+                E entity = id != null ? unmatchedById.remove(id) : null;
+                if (entity != null) {
+                    matches.put(entity, dto);
+                } else {
+                    withoutIdMatch.add(dto);
+                }
+            }
+        }
+
+        // Natural key matching only considers rows no incoming id claimed
+        Map<String, List<E>> unmatchedByKey = new HashMap<>();
+        for (E entity : unmatchedById.values()) {
+            String key = mapping.entityKey(entity);
+            if (key != null) {
+                unmatchedByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(entity);
+            }
+        }
+        for (D dto : withoutIdMatch) {
+            String key = mapping.dtoKey(dto);
+            List<E> candidates = key != null ? unmatchedByKey.get(key) : null;
+            if (candidates != null && !candidates.isEmpty()) {
+                E entity = candidates.remove(0);
+                unmatchedById.remove(mapping.entityId(entity));
+                matches.put(entity, dto);
+            } else {
+                plan.inserts.add(mapping.create(dto));
+            }
+        }
+
+        for (Map.Entry<E, D> match : matches.entrySet()) {
+            if (!mapping.sameContent(match.getKey(), match.getValue())) {
+                mapping.apply(match.getKey(), match.getValue());
+                plan.updates.add(match.getKey());
+            }
+        }
+        plan.removals.addAll(unmatchedById.values());
+        return plan;
+    }
+}
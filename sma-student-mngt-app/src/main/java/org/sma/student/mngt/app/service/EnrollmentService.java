@@ -23,6 +23,9 @@ public class EnrollmentService {
     @Autowired
     private StudentProfileRepository StudentProfileRepository;
 
+    @Autowired
+    private StudentDetailsLoader studentDetailsLoader;
+
     @Transactional
     public Enrollment enrollStudent(Long schoolId, EnrollStudentRequest request, String createdBy) {
         // Validate StudentProfile exists and belongs to school
@@ -102,6 +105,7 @@ public class EnrollmentService {
             StudentProfile.setStatus("WITHDRAWN");
             StudentProfile.setUpdatedBy(withdrawnBy);
             StudentProfileRepository.save(StudentProfile);
+            studentDetailsLoader.evict(studentId);
         });
     }
 
@@ -0,0 +1,274 @@
+package org.sma.student.mngt.app.service;
+
+import org.sma.jpa.model.student.StudentClassSectionMapping;
+import org.sma.jpa.model.studentmgmt.Address;
+import org.sma.jpa.model.studentmgmt.Guardian;
+import org.sma.jpa.model.studentmgmt.StudentProfile;
+import org.sma.jpa.repository.student.StudentClassSectionMappingRepository;
+import org.sma.jpa.repository.studentmgmt.StudentProfileRepository;
+import org.sma.student.mngt.app.config.StudentDetailsCacheConfigProperties;
+import org.sma.student.mngt.app.dto.AddressDto;
+import org.sma.student.mngt.app.dto.EnrollmentDto;
+import org.sma.student.mngt.app.dto.GuardianDto;
+import org.sma.student.mngt.app.dto.StudentDetailsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Loads the student 360 view (profile, guardians, addresses, current enrollment and
+ * enrollment history) in two queries and caches the profile part per student
+ * The profile comes back joined with its guardians and addresses; the class section
+ * history comes back with academic year, class and section fetched and is never cached.
+ * Writes through this service evict the student on commit; the TTL bounds staleness from
+ * profile writes made elsewhere.
+ */
+@Component
+public class StudentDetailsLoader {
+
+    @Autowired
+    private StudentDetailsCacheConfigProperties config;
+
+    @Autowired
+    private StudentProfileRepository studentProfileRepository;
+
+    @Autowired
+    private StudentClassSectionMappingRepository studentClassSectionMappingRepository;
+
+    // Generations are striped by student id so the table stays bounded; a shared stripe only
+    // costs a skipped cache fill
+    private static final int GENERATION_STRIPES = 1024;
+
+    // LRU of student id to loaded profile, guardians and addresses
+    private Map<Long, CachedDetails> cache;
+    // Bumped by every evict; a load only caches what it read if its stripe did not move meanwhile
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @PostConstruct
+    public void init() {
+        int maxEntries = Math.max(1, config.getMaxEntries());
+        cache = Collections.synchronizedMap(new LinkedHashMap<Long, CachedDetails>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedDetails> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public StudentDetailsResponse load(Long schoolId, Long studentId) {
+        CachedDetails details = null;
+        if (config.isEnabled()) {
+            CachedDetails cached = cache.get(studentId);
+            if (cached != null && cached.profile.getSchoolId().equals(schoolId)
+                    && cached.expiresAt > System.nanoTime()) {
+                details = cached;
+            }
+        }
+        if (details == null) {
+            long generation = generations.get(stripe(studentId));
+            details = loadProfile(schoolId, studentId);
+            if (config.isEnabled()) {
+                // Same lock as evict, so an evict cannot land between the check and the put
+                synchronized (cache) {
+                    if (generations.get(stripe(studentId)) == generation) {
+                        cache.put(studentId, details);
+                    }
+                }
+            }
+        }
+
+        // Every call maps a fresh response, so callers never share or mutate the cached state
+        StudentDetailsResponse response = mapToDetailsResponse(details.profile);
+        List<GuardianDto> guardianDtos = new ArrayList<>(details.guardians.size());
+        for (Guardian guardian : details.guardians) {
+            guardianDtos.add(mapToGuardianDto(guardian));
+        }
+        response.setGuardians(guardianDtos);
+        List<AddressDto> addressDtos = new ArrayList<>(details.addresses.size());
+        for (Address address : details.addresses) {
+            addressDtos.add(mapToAddressDto(address));
+        }
+        response.setAddresses(addressDtos);
+
+        // Enrollment is changed by the admin app (assignment, promotion, transfer) which cannot
+        // evict this cache, so it is always read fresh; one query serves current and history
+        List<EnrollmentDto> history = new ArrayList<>();
+        for (StudentClassSectionMapping mapping : studentClassSectionMappingRepository.findStudentHistoryWithPlacement(studentId)) {
+            EnrollmentDto enrollment = mapMappingToEnrollmentDto(mapping);
+            if (response.getCurrentEnrollment() == null && Boolean.TRUE.equals(mapping.getIsActive())) {
+                response.setCurrentEnrollment(enrollment);
+            }
+            history.add(enrollment);
+        }
+        response.setEnrollmentHistory(history);
+        return response;
+    }
+
+    private CachedDetails loadProfile(Long schoolId, Long studentId) {
+        List<Object[]> rows = studentProfileRepository.findWithGuardiansAndAddresses(studentId, schoolId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("StudentProfile not found");
+        }
+
+        // Guardian and address rows multiply each other in the join, so keep each id once
+        Map<Long, Guardian> guardians = new LinkedHashMap<>();
+        Map<Long, Address> addresses = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            if (row[1] != null) {
+                Guardian guardian = (Guardian) row[1];
+                guardians.putIfAbsent(guardian.getId(), guardian);
+            }
+            if (row[2] != null) {
+                Address address = (Address) row[2];
+                addresses.putIfAbsent(address.getId(), address);
+            }
+        }
+        return new CachedDetails((StudentProfile) rows.get(0)[0], new ArrayList<>(guardians.values()),
+                new ArrayList<>(addresses.values()),
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getTtlSeconds()));
+    }
+
+    /**
+     * Drop a student's cached details now and again once the surrounding transaction completes
+     * Each drop bumps the student's generation, so a load that read the old rows before the
+     * commit finds its generation moved and does not put them back.
+     */
+    public void evict(Long studentId) {
+        invalidate(studentId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(studentId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long studentId) {
+        synchronized (cache) {
+            generations.incrementAndGet(stripe(studentId));
+            cache.remove(studentId);
+        }
+    }
+
+    private int stripe(Long studentId) {
+        return (int) Math.floorMod(studentId, (long) GENERATION_STRIPES);
+    }
+
+    private StudentDetailsResponse mapToDetailsResponse(StudentProfile student) {
+        StudentDetailsResponse response = new StudentDetailsResponse();
+        response.setId(student.getId());
+        response.setSchoolId(student.getSchoolId());
+        response.setStatus(student.getStatus());
+        response.setAdmissionNo(student.getAdmissionNo());
+        response.setFirstName(student.getFirstName());
+        response.setMiddleName(student.getMiddleName());
+        response.setLastName(student.getLastName());
+        response.setFullName(student.getFirstName() + " " + 
+                (student.getMiddleName() != null ? student.getMiddleName() + " " : "") + 
+                student.getLastName());
+        response.setGender(student.getGender());
+        response.setDateOfBirth(student.getDateOfBirth());
+        response.setPhone(student.getPhone());
+        response.setEmail(student.getEmail());
+        response.setBloodGroup(student.getBloodGroup());
+        response.setReligion(student.getReligion());
+        response.setCaste(student.getCaste());
+        response.setNationality(student.getNationality());
+        response.setMotherTongue(student.getMotherTongue());
+        response.setAadharNo(student.getAadharNo());
+        response.setStatus(student.getStatus());
+        response.setAdmissionDate(student.getAdmissionDate());
+        response.setPhotoUrl(student.getPhotoUrl());
+        response.setRemarks(student.getRemarks());
+        response.setMedicalConditions(student.getMedicalConditions());
+        response.setAllergies(student.getAllergies());
+        return response;
+    }
+
+    private GuardianDto mapToGuardianDto(Guardian guardian) {
+        GuardianDto dto = new GuardianDto();
+        dto.setId(guardian.getId());
+        dto.setRelation(guardian.getRelation());
+        dto.setName(guardian.getName());
+        dto.setPhone(guardian.getPhone());
+        dto.setAlternatePhone(guardian.getAlternatePhone());
+        dto.setEmail(guardian.getEmail());
+        dto.setOccupation(guardian.getOccupation());
+        dto.setAnnualIncome(guardian.getAnnualIncome());
+        dto.setEducation(guardian.getEducation());
+        dto.setIsPrimary(guardian.getIsPrimary());
+        dto.setAadharNo(guardian.getAadharNo());
+        dto.setPanNo(guardian.getPanNo());
+        dto.setPhotoUrl(guardian.getPhotoUrl());
+        return dto;
+    }
+
+    private AddressDto mapToAddressDto(Address address) {
+        AddressDto dto = new AddressDto();
+        dto.setId(address.getId());
+        dto.setAddressType(address.getAddressType());
+        dto.setLine1(address.getLine1());
+        dto.setLine2(address.getLine2());
+        dto.setCity(address.getCity());
+        dto.setState(address.getState());
+        dto.setPincode(address.getPincode());
+        dto.setCountry(address.getCountry());
+        dto.setLandmark(address.getLandmark());
+        return dto;
+    }
+
+    private EnrollmentDto mapMappingToEnrollmentDto(StudentClassSectionMapping mapping) {
+        EnrollmentDto dto = new EnrollmentDto();
+        dto.setId(mapping.getId());
+        dto.setStudentId(mapping.getStudent() != null ? mapping.getStudent().getId() : null);
+        dto.setSchoolId(mapping.getSchool() != null ? mapping.getSchool().getId() : null);
+        if (mapping.getAcademicYear() != null) {
+            dto.setAcademicYearId(mapping.getAcademicYear().getId());
+            dto.setAcademicYearName(mapping.getAcademicYear().getYearName());
+        }
+        if (mapping.getClassMaster() != null) {
+            dto.setClassId(mapping.getClassMaster().getId());
+            dto.setClassName(mapping.getClassMaster().getClassName());
+        }
+        if (mapping.getSection() != null) {
+            dto.setSectionId(mapping.getSection().getId());
+            dto.setSectionName(mapping.getSection().getSectionName());
+        }
+        dto.setRollNo(mapping.getRollNumber());
+        dto.setStartDate(mapping.getEnrollmentDate());
+        dto.setEndDate(null); // Not tracked in mapping
+        dto.setStatus(mapping.getIsActive() != null && mapping.getIsActive() ? "ACTIVE" : "INACTIVE");
+        dto.setEndReason(null); // Not tracked in mapping
+        dto.setRemarks(mapping.getRemarks());
+        return dto;
+    }
+
+    private static final class CachedDetails {
+        private final StudentProfile profile;
+        private final List<Guardian> guardians;
+        private final List<Address> addresses;
+        private final long expiresAt;
+
+        private CachedDetails(StudentProfile profile, List<Guardian> guardians, List<Address> addresses,
+                              long expiresAt) {
+            this.profile = profile;
+            this.guardians = guardians;
+            this.addresses = addresses;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
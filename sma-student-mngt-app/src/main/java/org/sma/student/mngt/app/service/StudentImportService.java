@@ -0,0 +1,650 @@
+package org.sma.student.mngt.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sma.jpa.model.studentmgmt.Address;
+import org.sma.jpa.model.studentmgmt.Guardian;
+import org.sma.jpa.model.studentmgmt.StudentProfile;
+import org.sma.jpa.repository.studentmgmt.AddressRepository;
+import org.sma.jpa.repository.studentmgmt.GuardianRepository;
+import org.sma.jpa.repository.studentmgmt.StudentProfileRepository;
+import org.sma.student.mngt.app.config.StudentImportConfigProperties;
+import org.sma.student.mngt.app.dto.AddressDto;
+import org.sma.student.mngt.app.dto.CreateStudentRequest;
+import org.sma.student.mngt.app.dto.GuardianDto;
+import org.sma.student.mngt.app.dto.StudentImportJobResponse;
+import org.sma.platform.core.utils.ImportFileUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports students in bulk from a CSV (with a header row) or NDJSON file
+ * The upload is spooled to disk and processed by a background job in chunks: each chunk
+ * is parsed and validated in parallel, checked against the school's admission numbers
+ * (loaded once per job), then written with one JDBC batch each for profiles, guardians
+ * and addresses in a single transaction. A chunk that fails to insert is retried row by
+ * row. Rejected rows go to a downloadable error file.
+ */
+@Service
+public class StudentImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentImportService.class);
+
+    private static final String DEFAULT_STATUS = "ACTIVE";
+    private static final String DEFAULT_ADDRESS_TYPE = "CURRENT";
+    private static final String[] GUARDIAN_PREFIXES = {"guardian", "guardian2"};
+
+    @Autowired
+    private StudentImportConfigProperties config;
+
+    @Autowired
+    private StudentProfileRepository studentProfileRepository;
+
+    @Autowired
+    private GuardianRepository guardianRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private AdmissionNumberAllocator admissionNumberAllocator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+    private ExecutorService jobExecutor;
+    private ExecutorService validationPool;
+    private TransactionTemplate chunkTransaction;
+    private Path workDir;
+
+    @PostConstruct
+    public void start() throws IOException {
+        workDir = Paths.get(config.getWorkDir()).toAbsolutePath();
+        Files.createDirectories(workDir);
+        chunkTransaction = new TransactionTemplate(transactionManager);
+
+        // One import at a time; later jobs wait in QUEUED state
+        jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "student-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadIndex = new AtomicInteger();
+        validationPool = Executors.newFixedThreadPool(Math.max(1, config.getValidationWorkers()), runnable -> {
+            Thread thread = new Thread(runnable, "student-import-validate-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        jobExecutor.shutdownNow();
+        validationPool.shutdownNow();
+    }
+
+    /**
+     * Spool the uploaded file and queue its import
+     */
+    public StudentImportJobResponse startImport(Long schoolId, InputStream input, String format, String createdBy)
+            throws IOException {
+        ImportJob job = new ImportJob();
+        job.jobId = UUID.randomUUID().toString();
+        job.schoolId = schoolId;
+        job.format = format;
+        job.createdBy = createdBy;
+        job.uploadFile = workDir.resolve(job.jobId + ".upload");
+        job.errorFile = workDir.resolve(job.jobId + "-errors.csv");
+        Files.copy(input, job.uploadFile, StandardCopyOption.REPLACE_EXISTING);
+        job.status = "QUEUED";
+        job.submittedAt = LocalDateTime.now();
+
+        synchronized (jobs) {
+            jobs.put(job.jobId, job);
+            evictFinishedJobs();
+        }
+        jobExecutor.submit(() -> runJob(job));
+        logger.info("Queued student import {} for school {} ({}, {} bytes)",
+                job.jobId, schoolId, format, Files.size(job.uploadFile));
+        return job.toResponse();
+    }
+
+    /**
+     * Current state of an import job, or null when the school has no such job
+     */
+    public StudentImportJobResponse getJob(Long schoolId, String jobId) {
+        ImportJob job = findJob(schoolId, jobId);
+        return job != null ? job.toResponse() : null;
+    }
+
+    /**
+     * Row-level error file of a finished job, or null when there is none
+     */
+    public Path getErrorFile(Long schoolId, String jobId) {
+        ImportJob job = findJob(schoolId, jobId);
+        if (job == null || job.completedAt == null || !Files.exists(job.errorFile)) {
+            return null;
+        }
+        return job.errorFile;
+    }
+
+    private ImportJob findJob(Long schoolId, String jobId) {
+        ImportJob job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        return job != null && job.schoolId.equals(schoolId) ? job : null;
+    }
+
+    private void runJob(ImportJob job) {
+        job.status = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        try (BufferedReader reader = Files.newBufferedReader(job.uploadFile, StandardCharsets.UTF_8);
+             BufferedWriter errors = Files.newBufferedWriter(job.errorFile, StandardCharsets.UTF_8)) {
+            errors.write("rowNumber,admissionNo,status,reason");
+            errors.newLine();
+
+            Map<String, Integer> csvColumns = null;
+            if (ImportFileUtils.FORMAT_CSV.equals(job.format)) {
+                String header = reader.readLine();
+                if (header == null) {
+                    job.finish("FAILED", "Import file is empty");
+                    return;
+                }
+                csvColumns = ImportFileUtils.parseHeader(header);
+            }
+
+            // Every admission number already taken in the school, in one query
+            Set<String> takenAdmissionNos = new HashSet<>(
+                    studentProfileRepository.findAdmissionNosBySchoolId(job.schoolId));
+
+            int chunkSize = Math.max(1, config.getChunkSize());
+            List<SourceLine> chunk = new ArrayList<>(chunkSize);
+            int rowNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (Thread.currentThread().isInterrupted()) {
+                    job.finish("FAILED", "Import interrupted");
+                    return;
+                }
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                if (rowNumber >= config.getMaxRows()) {
+                    job.truncated = true;
+                    break;
+                }
+                rowNumber++;
+                chunk.add(new SourceLine(rowNumber, line));
+                job.rowsRead.set(rowNumber);
+                if (chunk.size() >= chunkSize) {
+                    processChunk(job, csvColumns, chunk, takenAdmissionNos, errors);
+                    chunk.clear();
+                }
+            }
+            processChunk(job, csvColumns, chunk, takenAdmissionNos, errors);
+
+            job.finish("COMPLETED", job.truncated
+                    ? "Stopped after " + config.getMaxRows() + " rows" : "Import finished");
+            logger.info("Student import {} for school {} completed: {} rows, {} imported, {} duplicates, {} rejected in {} ms",
+                    job.jobId, job.schoolId, job.rowsRead.get(), job.imported.get(), job.duplicates.get(),
+                    job.rejected.get(), job.elapsedMs());
+        } catch (Exception e) {
+            logger.error("Student import {} failed", job.jobId, e);
+            job.finish("FAILED", e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(job.uploadFile);
+            } catch (IOException e) {
+                logger.warn("Unable to delete import upload {}", job.uploadFile);
+            }
+        }
+    }
+
+    private void processChunk(ImportJob job, Map<String, Integer> csvColumns, List<SourceLine> chunk,
+                              Set<String> takenAdmissionNos, BufferedWriter errors)
+            throws IOException, InterruptedException, ExecutionException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // Parse and validate in parallel; rows are independent of each other at this stage
+        List<Callable<ParsedRow>> tasks = new ArrayList<>(chunk.size());
+        for (SourceLine source : chunk) {
+            tasks.add(() -> parseAndValidate(job.schoolId, job.format, csvColumns, source));
+        }
+        List<ParsedRow> parsedRows = new ArrayList<>(chunk.size());
+        for (Future<ParsedRow> future : validationPool.invokeAll(tasks)) {
+            parsedRows.add(future.get());
+        }
+
+        // Admission numbers are checked in file order so the first occurrence wins
+        List<ParsedRow> accepted = new ArrayList<>(parsedRows.size());
+        for (ParsedRow row : parsedRows) {
+            if (row.error != null) {
+                writeError(errors, row, "REJECTED", row.error);
+                job.rejected.incrementAndGet();
+            } else if (row.request.getAdmissionNo() != null) {
+                if (takenAdmissionNos.add(row.request.getAdmissionNo())) {
+                    accepted.add(row);
+                } else {
+                    writeError(errors, row, "DUPLICATE", "Admission number already exists");
+                    job.duplicates.incrementAndGet();
+                }
+            } else {
+                String admissionNo;
+                do {
+                    admissionNo = admissionNumberAllocator.nextAdmissionNumber(job.schoolId,
+                            row.request.getAdmissionDate().getYear());
+                } while (!takenAdmissionNos.add(admissionNo));
+                row.request.setAdmissionNo(admissionNo);
+                accepted.add(row);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            try {
+                insertChunk(job, accepted);
+                job.imported.addAndGet(accepted.size());
+            } catch (RuntimeException e) {
+                // The chunk rolled back as a whole; retry its rows one at a time so only
+                // the rows that fail on their own are rejected
+                logger.warn("Student import {} chunk ending at row {} failed, retrying row by row: {}", job.jobId,
+                        chunk.get(chunk.size() - 1).rowNumber, e.getMessage());
+                for (ParsedRow row : accepted) {
+                    try {
+                        insertChunk(job, Collections.singletonList(row));
+                        job.imported.incrementAndGet();
+                    } catch (RuntimeException rowFailure) {
+                        writeError(errors, row, "REJECTED", "Insert failed: " + rowFailure.getMessage());
+                        job.rejected.incrementAndGet();
+                    }
+                }
+            }
+        }
+        errors.flush();
+        job.chunksProcessed.incrementAndGet();
+    }
+
+    private void insertChunk(ImportJob job, List<ParsedRow> rows) {
+        List<Long> ids = studentProfileRepository.reserveIds(rows.size());
+        List<StudentProfile> students = new ArrayList<>(rows.size());
+        List<Guardian> guardians = new ArrayList<>();
+        List<Address> addresses = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            CreateStudentRequest request = rows.get(i).request;
+            Long studentId = ids.get(i);
+            students.add(toStudent(studentId, request, job.createdBy));
+            if (request.getGuardians() != null) {
+                for (GuardianDto guardianDto : request.getGuardians()) {
+                    guardians.add(toGuardian(studentId, guardianDto, job.createdBy));
+                }
+            }
+            if (request.getAddresses() != null) {
+                for (AddressDto addressDto : request.getAddresses()) {
+                    addresses.add(toAddress(studentId, addressDto, job.createdBy));
+                }
+            }
+        }
+
+        chunkTransaction.execute(status -> {
+            studentProfileRepository.insertAll(students);
+            guardianRepository.insertAll(guardians);
+            addressRepository.insertAll(addresses);
+            return null;
+        });
+    }
+
+    private ParsedRow parseAndValidate(Long schoolId, String format, Map<String, Integer> csvColumns,
+                                       SourceLine source) {
+        ParsedRow row = new ParsedRow();
+        row.rowNumber = source.rowNumber;
+        try {
+            row.request = ImportFileUtils.FORMAT_CSV.equals(format)
+                    ? toRequest(ImportFileUtils.parseCsvLine(source.line, csvColumns))
+                    : parseJsonLine(source.line);
+        } catch (IllegalArgumentException e) {
+            row.error = e.getMessage();
+            return row;
+        }
+
+        CreateStudentRequest request = row.request;
+        request.setSchoolId(schoolId);
+        if (request.getAdmissionNo() != null) {
+            request.setAdmissionNo(request.getAdmissionNo().trim());
+            if (request.getAdmissionNo().isEmpty()) {
+                request.setAdmissionNo(null);
+            }
+        }
+        if (request.getStatus() == null || request.getStatus().trim().isEmpty()) {
+            request.setStatus(DEFAULT_STATUS);
+        }
+        if (request.getGuardians() != null) {
+            request.getGuardians().removeIf(Objects::isNull);
+        }
+        if (request.getAddresses() != null) {
+            request.getAddresses().removeIf(Objects::isNull);
+        }
+
+        Set<String> messages = new TreeSet<>();
+        collectViolations(validator.validate(request), "", messages);
+        if (request.getGuardians() != null) {
+            for (GuardianDto guardian : request.getGuardians()) {
+                collectViolations(validator.validate(guardian), "Guardian: ", messages);
+            }
+        }
+        if (request.getAddresses() != null) {
+            for (AddressDto address : request.getAddresses()) {
+                collectViolations(validator.validate(address), "Address: ", messages);
+            }
+        }
+        if (!messages.isEmpty()) {
+            row.error = String.join("; ", messages);
+        }
+        return row;
+    }
+
+    private <T> void collectViolations(Collection<ConstraintViolation<T>> violations, String prefix,
+                                       Set<String> messages) {
+        for (ConstraintViolation<T> violation : violations) {
+            messages.add(prefix + violation.getMessage());
+        }
+    }
+
+    private CreateStudentRequest parseJsonLine(String line) {
+        try {
+            CreateStudentRequest request = objectMapper.readValue(line, CreateStudentRequest.class);
+            if (request == null) {
+                throw new IllegalArgumentException("Line is not a JSON object");
+            }
+            return request;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed JSON line");
+        }
+    }
+
+    private CreateStudentRequest toRequest(Map<String, String> values) {
+        CreateStudentRequest request = new CreateStudentRequest();
+        request.setAdmissionNo(text(values, "admissionno"));
+        request.setFirstName(text(values, "firstname"));
+        request.setMiddleName(text(values, "middlename"));
+        request.setLastName(text(values, "lastname"));
+        request.setGender(text(values, "gender"));
+        request.setDateOfBirth(parseDate(values, "dateofbirth"));
+        request.setStatus(text(values, "status"));
+        request.setPhone(text(values, "phone"));
+        request.setEmail(text(values, "email"));
+        request.setBloodGroup(text(values, "bloodgroup"));
+        request.setReligion(text(values, "religion"));
+        request.setCaste(text(values, "caste"));
+        request.setNationality(text(values, "nationality"));
+        request.setMotherTongue(text(values, "mothertongue"));
+        request.setAadharNo(text(values, "aadharno"));
+        request.setAdmissionDate(parseDate(values, "admissiondate"));
+        request.setPhotoUrl(text(values, "photourl"));
+        request.setRemarks(text(values, "remarks"));
+        request.setMedicalConditions(text(values, "medicalconditions"));
+        request.setAllergies(text(values, "allergies"));
+
+        // Up to two guardians as guardianName, guardianPhone, ... and guardian2Name, ...
+        List<GuardianDto> guardians = new ArrayList<>();
+        for (String prefix : GUARDIAN_PREFIXES) {
+            GuardianDto guardian = new GuardianDto();
+            guardian.setRelation(text(values, prefix + "relation"));
+            guardian.setName(text(values, prefix + "name"));
+            guardian.setPhone(text(values, prefix + "phone"));
+            guardian.setEmail(text(values, prefix + "email"));
+            guardian.setOccupation(text(values, prefix + "occupation"));
+            if (guardian.getRelation() != null || guardian.getName() != null || guardian.getPhone() != null) {
+                guardian.setIsPrimary(guardians.isEmpty());
+                guardians.add(guardian);
+            }
+        }
+        request.setGuardians(guardians);
+
+        List<AddressDto> addresses = new ArrayList<>();
+        AddressDto address = new AddressDto();
+        address.setLine1(text(values, "addressline1"));
+        address.setLine2(text(values, "addressline2"));
+        address.setCity(text(values, "city"));
+        address.setState(text(values, "state"));
+        address.setPincode(text(values, "pincode"));
+        address.setCountry(text(values, "country"));
+        address.setLandmark(text(values, "landmark"));
+        if (address.getLine1() != null || address.getCity() != null || address.getPincode() != null) {
+            String addressType = text(values, "addresstype");
+            address.setAddressType(addressType != null ? addressType : DEFAULT_ADDRESS_TYPE);
+            addresses.add(address);
+        }
+        request.setAddresses(addresses);
+        return request;
+    }
+
+    private StudentProfile toStudent(Long studentId, CreateStudentRequest request, String createdBy) {
+        StudentProfile student = new StudentProfile();
+        student.setId(studentId);
+        student.setSchoolId(request.getSchoolId());
+        student.setAdmissionNo(request.getAdmissionNo());
+        student.setFirstName(request.getFirstName());
+        student.setMiddleName(request.getMiddleName());
+        student.setLastName(request.getLastName());
+        student.setGender(request.getGender());
+        student.setDateOfBirth(request.getDateOfBirth());
+        student.setPhone(request.getPhone());
+        student.setEmail(request.getEmail());
+        student.setBloodGroup(request.getBloodGroup());
+        student.setReligion(request.getReligion());
+        student.setCaste(request.getCaste());
+        student.setNationality(request.getNationality());
+        student.setMotherTongue(request.getMotherTongue());
+        student.setAadharNo(request.getAadharNo());
+        student.setStatus(request.getStatus());
+        student.setAdmissionDate(request.getAdmissionDate());
+        student.setPhotoUrl(request.getPhotoUrl());
+        student.setRemarks(request.getRemarks());
+        student.setMedicalConditions(request.getMedicalConditions());
+        student.setAllergies(request.getAllergies());
+        student.setCreatedBy(createdBy);
+        return student;
+    }
+
+    private Guardian toGuardian(Long studentId, GuardianDto guardianDto, String createdBy) {
+        Guardian guardian = new Guardian();
+        guardian.setStudentId(studentId);
+        guardian.setRelation(guardianDto.getRelation());
+        guardian.setName(guardianDto.getName());
+        guardian.setPhone(guardianDto.getPhone());
+        guardian.setAlternatePhone(guardianDto.getAlternatePhone());
+        guardian.setEmail(guardianDto.getEmail());
+        guardian.setOccupation(guardianDto.getOccupation());
+        guardian.setAnnualIncome(guardianDto.getAnnualIncome());
+        guardian.setEducation(guardianDto.getEducation());
+        guardian.setIsPrimary(guardianDto.getIsPrimary() != null ? guardianDto.getIsPrimary() : false);
+        guardian.setAadharNo(guardianDto.getAadharNo());
+        guardian.setPanNo(guardianDto.getPanNo());
+        guardian.setPhotoUrl(guardianDto.getPhotoUrl());
+        guardian.setCreatedBy(createdBy);
+        return guardian;
+    }
+
+    private Address toAddress(Long studentId, AddressDto addressDto, String createdBy) {
+        Address address = new Address();
+        address.setStudentId(studentId);
+        address.setAddressType(addressDto.getAddressType());
+        address.setLine1(addressDto.getLine1());
+        address.setLine2(addressDto.getLine2());
+        address.setCity(addressDto.getCity());
+        address.setState(addressDto.getState());
+        address.setPincode(addressDto.getPincode());
+        address.setCountry(addressDto.getCountry());
+        address.setLandmark(addressDto.getLandmark());
+        address.setCreatedBy(createdBy);
+        return address;
+    }
+
+    private String text(Map<String, String> values, String key) {
+        String value = values.get(key);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private LocalDate parseDate(Map<String, String> values, String key) {
+        String value = text(values, key);
+        try {
+            return value != null ? LocalDate.parse(value) : null;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+
+    private void writeError(BufferedWriter errors, ParsedRow row, String status, String reason) throws IOException {
+        String admissionNo = row.request != null ? row.request.getAdmissionNo() : null;
+        errors.write(row.rowNumber + "," + csvCell(admissionNo) + "," + status + "," + csvCell(reason));
+        errors.newLine();
+    }
+
+    private String csvCell(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private void evictFinishedJobs() {
+        Iterator<ImportJob> iterator = jobs.values().iterator();
+        while (jobs.size() > config.getMaxRetainedJobs() && iterator.hasNext()) {
+            ImportJob job = iterator.next();
+            if (job.completedAt != null) {
+                iterator.remove();
+                try {
+                    Files.deleteIfExists(job.errorFile);
+                } catch (IOException e) {
+                    logger.warn("Unable to delete import error file {}", job.errorFile);
+                }
+            }
+        }
+    }
+
+    private static final class SourceLine {
+        private final int rowNumber;
+        private final String line;
+
+        private SourceLine(int rowNumber, String line) {
+            this.rowNumber = rowNumber;
+            this.line = line;
+        }
+    }
+
+    private static final class ParsedRow {
+        private int rowNumber;
+        private CreateStudentRequest request;
+        private String error;
+    }
+
+    private static final class ImportJob {
+        private String jobId;
+        private Long schoolId;
+        private String format;
+        private String createdBy;
+        private Path uploadFile;
+        private Path errorFile;
+        private final AtomicInteger rowsRead = new AtomicInteger();
+        private final AtomicInteger chunksProcessed = new AtomicInteger();
+        private final AtomicInteger imported = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final AtomicInteger duplicates = new AtomicInteger();
+        private volatile boolean truncated;
+        private volatile String status;
+        private volatile String message;
+        private LocalDateTime submittedAt;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+
+        private void finish(String finalStatus, String finalMessage) {
+            message = finalMessage;
+            completedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        private Long elapsedMs() {
+            if (startedAt == null) {
+                return null;
+            }
+            LocalDateTime end = completedAt != null ? completedAt : LocalDateTime.now();
+            return Duration.between(startedAt, end).toMillis();
+        }
+
+        private StudentImportJobResponse toResponse() {
+            StudentImportJobResponse response = new StudentImportJobResponse();
+            response.setJobId(jobId);
+            response.setSchoolId(schoolId);
+            response.setFormat(format);
+            response.setStatus(status);
+            response.setRowsRead(rowsRead.get());
+            response.setChunksProcessed(chunksProcessed.get());
+            response.setImported(imported.get());
+            response.setRejected(rejected.get());
+            response.setDuplicates(duplicates.get());
+            response.setTruncated(truncated);
+            response.setErrorFileAvailable(completedAt != null && rejected.get() + duplicates.get() > 0);
+            response.setMessage(message);
+            response.setSubmittedAt(submittedAt);
+            response.setStartedAt(startedAt);
+            response.setCompletedAt(completedAt);
+            response.setElapsedMs(elapsedMs());
+            return response;
+        }
+    }
+}
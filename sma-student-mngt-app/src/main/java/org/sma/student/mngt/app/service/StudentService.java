@@ -3,18 +3,25 @@ package org.sma.student.mngt.app.service;
 import org.sma.student.mngt.app.dto.*;
 import org.sma.jpa.model.studentmgmt.*;
 import org.sma.jpa.repository.studentmgmt.*;
-import org.sma.jpa.model.student.StudentClassSectionMapping;
-import org.sma.jpa.repository.student.StudentClassSectionMappingRepository;
+import org.sma.jpa.model.BaseEntity;
+import org.sma.student.mngt.app.service.ChildCollectionMerger.ChildMapping;
+import org.sma.student.mngt.app.service.ChildCollectionMerger.MergePlan;
+import org.sma.platform.core.exception.SmaException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 @Service
 public class StudentService {
@@ -29,7 +36,10 @@ public class StudentService {
     private AddressRepository addressRepository;
 
     @Autowired
-    private StudentClassSectionMappingRepository studentClassSectionMappingRepository;
+    private AdmissionNumberAllocator admissionNumberAllocator;
+
+    @Autowired
+    private StudentDetailsLoader studentDetailsLoader;
 
     @Transactional
     public StudentProfile createStudent(CreateStudentRequest request, String createdBy) {
@@ -37,11 +47,11 @@ public class StudentService {
         if (request.getAdmissionNo() != null) {
             StudentProfileRepository.findBySchoolIdAndAdmissionNo(request.getSchoolId(), request.getAdmissionNo())
                     .ifPresent(s -> {
-                        throw new RuntimeException("Admission number already exists: " + request.getAdmissionNo());
+                        throw new SmaException("Admission number already exists: " + request.getAdmissionNo());
                     });
         } else {
             // Auto-generate admission number
-            request.setAdmissionNo(generateAdmissionNumber(request.getSchoolId()));
+            request.setAdmissionNo(generateAdmissionNumber(request.getSchoolId(), request.getAdmissionDate()));
         }
 
         // Create StudentProfile
@@ -69,7 +79,12 @@ public class StudentService {
         StudentProfile.setAllergies(request.getAllergies());
         StudentProfile.setCreatedBy(createdBy);
 
-        StudentProfile = StudentProfileRepository.save(StudentProfile);
+        try {
+            StudentProfile = StudentProfileRepository.save(StudentProfile);
+        } catch (DataIntegrityViolationException e) {
+            // Same number taken by a concurrent admission between the check above and the insert
+            throw new SmaException("Admission number already exists: " + request.getAdmissionNo());
+        }
 
         // Save guardians
         if (request.getGuardians() != null) {
@@ -115,38 +130,16 @@ public class StudentService {
     }
 
     public StudentDetailsResponse getStudentDetails(Long schoolId, Long studentId) {
-        StudentProfile StudentProfile = StudentProfileRepository.findByIdAndSchoolIdAndIsDeletedFalse(studentId, schoolId)
-                .orElseThrow(() -> new RuntimeException("StudentProfile not found"));
-
-        StudentDetailsResponse response = mapToDetailsResponse(StudentProfile);
-
-        // Load guardians
-        List<Guardian> guardians = guardianRepository.findByStudentIdAndIsDeletedFalse(studentId);
-        response.setGuardians(guardians.stream().map(this::mapToGuardianDto).collect(Collectors.toList()));
-
-        // Load addresses
-        List<Address> addresses = addressRepository.findByStudentIdAndIsDeletedFalse(studentId);
-        response.setAddresses(addresses.stream().map(this:: mapToAddressDto).collect(Collectors.toList()));
-
-        // Load current enrollment from StudentClassSectionMapping
-        List<StudentClassSectionMapping> activeMappings = studentClassSectionMappingRepository.findStudentHistory(studentId)
-                .stream()
-                .filter(mapping -> mapping.getIsActive() != null && mapping.getIsActive())
-                .collect(Collectors.toList());
-        if (!activeMappings.isEmpty()) {
-            response.setCurrentEnrollment(mapMappingToEnrollmentDto(activeMappings.get(0)));
-        }
-
-        // Load enrollment history
-        List<StudentClassSectionMapping> allMappings = studentClassSectionMappingRepository.findStudentHistory(studentId);
-        response.setEnrollmentHistory(allMappings.stream().map(this::mapMappingToEnrollmentDto).collect(Collectors.toList()));
-
-        return response;
+        return studentDetailsLoader.load(schoolId, studentId);
     }
 
     public Page<StudentProfile> searchStudents(Long schoolId, String searchTerm, String status, Pageable pageable) {
-        if (searchTerm != null && !searchTerm.isEmpty()) {
-            return StudentProfileRepository.searchStudents(schoolId, searchTerm, pageable);
+        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+            String term = searchTerm.trim().toLowerCase(Locale.ROOT);
+            String likeTerm = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            // Results are ordered by relevance, so only paging is taken from the request
+            return StudentProfileRepository.searchStudents(schoolId, term, likeTerm, status,
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
         } else if (status != null) {
             return StudentProfileRepository.findBySchoolIdAndStatusAndIsDeletedFalse(schoolId, status, pageable);
         } else {
@@ -161,6 +154,7 @@ public class StudentService {
 
         StudentProfile.setStatus(status);
         StudentProfile.setUpdatedBy(updatedBy);
+        studentDetailsLoader.evict(studentId);
         return StudentProfileRepository.save(StudentProfile);
     }
 
@@ -199,131 +193,53 @@ public class StudentService {
         StudentProfile.setUpdatedBy(updatedBy);
 
         StudentProfile = StudentProfileRepository.save(StudentProfile);
+        studentDetailsLoader.evict(studentId);
 
-        // Replace guardians: remove existing and add provided
-        List<Guardian> existingGuardians = guardianRepository.findByStudentIdAndIsDeletedFalse(studentId);
-        if (existingGuardians != null) {
-            for (Guardian g : existingGuardians) {
-                guardianRepository.delete(g);
-            }
-        }
-
-        if (request.getGuardians() != null) {
-            for (GuardianDto guardianDto : request.getGuardians()) {
-                Guardian guardian = new Guardian();
-                guardian.setStudentId(StudentProfile.getId());
-                guardian.setRelation(guardianDto.getRelation());
-                guardian.setName(guardianDto.getName());
-                guardian.setPhone(guardianDto.getPhone());
-                guardian.setAlternatePhone(guardianDto.getAlternatePhone());
-                guardian.setEmail(guardianDto.getEmail());
-                guardian.setOccupation(guardianDto.getOccupation());
-                guardian.setAnnualIncome(guardianDto.getAnnualIncome());
-                guardian.setEducation(guardianDto.getEducation());
-                guardian.setIsPrimary(guardianDto.getIsPrimary() != null ? guardianDto.getIsPrimary() : false);
-                guardian.setAadharNo(guardianDto.getAadharNo());
-                guardian.setPanNo(guardianDto.getPanNo());
-                guardian.setPhotoUrl(guardianDto.getPhotoUrl());
-                guardian.setCreatedBy(updatedBy);
-                guardianRepository.save(guardian);
-            }
-        }
+        // Merge guardians and addresses: only changed, new and removed rows are written
+        MergePlan<Guardian> guardianPlan = ChildCollectionMerger.merge(
+                guardianRepository.findByStudentIdAndIsDeletedFalse(studentId), request.getGuardians(),
+                new GuardianMapping(studentId, updatedBy));
+        applyMergePlan(guardianPlan, guardianRepository, guardianRepository::insertAll, updatedBy);
 
-        // Replace addresses
-        List<Address> existingAddresses = addressRepository.findByStudentIdAndIsDeletedFalse(studentId);
-        if (existingAddresses != null) {
-            for (Address a : existingAddresses) {
-                addressRepository.delete(a);
-            }
-        }
-
-        if (request.getAddresses() != null) {
-            for (AddressDto addressDto : request.getAddresses()) {
-                Address address = new Address();
-                address.setStudentId(StudentProfile.getId());
-                address.setAddressType(addressDto.getAddressType());
-                address.setLine1(addressDto.getLine1());
-                address.setLine2(addressDto.getLine2());
-                address.setCity(addressDto.getCity());
-                address.setState(addressDto.getState());
-                address.setPincode(addressDto.getPincode());
-                address.setCountry(addressDto.getCountry());
-                address.setLandmark(addressDto.getLandmark());
-                address.setCreatedBy(updatedBy);
-                addressRepository.save(address);
-            }
-        }
+        MergePlan<Address> addressPlan = ChildCollectionMerger.merge(
+                addressRepository.findByStudentIdAndIsDeletedFalse(studentId), request.getAddresses(),
+                new AddressMapping(studentId, updatedBy));
+        applyMergePlan(addressPlan, addressRepository, addressRepository::insertAll, updatedBy);
 
         return StudentProfile;
     }
 
-    private String generateAdmissionNumber(Long schoolId) {
-        // Simple implementation - can be enhanced with custom logic
-        long count = StudentProfileRepository.count();
-        return "ADM" + LocalDate.now().getYear() + String.format("%06d", count + 1);
-    }
-
-    private StudentDetailsResponse mapToDetailsResponse(StudentProfile StudentProfile) {
-        StudentDetailsResponse response = new StudentDetailsResponse();
-        response.setId(StudentProfile.getId());
-        response.setSchoolId(StudentProfile.getSchoolId());
-        response.setStatus(StudentProfile.getStatus());
-        response.setAdmissionNo(StudentProfile.getAdmissionNo());
-        response.setFirstName(StudentProfile.getFirstName());
-        response.setMiddleName(StudentProfile.getMiddleName());
-        response.setLastName(StudentProfile.getLastName());
-        response.setFullName(StudentProfile.getFirstName() + " " + 
-                (StudentProfile.getMiddleName() != null ? StudentProfile.getMiddleName() + " " : "") + 
-                StudentProfile.getLastName());
-        response.setGender(StudentProfile.getGender());
-        response.setDateOfBirth(StudentProfile.getDateOfBirth());
-        response.setPhone(StudentProfile.getPhone());
-        response.setEmail(StudentProfile.getEmail());
-        response.setBloodGroup(StudentProfile.getBloodGroup());
-        response.setReligion(StudentProfile.getReligion());
-        response.setCaste(StudentProfile.getCaste());
-        response.setNationality(StudentProfile.getNationality());
-        response.setMotherTongue(StudentProfile.getMotherTongue());
-        response.setAadharNo(StudentProfile.getAadharNo());
-        response.setStatus(StudentProfile.getStatus());
-        response.setAdmissionDate(StudentProfile.getAdmissionDate());
-        response.setPhotoUrl(StudentProfile.getPhotoUrl());
-        response.setRemarks(StudentProfile.getRemarks());
-        response.setMedicalConditions(StudentProfile.getMedicalConditions());
-        response.setAllergies(StudentProfile.getAllergies());
-        return response;
+    private String generateAdmissionNumber(Long schoolId, LocalDate admissionDate) {
+        int admissionYear = (admissionDate != null ? admissionDate : LocalDate.now()).getYear();
+        // Skip numbers already entered by hand, as the import does
+        String admissionNo;
+        do {
+            admissionNo = admissionNumberAllocator.nextAdmissionNumber(schoolId, admissionYear);
+        } while (StudentProfileRepository.existsBySchoolIdAndAdmissionNo(schoolId, admissionNo));
+        return admissionNo;
     }
 
-    private GuardianDto mapToGuardianDto(Guardian guardian) {
-        GuardianDto dto = new GuardianDto();
-        dto.setId(guardian.getId());
-        dto.setRelation(guardian.getRelation());
-        dto.setName(guardian.getName());
-        dto.setPhone(guardian.getPhone());
-        dto.setAlternatePhone(guardian.getAlternatePhone());
-        dto.setEmail(guardian.getEmail());
-        dto.setOccupation(guardian.getOccupation());
-        dto.setAnnualIncome(guardian.getAnnualIncome());
-        dto.setEducation(guardian.getEducation());
-        dto.setIsPrimary(guardian.getIsPrimary());
-        dto.setAadharNo(guardian.getAadharNo());
-        dto.setPanNo(guardian.getPanNo());
-        dto.setPhotoUrl(guardian.getPhotoUrl());
-        return dto;
-    }
-
-    private AddressDto mapToAddressDto(Address address) {
-        AddressDto dto = new AddressDto();
-        dto.setId(address.getId());
-        dto.setAddressType(address.getAddressType());
-        dto.setLine1(address.getLine1());
-        dto.setLine2(address.getLine2());
-        dto.setCity(address.getCity());
-        dto.setState(address.getState());
-        dto.setPincode(address.getPincode());
-        dto.setCountry(address.getCountry());
-        dto.setLandmark(address.getLandmark());
-        return dto;
+    /**
+     * Write a child merge plan: new rows as one JDBC batch, changed and removed rows
+     * (soft-deleted) through one saveAll; an empty plan writes nothing
+     */
+    private <E extends BaseEntity> void applyMergePlan(MergePlan<E> plan, JpaRepository<E, Long> repository,
+                                                       Consumer<List<E>> batchInsert, String updatedBy) {
+        if (plan.isEmpty()) {
+            return;
+        }
+        List<E> changed = new ArrayList<>(plan.getUpdates());
+        for (E removed : plan.getRemovals()) {
+            removed.setIsDeleted(true);
+            removed.setUpdatedBy(updatedBy);
+            changed.add(removed);
+        }
+        if (!changed.isEmpty()) {
+            repository.saveAll(changed);
+        }
+        if (!plan.getInserts().isEmpty()) {
+            batchInsert.accept(plan.getInserts());
+        }
     }
 
     private EnrollmentDto mapToEnrollmentDto(Enrollment enrollment) {
@@ -343,22 +259,155 @@ public class StudentService {
         return dto;
     }
 
-    private EnrollmentDto mapMappingToEnrollmentDto(StudentClassSectionMapping mapping) {
-        EnrollmentDto dto = new EnrollmentDto();
-        dto.setId(mapping.getId());
-        dto.setStudentId(mapping.getStudent() != null ? mapping.getStudent().getId() : null);
-        dto.setSchoolId(mapping.getSchool() != null ? mapping.getSchool().getId() : null);
-        dto.setAcademicYearId(mapping.getAcademicYear() != null ? mapping.getAcademicYear().getId() : null);
-        dto.setClassId(mapping.getClassMaster() != null ? mapping.getClassMaster().getId() : null);
-        dto.setSectionId(mapping.getSection() != null ? mapping.getSection().getId() : null);
-        dto.setRollNo(mapping.getRollNumber());
-        dto.setStartDate(mapping.getEnrollmentDate());
-        dto.setEndDate(null); // Not tracked in mapping
-        dto.setStatus(mapping.getIsActive() != null && mapping.getIsActive() ? "ACTIVE" : "INACTIVE");
-        dto.setEndReason(null); // Not tracked in mapping
-        dto.setRemarks(mapping.getRemarks());
-        return dto;
+    private static String trimToEmpty(String value) {
+        return value != null ? value.trim() : "";
     }
-}
 
+    /**
+     * Guardians match by id, then by relation and name
+     */
+    private static final class GuardianMapping implements ChildMapping<Guardian, GuardianDto> {
+        private final Long studentId;
+        private final String updatedBy;
+
+        private GuardianMapping(Long studentId, String updatedBy) {
+            this.studentId = studentId;
+            this.updatedBy = updatedBy;
+        }
+
+        @Override
+        public Long entityId(Guardian guardian) {
+            return guardian.getId();
+        }
+
+        @Override
+        public Long dtoId(GuardianDto dto) {
+            return dto.getId();
+        }
+
+        @Override
+        public String entityKey(Guardian guardian) {
+            return key(guardian.getRelation(), guardian.getName());
+        }
+
+        @Override
+        public String dtoKey(GuardianDto dto) {
+            return key(dto.getRelation(), dto.getName());
+        }
+
+        private String key(String relation, String name) {
+            return trimToEmpty(relation).toUpperCase(Locale.ROOT) + "|" + trimToEmpty(name).toLowerCase(Locale.ROOT);
+        }
 
+        @Override
+        public boolean sameContent(Guardian guardian, GuardianDto dto) {
+            return Objects.equals(guardian.getRelation(), dto.getRelation())
+                    && Objects.equals(guardian.getName(), dto.getName())
+                    && Objects.equals(guardian.getPhone(), dto.getPhone())
+                    && Objects.equals(guardian.getAlternatePhone(), dto.getAlternatePhone())
+                    && Objects.equals(guardian.getEmail(), dto.getEmail())
+                    && Objects.equals(guardian.getOccupation(), dto.getOccupation())
+                    && Objects.equals(guardian.getAnnualIncome(), dto.getAnnualIncome())
+                    && Objects.equals(guardian.getEducation(), dto.getEducation())
+                    && Objects.equals(guardian.getIsPrimary(), dto.getIsPrimary() != null ? dto.getIsPrimary() : false)
+                    && Objects.equals(guardian.getAadharNo(), dto.getAadharNo())
+                    && Objects.equals(guardian.getPanNo(), dto.getPanNo())
+                    && Objects.equals(guardian.getPhotoUrl(), dto.getPhotoUrl());
+        }
+
+        @Override
+        public void apply(Guardian guardian, GuardianDto dto) {
+            guardian.setRelation(dto.getRelation());
+            guardian.setName(dto.getName());
+            guardian.setPhone(dto.getPhone());
+            guardian.setAlternatePhone(dto.getAlternatePhone());
+            guardian.setEmail(dto.getEmail());
+            guardian.setOccupation(dto.getOccupation());
+            guardian.setAnnualIncome(dto.getAnnualIncome());
+            guardian.setEducation(dto.getEducation());
+            guardian.setIsPrimary(dto.getIsPrimary() != null ? dto.getIsPrimary() : false);
+            guardian.setAadharNo(dto.getAadharNo());
+            guardian.setPanNo(dto.getPanNo());
+            guardian.setPhotoUrl(dto.getPhotoUrl());
+            guardian.setUpdatedBy(updatedBy);
+        }
+
+        @Override
+        public Guardian create(GuardianDto dto) {
+            Guardian guardian = new Guardian();
+            guardian.setStudentId(studentId);
+            apply(guardian, dto);
+            guardian.setUpdatedBy(null);
+            guardian.setCreatedBy(updatedBy);
+            return guardian;
+        }
+    }
+
+    /**
+     * Addresses match by id, then by address type
+     */
+    private static final class AddressMapping implements ChildMapping<Address, AddressDto> {
+        private final Long studentId;
+        private final String updatedBy;
+
+        private AddressMapping(Long studentId, String updatedBy) {
+            this.studentId = studentId;
+            this.updatedBy = updatedBy;
+        }
+
+        @Override
+        public Long entityId(Address address) {
+            return address.getId();
+        }
+
+        @Override
+        public Long dtoId(AddressDto dto) {
+            return dto.getId();
+        }
+
+        @Override
+        public String entityKey(Address address) {
+            return trimToEmpty(address.getAddressType()).toUpperCase(Locale.ROOT);
+        }
+
+        @Override
+        public String dtoKey(AddressDto dto) {
+            return trimToEmpty(dto.getAddressType()).toUpperCase(Locale.ROOT);
+        }
+
+        @Override
+        public boolean sameContent(Address address, AddressDto dto) {
+            return Objects.equals(address.getAddressType(), dto.getAddressType())
+                    && Objects.equals(address.getLine1(), dto.getLine1())
+                    && Objects.equals(address.getLine2(), dto.getLine2())
+                    && Objects.equals(address.getCity(), dto.getCity())
+                    && Objects.equals(address.getState(), dto.getState())
+                    && Objects.equals(address.getPincode(), dto.getPincode())
+                    && Objects.equals(address.getCountry(), dto.getCountry())
+                    && Objects.equals(address.getLandmark(), dto.getLandmark());
+        }
+
+        @Override
+        public void apply(Address address, AddressDto dto) {
+            address.setAddressType(dto.getAddressType());
+            address.setLine1(dto.getLine1());
+            address.setLine2(dto.getLine2());
+            address.setCity(dto.getCity());
+            address.setState(dto.getState());
+            address.setPincode(dto.getPincode());
+            address.setCountry(dto.getCountry());
+            address.setLandmark(dto.getLandmark());
+            address.setUpdatedBy(updatedBy);
+        }
+
+        @Override
+        public Address create(AddressDto dto) {
+            Address address = new Address();
+            address.setStudentId(studentId);
+            apply(address, dto);
+            address.setUpdatedBy(null);
+            address.setCreatedBy(updatedBy);
+            return address;
+        }
+    }
+}